@@ -0,0 +1,148 @@
+/**
+ * Creation Date: Oct 18, 2026
+ */
+
+package com.sandy.apps.pluto.bench;
+import java.io.ByteArrayOutputStream ;
+import java.io.File ;
+import java.io.FileInputStream ;
+import java.io.IOException ;
+import java.io.InputStream ;
+import java.net.URL ;
+import java.util.ArrayList ;
+import java.util.Date ;
+import java.util.List ;
+
+import com.sandy.apps.pluto.biz.svc.impl.BhavcopyParser ;
+import com.sandy.apps.pluto.shared.dto.ScripEOD ;
+import com.sandy.apps.pluto.shared.dto.ScripITD ;
+import com.sandy.apps.pluto.shared.util.util.ConfigManager ;
+
+/**
+ * The inputs shared by the benchmarks. The inputs are recorded data - a
+ * bhavcopy in the HISTORIC_EOD directory and the pages and the configuration
+ * in the benchmark resources - such that every run of a benchmark, on any
+ * commit, measures the same work.
+ *
+ * @author Sandeep Deb [deb.sandeep@gmail.com]
+ */
+public final class BenchmarkFixtures {
+
+    /**
+     * The system property specifying the directory of the recorded
+     * bhavcopies, as for the {@link BhavcopyParserBenchmark}. Defaults to
+     * HISTORIC_EOD, relative to the working directory.
+     */
+    public static final String BHAVCOPY_DIR_PROPERTY = "bhavcopy.dir" ;
+
+    /** The day of the recorded bhavcopy and the watch pages. */
+    public static final String RECORDED_DAY = "11-Sep-2008" ;
+
+    /** The class path location of the benchmark resources. */
+    private static final String RESOURCE_PATH = "/com/sandy/stocktracker/bench/" ;
+
+    /** True once the configuration has been loaded. */
+    private static boolean configLoaded = false ;
+
+    /** Static utility class. */
+    private BenchmarkFixtures() {
+        super() ;
+    }
+
+    /**
+     * Loads the benchmark configuration, which pins the configuration values
+     * influencing the benchmarked code, into the configuration manager.
+     */
+    public static synchronized void loadConfig() {
+        if( !configLoaded ) {
+            final URL cfgURL = BenchmarkFixtures.class.getResource(
+                                            RESOURCE_PATH + "config.properties" ) ;
+            final ConfigManager cfgMgr = ConfigManager.getInstance() ;
+            cfgMgr.clear() ;
+            cfgMgr.initialize( cfgURL ) ;
+            configLoaded = true ;
+        }
+    }
+
+    /**
+     * Parses the EOD records of the recorded bhavcopy of the day specified.
+     *
+     * @param day The day of the bhavcopy, in the dd-MMM-yyyy format.
+     *
+     * @throws IOException If the bhavcopy of the day is not found.
+     */
+    public static List<ScripEOD> parseBhavcopy( final String day )
+        throws IOException {
+
+        final File dir = new File( System.getProperty( BHAVCOPY_DIR_PROPERTY, "HISTORIC_EOD" ) ) ;
+        final File file = new File( dir, "BHAVCOPY_" + day + ".csv" ) ;
+        if( !file.exists() ) {
+            throw new IOException( "Bhavcopy " + file.getAbsolutePath() + " not found. " +
+                                   "Set -D" + BHAVCOPY_DIR_PROPERTY ) ;
+        }
+
+        final InputStream in = new FileInputStream( file ) ;
+        try {
+            return new BhavcopyParser( in ).parseAll() ;
+        }
+        finally {
+            in.close() ;
+        }
+    }
+
+    /**
+     * Returns the EOD records of the bhavcopy contents as the ITD values of
+     * the time specified, as the ITD import would fetch them.
+     */
+    public static List<ScripITD> toScripITD( final List<ScripEOD> eodList,
+                                             final Date time ) {
+
+        final List<ScripITD> itdList = new ArrayList<ScripITD>( eodList.size() ) ;
+        for( final ScripEOD eod : eodList ) {
+            final ScripITD itd = new ScripITD() ;
+            itd.setSymbolId( eod.getSymbolId() ) ;
+            itd.setTime( time ) ;
+            itd.setOpeningPrice( eod.getOpeningPrice() ) ;
+            itd.setHigh( eod.getHighestPrice() ) ;
+            itd.setLow( eod.getLowestPrice() ) ;
+            itd.setPrice( eod.getClosingPrice() ) ;
+            itd.setPrevClose( eod.getPrevClosePrice() ) ;
+            itd.setChange( eod.getClosingPrice() - eod.getPrevClosePrice() ) ;
+            itd.setPctChange( itd.getChange() * 100 / eod.getPrevClosePrice() ) ;
+            itd.setTotalTradeQty( eod.getTotalTradeQty() ) ;
+            itdList.add( itd ) ;
+        }
+        return itdList ;
+    }
+
+    /**
+     * Returns the contents of a benchmark resource as a string.
+     *
+     * @param name The name of the resource, relative to the benchmark
+     *        resource path.
+     */
+    public static String readResource( final String name ) throws IOException {
+
+        final InputStream in = BenchmarkFixtures.class.getResourceAsStream( RESOURCE_PATH + name ) ;
+        if( in == null ) {
+            throw new IOException( "Benchmark resource " + name + " not found" ) ;
+        }
+        try {
+            return new String( readFully( in ), "ISO-8859-1" ) ;
+        }
+        finally {
+            in.close() ;
+        }
+    }
+
+    /** Reads the stream till its end. */
+    private static byte[] readFully( final InputStream in ) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream() ;
+        final byte[] buffer = new byte[8192] ;
+        int numRead = 0 ;
+        while( ( numRead = in.read( buffer ) ) != -1 ) {
+            out.write( buffer, 0, numRead ) ;
+        }
+        return out.toByteArray() ;
+    }
+}
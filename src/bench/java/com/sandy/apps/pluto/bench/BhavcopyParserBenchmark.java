@@ -0,0 +1,137 @@
+/**
+ * Creation Date: Oct 18, 2026
+ */
+
+package com.sandy.apps.pluto.bench;
+import java.io.BufferedReader ;
+import java.io.ByteArrayInputStream ;
+import java.io.File ;
+import java.io.FilenameFilter ;
+import java.io.IOException ;
+import java.io.InputStreamReader ;
+import java.text.ParseException ;
+import java.text.SimpleDateFormat ;
+import java.util.ArrayList ;
+import java.util.List ;
+import java.util.StringTokenizer ;
+import java.util.concurrent.TimeUnit ;
+
+import org.apache.log4j.Logger ;
+import org.openjdk.jmh.annotations.Benchmark ;
+import org.openjdk.jmh.annotations.BenchmarkMode ;
+import org.openjdk.jmh.annotations.Fork ;
+import org.openjdk.jmh.annotations.Level ;
+import org.openjdk.jmh.annotations.Measurement ;
+import org.openjdk.jmh.annotations.Mode ;
+import org.openjdk.jmh.annotations.OutputTimeUnit ;
+import org.openjdk.jmh.annotations.Scope ;
+import org.openjdk.jmh.annotations.Setup ;
+import org.openjdk.jmh.annotations.State ;
+import org.openjdk.jmh.annotations.Warmup ;
+import org.openjdk.jmh.infra.Blackhole ;
+
+import com.sandy.apps.pluto.biz.svc.impl.BhavcopyParser ;
+import com.sandy.apps.pluto.shared.dto.ScripEOD ;
+import com.sandy.common.util.FileUtils ;
+
+/**
+ * JMH benchmark comparing the streaming {@link BhavcopyParser} against the
+ * earlier StringTokenizer based bhavcopy parsing, over the bhavcopy files in
+ * the HISTORIC_EOD directory. The files are read into memory once, such that
+ * only the parsing is measured. The directory can be overridden with the
+ * 'bhavcopy.dir' system property.
+ * <p>
+ * Each benchmark invocation parses all the files and the scores are
+ * reported per invocation. Divide by the number of rows logged at setup
+ * for per row figures. Run with the gc profiler (-prof gc) to get the
+ * allocation per invocation (gc.alloc.rate.norm).
+ *
+ * @author Sandeep Deb [deb.sandeep@gmail.com]
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.Throughput )
+@OutputTimeUnit( TimeUnit.SECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class BhavcopyParserBenchmark {
+
+    /** Log4J logger for this class. */
+    public static final Logger logger = Logger.getLogger( BhavcopyParserBenchmark.class ) ;
+
+    /** The raw bytes of the bhavcopy files. */
+    private final List<byte[]> bhavcopies = new ArrayList<byte[]>() ;
+
+    /** The date format used by the tokenizer based parsing. */
+    private final SimpleDateFormat nseCsvDF = new SimpleDateFormat( "dd-MMM-yyyy" ) ;
+
+    @Setup( Level.Trial )
+    public void loadBhavcopies() throws IOException {
+
+        final File dir = new File( System.getProperty( "bhavcopy.dir", "HISTORIC_EOD" ) ) ;
+        final File[] files = dir.listFiles( new FilenameFilter() {
+            public boolean accept( final File dir, final String name ) {
+                return name.startsWith( "BHAVCOPY_" ) && name.endsWith( ".csv" ) ;
+            }
+        } ) ;
+
+        if( files == null || files.length == 0 ) {
+            throw new IllegalStateException( "No bhavcopy files found in " + dir.getAbsolutePath() ) ;
+        }
+
+        int numRows = 0 ;
+        for( final File file : files ) {
+            final byte[] data = FileUtils.readFileToString( file ).getBytes( "ISO-8859-1" ) ;
+            this.bhavcopies.add( data ) ;
+            numRows += new BhavcopyParser( new ByteArrayInputStream( data ) ).parseAll().size() ;
+        }
+        logger.info( "Benchmarking " + files.length + " bhavcopies, " + numRows + " rows" ) ;
+    }
+
+    @Benchmark
+    public void streamingParser( final Blackhole bh ) throws IOException {
+
+        for( final byte[] data : this.bhavcopies ) {
+            final BhavcopyParser parser = new BhavcopyParser( new ByteArrayInputStream( data ) ) ;
+            ScripEOD eod = null ;
+            while( ( eod = parser.next() ) != null ) {
+                bh.consume( eod ) ;
+            }
+        }
+    }
+
+    @Benchmark
+    public void tokenizerParser( final Blackhole bh ) throws IOException {
+
+        for( final byte[] data : this.bhavcopies ) {
+            final BufferedReader reader = new BufferedReader(
+                        new InputStreamReader( new ByteArrayInputStream( data ), "ISO-8859-1" ) ) ;
+            String line = reader.readLine() ;
+            if( line == null || !line.startsWith( BhavcopyParser.HEADER_PREFIX ) ) {
+                continue ;
+            }
+
+            while( ( line = reader.readLine() ) != null ) {
+                try {
+                    final StringTokenizer tokenizer = new StringTokenizer( line, "," ) ;
+                    final ScripEOD eod = new ScripEOD() ;
+                    eod.setSymbolId( tokenizer.nextToken() ) ;
+                    tokenizer.nextToken() ;
+                    eod.setOpeningPrice( Double.parseDouble( tokenizer.nextToken() ) ) ;
+                    eod.setHighestPrice( Double.parseDouble( tokenizer.nextToken() ) ) ;
+                    eod.setLowestPrice( Double.parseDouble( tokenizer.nextToken() ) ) ;
+                    eod.setClosingPrice( Double.parseDouble( tokenizer.nextToken() ) ) ;
+                    tokenizer.nextToken() ;
+                    eod.setPrevClosePrice( Double.parseDouble( tokenizer.nextToken() ) ) ;
+                    eod.setTotalTradeQty( Long.parseLong( tokenizer.nextToken() ) ) ;
+                    tokenizer.nextToken() ;
+                    eod.setDate( this.nseCsvDF.parse( tokenizer.nextToken() ) ) ;
+                    bh.consume( eod ) ;
+                }
+                catch( final ParseException e ) {
+                    bh.consume( e ) ;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,169 @@
+/**
+ * Creation Date: Oct 18, 2026
+ */
+
+package com.sandy.apps.pluto.bench;
+import java.awt.Color ;
+import java.awt.Graphics2D ;
+import java.awt.RenderingHints ;
+import java.awt.image.BufferedImage ;
+import java.util.Date ;
+import java.util.Random ;
+import java.util.concurrent.TimeUnit ;
+
+import org.apache.log4j.Logger ;
+import org.openjdk.jmh.annotations.Benchmark ;
+import org.openjdk.jmh.annotations.BenchmarkMode ;
+import org.openjdk.jmh.annotations.Fork ;
+import org.openjdk.jmh.annotations.Level ;
+import org.openjdk.jmh.annotations.Measurement ;
+import org.openjdk.jmh.annotations.Mode ;
+import org.openjdk.jmh.annotations.OutputTimeUnit ;
+import org.openjdk.jmh.annotations.Param ;
+import org.openjdk.jmh.annotations.Scope ;
+import org.openjdk.jmh.annotations.Setup ;
+import org.openjdk.jmh.annotations.State ;
+import org.openjdk.jmh.annotations.TearDown ;
+import org.openjdk.jmh.annotations.Warmup ;
+
+import com.sandy.apps.pluto.shared.ITDTickSeries ;
+import com.sandy.apps.pluto.shared.STUtils ;
+import com.sandy.apps.pluto.ui.dialogmgr.panel.charting.ChartCanvas ;
+import com.sandy.apps.pluto.ui.dialogmgr.panel.charting.ITDSeriesDecimator ;
+import com.sandy.apps.pluto.ui.dialogmgr.panel.charting.ITDSeriesDecimator.DecimatedSeries ;
+
+/**
+ * JMH benchmark of the cost of painting the price curve of a day holding a
+ * synthetic series of 'numTicks' ticks, on a canvas 'width' pixels wide which
+ * charts 'numDays' days. The painting is done into an off screen image with
+ * anti aliasing on, as the chart canvas paints.
+ * <p>
+ * The full benchmark draws a line for every tick, as the canvas painted
+ * before the ticks were decimated. The cached benchmark is the cost of a
+ * repaint, for example one driven by the cross hair, and the uncached
+ * benchmark is the cost of the first paint after the ticks have changed.
+ *
+ * @author Sandeep Deb [deb.sandeep@gmail.com]
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( value = 1, jvmArgs = { "-Xmx2g", "-Djava.awt.headless=true" } )
+public class ChartDecimationBenchmark {
+
+    /** Log4J logger for this class. */
+    public static final Logger logger = Logger.getLogger( ChartDecimationBenchmark.class ) ;
+
+    @Param( { "100000" } )
+    private int numTicks ;
+
+    @Param( { "800" } )
+    private int width ;
+
+    @Param( { "1", "10" } )
+    private int numDays ;
+
+    private final int height = 400 ;
+
+    private ITDTickSeries series = null ;
+    private ITDSeriesDecimator decimator = null ;
+
+    private BufferedImage image = null ;
+    private Graphics2D g = null ;
+
+    private double valPerXPixel = 0 ;
+    private float minPrice = 0 ;
+    private double valPerYPixel = 0 ;
+
+    @Setup( Level.Trial )
+    public void setUp() {
+
+        final long dayStart = STUtils.getStartOfDay( new Date() ).getTime() ;
+        final long interval = ChartCanvas.DAY_NUM_MILLIS / this.numTicks ;
+        final Random random = new Random( 0 ) ;
+
+        this.series = new ITDTickSeries( dayStart ) ;
+        float price = 1000 ;
+        float maxPrice = price ;
+        this.minPrice = price ;
+        long qty = 0 ;
+        for( int i=0; i<this.numTicks; i++ ) {
+            price += ( random.nextFloat() - 0.5F ) ;
+            qty += random.nextInt( 500 ) ;
+            this.minPrice = Math.min( this.minPrice, price ) ;
+            maxPrice = Math.max( maxPrice, price ) ;
+            this.series.add( dayStart + ChartCanvas.DAY_START_MILLIS + i*interval,
+                             price, ( i % 7 == 0 ) ? ITDTickSeries.NO_VOLUME : qty ) ;
+        }
+
+        final double xPixelsPerDay = ( double )this.width / this.numDays ;
+        this.valPerXPixel = ChartCanvas.DAY_NUM_MILLIS / xPixelsPerDay ;
+        this.valPerYPixel = ( maxPrice - this.minPrice ) / this.height ;
+
+        this.decimator = new ITDSeriesDecimator() ;
+        final DecimatedSeries decimated = this.decimator.getDecimatedSeries(
+                                              this.series, this.valPerXPixel ) ;
+        logger.info( this.series.size() + " ticks decimated to " +
+                     decimated.getNumPoints() + " points and " +
+                     decimated.getNumBars() + " volume bars" ) ;
+
+        this.image = new BufferedImage( this.width, this.height, BufferedImage.TYPE_INT_RGB ) ;
+        this.g = this.image.createGraphics() ;
+        this.g.setRenderingHint( RenderingHints.KEY_ANTIALIASING,
+                                 RenderingHints.VALUE_ANTIALIAS_ON ) ;
+        this.g.setColor( Color.ORANGE ) ;
+    }
+
+    @TearDown( Level.Trial )
+    public void tearDown() {
+        this.g.dispose() ;
+    }
+
+    private int getYPixel( final float price ) {
+        return this.height - ( int )( ( price - this.minPrice ) / this.valPerYPixel ) ;
+    }
+
+    @Benchmark
+    public int paintFull() {
+        int lastX = 0 ;
+        int lastY = getYPixel( this.series.getPrice( 0 ) ) ;
+        final long dayStart = this.series.getDayStart() + ChartCanvas.DAY_START_MILLIS ;
+        synchronized( this.series ) {
+            for( int i=0; i<this.series.size(); i++ ) {
+                final int x = ( int )( ( this.series.getTime( i ) - dayStart ) / this.valPerXPixel ) ;
+                final int y = getYPixel( this.series.getPrice( i ) ) ;
+                this.g.drawLine( lastX, lastY, x, y ) ;
+                lastX = x ;
+                lastY = y ;
+            }
+        }
+        return lastY ;
+    }
+
+    @Benchmark
+    public int paintDecimatedCached() {
+        return paint( this.decimator.getDecimatedSeries( this.series, this.valPerXPixel ) ) ;
+    }
+
+    @Benchmark
+    public int paintDecimatedUncached() {
+        synchronized( this.series ) {
+            return paint( ITDSeriesDecimator.decimate( this.series, this.valPerXPixel ) ) ;
+        }
+    }
+
+    private int paint( final DecimatedSeries points ) {
+        int lastX = 0 ;
+        int lastY = getYPixel( this.series.getPrice( 0 ) ) ;
+        for( int i=0; i<points.getNumPoints(); i++ ) {
+            final int x = points.getPointX( i ) ;
+            final int y = getYPixel( points.getPointPrice( i ) ) ;
+            this.g.drawLine( lastX, lastY, x, y ) ;
+            lastX = x ;
+            lastY = y ;
+        }
+        return lastY ;
+    }
+}
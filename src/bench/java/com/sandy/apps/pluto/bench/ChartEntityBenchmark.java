@@ -0,0 +1,142 @@
+/**
+ * Creation Date: Oct 18, 2026
+ */
+
+package com.sandy.apps.pluto.bench;
+import java.text.ParseException ;
+import java.text.SimpleDateFormat ;
+import java.util.ArrayList ;
+import java.util.Date ;
+import java.util.List ;
+import java.util.Map ;
+import java.util.Random ;
+import java.util.concurrent.TimeUnit ;
+
+import org.apache.log4j.Logger ;
+import org.openjdk.jmh.annotations.Benchmark ;
+import org.openjdk.jmh.annotations.BenchmarkMode ;
+import org.openjdk.jmh.annotations.Fork ;
+import org.openjdk.jmh.annotations.Level ;
+import org.openjdk.jmh.annotations.Measurement ;
+import org.openjdk.jmh.annotations.Mode ;
+import org.openjdk.jmh.annotations.OutputTimeUnit ;
+import org.openjdk.jmh.annotations.Scope ;
+import org.openjdk.jmh.annotations.Setup ;
+import org.openjdk.jmh.annotations.State ;
+import org.openjdk.jmh.annotations.Warmup ;
+
+import com.sandy.apps.pluto.shared.ITDTickStore ;
+import com.sandy.apps.pluto.shared.dto.ScripITD ;
+import com.sandy.apps.pluto.ui.dialogmgr.panel.charting.model.ChartEntity ;
+import com.sandy.apps.pluto.ui.dialogmgr.panel.charting.model.ChartEntityConfig ;
+import com.sandy.apps.pluto.ui.dialogmgr.panel.charting.model.EODValue ;
+import com.sandy.apps.pluto.ui.dialogmgr.panel.charting.model.ChartEntity.EntityType ;
+
+/**
+ * JMH benchmark of adding the ITD values of a scrip to a {@link ChartEntity}
+ * and of reading its values back, for the trading days of 08-Sep-2008 to
+ * 12-Sep-2008 ticking every 30 seconds through the business hours. The days
+ * are fixed, such that the tick store retains the same days in every run.
+ * <p>
+ * The add benchmark adds a day of ticks to an entity whose ticks are first
+ * removed from the tick store. The get benchmark reads all the days.
+ *
+ * @author Sandeep Deb [deb.sandeep@gmail.com]
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class ChartEntityBenchmark {
+
+    /** Log4J logger for this class. */
+    public static final Logger logger = Logger.getLogger( ChartEntityBenchmark.class ) ;
+
+    /** The trading days of the ticks. */
+    private static final String[] DAYS = {
+        "08-Sep-2008", "09-Sep-2008", "10-Sep-2008", "11-Sep-2008", "12-Sep-2008"
+    } ;
+
+    /** The interval between the ticks. */
+    private static final long TICK_INTERVAL = 30*1000L ;
+
+    private final List<List<ScripITD>> dayTicks = new ArrayList<List<ScripITD>>() ;
+
+    private Date startTime = null ;
+    private Date endTime = null ;
+
+    private ChartEntity addEntity = null ;
+    private ChartEntity getEntity = null ;
+
+    private int nextDay = 0 ;
+
+    @Setup( Level.Trial )
+    public void setUp() throws ParseException {
+
+        // The business hours bound the ticks which are charted
+        BenchmarkFixtures.loadConfig() ;
+
+        final SimpleDateFormat df = new SimpleDateFormat( "dd-MMM-yyyy HH:mm" ) ;
+        final Random random = new Random( 0 ) ;
+        double price = 500 ;
+        for( final String day : DAYS ) {
+            final long bizStart = df.parse( day + " 09:55" ).getTime() ;
+            final long bizEnd   = df.parse( day + " 15:30" ).getTime() ;
+            final double prevClose = price ;
+            final List<ScripITD> ticks = new ArrayList<ScripITD>() ;
+            long qty = 0 ;
+            for( long t=bizStart; t<=bizEnd; t+=TICK_INTERVAL ) {
+                price += ( random.nextDouble() - 0.5 ) ;
+                qty   += random.nextInt( 1000 ) ;
+                final ScripITD itd = new ScripITD() ;
+                itd.setTime( new Date( t ) ) ;
+                itd.setPrice( price ) ;
+                itd.setHigh( price ) ;
+                itd.setLow( price ) ;
+                itd.setPrevClose( prevClose ) ;
+                itd.setTotalTradeQty( qty ) ;
+                ticks.add( itd ) ;
+            }
+            this.dayTicks.add( ticks ) ;
+        }
+
+        this.startTime = df.parse( DAYS[0] + " 00:00" ) ;
+        this.endTime   = df.parse( DAYS[DAYS.length-1] + " 23:59" ) ;
+
+        this.addEntity = createEntity( "BENCH.ADD" ) ;
+        this.getEntity = createEntity( "BENCH.GET" ) ;
+        for( final List<ScripITD> ticks : this.dayTicks ) {
+            addTicks( this.getEntity, ticks ) ;
+        }
+        logger.info( this.dayTicks.get( 0 ).size() + " ticks per day, " +
+                     DAYS.length + " days" ) ;
+    }
+
+    private ChartEntity createEntity( final String name ) {
+        ITDTickStore.instance().remove( name ) ;
+        return new ChartEntity( new ChartEntityConfig( name, EntityType.SCRIP,
+                                                       this.startTime ) ) ;
+    }
+
+    private static void addTicks( final ChartEntity entity, final List<ScripITD> ticks ) {
+        for( final ScripITD itd : ticks ) {
+            itd.setSymbolId( entity.getName() ) ;
+            entity.addITDValue( itd ) ;
+        }
+    }
+
+    @Benchmark
+    public ChartEntity addITDValues() {
+        ITDTickStore.instance().remove( this.addEntity.getName() ) ;
+        addTicks( this.addEntity, this.dayTicks.get( this.nextDay ) ) ;
+        this.nextDay = ( this.nextDay + 1 ) % this.dayTicks.size() ;
+        return this.addEntity ;
+    }
+
+    @Benchmark
+    public Map<ChartEntity, List<EODValue>> getValues() {
+        return this.getEntity.getValues( this.startTime, this.endTime ) ;
+    }
+}
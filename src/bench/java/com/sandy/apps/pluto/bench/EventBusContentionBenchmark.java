@@ -0,0 +1,162 @@
+/**
+ * Creation Date: Oct 18, 2026
+ */
+
+package com.sandy.apps.pluto.bench;
+import java.util.ArrayList ;
+import java.util.EnumMap ;
+import java.util.List ;
+import java.util.concurrent.TimeUnit ;
+
+import org.openjdk.jmh.annotations.Benchmark ;
+import org.openjdk.jmh.annotations.BenchmarkMode ;
+import org.openjdk.jmh.annotations.Fork ;
+import org.openjdk.jmh.annotations.Group ;
+import org.openjdk.jmh.annotations.GroupThreads ;
+import org.openjdk.jmh.annotations.Level ;
+import org.openjdk.jmh.annotations.Measurement ;
+import org.openjdk.jmh.annotations.Mode ;
+import org.openjdk.jmh.annotations.OutputTimeUnit ;
+import org.openjdk.jmh.annotations.Param ;
+import org.openjdk.jmh.annotations.Scope ;
+import org.openjdk.jmh.annotations.Setup ;
+import org.openjdk.jmh.annotations.State ;
+import org.openjdk.jmh.annotations.TearDown ;
+import org.openjdk.jmh.annotations.Warmup ;
+import org.openjdk.jmh.infra.Blackhole ;
+
+import com.sandy.apps.pluto.shared.EventType ;
+import com.sandy.apps.pluto.shared.event.Event ;
+import com.sandy.apps.pluto.shared.event.EventBus ;
+import com.sandy.apps.pluto.shared.event.IEventSubscriber ;
+
+/**
+ * JMH benchmark measuring the publish throughput of the {@link EventBus} when
+ * many threads publish concurrently and some of the subscribers are slow.
+ * <p>
+ * The 'slow' publishers publish NETWORK_DATA_DOWNLOADED, whose subscriber
+ * burns CPU on every event (as a cache rewriting its file would). The 'fast'
+ * publishers publish EVT_SCRIP_ITD_INSERT, whose subscribers are cheap. The
+ * 'bus' parameter compares the event bus against a replica of the earlier
+ * registry, which dispatched while holding a global lock. With the global
+ * lock the fast publishers are throttled down to the pace of the slow
+ * subscriber.
+ *
+ * @author Sandeep Deb [deb.sandeep@gmail.com]
+ */
+@State( Scope.Group )
+@BenchmarkMode( Mode.Throughput )
+@OutputTimeUnit( TimeUnit.MILLISECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class EventBusContentionBenchmark {
+
+    /** An abstraction over the event bus implementations being compared. */
+    private static interface Publisher {
+        void addSubscriber( IEventSubscriber subscriber, EventType type ) ;
+        void publish( EventType type, Object value ) ;
+        void clear() ;
+    }
+
+    /** The event bus, which publishes outside of any lock. */
+    private static class EventBusPublisher implements Publisher {
+        private final EventBus bus = EventBus.instance() ;
+
+        public void addSubscriber( final IEventSubscriber subscriber, final EventType type ) {
+            this.bus.addSubscriberForEventTypes( subscriber, type ) ;
+        }
+        public void publish( final EventType type, final Object value ) {
+            this.bus.publishEvent( type, value ) ;
+        }
+        public void clear() {
+            this.bus.removeAllSubscribers() ;
+        }
+    }
+
+    /** A replica of the earlier registry which dispatched under a global lock. */
+    private static class LockedPublisher implements Publisher {
+        private final EnumMap<EventType, List<IEventSubscriber>> subscriberMap =
+                new EnumMap<EventType, List<IEventSubscriber>>( EventType.class ) ;
+
+        public void addSubscriber( final IEventSubscriber subscriber, final EventType type ) {
+            synchronized( this.subscriberMap ) {
+                List<IEventSubscriber> sbsList = this.subscriberMap.get( type ) ;
+                if( sbsList == null ) {
+                    sbsList = new ArrayList<IEventSubscriber>() ;
+                    this.subscriberMap.put( type, sbsList ) ;
+                }
+                sbsList.add( subscriber ) ;
+            }
+        }
+        public void publish( final EventType type, final Object value ) {
+            synchronized( this.subscriberMap ) {
+                final Event event = new Event( type, value ) ;
+                final List<IEventSubscriber> sbsList = this.subscriberMap.get( type ) ;
+                if( sbsList != null ) {
+                    for( final IEventSubscriber subscriber : sbsList ) {
+                        subscriber.handleEvent( event ) ;
+                    }
+                }
+            }
+        }
+        public void clear() {
+            synchronized( this.subscriberMap ) {
+                this.subscriberMap.clear() ;
+            }
+        }
+    }
+
+    /** A subscriber which consumes the specified amount of CPU per event. */
+    private static class CpuBurningSubscriber implements IEventSubscriber {
+        private final long tokens ;
+
+        CpuBurningSubscriber( final long tokens ) {
+            this.tokens = tokens ;
+        }
+        public void handleEvent( final Event event ) {
+            Blackhole.consumeCPU( this.tokens ) ;
+        }
+    }
+
+    @Param( { "eventbus", "locked" } )
+    public String bus ;
+
+    /** The CPU tokens consumed by the slow subscriber per event. */
+    @Param( { "10000" } )
+    public long slowTokens ;
+
+    private Publisher publisher = null ;
+
+    @Setup( Level.Trial )
+    public void setUp() {
+        this.publisher = "locked".equals( this.bus ) ? new LockedPublisher() :
+                                                       new EventBusPublisher() ;
+        this.publisher.clear() ;
+        this.publisher.addSubscriber( new CpuBurningSubscriber( this.slowTokens ),
+                                      EventType.NETWORK_DATA_DOWNLOADED ) ;
+        for( int i=0; i<4; i++ ) {
+            this.publisher.addSubscriber( new CpuBurningSubscriber( 10 ),
+                                          EventType.EVT_SCRIP_ITD_INSERT ) ;
+        }
+    }
+
+    @TearDown( Level.Trial )
+    public void tearDown() {
+        this.publisher.clear() ;
+    }
+
+    @Benchmark
+    @Group( "contention" )
+    @GroupThreads( 4 )
+    public void slowPublishers() {
+        this.publisher.publish( EventType.NETWORK_DATA_DOWNLOADED, "http://www.nseindia.com" ) ;
+    }
+
+    @Benchmark
+    @Group( "contention" )
+    @GroupThreads( 4 )
+    public void fastPublishers() {
+        this.publisher.publish( EventType.EVT_SCRIP_ITD_INSERT, this ) ;
+    }
+}
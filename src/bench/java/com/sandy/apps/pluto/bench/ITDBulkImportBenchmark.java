@@ -0,0 +1,74 @@
+/**
+ * Creation Date: Oct 18, 2026
+ */
+
+package com.sandy.apps.pluto.bench;
+import java.io.IOException ;
+import java.text.ParseException ;
+import java.text.SimpleDateFormat ;
+import java.util.Collections ;
+import java.util.Date ;
+import java.util.List ;
+import java.util.concurrent.TimeUnit ;
+
+import org.openjdk.jmh.annotations.Benchmark ;
+import org.openjdk.jmh.annotations.BenchmarkMode ;
+import org.openjdk.jmh.annotations.Fork ;
+import org.openjdk.jmh.annotations.Level ;
+import org.openjdk.jmh.annotations.Measurement ;
+import org.openjdk.jmh.annotations.Mode ;
+import org.openjdk.jmh.annotations.OutputTimeUnit ;
+import org.openjdk.jmh.annotations.Param ;
+import org.openjdk.jmh.annotations.Scope ;
+import org.openjdk.jmh.annotations.Setup ;
+import org.openjdk.jmh.annotations.State ;
+import org.openjdk.jmh.annotations.Warmup ;
+
+import com.sandy.apps.pluto.biz.svc.impl.ITDBulkImportSvc ;
+import com.sandy.apps.pluto.shared.dto.ScripITD ;
+
+/**
+ * JMH benchmark of the parsing of the NSE index watch pages by the ITD bulk
+ * import, over recorded pages of the Nifty and the Junior Nifty scrips, 50
+ * scrips each. The pages were recorded on 11-Sep-2008 and are parsed as of
+ * that day.
+ *
+ * @author Sandeep Deb [deb.sandeep@gmail.com]
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class ITDBulkImportBenchmark {
+
+    /** The number of scrips on each of the recorded pages. */
+    private static final int NUM_SCRIPS = 50 ;
+
+    @Param( { "niftywatch.htm", "jrniftywatch.htm" } )
+    private String page ;
+
+    private String contents = null ;
+    private Date day = null ;
+
+    @Setup( Level.Trial )
+    public void setUp() throws IOException, ParseException {
+
+        this.contents = BenchmarkFixtures.readResource( "itd/" + this.page ) ;
+        this.day = new SimpleDateFormat( "dd-MMM-yyyy" ).parse( BenchmarkFixtures.RECORDED_DAY ) ;
+
+        // A page which is not parsed fully would make the scores meaningless
+        final int numParsed = parseScripITD().size() ;
+        if( numParsed != NUM_SCRIPS ) {
+            throw new IllegalStateException( "Parsed " + numParsed + " of " +
+                                   NUM_SCRIPS + " scrips from " + this.page ) ;
+        }
+    }
+
+    @Benchmark
+    public List<ScripITD> parseScripITD() {
+        return ITDBulkImportSvc.parseScripITD( this.contents, this.day,
+                                               Collections.<String>emptyList() ) ;
+    }
+}
@@ -0,0 +1,147 @@
+/**
+ * Creation Date: Oct 18, 2026
+ */
+
+package com.sandy.apps.pluto.bench;
+import java.io.File ;
+import java.io.FileInputStream ;
+import java.io.FileOutputStream ;
+import java.io.IOException ;
+import java.io.ObjectInputStream ;
+import java.io.ObjectOutputStream ;
+import java.util.ArrayList ;
+import java.util.Date ;
+import java.util.List ;
+import java.util.concurrent.TimeUnit ;
+
+import org.apache.log4j.Logger ;
+import org.openjdk.jmh.annotations.Benchmark ;
+import org.openjdk.jmh.annotations.BenchmarkMode ;
+import org.openjdk.jmh.annotations.Fork ;
+import org.openjdk.jmh.annotations.Level ;
+import org.openjdk.jmh.annotations.Measurement ;
+import org.openjdk.jmh.annotations.Mode ;
+import org.openjdk.jmh.annotations.OutputTimeUnit ;
+import org.openjdk.jmh.annotations.Param ;
+import org.openjdk.jmh.annotations.Scope ;
+import org.openjdk.jmh.annotations.Setup ;
+import org.openjdk.jmh.annotations.State ;
+import org.openjdk.jmh.annotations.TearDown ;
+import org.openjdk.jmh.annotations.Warmup ;
+
+import com.sandy.apps.pluto.shared.DebouncedTask ;
+import com.sandy.apps.pluto.shared.ITDSnapshotFile ;
+import com.sandy.apps.pluto.shared.dto.ScripITD ;
+
+/**
+ * JMH benchmark comparing the ITD cache snapshots written through Java
+ * serialization against the columnar {@link ITDSnapshotFile}, for a cache of
+ * 'numScrips' synthetic scrip ITD values.
+ * <p>
+ * The write benchmarks are the cost which was paid on every tick batch
+ * before the snapshots were debounced, the request benchmark is the cost
+ * paid on every tick batch now. The load benchmarks are the startup cost.
+ *
+ * @author Sandeep Deb [deb.sandeep@gmail.com]
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class ITDSnapshotBenchmark {
+
+    /** Log4J logger for this class. */
+    public static final Logger logger = Logger.getLogger( ITDSnapshotBenchmark.class ) ;
+
+    @Param( { "1500" } )
+    private int numScrips ;
+
+    private final List<ScripITD> itdList = new ArrayList<ScripITD>() ;
+    private final Date refreshTime = new Date() ;
+
+    private File serializedFile = null ;
+    private ITDSnapshotFile snapshotFile = null ;
+    private DebouncedTask snapshotTask = null ;
+
+    @Setup( Level.Trial )
+    public void setUp() throws IOException {
+
+        for( int i=0; i<this.numScrips; i++ ) {
+            final ScripITD itd = new ScripITD() ;
+            itd.setSymbolId( "SCRIP" + i ) ;
+            itd.setTime( new Date( this.refreshTime.getTime() - i * 1000L ) ) ;
+            itd.setPrice( 100 + i * 0.05 ) ;
+            itd.setHigh( 102 + i * 0.05 ) ;
+            itd.setLow( 98 + i * 0.05 ) ;
+            itd.setPrevClose( 99 + i * 0.05 ) ;
+            itd.setOpeningPrice( 99.5 + i * 0.05 ) ;
+            itd.setChange( 1 ) ;
+            itd.setPctChange( 1.0 / ( 99 + i * 0.05 ) ) ;
+            itd.setTotalTradeQty( 1000L * i ) ;
+            this.itdList.add( itd ) ;
+        }
+
+        this.serializedFile = File.createTempFile( "itd_cache", ".ser" ) ;
+        this.snapshotFile = new ITDSnapshotFile( File.createTempFile( "itd_cache", ".bin" ) ) ;
+        writeSerialized() ;
+        writeSnapshot() ;
+
+        logger.info( "Serialized size = " + this.serializedFile.length() +
+                     " bytes, snapshot size = " + this.snapshotFile.getFile().length() +
+                     " bytes" ) ;
+
+        this.snapshotTask = new DebouncedTask( "Benchmark", new Runnable() {
+            public void run() {
+                // Nothing to write, the request cost is measured
+            }
+        }, 3600 * 1000L ) ;
+    }
+
+    @TearDown( Level.Trial )
+    public void tearDown() {
+        this.serializedFile.delete() ;
+        this.snapshotFile.getFile().delete() ;
+    }
+
+    @Benchmark
+    public void writeSerialized() throws IOException {
+        final ObjectOutputStream out = new ObjectOutputStream( new FileOutputStream( this.serializedFile ) ) ;
+        try {
+            out.writeObject( this.refreshTime ) ;
+            out.writeObject( this.itdList ) ;
+        }
+        finally {
+            out.close() ;
+        }
+    }
+
+    @Benchmark
+    public void writeSnapshot() throws IOException {
+        this.snapshotFile.writeScripITD( this.refreshTime, this.itdList ) ;
+    }
+
+    @Benchmark
+    public void requestSnapshot() {
+        this.snapshotTask.request() ;
+    }
+
+    @Benchmark
+    public Object loadSerialized() throws Exception {
+        final ObjectInputStream in = new ObjectInputStream( new FileInputStream( this.serializedFile ) ) ;
+        try {
+            in.readObject() ;
+            return in.readObject() ;
+        }
+        finally {
+            in.close() ;
+        }
+    }
+
+    @Benchmark
+    public Object loadSnapshot() throws IOException {
+        this.snapshotFile.load() ;
+        return this.snapshotFile.getValues() ;
+    }
+}
@@ -0,0 +1,215 @@
+/**
+ * Creation Date: Oct 18, 2026
+ */
+
+package com.sandy.apps.pluto.bench;
+import java.util.ArrayList ;
+import java.util.Date ;
+import java.util.List ;
+import java.util.SortedSet ;
+import java.util.TreeSet ;
+import java.util.concurrent.TimeUnit ;
+
+import org.apache.log4j.Logger ;
+import org.openjdk.jmh.annotations.Benchmark ;
+import org.openjdk.jmh.annotations.BenchmarkMode ;
+import org.openjdk.jmh.annotations.Fork ;
+import org.openjdk.jmh.annotations.Level ;
+import org.openjdk.jmh.annotations.Measurement ;
+import org.openjdk.jmh.annotations.Mode ;
+import org.openjdk.jmh.annotations.OutputTimeUnit ;
+import org.openjdk.jmh.annotations.Param ;
+import org.openjdk.jmh.annotations.Scope ;
+import org.openjdk.jmh.annotations.Setup ;
+import org.openjdk.jmh.annotations.State ;
+import org.openjdk.jmh.annotations.Warmup ;
+
+import com.sandy.apps.pluto.shared.ITDTickSeries ;
+import com.sandy.apps.pluto.shared.STUtils ;
+import com.sandy.apps.pluto.shared.dto.ScripITD ;
+
+/**
+ * JMH benchmark comparing the heap held by a full day of high resolution
+ * ticks for all the Nifty scrips, 'numScrips' scrips with a tick every
+ * 'tickInterval' seconds from 9:55 to 15:30, in the three forms the ticks
+ * have been kept in - a list of {@link ScripITD}, the sorted sets of
+ * {@link LegacyITDValue} which the charts held before the tick store, and
+ * {@link ITDTickSeries}.
+ * <p>
+ * The heap sizes are measured once in the trial setup and printed. The
+ * benchmarks measure the cost of an one hour range scan in each of the forms.
+ *
+ * @author Sandeep Deb [deb.sandeep@gmail.com]
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( value = 1, jvmArgs = { "-Xmx2g" } )
+public class ITDTickStoreBenchmark {
+
+    /** Log4J logger for this class. */
+    public static final Logger logger = Logger.getLogger( ITDTickStoreBenchmark.class ) ;
+
+    /** The start of the trading day, relative to the start of the day. */
+    private static final long DAY_START_MILLIS = ( 9*60 + 55 )*60*1000L ;
+
+    /** The end of the trading day, relative to the start of the day. */
+    private static final long DAY_END_MILLIS = ( 15*60 + 30 )*60*1000L ;
+
+    /** The ITD value of the charts, as it was before the tick store. */
+    public static class LegacyITDValue implements Comparable<LegacyITDValue> {
+        private long  time  = 0 ;
+        private float value = 0 ;
+        private long  volume= 0 ;
+        private boolean interpolated = false ;
+
+        public int compareTo( final LegacyITDValue o ) {
+            return ( this.time < o.time ) ? -1 : ( this.time == o.time ? 0 : 1 ) ;
+        }
+    }
+
+    @Param( { "50" } )
+    private int numScrips ;
+
+    @Param( { "1" } )
+    private int tickInterval ;
+
+    private final long dayStart = STUtils.getStartOfDay( new Date() ).getTime() ;
+
+    private List<List<ScripITD>> scripITDs = null ;
+    private List<SortedSet<LegacyITDValue>> legacyValues = null ;
+    private List<ITDTickSeries> tickSeries = null ;
+
+    private LegacyITDValue rangeStart = null ;
+    private LegacyITDValue rangeEnd   = null ;
+
+    @Setup( Level.Trial )
+    public void setUp() {
+
+        final long baseHeap = usedHeap() ;
+        this.scripITDs = new ArrayList<List<ScripITD>>() ;
+        for( int s=0; s<this.numScrips; s++ ) {
+            final List<ScripITD> itdList = new ArrayList<ScripITD>() ;
+            long qty = 0 ;
+            for( long t=DAY_START_MILLIS; t<=DAY_END_MILLIS; t+=this.tickInterval*1000L ) {
+                final ScripITD itd = new ScripITD() ;
+                itd.setSymbolId( "SCRIP" + s ) ;
+                itd.setTime( new Date( this.dayStart + t ) ) ;
+                itd.setPrice( 100 + ( t % 997 ) * 0.05 ) ;
+                itd.setHigh( 110 ) ;
+                itd.setLow( 90 ) ;
+                itd.setPrevClose( 99 ) ;
+                itd.setOpeningPrice( 99.5 ) ;
+                itd.setChange( 1 ) ;
+                itd.setPctChange( 1.01 ) ;
+                itd.setTotalTradeQty( qty += 100 ) ;
+                itdList.add( itd ) ;
+            }
+            this.scripITDs.add( itdList ) ;
+        }
+        final long scripITDHeap = usedHeap() - baseHeap ;
+
+        this.legacyValues = new ArrayList<SortedSet<LegacyITDValue>>() ;
+        for( final List<ScripITD> itdList : this.scripITDs ) {
+            final SortedSet<LegacyITDValue> values = new TreeSet<LegacyITDValue>() ;
+            for( final ScripITD itd : itdList ) {
+                final LegacyITDValue value = new LegacyITDValue() ;
+                value.time   = itd.getTime().getTime() ;
+                value.value  = ( float )itd.getPrice() ;
+                value.volume = itd.getTotalTradeQty() ;
+                value.interpolated = itd.isInterpolated() ;
+                values.add( value ) ;
+            }
+            this.legacyValues.add( values ) ;
+        }
+        final long legacyHeap = usedHeap() - baseHeap - scripITDHeap ;
+
+        this.tickSeries = new ArrayList<ITDTickSeries>() ;
+        for( final List<ScripITD> itdList : this.scripITDs ) {
+            final ITDTickSeries series = new ITDTickSeries( this.dayStart ) ;
+            for( final ScripITD itd : itdList ) {
+                series.add( itd.getTime().getTime(), ( float )itd.getPrice(),
+                            itd.getTotalTradeQty() ) ;
+            }
+            this.tickSeries.add( series ) ;
+        }
+        final long seriesHeap = usedHeap() - baseHeap - scripITDHeap - legacyHeap ;
+
+        long numTicks = 0 ;
+        long estimatedHeap = 0 ;
+        for( final ITDTickSeries series : this.tickSeries ) {
+            numTicks += series.size() ;
+            estimatedHeap += series.getHeapSize() ;
+        }
+
+        logger.info( numTicks + " ticks for " + this.numScrips + " scrips" ) ;
+        logger.info( "ScripITD list   = " + scripITDHeap + " bytes, " +
+                     scripITDHeap/numTicks + " bytes per tick" ) ;
+        logger.info( "ITDValue sets   = " + legacyHeap + " bytes, " +
+                     legacyHeap/numTicks + " bytes per tick" ) ;
+        logger.info( "ITDTickSeries   = " + seriesHeap + " bytes, " +
+                     seriesHeap/numTicks + " bytes per tick (estimated " +
+                     estimatedHeap/numTicks + ")" ) ;
+
+        this.rangeStart = new LegacyITDValue() ;
+        this.rangeStart.time = this.dayStart + 12*60*60*1000L ;
+        this.rangeEnd = new LegacyITDValue() ;
+        this.rangeEnd.time = this.dayStart + 13*60*60*1000L ;
+    }
+
+    /** Returns the used heap after a few rounds of garbage collection. */
+    private static long usedHeap() {
+        final Runtime runtime = Runtime.getRuntime() ;
+        for( int i=0; i<4; i++ ) {
+            System.gc() ;
+            try {
+                Thread.sleep( 100 ) ;
+            }
+            catch( final InterruptedException e ) {
+                Thread.currentThread().interrupt() ;
+            }
+        }
+        return runtime.totalMemory() - runtime.freeMemory() ;
+    }
+
+    @Benchmark
+    public double rangeScanScripITD() {
+        double sum = 0 ;
+        for( final List<ScripITD> itdList : this.scripITDs ) {
+            for( final ScripITD itd : itdList ) {
+                final long time = itd.getTime().getTime() ;
+                if( time >= this.rangeStart.time && time < this.rangeEnd.time ) {
+                    sum += itd.getPrice() ;
+                }
+            }
+        }
+        return sum ;
+    }
+
+    @Benchmark
+    public double rangeScanLegacy() {
+        double sum = 0 ;
+        for( final SortedSet<LegacyITDValue> values : this.legacyValues ) {
+            for( final LegacyITDValue value : values.subSet( this.rangeStart, this.rangeEnd ) ) {
+                sum += value.value ;
+            }
+        }
+        return sum ;
+    }
+
+    @Benchmark
+    public double rangeScanSeries() {
+        double sum = 0 ;
+        for( final ITDTickSeries series : this.tickSeries ) {
+            synchronized( series ) {
+                final int end = series.ceilingIndex( this.rangeEnd.time ) ;
+                for( int i=series.ceilingIndex( this.rangeStart.time ); i<end; i++ ) {
+                    sum += series.getPrice( i ) ;
+                }
+            }
+        }
+        return sum ;
+    }
+}
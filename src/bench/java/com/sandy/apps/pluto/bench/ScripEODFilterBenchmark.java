@@ -0,0 +1,129 @@
+/**
+ * Creation Date: Oct 18, 2026
+ */
+
+package com.sandy.apps.pluto.bench;
+import java.io.IOException ;
+import java.text.ParseException ;
+import java.util.List ;
+import java.util.concurrent.TimeUnit ;
+
+import org.apache.log4j.Logger ;
+import org.openjdk.jmh.annotations.Benchmark ;
+import org.openjdk.jmh.annotations.BenchmarkMode ;
+import org.openjdk.jmh.annotations.Fork ;
+import org.openjdk.jmh.annotations.Level ;
+import org.openjdk.jmh.annotations.Measurement ;
+import org.openjdk.jmh.annotations.Mode ;
+import org.openjdk.jmh.annotations.OutputTimeUnit ;
+import org.openjdk.jmh.annotations.Param ;
+import org.openjdk.jmh.annotations.Scope ;
+import org.openjdk.jmh.annotations.Setup ;
+import org.openjdk.jmh.annotations.State ;
+import org.openjdk.jmh.annotations.Warmup ;
+
+import com.sandy.apps.pluto.shared.dto.ScripEOD ;
+import com.sandy.apps.pluto.shared.filter.FilterPredicate ;
+import com.sandy.apps.pluto.shared.filter.FilterValueSource ;
+import com.sandy.apps.pluto.ui.dialogmgr.panel.scripeodsummary.ScripEODSummaryTableModel ;
+import com.sandy.apps.pluto.ui.dialogmgr.panel.scripeodsummary.filter.ScripEODFilterQueryParser ;
+
+/**
+ * JMH benchmark of the compilation of the Scrip EOD filter queries and of the
+ * filtering of the scrips of the recorded 11-Sep-2008 bhavcopy by the
+ * compiled predicates. The rows are read as the
+ * {@link ScripEODSummaryTableModel} presents them to the filter.
+ *
+ * @author Sandeep Deb [deb.sandeep@gmail.com]
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class ScripEODFilterBenchmark {
+
+    /** Log4J logger for this class. */
+    public static final Logger logger = Logger.getLogger( ScripEODFilterBenchmark.class ) ;
+
+    @Param( {
+        "PCT > 2.5 AND VOL > 200000",
+        "PRICE > 1000 OR VOL > 10000000",
+        "IFCI, NOIDA",
+        "^I",
+        "symbol = IFCI, NOIDATOLL and price > 30"
+    } )
+    private String query ;
+
+    /** Presents the scrips of the bhavcopy as the rows of the EOD table. */
+    private static class ScripEODValueSource implements FilterValueSource {
+
+        private final List<ScripEOD> rows ;
+
+        ScripEODValueSource( final List<ScripEOD> rows ) {
+            this.rows = rows ;
+        }
+
+        public double getNumber( final int row, final int column ) {
+            final ScripEOD eod = this.rows.get( row ) ;
+            final double close = eod.getClosingPrice() ;
+            switch( column ) {
+                case ScripEODSummaryTableModel.COL_PRICE :
+                    return close ;
+                case ScripEODSummaryTableModel.COL_PCT_E :
+                    return (( close - eod.getPrevClosePrice() )/eod.getPrevClosePrice())*100 ;
+                case ScripEODSummaryTableModel.COL_PCT_O :
+                    return (( close - eod.getOpeningPrice() )/eod.getOpeningPrice())*100 ;
+                case ScripEODSummaryTableModel.COL_QTY :
+                    return eod.getTotalTradeQty() ;
+                default :
+                    return Double.NaN ;
+            }
+        }
+
+        public String getString( final int row, final int column ) {
+            final ScripEOD eod = this.rows.get( row ) ;
+            switch( column ) {
+                case ScripEODSummaryTableModel.COL_SYMBOL :
+                    return eod.getSymbolId() ;
+                case ScripEODSummaryTableModel.COL_ICICI :
+                    return ( eod.getSymbol() == null ) ? null : eod.getSymbol().getIciciCode() ;
+                case ScripEODSummaryTableModel.COL_NAME :
+                    return ( eod.getSymbol() == null ) ? null : eod.getSymbol().getDescription() ;
+                default :
+                    return null ;
+            }
+        }
+    }
+
+    private ScripEODValueSource source = null ;
+    private int numRows = 0 ;
+    private FilterPredicate predicate = null ;
+
+    @Setup( Level.Trial )
+    public void setUp() throws IOException, ParseException {
+        final List<ScripEOD> rows = BenchmarkFixtures.parseBhavcopy( BenchmarkFixtures.RECORDED_DAY ) ;
+        this.source = new ScripEODValueSource( rows ) ;
+        this.numRows = rows.size() ;
+        this.predicate = compile() ;
+        logger.info( "'" + this.query + "' matches " + filter() +
+                     " of " + this.numRows + " scrips" ) ;
+    }
+
+    @Benchmark
+    public FilterPredicate compile() throws ParseException {
+        return new ScripEODFilterQueryParser( this.query ).compile() ;
+    }
+
+    @Benchmark
+    public int filter() {
+        int numMatches = 0 ;
+        for( int row=0; row<this.numRows; row++ ) {
+            if( this.predicate.matches( this.source, row ) ) {
+                numMatches++ ;
+            }
+        }
+        return numMatches ;
+    }
+}
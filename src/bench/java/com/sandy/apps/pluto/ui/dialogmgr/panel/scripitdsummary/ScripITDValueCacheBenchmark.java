@@ -0,0 +1,103 @@
+/**
+ * Creation Date: Oct 18, 2026
+ */
+
+package com.sandy.apps.pluto.ui.dialogmgr.panel.scripitdsummary;
+import java.io.IOException ;
+import java.text.ParseException ;
+import java.text.SimpleDateFormat ;
+import java.util.ArrayList ;
+import java.util.Collections ;
+import java.util.Date ;
+import java.util.List ;
+import java.util.Random ;
+import java.util.concurrent.TimeUnit ;
+
+import org.apache.log4j.Logger ;
+import org.openjdk.jmh.annotations.Benchmark ;
+import org.openjdk.jmh.annotations.BenchmarkMode ;
+import org.openjdk.jmh.annotations.Fork ;
+import org.openjdk.jmh.annotations.Level ;
+import org.openjdk.jmh.annotations.Measurement ;
+import org.openjdk.jmh.annotations.Mode ;
+import org.openjdk.jmh.annotations.OutputTimeUnit ;
+import org.openjdk.jmh.annotations.Scope ;
+import org.openjdk.jmh.annotations.Setup ;
+import org.openjdk.jmh.annotations.State ;
+import org.openjdk.jmh.annotations.Warmup ;
+
+import com.sandy.apps.pluto.bench.BenchmarkFixtures ;
+import com.sandy.apps.pluto.shared.dto.ScripITD ;
+
+/**
+ * JMH benchmark of adding the ITD values of the scrips of the recorded
+ * 11-Sep-2008 bhavcopy to the {@link ScripITDValueCache}. Unlike the other
+ * benchmarks, this one lives in the package of the cache, so that it can
+ * create caches which are not bound to the event bus and the database.
+ * <p>
+ * The fill benchmark adds all the scrips to an empty cache, as the cache is
+ * loaded at startup. The update benchmark replaces the values of a watch
+ * page worth of scrips spread across a filled cache, as an ITD insert does
+ * during the day.
+ *
+ * @author Sandeep Deb [deb.sandeep@gmail.com]
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class ScripITDValueCacheBenchmark {
+
+    /** Log4J logger for this class. */
+    public static final Logger logger = Logger.getLogger( ScripITDValueCacheBenchmark.class ) ;
+
+    /** The number of scrips on a watch page. */
+    private static final int BATCH_SIZE = 50 ;
+
+    private List<ScripITD> itdValues = null ;
+    private final List<List<ScripITD>> batches = new ArrayList<List<ScripITD>>() ;
+
+    private ScripITDValueCache filledCache = null ;
+    private int nextBatch = 0 ;
+
+    @Setup( Level.Trial )
+    public void setUp() throws IOException, ParseException {
+
+        final Date time = new SimpleDateFormat( "dd-MMM-yyyy HH:mm:ss" ).parse(
+                                    BenchmarkFixtures.RECORDED_DAY + " 14:52:33" ) ;
+        this.itdValues = BenchmarkFixtures.toScripITD(
+                BenchmarkFixtures.parseBhavcopy( BenchmarkFixtures.RECORDED_DAY ), time ) ;
+
+        // The ITD values arrive in no particular order
+        Collections.shuffle( this.itdValues, new Random( 0 ) ) ;
+
+        final int numBatches = this.itdValues.size() / BATCH_SIZE ;
+        for( int i=0; i<numBatches; i++ ) {
+            final List<ScripITD> batch = new ArrayList<ScripITD>( BATCH_SIZE ) ;
+            for( int j=i; j<numBatches*BATCH_SIZE; j+=numBatches ) {
+                batch.add( this.itdValues.get( j ) ) ;
+            }
+            this.batches.add( batch ) ;
+        }
+
+        this.filledCache = new ScripITDValueCache() ;
+        this.filledCache.addScripITDValues( this.itdValues ) ;
+        logger.info( this.itdValues.size() + " scrips, " + numBatches + " update batches" ) ;
+    }
+
+    @Benchmark
+    public ScripITDValueCache fill() {
+        final ScripITDValueCache cache = new ScripITDValueCache() ;
+        cache.addScripITDValues( this.itdValues ) ;
+        return cache ;
+    }
+
+    @Benchmark
+    public ScripITDValueCache updateBatch() {
+        this.filledCache.addScripITDValues( this.batches.get( this.nextBatch ) ) ;
+        this.nextBatch = ( this.nextBatch + 1 ) % this.batches.size() ;
+        return this.filledCache ;
+    }
+}
@@ -0,0 +1,85 @@
+/**
+ * Creation Date: Oct 18, 2026
+ */
+
+package com.sandy.apps.pluto.biz.dao;
+
+import java.util.Date ;
+import java.util.List ;
+
+import com.sandy.apps.pluto.shared.dto.ITDBar ;
+import com.sandy.apps.pluto.shared.util.dataaccess.DataAccessException ;
+
+/**
+ * This interface exposes the operations required to operate on the OHLCV
+ * bars rolled up from the scrip and index ITD values in the persistent
+ * storage.
+ *
+ * @author Sandeep Deb [deb.sandeep@gmail.com]
+ */
+public interface IITDBarDAO {
+
+    /**
+     * Saves a list of scrip bars into the persistent storage. Bars which
+     * already exist are updated with the values of the bars passed.
+     *
+     * @param bars A list of {@link ITDBar} instances, unique by symbol,
+     *        interval and time.
+     *
+     * @throws DataAccessException In case an exception is encountered during
+     *         the data access operation.
+     */
+    void saveScripBars( final List<ITDBar> bars )
+        throws DataAccessException ;
+
+    /**
+     * Saves a list of index bars into the persistent storage. Bars which
+     * already exist are updated with the values of the bars passed.
+     *
+     * @param bars A list of {@link ITDBar} instances, unique by index name,
+     *        interval and time.
+     *
+     * @throws DataAccessException In case an exception is encountered during
+     *         the data access operation.
+     */
+    void saveIndexBars( final List<ITDBar> bars )
+        throws DataAccessException ;
+
+    /**
+     * Returns the bars of the specified interval for the scrip and the date
+     * range specified, in the ascending order of time.
+     *
+     * @param symbol The NSE symbol of the scrip.
+     * @param interval The length of the bar interval in seconds.
+     * @param start The start of the date range.
+     * @param end The end of the date range.
+     *
+     * @return A list of {@link ITDBar}. If there are no bars for the range,
+     *         an empty list is returned, never null.
+     *
+     * @throws DataAccessException In case an exception is encountered during
+     *         the data access operation.
+     */
+    List<ITDBar> getScripBars( final String symbol, final int interval,
+                               final Date start, final Date end )
+        throws DataAccessException ;
+
+    /**
+     * Returns the bars of the specified interval for the index and the date
+     * range specified, in the ascending order of time.
+     *
+     * @param index The name of the index.
+     * @param interval The length of the bar interval in seconds.
+     * @param start The start of the date range.
+     * @param end The end of the date range.
+     *
+     * @return A list of {@link ITDBar}. If there are no bars for the range,
+     *         an empty list is returned, never null.
+     *
+     * @throws DataAccessException In case an exception is encountered during
+     *         the data access operation.
+     */
+    List<ITDBar> getIndexBars( final String index, final int interval,
+                               final Date start, final Date end )
+        throws DataAccessException ;
+}
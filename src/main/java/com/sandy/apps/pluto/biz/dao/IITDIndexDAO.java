@@ -19,11 +19,13 @@ import com.sandy.apps.pluto.shared.util.dataaccess.DataAccessException ;
 public interface IITDIndexDAO {
 
     /**
-     * Inserts a list of itdIndices into the persistent storage.
+     * Inserts a list of itdIndices into the persistent storage. ITD values
+     * which already exist in the database are skipped and symbols which are
+     * not yet registered are registered before the insert.
      *
      * @param itdIndices A list of {@link ScripITD} instances.
      *
-     * @return The number of successful inserts.
+     * @return The number of ITD values actually inserted.
      *
      * @throws DataAccessException In case an exception is encountered during
      *         the data access operation.
@@ -97,6 +99,10 @@ public interface IITDIndexDAO {
      * table. If you want to delete the live data which has been archived, you
      * need to call on the deleteLiveRecords operation within the same transaction
      * boundary.
+     * <p>
+     * Only the records held by the live table itself, which were inserted
+     * before the table was partitioned, are moved. The partitions are
+     * archived with the archivePartitions operation.
      *
      * @param boundary The date which implies that any record with date in the
      *        past as compared to the boundary will be archived.
@@ -113,7 +119,8 @@ public interface IITDIndexDAO {
      * Please note that this operation does not copy the data from the live
      * table to the archive table. If you want to copy the live data which is
      * about to be deleted, you need to call on the archiveLiveRecords
-     * before this call, within the same transaction boundary.
+     * before this call, within the same transaction boundary. The records of
+     * the partitions of the live table are not deleted.
      *
      * @param boundary The date which implies that any record with date in the
      *        past as compared to the boundary will be deleted.
@@ -123,4 +130,20 @@ public interface IITDIndexDAO {
      */
     void deleteLiveRecords( final Date boundary )
         throws DataAccessException ;
+
+    /**
+     * Archives the daily partitions of the SCRIP_ITD_DATA table which lie
+     * entirely before the boundary date. The partitions are moved to the
+     * archive table without copying or deleting any records.
+     *
+     * @param boundary The date which implies that any partition of days in
+     *        the past as compared to the boundary will be archived.
+     *
+     * @return The number of partitions archived.
+     *
+     * @throws DataAccessException If an exception is encountered during the
+     *         archival process.
+     */
+    int archivePartitions( final Date boundary )
+        throws DataAccessException ;
 }
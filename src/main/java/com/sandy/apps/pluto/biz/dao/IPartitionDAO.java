@@ -0,0 +1,49 @@
+/**
+ * Creation Date: Oct 18, 2026
+ */
+
+package com.sandy.apps.pluto.biz.dao;
+
+import java.util.Collection ;
+import java.util.Date ;
+
+import com.sandy.apps.pluto.biz.dao.impl.PartitionedTable ;
+import com.sandy.apps.pluto.shared.util.dataaccess.DataAccessException ;
+
+/**
+ * This interface exposes the operations required to maintain the date range
+ * partitions of the partitioned tables in the persistent storage.
+ *
+ * @author Sandeep Deb [deb.sandeep@gmail.com]
+ */
+public interface IPartitionDAO {
+
+    /**
+     * Creates the partitions of the table which are required to hold rows
+     * of the dates specified, if they do not exist already.
+     *
+     * @param table The partitioned table.
+     * @param dates The dates of the rows about to be inserted.
+     *
+     * @throws DataAccessException In case an exception is encountered during
+     *         the data access operation.
+     */
+    void ensurePartitions( final PartitionedTable table, final Collection<Date> dates )
+        throws DataAccessException ;
+
+    /**
+     * Archives the partitions of the table whose range lies entirely before
+     * the boundary. An archived partition is attached to the archive table
+     * and detached from the table, no rows are copied or deleted.
+     *
+     * @param table The partitioned table.
+     * @param boundary The date before which the partitions are archived.
+     *
+     * @return The number of partitions archived.
+     *
+     * @throws DataAccessException In case an exception is encountered during
+     *         the data access operation.
+     */
+    int archivePartitions( final PartitionedTable table, final Date boundary )
+        throws DataAccessException ;
+}
@@ -4,6 +4,7 @@
 
 package com.sandy.apps.pluto.biz.dao;
 
+import java.util.Collection ;
 import java.util.List ;
 import java.util.Map ;
 
@@ -69,9 +70,28 @@ public interface ISymbolDAO {
     void updateSymbol( final Symbol symbol )
         throws DataAccessException ;
 
+    /**
+     * Registers, in one set based operation, those symbols from the collection
+     * provided which are not yet known to the persistent storage. The symbols
+     * are registered as dynamically added NSE equity symbols. Symbols which are
+     * already registered are left untouched. Implementations are expected to
+     * make this call cheap when all the symbols are already registered, since
+     * it is a pre-pass of every ITD and EOD insert.
+     *
+     * @param symbols A collection of symbol keys.
+     *
+     * @return The number of symbols which were newly registered.
+     *
+     * @throws DataAccessException If an exception is encountered during the
+     *         operation.
+     */
+    int registerSymbols( final Collection<String> symbols )
+        throws DataAccessException ;
+
     /**
      * Returns a {@link Symbol} instance corresponding to the symbol key
-     * specified.
+     * specified. The instance returned can be shared across callers and
+     * should not be modified.
      *
      * @param symbol The symbol key
      *
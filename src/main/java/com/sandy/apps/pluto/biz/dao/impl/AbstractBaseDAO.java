@@ -4,8 +4,15 @@
 
 package com.sandy.apps.pluto.biz.dao.impl;
 
+import java.util.HashMap ;
+import java.util.List ;
+import java.util.Map ;
+
 import org.apache.log4j.Logger ;
+import org.springframework.dao.DataIntegrityViolationException ;
+import org.springframework.orm.ibatis.SqlMapClientTemplate ;
 
+import com.ibatis.sqlmap.client.SqlMapClient ;
 import com.sandy.apps.pluto.shared.util.dataaccess.DataAccessManager ;
 
 /**
@@ -25,6 +32,22 @@ public abstract class AbstractBaseDAO {
      */
     protected DataAccessManager daMgr = null ;
 
+    /**
+     * INJECTABLE: This value should be injected with the iBATIS SQL map
+     * client for DAOs which perform set based operations. Unlike the
+     * {@link DataAccessManager}, the template returns the number of rows
+     * affected by a statement, which is required for reporting accurate
+     * insert counts.
+     */
+    protected SqlMapClientTemplate sqlMapTemplate = null ;
+
+    /**
+     * The maximum number of rows which are bound to one set based statement.
+     * Large lists are broken into chunks of this size to keep the number of
+     * bind parameters per statement within reasonable limits.
+     */
+    protected static final int SET_OP_CHUNK_SIZE = 500 ;
+
     /** Public no argument constructor. */
     public AbstractBaseDAO() {
         super() ;
@@ -43,4 +66,80 @@ public abstract class AbstractBaseDAO {
     public DataAccessManager getDataAccessManager() {
         return this.daMgr;
     }
+
+    /**
+     * @param sqlMapClient the SQL map client to use for set based operations
+     */
+    public void setSqlMapClient( final SqlMapClient sqlMapClient ) {
+        this.sqlMapTemplate = new SqlMapClientTemplate( sqlMapClient ) ;
+    }
+
+    /**
+     * Executes the specified set based insert statement over the rows provided,
+     * binding at most {@link #SET_OP_CHUNK_SIZE} rows to one statement. The
+     * rows are made available to the statement as a list against the
+     * specified parameter key.
+     * <p>
+     * The statements are expected to filter out the rows which already exist
+     * in the persistent storage, hence an integrity violation can only result
+     * from a concurrent insert of the same rows. In such a case the chunk is
+     * retried once. Any other failure is logged and the chunk skipped, in line
+     * with the row level insert behavior of the DAOs.
+     *
+     * @param queryId The identifier of the set based insert statement.
+     * @param listKey The parameter key against which the chunk is bound.
+     * @param rows The rows to insert.
+     *
+     * @return The number of rows actually inserted.
+     */
+    protected int insertInChunks( final String queryId, final String listKey,
+                                  final List<?> rows ) {
+        return insertInChunks( queryId, listKey, rows, null ) ;
+    }
+
+    /**
+     * Executes the specified set based insert statement over the rows provided,
+     * as {@link #insertInChunks(String, String, List)} does, with additional
+     * parameters made available to the statement for every chunk. This is
+     * used for example to pass the name of the partition which the rows are
+     * to be inserted into.
+     *
+     * @param queryId The identifier of the set based insert statement.
+     * @param listKey The parameter key against which the chunk is bound.
+     * @param rows The rows to insert.
+     * @param params The additional parameters of the statement, can be null.
+     *
+     * @return The number of rows actually inserted.
+     */
+    protected int insertInChunks( final String queryId, final String listKey,
+                                  final List<?> rows,
+                                  final Map<String, Object> params ) {
+
+        int numInserted = 0 ;
+        final Map<String, Object> paramMap = new HashMap<String, Object>() ;
+        if( params != null ) {
+            paramMap.putAll( params ) ;
+        }
+
+        for( int start=0; start<rows.size(); start+=SET_OP_CHUNK_SIZE ) {
+            final int end = Math.min( start + SET_OP_CHUNK_SIZE, rows.size() ) ;
+            paramMap.put( listKey, rows.subList( start, end ) ) ;
+            try {
+                try {
+                    numInserted += this.sqlMapTemplate.update( queryId, paramMap ) ;
+                }
+                catch( final DataIntegrityViolationException e ) {
+                    logger.debug( "Integrity violation for " + queryId +
+                                  ", retrying chunk" ) ;
+                    numInserted += this.sqlMapTemplate.update( queryId, paramMap ) ;
+                }
+            }
+            catch( final org.springframework.dao.DataAccessException e ) {
+                logger.error( "Unable to execute " + queryId + " for " +
+                              ( end - start ) + " rows. Msg:" + e.getMessage() ) ;
+                logger.debug( "Unable to execute " + queryId, e ) ;
+            }
+        }
+        return numInserted ;
+    }
 }
@@ -3,21 +3,30 @@
  */
 
 package com.sandy.apps.pluto.biz.dao.impl;
+import java.sql.SQLException ;
+import java.util.ArrayList ;
 import java.util.Date ;
 import java.util.HashMap ;
+import java.util.HashSet ;
+import java.util.Iterator ;
+import java.util.LinkedHashMap ;
 import java.util.List ;
 import java.util.Map ;
+import java.util.Set ;
 
 import org.apache.log4j.Logger ;
+import org.springframework.orm.ibatis.SqlMapClientCallback ;
 
+import com.ibatis.sqlmap.client.SqlMapExecutor ;
 import com.sandy.apps.pluto.biz.dao.IEODIndexDAO ;
+import com.sandy.apps.pluto.biz.dao.IPartitionDAO ;
 import com.sandy.apps.pluto.biz.dao.ISymbolDAO ;
 import com.sandy.apps.pluto.biz.svc.impl.EODImportSvc ;
 import com.sandy.apps.pluto.shared.STConstant ;
 import com.sandy.apps.pluto.shared.STUtils ;
 import com.sandy.apps.pluto.shared.dto.ScripEOD ;
-import com.sandy.apps.pluto.shared.dto.Symbol ;
 import com.sandy.apps.pluto.shared.dto.SymbolPctChange ;
+import com.sandy.apps.pluto.shared.filter.FilterPredicate ;
 import com.sandy.apps.pluto.shared.util.dataaccess.DataAccessException ;
 
 /**
@@ -36,6 +45,12 @@ public class EODIndexDAO extends AbstractBaseDAO implements IEODIndexDAO {
      */
     private ISymbolDAO symbolDAO = null ;
 
+    /**
+     * INJECTABLE: This variable should be injected with a reference to the
+     * implementation of IPartitionDAO interface.
+     */
+    private IPartitionDAO partitionDAO = null ;
+
     /** Public no argument constructor. */
     public EODIndexDAO() {
         super() ;
@@ -55,6 +70,20 @@ public class EODIndexDAO extends AbstractBaseDAO implements IEODIndexDAO {
         this.symbolDAO = symbolDAO ;
     }
 
+    /**
+     * @return the partitionDAO
+     */
+    public IPartitionDAO getPartitionDAO() {
+        return this.partitionDAO ;
+    }
+
+    /**
+     * @param partitionDAO the partitionDAO to set
+     */
+    public void setPartitionDAO( final IPartitionDAO partitionDAO ) {
+        this.partitionDAO = partitionDAO ;
+    }
+
     /**
      * Deletes a list of eodIndices from the persistent storage. It is assumed
      * that the elements in the index belong to one symbol. If the input list
@@ -89,14 +118,15 @@ public class EODIndexDAO extends AbstractBaseDAO implements IEODIndexDAO {
 
     /**
      * Inserts a list of eodIndices into the persistent storage. If an index in
-     * the list already exists in the database, it is deleted and replaced with
-     * a new value. It is assumed that the elements in the index belong to one
-     * symbol. If the input list contains EOD from multiple symbols, the result
-     * of the operation is undefined.
+     * the list already exists in the database, it is skipped. Any symbols
+     * which are not yet registered are registered in one pre-pass before
+     * the EOD values are inserted in chunks, into the partitions of their
+     * months. The partitions are created if they do not exist yet.
      *
      * @param eodIndices A list of {@link ScripEOD} instances.
      *
-     * @return The number of successful inserts.
+     * @return The number of EOD values actually inserted. Values which were
+     *         already present in the database are not counted.
      *
      * @throws DataAccessException In case an exception is encountered during
      *         the data access operation.
@@ -108,49 +138,129 @@ public class EODIndexDAO extends AbstractBaseDAO implements IEODIndexDAO {
             return 0 ;
         }
 
-        // The symbol we are dealing with.
-        final String QUERY_ID = "ScripEOD.insert" ;
+        // The query we are dealing with.
+        final String QUERY_ID = "ScripEOD.insertBatch" ;
 
+        // Make the values unique on symbol and date, since a duplicate within
+        // the same statement would not be filtered by the database.
+        final Map<String, ScripEOD> uniqueEODs = new LinkedHashMap<String, ScripEOD>() ;
+        final Set<String>           symbols    = new HashSet<String>() ;
+        final Set<Date>             dates      = new HashSet<Date>() ;
         for( final ScripEOD index : eodIndices ) {
-            boolean retry = true ;
-            while( retry ) {
+            uniqueEODs.put( index.getSymbolId() + index.getDate().getTime(), index ) ;
+            symbols.add( index.getSymbolId() ) ;
+            dates.add( index.getDate() ) ;
+        }
+
+        // Register the unknown symbols before the insert, so that the insert
+        // does not run into foreign key violations.
+        this.symbolDAO.registerSymbols( symbols ) ;
+        this.partitionDAO.ensurePartitions( PartitionedTable.STOCK_EOD_DATA, dates ) ;
+
+        // Group the values by partition, each partition is inserted into
+        // with its own set of statements.
+        final Map<String, List<ScripEOD>> partitionMap = new LinkedHashMap<String, List<ScripEOD>>() ;
+        for( final ScripEOD eod : uniqueEODs.values() ) {
+            final String partition = PartitionedTable.STOCK_EOD_DATA.getPartitionName( eod.getDate() ) ;
+            List<ScripEOD> partitionEODs = partitionMap.get( partition ) ;
+            if( partitionEODs == null ) {
+                partitionEODs = new ArrayList<ScripEOD>() ;
+                partitionMap.put( partition, partitionEODs ) ;
+            }
+            partitionEODs.add( eod ) ;
+        }
+
+        int numInserted = 0 ;
+        final Map<String, Object> params = new HashMap<String, Object>() ;
+        for( final Map.Entry<String, List<ScripEOD>> entry : partitionMap.entrySet() ) {
+            params.put( "partition", entry.getKey() ) ;
+            numInserted += super.insertInChunks( QUERY_ID, "eodList",
+                                                 entry.getValue(), params ) ;
+        }
+        if( logger.isDebugEnabled() ) {
+            logger.debug( "Inserted " + numInserted + " ScripEOD, skipped " +
+                          ( eodIndices.size() - numInserted ) ) ;
+        }
+        return numInserted ;
+    }
+
+    /**
+     * Bulk loads EOD values into the persistent storage. All the statements
+     * are executed on one connection - a temporary staging table is created,
+     * each batch from the iterator is staged with one JDBC batch, the unknown
+     * symbols are registered from the staging table and finally the staged
+     * values are merged into the live table, one partition at a time. The
+     * staging table is dropped at the end of the load, irrespective of the
+     * outcome.
+     *
+     * @param eodBatches An iterator over batches of {@link ScripEOD} instances.
+     *
+     * @return The number of EOD values actually inserted into the live table.
+     *
+     * @throws DataAccessException In case an exception is encountered during
+     *         the data access operation.
+     */
+    public int bulkLoad( final Iterator<List<ScripEOD>> eodBatches )
+        throws DataAccessException {
+
+        final Integer numMerged = ( Integer )super.sqlMapTemplate.execute(
+                                                  new SqlMapClientCallback() {
+
+            @SuppressWarnings("unchecked")
+            public Object doInSqlMapClient( final SqlMapExecutor executor )
+                throws SQLException {
+
+                // A stale staging table can be left over on a pooled
+                // connection if an earlier load was aborted midway.
+                executor.update( "ScripEOD.dropStage", null ) ;
+                executor.update( "ScripEOD.createStage", null ) ;
                 try {
-                    if( logger.isDebugEnabled() ) {
-                        logger.debug( "Importing EOD for " + index.getSymbolId() +
-                        " date " + EODImportSvc.NSE_POST_DF.format( index.getDate() ) ) ;
+                    int numStaged = 0 ;
+                    while( eodBatches.hasNext() ) {
+                        final List<ScripEOD> batch = eodBatches.next() ;
+                        if( batch == null || batch.isEmpty() ) {
+                            continue ;
+                        }
+
+                        executor.startBatch() ;
+                        for( final ScripEOD eod : batch ) {
+                            executor.insert( "ScripEOD.insertStage", eod ) ;
+                        }
+                        numStaged += executor.executeBatch() ;
                     }
-                    super.daMgr.createRecord( QUERY_ID, index ) ;
-                    retry = false ;
-                }
-                catch ( final DataAccessException e ) {
-                    // If this is a PK violation, we ignore the exception
-                    if( PostGresUtil.isPKViolation( e ) ) {
-                        // Ignore primary key violations.
-                        retry = false ;
-                    }
-                    else if ( PostGresUtil.isFKViolation( e ) ) {
-                        // Foreign key exceptions imply that the symbol is not yet
-                        // registered - we employ fail safe measure by inserting
-                        // the symbol at runtime and retrying the insert operation
-                        final Symbol symbol = new Symbol() ;
-                        symbol.setSymbol( index.getSymbolId() ) ;
-                        symbol.setSeries( "EQ" ) ;
-                        symbol.setMarketType( "N" ) ;
-                        symbol.setDescription( "Dynamically added symbol" ) ;
-                        this.symbolDAO.addSymbol( symbol ) ;
-                    }
-                    else {
-                        logger.error( "Unable to insert EOD data. Msg:" + e.getMessage() ) ;
-                        logger.debug( "Unable to insert EOD data.", e ) ;
-                        retry = false ;
+                    logger.debug( "Staged " + numStaged + " EOD values for merge" ) ;
+
+                    executor.update( "ScripEOD.registerStagedSymbols", null ) ;
+
+                    // Merge the staged values into the partitions of their
+                    // months, creating the partitions which don't exist yet.
+                    final PartitionedTable table = PartitionedTable.STOCK_EOD_DATA ;
+                    final List<Date> stagedDates = executor.queryForList(
+                                               "ScripEOD.getStagedDates", null ) ;
+                    EODIndexDAO.this.partitionDAO.ensurePartitions( table, stagedDates ) ;
+
+                    int numMerged = 0 ;
+                    final Set<String> mergedPartitions = new HashSet<String>() ;
+                    final Map<String, Object> params = new HashMap<String, Object>() ;
+                    for( final Date date : stagedDates ) {
+                        final String partition = table.getPartitionName( date ) ;
+                        if( mergedPartitions.add( partition ) ) {
+                            params.put( "partition", partition ) ;
+                            params.put( "fromDate",  table.getPartitionStart( date ) ) ;
+                            params.put( "toDate",    table.getPartitionEnd( date ) ) ;
+                            numMerged += executor.update( "ScripEOD.mergeStage", params ) ;
+                        }
                     }
+                    return Integer.valueOf( numMerged ) ;
+                }
+                finally {
+                    executor.update( "ScripEOD.dropStage", null ) ;
                 }
             }
-        }
+        } ) ;
 
-        // With the new version of PRISM, we will get the value to return
-        // Till such time this is a place holder.
-        return 0 ;
+        logger.debug( "Bulk loaded " + numMerged + " EOD values" ) ;
+        return numMerged.intValue() ;
     }
 
     /**
@@ -350,6 +460,45 @@ public class EODIndexDAO extends AbstractBaseDAO implements IEODIndexDAO {
         return data ;
     }
 
+    /**
+     * Returns the scrip EOD data in the date range which satisfy the filter,
+     * with the symbol details embedded. The filter is rendered as an SQL
+     * condition and evaluated by the database over both the live and the
+     * archived EOD data.
+     *
+     * @param filter The filter, which should be pushable to the database.
+     * @param start The start of the date range.
+     * @param end The end of the date range.
+     *
+     * @return A list of {@link ScripEOD} instances in the ascending order of
+     *         their dates and symbols.
+     *
+     * @throws DataAccessException In case an exception is encountered during
+     *         the data access operation.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<ScripEOD> getScripEOD( final FilterPredicate filter,
+                                       final Date start, final Date end )
+        throws DataAccessException {
+
+        final String QUERY_ID = "ScripEOD.screenScripEOD" ;
+        final Map<String, Object> paramMap = new HashMap<String, Object>() ;
+
+        paramMap.put( "startDate", STUtils.getStartOfDay( start ) ) ;
+        paramMap.put( "endDate",   STUtils.getStartOfDay( end ) ) ;
+        paramMap.put( "filter",    filter.toSQL() ) ;
+
+        if( logger.isDebugEnabled() ) {
+            logger.debug( "Screening Scrip EOD data for date range " +
+                          "startDate = " + STConstant.DATE_FMT.format( start ) +
+                          ", endDate = " + STConstant.DATE_FMT.format( end ) +
+                          " with filter " + paramMap.get( "filter" ) ) ;
+        }
+
+        return super.daMgr.searchRecords( QUERY_ID, paramMap ) ;
+    }
+
     /**
      * Returns the latest date for which EOD data has been imported for Scrips.
      *
@@ -478,6 +627,10 @@ public class EODIndexDAO extends AbstractBaseDAO implements IEODIndexDAO {
      * table. If you want to delete the live data which has been archived, you
      * need to call on the deleteLiveRecords operation within the same transaction
      * boundary.
+     * <p>
+     * Only the records held by the live table itself, which were inserted
+     * before the table was partitioned, are moved. The partitions are
+     * archived with the archivePartitions operation.
      *
      * @param boundary The date which implies that any record with date in the
      *        past as compared to the boundary will be archived.
@@ -498,7 +651,8 @@ public class EODIndexDAO extends AbstractBaseDAO implements IEODIndexDAO {
      * Please note that this operation does not copy the data from the live
      * table to the archive table. If you want to copy the live data which is
      * about to be deleted, you need to call on the archiveLiveRecords
-     * before this call, within the same transaction boundary.
+     * before this call, within the same transaction boundary. The records of
+     * the partitions of the live table are not deleted.
      *
      * @param boundary The date which implies that any record with date in the
      *        past as compared to the boundary will be deleted.
@@ -512,4 +666,23 @@ public class EODIndexDAO extends AbstractBaseDAO implements IEODIndexDAO {
         final String QUERY_ID = "ScripEOD.deleteLiveRecords" ;
         super.daMgr.deleteRecord( QUERY_ID, boundary ) ;
     }
+
+    /**
+     * Archives the monthly partitions of the SCRIP_EOD_DATA table which lie
+     * entirely before the boundary date. The partitions are moved to the
+     * archive table without copying or deleting any records.
+     *
+     * @param boundary The date which implies that any partition of months in
+     *        the past as compared to the boundary will be archived.
+     *
+     * @return The number of partitions archived.
+     *
+     * @throws DataAccessException If an exception is encountered during the
+     *         archival process.
+     */
+    public int archivePartitions( final Date boundary )
+        throws DataAccessException {
+
+        return this.partitionDAO.archivePartitions( PartitionedTable.STOCK_EOD_DATA, boundary ) ;
+    }
 }
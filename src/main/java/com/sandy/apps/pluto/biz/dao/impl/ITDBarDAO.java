@@ -0,0 +1,147 @@
+/**
+ * Creation Date: Oct 18, 2026
+ */
+
+package com.sandy.apps.pluto.biz.dao.impl;
+
+import java.util.Collections ;
+import java.util.Date ;
+import java.util.HashMap ;
+import java.util.List ;
+import java.util.Map ;
+
+import org.apache.log4j.Logger ;
+
+import com.sandy.apps.pluto.biz.dao.IITDBarDAO ;
+import com.sandy.apps.pluto.shared.dto.ITDBar ;
+import com.sandy.apps.pluto.shared.util.dataaccess.DataAccessException ;
+
+/**
+ * The implementation of {@link IITDBarDAO}. The bars are saved set based, the
+ * existing bars are updated in one statement per chunk and the new bars are
+ * inserted in another.
+ *
+ * @author Sandeep Deb [deb.sandeep@gmail.com]
+ */
+public class ITDBarDAO extends AbstractBaseDAO implements IITDBarDAO {
+
+    /** Log4J logger for this class. */
+    public static final Logger logger = Logger.getLogger( ITDBarDAO.class ) ;
+
+    /** Public no argument constructor. */
+    public ITDBarDAO() {
+        super() ;
+    }
+
+    /**
+     * Saves a list of scrip bars into the persistent storage. Bars which
+     * already exist are updated with the values of the bars passed.
+     *
+     * @param bars A list of {@link ITDBar} instances, unique by symbol,
+     *        interval and time.
+     *
+     * @throws DataAccessException In case an exception is encountered during
+     *         the data access operation.
+     */
+    public void saveScripBars( final List<ITDBar> bars )
+        throws DataAccessException {
+
+        if( bars == null || bars.isEmpty() ) {
+            return ;
+        }
+        super.insertInChunks( "ITDBar.updateScripBars", "barList", bars ) ;
+        final int numInserted = super.insertInChunks( "ITDBar.insertScripBars", "barList", bars ) ;
+        if( logger.isDebugEnabled() ) {
+            logger.debug( "Saved " + bars.size() + " scrip bars, " +
+                          numInserted + " new" ) ;
+        }
+    }
+
+    /**
+     * Saves a list of index bars into the persistent storage. Bars which
+     * already exist are updated with the values of the bars passed.
+     *
+     * @param bars A list of {@link ITDBar} instances, unique by index name,
+     *        interval and time.
+     *
+     * @throws DataAccessException In case an exception is encountered during
+     *         the data access operation.
+     */
+    public void saveIndexBars( final List<ITDBar> bars )
+        throws DataAccessException {
+
+        if( bars == null || bars.isEmpty() ) {
+            return ;
+        }
+        super.insertInChunks( "ITDBar.updateIndexBars", "barList", bars ) ;
+        final int numInserted = super.insertInChunks( "ITDBar.insertIndexBars", "barList", bars ) ;
+        if( logger.isDebugEnabled() ) {
+            logger.debug( "Saved " + bars.size() + " index bars, " +
+                          numInserted + " new" ) ;
+        }
+    }
+
+    /**
+     * Returns the bars of the specified interval for the scrip and the date
+     * range specified, in the ascending order of time.
+     *
+     * @param symbol The NSE symbol of the scrip.
+     * @param interval The length of the bar interval in seconds.
+     * @param start The start of the date range.
+     * @param end The end of the date range.
+     *
+     * @return A list of {@link ITDBar}. If there are no bars for the range,
+     *         an empty list is returned, never null.
+     *
+     * @throws DataAccessException In case an exception is encountered during
+     *         the data access operation.
+     */
+    public List<ITDBar> getScripBars( final String symbol, final int interval,
+                                      final Date start, final Date end )
+        throws DataAccessException {
+
+        return getBars( "ITDBar.getScripBars", symbol, interval, start, end ) ;
+    }
+
+    /**
+     * Returns the bars of the specified interval for the index and the date
+     * range specified, in the ascending order of time.
+     *
+     * @param index The name of the index.
+     * @param interval The length of the bar interval in seconds.
+     * @param start The start of the date range.
+     * @param end The end of the date range.
+     *
+     * @return A list of {@link ITDBar}. If there are no bars for the range,
+     *         an empty list is returned, never null.
+     *
+     * @throws DataAccessException In case an exception is encountered during
+     *         the data access operation.
+     */
+    public List<ITDBar> getIndexBars( final String index, final int interval,
+                                      final Date start, final Date end )
+        throws DataAccessException {
+
+        return getBars( "ITDBar.getIndexBars", index, interval, start, end ) ;
+    }
+
+    /** Executes the bar range query specified. */
+    @SuppressWarnings("unchecked")
+    private List<ITDBar> getBars( final String queryId, final String symbol,
+                                  final int interval, final Date start,
+                                  final Date end )
+        throws DataAccessException {
+
+        final Map<String, Object> paramMap = new HashMap<String, Object>() ;
+        paramMap.put( "symbol",   symbol ) ;
+        paramMap.put( "interval", interval ) ;
+        paramMap.put( "fromDate", start ) ;
+        paramMap.put( "toDate",   end ) ;
+
+        List<ITDBar> retVal = super.daMgr.searchRecords( queryId, paramMap ) ;
+        if( retVal == null ) {
+            retVal = Collections.emptyList() ;
+        }
+        return retVal ;
+    }
+}
@@ -3,20 +3,25 @@
  */
 
 package com.sandy.apps.pluto.biz.dao.impl;
+import java.util.ArrayList ;
 import java.util.Collections ;
 import java.util.Date ;
 import java.util.HashMap ;
+import java.util.HashSet ;
 import java.util.Iterator ;
+import java.util.LinkedHashMap ;
+import java.util.LinkedHashSet ;
 import java.util.List ;
 import java.util.Map ;
+import java.util.Set ;
 
 import org.apache.log4j.Logger ;
 
 import com.sandy.apps.pluto.biz.dao.IITDIndexDAO ;
+import com.sandy.apps.pluto.biz.dao.IPartitionDAO ;
 import com.sandy.apps.pluto.biz.dao.ISymbolDAO ;
 import com.sandy.apps.pluto.shared.STUtils ;
 import com.sandy.apps.pluto.shared.dto.ScripITD ;
-import com.sandy.apps.pluto.shared.dto.Symbol ;
 import com.sandy.apps.pluto.shared.util.dataaccess.DataAccessException ;
 
 /**
@@ -35,6 +40,12 @@ public class ITDIndexDAO extends AbstractBaseDAO implements IITDIndexDAO {
      */
     private ISymbolDAO symbolDAO = null ;
 
+    /**
+     * INJECTABLE: This variable should be injected with a reference to the
+     * implementation of IPartitionDAO interface.
+     */
+    private IPartitionDAO partitionDAO = null ;
+
     /** Public no argument constructor. */
     public ITDIndexDAO() {
         super() ;
@@ -54,15 +65,37 @@ public class ITDIndexDAO extends AbstractBaseDAO implements IITDIndexDAO {
         this.symbolDAO = symbolDAO ;
     }
 
+    /**
+     * @return the partitionDAO
+     */
+    public IPartitionDAO getPartitionDAO() {
+        return this.partitionDAO ;
+    }
+
+    /**
+     * @param partitionDAO the partitionDAO to set
+     */
+    public void setPartitionDAO( final IPartitionDAO partitionDAO ) {
+        this.partitionDAO = partitionDAO ;
+    }
+
     /**
      * Inserts a list of itdIndices into the persistent storage. This method
      * filters the invalid ITD entries in the called array - for example if
      * an entry is found with an invalid date, it is removed from the input
      * collection.
+     * <p>
+     * The insert is set based - any symbols not yet registered are registered
+     * in one pre-pass and the ITD values are inserted in chunks, with the
+     * database skipping the values which are already present. No exception
+     * is raised for duplicate or unknown symbol entries. The values are
+     * inserted into the partitions of their days, which are created if they
+     * do not exist yet.
      *
      * @param itdIndices A list of {@link ScripITD} instances.
      *
-     * @return The number of successful inserts.
+     * @return The number of ITD values actually inserted. Values which were
+     *         already present in the database are not counted.
      *
      * @throws DataAccessException In case an exception is encountered during
      *         the data access operation.
@@ -76,68 +109,77 @@ public class ITDIndexDAO extends AbstractBaseDAO implements IITDIndexDAO {
             return 0 ;
         }
 
-        // The symbol we are dealing with.
-        final String QUERY_ID = "ScripITD.insert" ;
+        // The query we are dealing with.
+        final String QUERY_ID = "ScripITD.insertBatch" ;
 
-        // Insert elements one by one and disregard PK violations. Now is
-        // the current time. Any ITD value which is not before the current
-        // time will be removed.
+        // Now is the current time. Any ITD value which is not before the
+        // current time will be removed. The values which remain are made
+        // unique on symbol and time, since a duplicate within the same
+        // statement would not be filtered by the database.
         final Date now = new Date() ;
+        final Set<ScripITD> validITDs = new LinkedHashSet<ScripITD>() ;
+        final Set<String>   symbols   = new HashSet<String>() ;
+        final Set<Date>     days      = new HashSet<Date>() ;
         for( final Iterator<ScripITD> iter = itdIndices.iterator(); iter.hasNext(); ) {
 
             final ScripITD scrip = iter.next() ;
-            boolean retry = true ;
-            while( retry ) {
-                try {
-                    // Filter out the erroneous entries. There are times when
-                    // it is observed that NSE gives us entries pointing to the
-                    // future :) and way in the past like 2000 BC.
-                    if( scrip.getTime().before( now ) ||
-                        scrip.getTime().equals( now ) ) {
-                        super.daMgr.createRecord( QUERY_ID, scrip ) ;
-                    }
-                    else {
-                        iter.remove() ;
-                        logger.debug( "Found a ITD in the future, ignoring..." ) ;
-                        logger.debug( "Scrip ITD = " + scrip ) ;
-                    }
-                    retry = false ;
-                }
-                catch ( final DataAccessException e ) {
-                    if( PostGresUtil.isPKViolation( e ) ) {
-                        // Ignore a PK violation
-                        logger.debug( "PK violation while inserting Scrip ITD " + scrip ) ;
-                        retry = false ;
-                    }
-                    else if ( PostGresUtil.isFKViolation( e ) ) {
-                        // Foreign key exceptions imply that the symbol is not yet
-                        // registered - we employ fail safe measure by inserting
-                        // the symbol at runtime and retrying the insert operation
-                        final Symbol symbol = new Symbol() ;
-                        symbol.setSymbol( scrip.getSymbolId() ) ;
-                        symbol.setSeries( "EQ" ) ;
-                        symbol.setMarketType( "N" ) ;
-                        symbol.setDescription( "Dynamically added symbol" ) ;
-                        this.symbolDAO.addSymbol( symbol ) ;
-                    }
-                    else {
-                        logger.error( "Unable to insert ITD data. Msg:" + e.getMessage() ) ;
-                        logger.debug( "Unable to insert ITD data.", e ) ;
-                        retry = false ;
-                    }
-                }
+            // Filter out the erroneous entries. There are times when
+            // it is observed that NSE gives us entries pointing to the
+            // future :) and way in the past like 2000 BC.
+            if( scrip.getTime().after( now ) ) {
+                iter.remove() ;
+                logger.debug( "Found a ITD in the future, ignoring..." ) ;
+                logger.debug( "Scrip ITD = " + scrip ) ;
+            }
+            else {
+                validITDs.add( scrip ) ;
+                symbols.add( scrip.getSymbolId() ) ;
+                days.add( STUtils.getStartOfDay( scrip.getTime() ) ) ;
+            }
+        }
+
+        if( validITDs.isEmpty() ) {
+            return 0 ;
+        }
+
+        // Register the unknown symbols before the insert, so that the insert
+        // does not run into foreign key violations.
+        this.symbolDAO.registerSymbols( symbols ) ;
+        this.partitionDAO.ensurePartitions( PartitionedTable.STOCK_ITD_DATA, days ) ;
+
+        // Group the values by partition, each partition is inserted into
+        // with its own set of statements.
+        final Map<String, List<ScripITD>> partitionMap = new LinkedHashMap<String, List<ScripITD>>() ;
+        for( final ScripITD itd : validITDs ) {
+            final String partition = PartitionedTable.STOCK_ITD_DATA.getPartitionName( itd.getTime() ) ;
+            List<ScripITD> partitionITDs = partitionMap.get( partition ) ;
+            if( partitionITDs == null ) {
+                partitionITDs = new ArrayList<ScripITD>() ;
+                partitionMap.put( partition, partitionITDs ) ;
             }
+            partitionITDs.add( itd ) ;
         }
 
-        // With the new version of PRISM, we will get the value to return
-        // Till such time this is a place holder.
-        return 0 ;
+        int numInserted = 0 ;
+        final Map<String, Object> params = new HashMap<String, Object>() ;
+        for( final Map.Entry<String, List<ScripITD>> entry : partitionMap.entrySet() ) {
+            params.put( "partition", entry.getKey() ) ;
+            numInserted += super.insertInChunks( QUERY_ID, "itdList",
+                                                 entry.getValue(), params ) ;
+        }
+        if( logger.isDebugEnabled() ) {
+            logger.debug( "Inserted " + numInserted + " ScripITD, skipped " +
+                          ( itdIndices.size() - numInserted ) ) ;
+        }
+        return numInserted ;
     }
 
     /**
-     * Inserts an instance of ScripITD into the persistent storage.
+     * Inserts an instance of ScripITD into the persistent storage. The value
+     * is inserted through the set based insert, so that it goes into the
+     * partition of its day. A value which is already present is skipped.
      *
-     * @param itdIndices A list of {@link ScripITD} instances.
+     * @param scrip The {@link ScripITD} instance to insert.
      *
      * @return The number of successful inserts.
      *
@@ -147,60 +189,14 @@ public class ITDIndexDAO extends AbstractBaseDAO implements IITDIndexDAO {
     public int insert( final ScripITD scrip )
         throws DataAccessException {
 
-        logger.debug( "Inserting ScripITD instances into DB" ) ;
         // If we have nothing to insert, just return
         if( scrip == null ) {
             return 0 ;
         }
 
-        // The symbol we are dealing with.
-        final String QUERY_ID = "ScripITD.insert" ;
-
-        // insert all the elements in batch mode.
-        boolean retry = true ;
-        while( retry ) {
-            try {
-                // Filter out the erroneous entries. There are times when
-                // it is observed that NSE gives us entries pointing to the
-                // future :) and way in the past like 2000 BC.
-                final Date now = new Date() ;
-                if( scrip.getTime().before( now ) ) {
-                    super.daMgr.createRecord( QUERY_ID, scrip ) ;
-                }
-                else {
-                    logger.error( "Found a ITD in the future, ignoring..." ) ;
-                    logger.error( "Scrip ITD = " + scrip ) ;
-                }
-                retry = false ;
-            }
-            catch ( final DataAccessException e ) {
-                if( PostGresUtil.isPKViolation( e ) ) {
-                    // Ignore a PK violation
-                    logger.debug( "PK violation while inserting Scrip ITD = " + scrip ) ;
-                    retry = false ;
-                }
-                else if ( PostGresUtil.isFKViolation( e ) ) {
-                    // Foreign key exceptions imply that the symbol is not yet
-                    // registered - we employ fail safe measure by inserting
-                    // the symbol at runtime and retrying the insert operation
-                    final Symbol symbol = new Symbol() ;
-                    symbol.setSymbol( scrip.getSymbolId() ) ;
-                    symbol.setSeries( "EQ" ) ;
-                    symbol.setMarketType( "N" ) ;
-                    symbol.setDescription( "Dynamically added symbol" ) ;
-                    this.symbolDAO.addSymbol( symbol ) ;
-                }
-                else {
-                    logger.error( "Unable to insert ITD data. Msg:" + e.getMessage() ) ;
-                    logger.debug( "Unable to insert ITD data.", e ) ;
-                    retry = false ;
-                }
-            }
-        }
-
-        // With the new version of PRISM, we will get the value to return
-        // Till such time this is a place holder.
-        return 0 ;
+        final List<ScripITD> itdIndices = new ArrayList<ScripITD>() ;
+        itdIndices.add( scrip ) ;
+        return insert( itdIndices ) ;
     }
 
     /**
@@ -288,6 +284,10 @@ public class ITDIndexDAO extends AbstractBaseDAO implements IITDIndexDAO {
      * table. If you want to delete the live data which has been archived, you
      * need to call on the deleteLiveRecords operation within the same transaction
      * boundary.
+     * <p>
+     * Only the records held by the live table itself, which were inserted
+     * before the table was partitioned, are moved. The partitions are
+     * archived with the archivePartitions operation.
      *
      * @param boundary The date which implies that any record with date in the
      *        past as compared to the boundary will be archived.
@@ -308,7 +308,8 @@ public class ITDIndexDAO extends AbstractBaseDAO implements IITDIndexDAO {
      * Please note that this operation does not copy the data from the live
      * table to the archive table. If you want to copy the live data which is
      * about to be deleted, you need to call on the archiveLiveRecords
-     * before this call, within the same transaction boundary.
+     * before this call, within the same transaction boundary. The records of
+     * the partitions of the live table are not deleted.
      *
      * @param boundary The date which implies that any record with date in the
      *        past as compared to the boundary will be deleted.
@@ -322,4 +323,23 @@ public class ITDIndexDAO extends AbstractBaseDAO implements IITDIndexDAO {
         final String QUERY_ID = "ScripITD.deleteLiveRecords" ;
         super.daMgr.deleteRecord( QUERY_ID, boundary ) ;
     }
+
+    /**
+     * Archives the daily partitions of the SCRIP_ITD_DATA table which lie
+     * entirely before the boundary date. The partitions are moved to the
+     * archive table without copying or deleting any records.
+     *
+     * @param boundary The date which implies that any partition of days in
+     *        the past as compared to the boundary will be archived.
+     *
+     * @return The number of partitions archived.
+     *
+     * @throws DataAccessException If an exception is encountered during the
+     *         archival process.
+     */
+    public int archivePartitions( final Date boundary )
+        throws DataAccessException {
+
+        return this.partitionDAO.archivePartitions( PartitionedTable.STOCK_ITD_DATA, boundary ) ;
+    }
 }
@@ -0,0 +1,198 @@
+/**
+ * Creation Date: Oct 18, 2026
+ */
+
+package com.sandy.apps.pluto.biz.dao.impl;
+
+import java.util.Collection ;
+import java.util.Date ;
+import java.util.HashMap ;
+import java.util.HashSet ;
+import java.util.List ;
+import java.util.Map ;
+import java.util.Set ;
+import java.util.TreeSet ;
+
+import org.apache.log4j.Logger ;
+
+import com.sandy.apps.pluto.biz.dao.IPartitionDAO ;
+import com.sandy.apps.pluto.shared.util.dataaccess.DataAccessException ;
+
+/**
+ * The implementation of {@link IPartitionDAO}. The names of the existing
+ * partitions of each table are read from the database catalog on first use
+ * and cached, so that checking for the partitions of an insert does not
+ * need a database hit.
+ *
+ * @author Sandeep Deb [deb.sandeep@gmail.com]
+ */
+public class PartitionDAO extends AbstractBaseDAO implements IPartitionDAO {
+
+    /** Log4J logger for this class. */
+    public static final Logger logger = Logger.getLogger( PartitionDAO.class ) ;
+
+    /** The names of the live partitions, keyed by the partitioned table. */
+    private final Map<PartitionedTable, Set<String>> partitionCache =
+                                    new HashMap<PartitionedTable, Set<String>>() ;
+
+    /** Public no argument constructor. */
+    public PartitionDAO() {
+        super() ;
+    }
+
+    /**
+     * Creates the partitions of the table which are required to hold rows
+     * of the dates specified, if they do not exist already. A partition is
+     * created with a check constraint on its range, which allows the planner
+     * to skip the partitions outside the range of a query, and with the
+     * primary key of the table and its reference to the SYMBOL table, since
+     * constraints are not inherited.
+     * <p>
+     * The constraints are added after the partition is created. If adding
+     * them fails, the partition exists without them, which is repaired when
+     * the partitions are loaded from the catalog - right away, as the cache
+     * is reloaded on a failure, or else at the next startup.
+     *
+     * @see IPartitionDAO#ensurePartitions(PartitionedTable, Collection)
+     */
+    public synchronized void ensurePartitions( final PartitionedTable table,
+                                               final Collection<Date> dates )
+        throws DataAccessException {
+
+        for( final Date date : dates ) {
+
+            final String partition = table.getPartitionName( date ) ;
+            if( getPartitions( table ).contains( partition ) ) {
+                continue ;
+            }
+
+            final Map<String, Object> paramMap = getKeyParamMap( table, partition ) ;
+            paramMap.put( "column",   table.getColumn() ) ;
+            paramMap.put( "fromDate", table.formatBound( table.getPartitionStart( date ) ) ) ;
+            paramMap.put( "toDate",   table.formatBound( table.getPartitionEnd( date ) ) ) ;
+
+            try {
+                super.sqlMapTemplate.update( "Partition.createPartition", paramMap ) ;
+                super.sqlMapTemplate.update( "Partition.addPrimaryKey", paramMap ) ;
+                super.sqlMapTemplate.update( "Partition.addSymbolReference", paramMap ) ;
+                logger.info( "Created partition " + partition ) ;
+            }
+            catch( final org.springframework.dao.DataAccessException e ) {
+                // The partition might have been created by another instance
+                // of the application. Reload the cache to find out.
+                this.partitionCache.remove( table ) ;
+                if( !getPartitions( table ).contains( partition ) ) {
+                    logger.error( "Could not create partition " + partition ) ;
+                    throw e ;
+                }
+                continue ;
+            }
+            getPartitions( table ).add( partition ) ;
+        }
+    }
+
+    /**
+     * Archives the partitions of the table whose range lies entirely before
+     * the boundary. The partition is attached to the archive table before it
+     * is detached from the table, so that its rows are never missing from
+     * both. Both are catalog only operations which hold their locks briefly,
+     * irrespective of the size of the partition.
+     *
+     * @see IPartitionDAO#archivePartitions(PartitionedTable, Date)
+     */
+    public synchronized int archivePartitions( final PartitionedTable table,
+                                               final Date boundary )
+        throws DataAccessException {
+
+        int numArchived = 0 ;
+        for( final String partition : new TreeSet<String>( getPartitions( table ) ) ) {
+
+            final Date start = table.getPartitionStart( partition ) ;
+            if( start == null || table.getPartitionEnd( start ).after( boundary ) ) {
+                continue ;
+            }
+
+            final Map<String, Object> paramMap = getParamMap( table, partition ) ;
+            paramMap.put( "archiveTable", table.getArchiveName() ) ;
+
+            super.sqlMapTemplate.update( "Partition.attachArchive", paramMap ) ;
+            super.sqlMapTemplate.update( "Partition.detachPartition", paramMap ) ;
+            getPartitions( table ).remove( partition ) ;
+            numArchived++ ;
+            logger.info( "Archived partition " + partition ) ;
+        }
+        return numArchived ;
+    }
+
+    /**
+     * Returns the cached names of the live partitions of the table, loading
+     * them from the database catalog if they have not been loaded yet. The
+     * partitions which lack their constraints are repaired as they are
+     * loaded.
+     */
+    @SuppressWarnings("unchecked")
+    private Set<String> getPartitions( final PartitionedTable table )
+        throws DataAccessException {
+
+        Set<String> partitions = this.partitionCache.get( table ) ;
+        if( partitions == null ) {
+            final List<String> names = super.daMgr.searchRecords(
+                                  "Partition.getPartitions", table.getName() ) ;
+            partitions = new HashSet<String>() ;
+            if( names != null ) {
+                partitions.addAll( names ) ;
+            }
+            repairConstraints( table, "p", "Partition.addPrimaryKey", "primary key" ) ;
+            repairConstraints( table, "f", "Partition.addSymbolReference", "symbol reference" ) ;
+            this.partitionCache.put( table, partitions ) ;
+        }
+        return partitions ;
+    }
+
+    /**
+     * Adds the constraint of the type specified to the partitions of the
+     * table which lack it.
+     *
+     * @param type The constraint type, as in the pg_constraint catalog.
+     * @param statement The statement which adds the constraint.
+     * @param description The description of the constraint, for logging.
+     */
+    @SuppressWarnings("unchecked")
+    private void repairConstraints( final PartitionedTable table, final String type,
+                                    final String statement, final String description )
+        throws DataAccessException {
+
+        final Map<String, Object> queryMap = new HashMap<String, Object>() ;
+        queryMap.put( "table", table.getName() ) ;
+        queryMap.put( "type",  type ) ;
+
+        final List<String> names = super.daMgr.searchRecords(
+                                "Partition.getPartitionsWithoutConstraint", queryMap ) ;
+        if( names == null ) {
+            return ;
+        }
+        for( final String partition : names ) {
+            super.sqlMapTemplate.update( statement, getKeyParamMap( table, partition ) ) ;
+            logger.warn( "Added the missing " + description + " of partition " + partition ) ;
+        }
+    }
+
+    /** Returns a parameter map holding the table and the partition names. */
+    private Map<String, Object> getParamMap( final PartitionedTable table,
+                                             final String partition ) {
+
+        final Map<String, Object> paramMap = new HashMap<String, Object>() ;
+        paramMap.put( "table",     table.getName() ) ;
+        paramMap.put( "partition", partition ) ;
+        return paramMap ;
+    }
+
+    /** Returns a parameter map which also holds the primary key columns. */
+    private Map<String, Object> getKeyParamMap( final PartitionedTable table,
+                                                final String partition ) {
+
+        final Map<String, Object> paramMap = getParamMap( table, partition ) ;
+        paramMap.put( "keys", table.getKeyColumns() ) ;
+        return paramMap ;
+    }
+}
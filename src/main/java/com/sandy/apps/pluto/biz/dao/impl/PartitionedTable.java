@@ -0,0 +1,142 @@
+/**
+ * Creation Date: Oct 18, 2026
+ */
+
+package com.sandy.apps.pluto.biz.dao.impl;
+
+import java.text.ParseException ;
+import java.text.SimpleDateFormat ;
+import java.util.Calendar ;
+import java.util.Date ;
+
+/**
+ * Describes a table which is range partitioned on a date column. The
+ * partitions are child tables inheriting from the table, each holding the
+ * rows of one day or one month, as enforced by a check constraint on the
+ * partition column. The partitions are named after the table, suffixed with
+ * the start of their range, for example STOCK_ITD_DATA_20261018.
+ * <p>
+ * Queries on the table see the rows of all its partitions. Inserts are not
+ * routed by the database and have to be made into the partition directly.
+ * A partition is archived by making it inherit from the archive table instead
+ * of the table, which involves no movement of data.
+ *
+ * @author Sandeep Deb [deb.sandeep@gmail.com]
+ */
+public class PartitionedTable {
+
+    /** The scrip ITD table, partitioned by trading day. */
+    public static final PartitionedTable STOCK_ITD_DATA = new PartitionedTable(
+            "STOCK_ITD_DATA", "STOCK_ITD_DATA_ARCHIVE", "TIME",
+            "\"SYMBOL\", \"TIME\"", Calendar.DATE, "yyyyMMdd" ) ;
+
+    /** The scrip EOD table, partitioned by month. */
+    public static final PartitionedTable STOCK_EOD_DATA = new PartitionedTable(
+            "STOCK_EOD_DATA", "STOCK_EOD_DATA_ARCHIVE", "DATE",
+            "\"SYMBOL\", \"DATE\"", Calendar.MONTH, "yyyyMM" ) ;
+
+    /** The format of the range bounds in the check constraint. */
+    private static final String BOUND_FORMAT = "yyyy-MM-dd" ;
+
+    /** The name of the table. */
+    private final String name ;
+
+    /** The name of the table from which the archived partitions inherit. */
+    private final String archiveName ;
+
+    /** The name of the date column on which the table is partitioned. */
+    private final String column ;
+
+    /** The quoted, comma separated primary key columns of the partitions. */
+    private final String keyColumns ;
+
+    /** The Calendar field of the partition range, DATE or MONTH. */
+    private final int rangeField ;
+
+    /** The format of the partition name suffix. */
+    private final String suffixFormat ;
+
+    /** Private constructor, the partitioned tables are predefined. */
+    private PartitionedTable( final String name, final String archiveName,
+                              final String column, final String keyColumns,
+                              final int rangeField, final String suffixFormat ) {
+        this.name         = name ;
+        this.archiveName  = archiveName ;
+        this.column       = column ;
+        this.keyColumns   = keyColumns ;
+        this.rangeField   = rangeField ;
+        this.suffixFormat = suffixFormat ;
+    }
+
+    public String getName() { return this.name ; }
+
+    public String getArchiveName() { return this.archiveName ; }
+
+    public String getColumn() { return this.column ; }
+
+    public String getKeyColumns() { return this.keyColumns ; }
+
+    /** Returns the start of the range of the partition holding the date. */
+    public Date getPartitionStart( final Date date ) {
+
+        final Calendar cal = Calendar.getInstance() ;
+        cal.setTime( date ) ;
+        if( this.rangeField == Calendar.MONTH ) {
+            cal.set( Calendar.DAY_OF_MONTH, 1 ) ;
+        }
+        cal.set( Calendar.HOUR_OF_DAY, 0 ) ;
+        cal.set( Calendar.MINUTE, 0 ) ;
+        cal.set( Calendar.SECOND, 0 ) ;
+        cal.set( Calendar.MILLISECOND, 0 ) ;
+        return cal.getTime() ;
+    }
+
+    /**
+     * Returns the end of the range of the partition holding the date. The
+     * end is exclusive, it is the start of the range of the next partition.
+     */
+    public Date getPartitionEnd( final Date date ) {
+
+        final Calendar cal = Calendar.getInstance() ;
+        cal.setTime( getPartitionStart( date ) ) ;
+        cal.add( this.rangeField, 1 ) ;
+        return cal.getTime() ;
+    }
+
+    /** Returns the name of the partition holding the date. */
+    public String getPartitionName( final Date date ) {
+        return this.name + "_" + new SimpleDateFormat( this.suffixFormat ).format( date ) ;
+    }
+
+    /**
+     * Returns the start of the range of the partition with the name specified,
+     * or null if the name is not that of a partition of this table.
+     */
+    public Date getPartitionStart( final String partitionName ) {
+
+        final String prefix = this.name + "_" ;
+        if( !partitionName.startsWith( prefix ) ||
+            partitionName.length() != prefix.length() + this.suffixFormat.length() ) {
+            return null ;
+        }
+
+        final SimpleDateFormat df = new SimpleDateFormat( this.suffixFormat ) ;
+        df.setLenient( false ) ;
+        try {
+            return df.parse( partitionName.substring( prefix.length() ) ) ;
+        }
+        catch ( final ParseException e ) {
+            return null ;
+        }
+    }
+
+    /** Formats a range bound for the check constraint of a partition. */
+    public String formatBound( final Date date ) {
+        return new SimpleDateFormat( BOUND_FORMAT ).format( date ) ;
+    }
+
+    @Override
+    public String toString() {
+        return this.name ;
+    }
+}
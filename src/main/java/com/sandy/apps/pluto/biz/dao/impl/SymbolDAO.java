@@ -3,6 +3,8 @@
  */
 
 package com.sandy.apps.pluto.biz.dao.impl;
+import java.util.ArrayList ;
+import java.util.Collection ;
 import java.util.HashMap ;
 import java.util.List ;
 import java.util.Map ;
@@ -15,7 +17,9 @@ import com.sandy.apps.pluto.shared.util.dataaccess.DataAccessException ;
 
 /**
  * An implementation of {@link ISymbolDAO} which helps manage the Symbols
- * stored in the database.
+ * stored in the database. The symbols are cached in a {@link SymbolRegistry},
+ * which is loaded in full on first use and kept up to date as symbols are
+ * registered or changed through this DAO.
  *
  * @author Sandeep Deb [deb.sandeep@gmail.com]
  */
@@ -24,6 +28,9 @@ public class SymbolDAO extends AbstractBaseDAO implements ISymbolDAO {
     /** Log4J logger for this class. */
     public static final Logger logger = Logger.getLogger( SymbolDAO.class ) ;
 
+    /** The in memory registry of the symbols known to the database. */
+    private final SymbolRegistry registry = new SymbolRegistry() ;
+
     /** Public constructor. */
     public SymbolDAO() {
         super() ;
@@ -42,6 +49,7 @@ public class SymbolDAO extends AbstractBaseDAO implements ISymbolDAO {
         try {
             logger.debug( "Inserting symbol " + symbol.getSymbol() ) ;
             super.daMgr.createRecord( INSERT_QUERY_ID, symbol ) ;
+            this.registry.invalidate( symbol.getSymbol() ) ;
         }
         catch( final DataAccessException dae ) {
             if( PostGresUtil.isPKViolation( dae ) ) {
@@ -69,6 +77,71 @@ public class SymbolDAO extends AbstractBaseDAO implements ISymbolDAO {
 
         logger.debug( "Updating symbol " + symbol.getSymbol() ) ;
         super.daMgr.updateRecord( UPDATE_QUERY_ID, symbol ) ;
+        this.registry.invalidate( symbol.getSymbol() ) ;
+    }
+
+    /**
+     * Registers the symbols which are not yet known to the database in one
+     * set based insert. The symbols are first checked against the registry,
+     * hence the database is not hit if all the symbols are already known.
+     * For the rest, the existence check is done by the database as a part
+     * of the insert statement and only the symbols which were unknown are
+     * loaded in the registry after the insert.
+     *
+     * @param symbols A collection of symbol keys.
+     *
+     * @return The number of symbols which were newly registered.
+     *
+     * @throws DataAccessException If an exception is encountered during the
+     *         operation.
+     */
+    @Override
+    public int registerSymbols( final Collection<String> symbols )
+        throws DataAccessException {
+
+        final String QUERY_ID = "Symbol.insertMissing" ;
+        if( symbols == null || symbols.isEmpty() ) {
+            return 0 ;
+        }
+
+        final List<String> unknown = getRegistry().getUnknown( symbols ) ;
+        if( unknown.isEmpty() ) {
+            return 0 ;
+        }
+
+        final int numAdded = super.insertInChunks( QUERY_ID, "symbols",
+                                          new ArrayList<String>( unknown ) ) ;
+        if( numAdded > 0 ) {
+            logger.info( "Dynamically registered " + numAdded + " symbols" ) ;
+        }
+
+        // The symbols not added were registered by other means, for example
+        // by the bulk EOD load. Either way the registry is missing them.
+        loadSymbols( unknown ) ;
+        return numAdded ;
+    }
+
+    /**
+     * Fetches the symbols with the keys specified from the database and puts
+     * them in the registry. The keys are bound to the query in chunks of
+     * {@link #SET_OP_CHUNK_SIZE}.
+     */
+    @SuppressWarnings("unchecked")
+    private void loadSymbols( final List<String> symbolKeys )
+        throws DataAccessException {
+
+        final String QUERY_ID = "Symbol.getSymbols" ;
+        final Map<String, Object> paramMap = new HashMap<String, Object>() ;
+        for( int start=0; start<symbolKeys.size(); start+=SET_OP_CHUNK_SIZE ) {
+            final int end = Math.min( start + SET_OP_CHUNK_SIZE, symbolKeys.size() ) ;
+            paramMap.put( "symbols", symbolKeys.subList( start, end ) ) ;
+            final List<Symbol> symbols = super.daMgr.searchRecords( QUERY_ID, paramMap ) ;
+            if( symbols != null ) {
+                for( final Symbol symbol : symbols ) {
+                    this.registry.put( symbol ) ;
+                }
+            }
+        }
     }
 
     /**
@@ -80,12 +153,10 @@ public class SymbolDAO extends AbstractBaseDAO implements ISymbolDAO {
      * @throws DataAccessException If an exception is encountered during the
      *         operation
      */
-    @SuppressWarnings("unchecked")
     @Override
     public Map<String, Symbol> getAllSymbolsMap() throws DataAccessException {
 
-        final String QUERY_ID = "Symbol.getAll" ;
-        final List<Symbol> symbolList = super.daMgr.searchRecords( QUERY_ID, null ) ;
+        final List<Symbol> symbolList = getAllSymbols() ;
         final Map<String, Symbol> symbolMap = new HashMap<String, Symbol>() ;
         for( final Symbol symbol : symbolList ) {
             symbolMap.put( symbol.getSymbol(), symbol ) ;
@@ -93,9 +164,43 @@ public class SymbolDAO extends AbstractBaseDAO implements ISymbolDAO {
         return symbolMap ;
     }
 
+    /** Fetches all the symbols from the database. */
+    @SuppressWarnings("unchecked")
+    private List<Symbol> getAllSymbols() throws DataAccessException {
+        final String QUERY_ID = "Symbol.getAll" ;
+        return super.daMgr.searchRecords( QUERY_ID, null ) ;
+    }
+
+    /**
+     * Returns the symbol registry, loading it in full if it has not been
+     * loaded yet.
+     */
+    private SymbolRegistry getRegistry() throws DataAccessException {
+        if( !this.registry.isLoaded() ) {
+            synchronized( this.registry ) {
+                if( !this.registry.isLoaded() ) {
+                    refreshRegistry() ;
+                }
+            }
+        }
+        return this.registry ;
+    }
+
+    /** Reloads the symbol registry from the database. */
+    private void refreshRegistry() throws DataAccessException {
+        // The registry gets its own instances, the ones returned to the
+        // callers of getAllSymbolsMap can be modified by them.
+        this.registry.load( getAllSymbols() ) ;
+        logger.debug( "Loaded " + this.registry.size() + " symbols in the registry" ) ;
+    }
+
     /**
      * Returns a {@link Symbol} instance corresponding to the symbol key
-     * specified.
+     * specified. The symbol is looked up in the registry, the database is
+     * hit only for the symbols not found in the registry.
+     * <p>
+     * The instance returned is shared and should not be modified by the
+     * callers.
      *
      * @param symbol The symbol key
      *
@@ -108,7 +213,13 @@ public class SymbolDAO extends AbstractBaseDAO implements ISymbolDAO {
         throws DataAccessException {
 
         final String QUERY_ID = "Symbol.getSymbol" ;
-        final Symbol symbol = ( Symbol )super.daMgr.retrieveRecord( QUERY_ID, symbolName ) ;
+        Symbol symbol = getRegistry().get( symbolName ) ;
+        if( symbol == null ) {
+            symbol = ( Symbol )super.daMgr.retrieveRecord( QUERY_ID, symbolName ) ;
+            if( symbol != null ) {
+                this.registry.put( symbol ) ;
+            }
+        }
         return symbol ;
     }
 
@@ -0,0 +1,97 @@
+/**
+ * Creation Date: Oct 18, 2026
+ */
+
+package com.sandy.apps.pluto.biz.dao.impl;
+import java.util.ArrayList ;
+import java.util.Collection ;
+import java.util.HashSet ;
+import java.util.List ;
+import java.util.Set ;
+import java.util.concurrent.ConcurrentHashMap ;
+
+import com.sandy.apps.pluto.shared.dto.Symbol ;
+
+/**
+ * An in memory registry of the symbols known to the database, maintained by
+ * the {@link SymbolDAO}. The registry is read mostly - it is loaded once in
+ * full and then updated as the symbols are registered or changed through the
+ * DAO, hence symbol lookups and checks for unknown symbols on the import hot
+ * paths do not need a database round trip.
+ * <p>
+ * The registry can miss symbols inserted to the database by other means, for
+ * example by the bulk EOD load. A miss is not authoritative and the DAO falls
+ * back to the database for it.
+ *
+ * @author Sandeep Deb [deb.sandeep@gmail.com]
+ */
+class SymbolRegistry {
+
+    /** The registered symbols, keyed by their symbol key. */
+    private final ConcurrentHashMap<String, Symbol> symbols = new ConcurrentHashMap<String, Symbol>( 4096 ) ;
+
+    /** True once the registry has been loaded in full. */
+    private volatile boolean loaded = false ;
+
+    /** Returns true if the registry has been loaded in full. */
+    boolean isLoaded() {
+        return this.loaded ;
+    }
+
+    /**
+     * Replaces the contents of the registry with the symbols specified, which
+     * should be all the symbols known to the database.
+     */
+    void load( final Collection<Symbol> allSymbols ) {
+        for( final Symbol symbol : allSymbols ) {
+            this.symbols.put( symbol.getSymbol(), symbol ) ;
+        }
+        this.symbols.keySet().retainAll( toKeys( allSymbols ) ) ;
+        this.loaded = true ;
+    }
+
+    /** Returns the registered symbol for the key, or null if not registered. */
+    Symbol get( final String symbolKey ) {
+        return this.symbols.get( symbolKey ) ;
+    }
+
+    /** Registers the symbol. */
+    void put( final Symbol symbol ) {
+        this.symbols.put( symbol.getSymbol(), symbol ) ;
+    }
+
+    /**
+     * Removes the symbol, such that the next lookup fetches it afresh from
+     * the database.
+     */
+    void invalidate( final String symbolKey ) {
+        this.symbols.remove( symbolKey ) ;
+    }
+
+    /**
+     * Returns the keys from the collection specified, which are not present
+     * in the registry. An empty list is returned, never null.
+     */
+    List<String> getUnknown( final Collection<String> symbolKeys ) {
+        final List<String> unknown = new ArrayList<String>() ;
+        for( final String key : symbolKeys ) {
+            if( !this.symbols.containsKey( key ) ) {
+                unknown.add( key ) ;
+            }
+        }
+        return unknown ;
+    }
+
+    /** Returns the number of registered symbols. */
+    int size() {
+        return this.symbols.size() ;
+    }
+
+    private Set<String> toKeys( final Collection<Symbol> allSymbols ) {
+        final Set<String> keys = new HashSet<String>( allSymbols.size()*2 ) ;
+        for( final Symbol symbol : allSymbols ) {
+            keys.add( symbol.getSymbol() ) ;
+        }
+        return keys ;
+    }
+}
@@ -0,0 +1,154 @@
+/**
+ * Creation Date: Oct 18, 2026
+ */
+
+package com.sandy.apps.pluto.biz.dao.impl;
+import java.lang.reflect.InvocationHandler ;
+import java.lang.reflect.InvocationTargetException ;
+import java.lang.reflect.Method ;
+import java.lang.reflect.Proxy ;
+import java.util.LinkedHashSet ;
+import java.util.Set ;
+import java.util.concurrent.ConcurrentHashMap ;
+import java.util.concurrent.ConcurrentMap ;
+
+import org.springframework.beans.factory.FactoryBean ;
+
+import com.ibatis.sqlmap.client.SqlMapClient ;
+import com.ibatis.sqlmap.client.SqlMapExecutor ;
+import com.ibatis.sqlmap.client.SqlMapSession ;
+import com.sandy.apps.pluto.shared.metrics.LatencyHistogram ;
+import com.sandy.apps.pluto.shared.metrics.MetricsRegistry ;
+
+/**
+ * A factory of an iBATIS SQL map client which records the execution time of
+ * every mapped statement in the "dao.&lt;statement id&gt;" latency histograms
+ * of the {@link MetricsRegistry}. The configured SQL map client is wrapped in
+ * a proxy, as are the sessions opened through it, such that the statements
+ * executed by the {@link com.sandy.apps.pluto.shared.util.dataaccess.DataAccessManager}
+ * and the SQL map templates of the DAOs are timed alike, without any change
+ * to the DAOs.
+ *
+ * @author Sandeep Deb [deb.sandeep@gmail.com]
+ */
+public class TimedSqlMapClientFactoryBean implements FactoryBean {
+
+    /**
+     * INJECTABLE: This value should be injected with the SQL map client whose
+     * statements are to be timed.
+     */
+    private SqlMapClient sqlMapClient = null ;
+
+    /** The proxy of the SQL map client, created on first use. */
+    private SqlMapClient timedClient = null ;
+
+    /** Public constructor. */
+    public TimedSqlMapClientFactoryBean() {
+        super() ;
+    }
+
+    /**
+     * @param sqlMapClient the SQL map client whose statements are to be timed
+     */
+    public void setSqlMapClient( final SqlMapClient sqlMapClient ) {
+        this.sqlMapClient = sqlMapClient ;
+    }
+
+    /** Returns the timing proxy of the SQL map client. */
+    public synchronized Object getObject() {
+        if( this.timedClient == null ) {
+            this.timedClient = ( SqlMapClient )wrap( this.sqlMapClient,
+                                                     new StatementTimes() ) ;
+        }
+        return this.timedClient ;
+    }
+
+    /** {@inheritDoc} */
+    public Class<?> getObjectType() {
+        return SqlMapClient.class ;
+    }
+
+    /** {@inheritDoc} */
+    public boolean isSingleton() {
+        return true ;
+    }
+
+    /**
+     * Returns a proxy of the target implementing all the interfaces of the
+     * target, such that type checks on the extended iBATIS interfaces are
+     * not defeated by the proxy.
+     */
+    private static Object wrap( final Object target, final StatementTimes times ) {
+
+        final Set<Class<?>> interfaces = new LinkedHashSet<Class<?>>() ;
+        for( Class<?> cls = target.getClass(); cls != null; cls = cls.getSuperclass() ) {
+            for( final Class<?> iface : cls.getInterfaces() ) {
+                interfaces.add( iface ) ;
+            }
+        }
+        return Proxy.newProxyInstance( target.getClass().getClassLoader(),
+                                       interfaces.toArray( new Class<?>[interfaces.size()] ),
+                                       new TimingHandler( target, times ) ) ;
+    }
+
+    /** The execution time histograms of the statements, keyed by statement id. */
+    private static class StatementTimes {
+
+        private final ConcurrentMap<String, LatencyHistogram> histograms =
+                                new ConcurrentHashMap<String, LatencyHistogram>() ;
+
+        LatencyHistogram get( final String statementId ) {
+            LatencyHistogram histogram = this.histograms.get( statementId ) ;
+            if( histogram == null ) {
+                histogram = MetricsRegistry.instance().getHistogram( "dao." + statementId ) ;
+                this.histograms.putIfAbsent( statementId, histogram ) ;
+            }
+            return histogram ;
+        }
+    }
+
+    /**
+     * Times the invocations of the {@link SqlMapExecutor} methods which
+     * execute a mapped statement - the ones whose first parameter is the
+     * statement id - whether the statement succeeds or fails. The sessions
+     * returned by the target are wrapped as well.
+     */
+    private static class TimingHandler implements InvocationHandler {
+
+        private final Object target ;
+        private final StatementTimes times ;
+
+        TimingHandler( final Object target, final StatementTimes times ) {
+            this.target = target ;
+            this.times  = times ;
+        }
+
+        public Object invoke( final Object proxy, final Method method, final Object[] args )
+            throws Throwable {
+
+            final boolean timed = method.getDeclaringClass() == SqlMapExecutor.class &&
+                                  args != null && args.length > 0 &&
+                                  args[0] instanceof String ;
+
+            final long startTime = System.nanoTime() ;
+            Object result = null ;
+            try {
+                result = method.invoke( this.target, args ) ;
+            }
+            catch( final InvocationTargetException e ) {
+                throw e.getCause() ;
+            }
+            finally {
+                if( timed ) {
+                    final long elapsed = System.nanoTime() - startTime ;
+                    this.times.get( ( String )args[0] ).record( elapsed ) ;
+                }
+            }
+
+            if( result instanceof SqlMapSession ) {
+                result = wrap( result, this.times ) ;
+            }
+            return result ;
+        }
+    }
+}
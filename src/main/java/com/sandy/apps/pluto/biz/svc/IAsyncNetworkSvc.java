@@ -0,0 +1,66 @@
+/**
+ * Creation Date: Oct 18, 2026
+ */
+
+package com.sandy.apps.pluto.biz.svc;
+
+import java.util.Map ;
+import java.util.concurrent.Future ;
+
+import com.sandy.apps.pluto.shared.STException ;
+
+/**
+ * An extension of the {@link INetworkSvc}, which executes the network requests
+ * asynchronously. The requests are executed on a bounded pool of network
+ * threads and the retrials of failed requests are scheduled on a timer, hence
+ * no thread is held up while waiting for a retrial.
+ *
+ * @author Sandeep Deb [deb.sandeep@gmail.com]
+ */
+public interface IAsyncNetworkSvc extends INetworkSvc {
+
+    /**
+     * A callback which is notified on the completion of an asynchronous
+     * network request. The callbacks are invoked on a network thread and
+     * hence should not block for long.
+     */
+    public interface ResponseCallback {
+
+        /** Invoked with the raw response of a successful request. */
+        void responseReceived( final byte[] response ) ;
+
+        /** Invoked with the cause of failure of a failed request. */
+        void requestFailed( final STException cause ) ;
+    }
+
+    /**
+     * Asynchronously gets the contents of the specified URL by sending in the
+     * specified name value parameters.
+     *
+     * @param url The URL to get the data from
+     * @param parameters The parameters to append to the request URL, can be null.
+     * @param callback The callback to notify on completion, can be null.
+     *
+     * @return A future for the raw response of the request. An unsuccessful
+     *         request results in an ExecutionException, caused by the
+     *         STException passed to the callback.
+     */
+    Future<byte[]> getRawGETResultAsync( final String url,
+                                         final Map<String, String> parameters,
+                                         final ResponseCallback callback ) ;
+
+    /**
+     * Asynchronously posts the name value pairs at the specified URL.
+     *
+     * @param url The URL to post the data (name value parameters) to.
+     * @param parameters The parameters to post, can be null.
+     * @param callback The callback to notify on completion, can be null.
+     *
+     * @return A future for the raw response of the request. An unsuccessful
+     *         request results in an ExecutionException, caused by the
+     *         STException passed to the callback.
+     */
+    Future<byte[]> getRawPOSTResultAsync( final String url,
+                                          final Map<String, String> parameters,
+                                          final ResponseCallback callback ) ;
+}
@@ -4,8 +4,10 @@
 
 package com.sandy.apps.pluto.biz.svc;
 
+import java.io.File ;
 import java.text.SimpleDateFormat ;
 import java.util.Date ;
+import java.util.List ;
 
 import com.sandy.apps.pluto.shared.STException ;
 
@@ -39,6 +41,24 @@ public interface IEODImportSvc {
     /** The default value of the archival threshold. */
     int DEF_ARCHIVAL_THRESHOLD = 360 ;
 
+    /**
+     * This interface should be implemented by the callers of a multiple date
+     * bhavcopy import, which are informed of the dates imported in the order
+     * of the dates.
+     */
+    public interface ImportCallback {
+
+        /**
+         * Invoked once the bhavcopy of the date and of all the dates before
+         * it have been imported.
+         *
+         * @param date The date whose bhavcopy has been imported.
+         * @param found false if no bhavcopy was found for the date, for
+         *        example on an exchange holiday.
+         */
+        public void bhavcopyImported( final Date date, final boolean found ) ;
+    } ;
+
     /**
      * This operation bhavcopy data for the specified date. If the force
      * download option is set as false, this operation first looks for an
@@ -53,6 +73,61 @@ public interface IEODImportSvc {
     void importBhavcopyEODData( final Date date )
         throws STException ;
 
+    /**
+     * Imports the bhavcopy data for the dates specified. The bhavcopies are
+     * downloaded, unzipped, parsed and inserted in a pipeline, such that
+     * several dates are in flight at once. The callback is invoked on the
+     * calling thread for each date, in the order of the dates, once the
+     * bhavcopy of the date and of all the dates before it are imported.
+     * <p>
+     * If the import of a date fails, the dates after it are abandoned and an
+     * exception is thrown once the callbacks for the dates before it have
+     * been invoked. The bhavcopies of some of the abandoned dates might have
+     * been inserted already, importing them again is harmless since the
+     * existing records are skipped.
+     *
+     * @param dates The dates to import, in ascending order.
+     * @param callback The callback informed of the imported dates.
+     *
+     * @throws STException For the first date, in the order of the dates,
+     *         whose bhavcopy could not be imported.
+     */
+    void importBhavcopyEODData( final List<Date> dates, final ImportCallback callback )
+        throws STException ;
+
+    /**
+     * Downloads the NSE equity bhavcopy for the specified date and saves the
+     * unzipped CSV contents as a BHAVCOPY_dd-MMM-yyyy.csv file in the directory
+     * configured against 'nse.eod.historic.download.location'. The downloaded
+     * file is not imported.
+     *
+     * @param date The date for which the bhavcopy is to be downloaded.
+     *
+     * @return The absolute path of the file where the data has been saved.
+     *
+     * @throws STException If an exception is encountered during the download.
+     */
+    String downloadNSEEquityBhavcopy( final Date date )
+        throws STException ;
+
+    /**
+     * Bulk imports the bhavcopy CSV files specified. This operation is meant
+     * for back filling historic data - the files are parsed one at a time
+     * and streamed into a staging area, which is merged with the EOD data in
+     * one operation at the end. Files which do not contain valid bhavcopy data
+     * (for example exchange holidays) are skipped. No bhavcopy import events
+     * are published for the imported dates.
+     *
+     * @param files The bhavcopy CSV files to import.
+     *
+     * @return The number of EOD records newly inserted.
+     *
+     * @throws STException If an exception is encountered during the import
+     *         process.
+     */
+    int importBhavcopyFiles( final List<File> files )
+        throws STException ;
+
     /**
      * Archives all the data from STOCK_EOD_DATA table which are older than
      * the configured interval 'scrip.eod.archive.days.threshold'. The archived
@@ -10,9 +10,11 @@ import java.util.Date ;
 import java.util.List ;
 
 import com.sandy.apps.pluto.shared.EventType ;
+import com.sandy.apps.pluto.shared.ITDBarInterval ;
 import com.sandy.apps.pluto.shared.STException ;
 import com.sandy.apps.pluto.shared.dto.ExIndexEOD ;
 import com.sandy.apps.pluto.shared.dto.ExIndexITD ;
+import com.sandy.apps.pluto.shared.dto.ITDBar ;
 import com.sandy.apps.pluto.shared.util.dataaccess.DataAccessException ;
 
 /**
@@ -165,4 +167,25 @@ public interface IExIndexSvc {
      */
     List<ExIndexITD> getExIndexITDList( String name, Date startTime,
             Date endTime ) ;
+
+    /**
+     * Retrieves the OHLCV bars of the specified index and date range, of the
+     * interval specified. The bars of the days for which no bars have been rolled up yet are rolled
+     * up from the ITD values and saved before being returned.
+     *
+     * @param name The name of the index.
+     * @param startTime The start of the time range
+     * @param endTime The end of the time range.
+     * @param interval The interval of the bars, typically determined by
+     *        {@link ITDBarInterval#forRange(Date, Date, int)} for the range
+     *        being rendered.
+     *
+     * @return A list of {@link ITDBar} instances in the ascending order of
+     *         time, empty if there are no ITD values for the range.
+     *
+     * @throws DataAccessException If an exception is encountered during the
+     *         process of data access
+     */
+    List<ITDBar> getExIndexITDBars( String name, Date startTime, Date endTime,
+                                    ITDBarInterval interval ) ;
 }
@@ -0,0 +1,42 @@
+/**
+ * Creation Date: Oct 18, 2026
+ */
+
+package com.sandy.apps.pluto.biz.svc;
+import java.util.Map ;
+
+import com.sandy.apps.pluto.biz.svc.IAsyncExecutorSvc.AsyncTask ;
+import com.sandy.apps.pluto.shared.dto.FetchStats ;
+
+/**
+ * This interface exposes operations for scheduling the ITD fetches of scrips.
+ * The fetches are executed with a bounded concurrency and at most one fetch
+ * per symbol is queued or running at any time, such that fetch cycles which
+ * can not keep up with the schedule skip the symbols still being fetched
+ * instead of piling up.
+ *
+ * @author Sandeep Deb [deb.sandeep@gmail.com]
+ */
+public interface IITDFetchSchedulerSvc {
+
+    /**
+     * Submits the fetch task of the symbol for asynchronous execution and
+     * returns immediately.
+     *
+     * @param symbol The symbol being fetched by the task.
+     * @param task The fetch task.
+     *
+     * @return true if the task was scheduled, false if a fetch of the symbol
+     *         is already queued or running, or the fetch queue is full.
+     */
+    boolean submit( final String symbol, final AsyncTask task ) ;
+
+    /**
+     * Returns a snapshot of the fetch statistics by symbol - the time spent
+     * by the fetches waiting in the queue, fetching and parsing.
+     */
+    Map<String, FetchStats> getFetchStats() ;
+
+    /** Returns the number of fetches skipped as the symbol was being fetched. */
+    long getNumSkipped() ;
+}
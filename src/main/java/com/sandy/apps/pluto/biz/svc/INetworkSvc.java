@@ -4,11 +4,14 @@
 
 package com.sandy.apps.pluto.biz.svc;
 
+import java.io.IOException ;
+import java.io.InputStream ;
 import java.util.Map ;
 
 import com.sandy.apps.pluto.shared.EventType ;
 import com.sandy.apps.pluto.shared.STException ;
 import com.sandy.apps.pluto.shared.dto.ChartData ;
+import com.sandy.apps.pluto.shared.dto.NetworkCacheStats ;
 
 /**
  * This interface handles all the network communication and keeps track of the
@@ -18,6 +21,28 @@ import com.sandy.apps.pluto.shared.dto.ChartData ;
  */
 public interface INetworkSvc {
 
+    /**
+     * A handler of a streamed response, which consumes the response as it is
+     * received instead of the response being buffered in memory. A channel
+     * over the stream can be had through java.nio.channels.Channels.
+     */
+    public interface ResponseHandler<T> {
+
+        /**
+         * Consumes the response.
+         *
+         * @param in The stream of the response body. The stream is closed by
+         *        the network service once the handler returns.
+         *
+         * @return The result of consuming the response.
+         *
+         * @throws IOException If the response could not be read.
+         * @throws STException If the response could not be processed.
+         */
+        public T handleResponse( final InputStream in )
+            throws IOException, STException ;
+    } ;
+
     /**
      * Posts the name value pairs at the specified URL and returns the
      * result returned by the server as String.
@@ -104,6 +129,51 @@ public interface INetworkSvc {
     byte[] getRawGETResult( final String url )
         throws STException ;
 
+    /**
+     * Gets the contents of the specified URL by sending in the specified
+     * name value parameters and streams the result returned by the server
+     * through the handler.
+     * <p>
+     * The response is inspected for the known error pages as it is streamed.
+     * If it turns out to be an error page, an exception is thrown even if the
+     * handler has consumed the response. Failures while the response is being
+     * streamed are not retried, since the handler might have acted upon a
+     * part of the response.
+     *
+     * @param url The URL to get the data from
+     * @param parameters The parameters to append to the request URL, can be
+     *        null.
+     * @param handler The handler which consumes the response.
+     *
+     * @return The result returned by the handler.
+     *
+     * @throws STException If an exception is encountered during the network
+     *         operation, by the handler or if the network service is
+     *         currently offline.
+     */
+    <T> T getGETStream( final String url, final Map<String, String> parameters,
+                        final ResponseHandler<T> handler )
+        throws STException ;
+
+    /**
+     * Posts the name value pairs at the specified URL and streams the result
+     * returned by the server through the handler, as explained in
+     * {@link #getGETStream(String, Map, ResponseHandler)}.
+     *
+     * @param url The URL to post the data (name value parameters) to.
+     * @param parameters The parameters to post, can be null.
+     * @param handler The handler which consumes the response.
+     *
+     * @return The result returned by the handler.
+     *
+     * @throws STException If an exception is encountered during the network
+     *         operation, by the handler or if the network service is
+     *         currently offline.
+     */
+    <T> T getPOSTStream( final String url, final Map<String, String> parameters,
+                         final ResponseHandler<T> handler )
+        throws STException ;
+
     /**
      * Gets the contents of the specified URL by sending in the specified
      * name value parameters and returns the result returned by the server
@@ -169,4 +239,10 @@ public interface INetworkSvc {
      * @return A long value indicating the number of bytes downloaded.
      */
     long getNumBytesDownloaded() ;
+
+    /**
+     * Returns a snapshot of the counters of the network response cache, or
+     * null if the responses are not cached.
+     */
+    NetworkCacheStats getCacheStats() ;
 }
@@ -7,7 +7,9 @@ package com.sandy.apps.pluto.biz.svc;
 import java.util.Date ;
 import java.util.List ;
 
+import com.sandy.apps.pluto.shared.ITDBarInterval ;
 import com.sandy.apps.pluto.shared.STException ;
+import com.sandy.apps.pluto.shared.dto.ITDBar ;
 import com.sandy.apps.pluto.shared.dto.ScripEOD ;
 import com.sandy.apps.pluto.shared.dto.ScripITD ;
 import com.sandy.apps.pluto.shared.dto.SymbolPctChange ;
@@ -120,6 +122,28 @@ public interface IScripSvc {
     List<ScripITD> getITDData( final String scrip, final Date start, final Date end )
         throws STException ;
 
+    /**
+     * Retrieves the OHLCV bars of the specified scrip and date range, of the
+     * interval specified. The bars of the days for which no bars have been rolled up yet are rolled
+     * up from the ITD values and saved before being returned.
+     *
+     * @param scrip The NSE scrip symbol
+     * @param start The start of the time range
+     * @param end   The end of the time range.
+     * @param interval The interval of the bars, typically determined by
+     *        {@link ITDBarInterval#forRange(Date, Date, int)} for the range
+     *        being rendered.
+     *
+     * @return A list of {@link ITDBar} instances in the ascending order of
+     *         time, empty if there are no ITD values for the range.
+     *
+     * @throws STException In case the data could not be retrieved because
+     *         of unanticipated reasons.
+     */
+    List<ITDBar> getITDBars( final String scrip, final Date start, final Date end,
+                             final ITDBarInterval interval )
+        throws STException ;
+
     /**
      * Returns the latest date for which EOD data has been imported for Scrips.
      *
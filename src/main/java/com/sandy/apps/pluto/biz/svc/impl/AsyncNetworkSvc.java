@@ -0,0 +1,389 @@
+/**
+ * Creation Date: Oct 18, 2026
+ */
+
+package com.sandy.apps.pluto.biz.svc.impl;
+
+import java.io.IOException ;
+import java.util.Map ;
+import java.util.concurrent.CancellationException ;
+import java.util.concurrent.CountDownLatch ;
+import java.util.concurrent.ExecutionException ;
+import java.util.concurrent.Future ;
+import java.util.concurrent.LinkedBlockingQueue ;
+import java.util.concurrent.RejectedExecutionException ;
+import java.util.concurrent.ScheduledThreadPoolExecutor ;
+import java.util.concurrent.ThreadFactory ;
+import java.util.concurrent.ThreadPoolExecutor ;
+import java.util.concurrent.TimeUnit ;
+import java.util.concurrent.TimeoutException ;
+import java.util.concurrent.atomic.AtomicInteger ;
+
+import org.apache.commons.httpclient.HttpException ;
+import org.apache.commons.httpclient.HttpMethod ;
+import org.apache.log4j.Logger ;
+
+import com.sandy.apps.pluto.biz.svc.IAsyncNetworkSvc ;
+import com.sandy.apps.pluto.shared.ErrorCode ;
+import com.sandy.apps.pluto.shared.STException ;
+import com.sandy.apps.pluto.shared.util.util.ConfigManager ;
+
+/**
+ * An implementation of the {@link IAsyncNetworkSvc} interface. The requests
+ * are executed on a bounded pool of network threads. A request failing with a
+ * recoverable communication error is resubmitted to the pool after the retrial
+ * interval by a timer, instead of sleeping on a thread.
+ * <p>
+ * The blocking methods of the network service submit the request and wait for
+ * its completion. If they are called on a network thread, for example from a
+ * {@link ResponseCallback}, the request is executed on the calling thread
+ * instead - waiting on the pool from a pool thread could dead lock the pool.
+ *
+ * @author Sandeep Deb [deb.sandeep@gmail.com]
+ */
+public class AsyncNetworkSvc extends NetworkSvc implements IAsyncNetworkSvc {
+
+    /** Log4J logger for this class. */
+    public static final Logger logger = Logger.getLogger( AsyncNetworkSvc.class ) ;
+
+    /** The threads on which the network requests are executed. */
+    private static class NetworkThread extends Thread {
+        NetworkThread( final Runnable runnable, final String name ) {
+            super( runnable, name ) ;
+            setDaemon( true ) ;
+        }
+    }
+
+    /**
+     * An asynchronous network request, which is also the future for its
+     * response. Each attempt creates a fresh HTTP method, since a released
+     * method can't be executed again.
+     */
+    private class NetworkRequest implements Runnable, Future<byte[]> {
+
+        private final String url ;
+        private final String action ;
+        private final Map<String, String> parameters ;
+        private final ResponseCallback callback ;
+        private final String cacheKey ;
+        private final CountDownLatch doneLatch = new CountDownLatch( 1 ) ;
+
+        // The state guarded by this request instance
+        private int trialCount = 0 ;
+        private IOException lastError = null ;
+        private byte[] response = null ;
+        private STException error = null ;
+        private boolean done = false ;
+        private boolean cancelled = false ;
+
+        NetworkRequest( final String url, final String action,
+                        final Map<String, String> parameters,
+                        final ResponseCallback callback ) {
+            this.url        = url ;
+            this.action     = action ;
+            this.parameters = parameters ;
+            this.callback   = callback ;
+            this.cacheKey   = getCacheKey( url, action, parameters ) ;
+        }
+
+        /** Executes an attempt of this request. */
+        public void run() {
+
+            if( isDone() ) {
+                return ;
+            }
+
+            if( this.trialCount > getMaxRetrialAttempts() ) {
+                fail( new STException( "Maximum retrial attempts failed", this.lastError,
+                                       ErrorCode.NETWORK_CONNECTION_FAILURE ) ) ;
+                return ;
+            }
+
+            if( logger.isDebugEnabled() ) {
+                logger.debug( "Initiating URL communication with " + this.url +
+                              ". Retrial count = " + this.trialCount ) ;
+            }
+
+            final byte[] cachedResponse = getFreshResponse( this.cacheKey ) ;
+            if( cachedResponse != null ) {
+                succeed( cachedResponse ) ;
+                return ;
+            }
+
+            final HttpMethod httpMethod = getHttpMethod( this.url, this.parameters, this.action ) ;
+            addCacheValidators( this.cacheKey, httpMethod ) ;
+            try {
+                final long startTime = System.nanoTime() ;
+                try {
+                    executeHTTPMethodOnce( httpMethod ) ;
+                }
+                catch ( final HttpException e ) {
+                    fail( toUnrecoverableError( e ) ) ;
+                    return ;
+                }
+                catch ( final IOException e ) {
+                    logRecoverableError( e ) ;
+                    scheduleRetrial( e ) ;
+                    return ;
+                }
+                final byte[] result = receiveResponse( this.url, this.cacheKey, httpMethod ) ;
+                recordFetchTime( startTime ) ;
+                succeed( result ) ;
+            }
+            catch ( final Exception e ) {
+                fail( e ) ;
+            }
+            finally {
+                httpMethod.releaseConnection() ;
+            }
+        }
+
+        /**
+         * Resubmits this request to the network threads after the retrial
+         * interval. The retrial timer only hands over the request, hence no
+         * thread is held up during the interval.
+         */
+        private void scheduleRetrial( final IOException cause ) {
+            synchronized( this ) {
+                this.lastError = cause ;
+                this.trialCount++ ;
+            }
+            AsyncNetworkSvc.this.retrialTimer.schedule( new Runnable() {
+                public void run() {
+                    execute( NetworkRequest.this ) ;
+                }
+            }, getRetrialInterval(), TimeUnit.MILLISECONDS ) ;
+        }
+
+        private void succeed( final byte[] result ) {
+            synchronized( this ) {
+                if( this.done ) {
+                    return ;
+                }
+                this.response = result ;
+                this.done = true ;
+            }
+            this.doneLatch.countDown() ;
+            if( this.callback != null ) {
+                try {
+                    this.callback.responseReceived( result ) ;
+                }
+                catch ( final Throwable e ) {
+                    logger.error( "Response callback failed for URL " + this.url, e ) ;
+                }
+            }
+        }
+
+        private void fail( final Exception cause ) {
+            final STException stErr = processFailure( this.url, this.action, cause ) ;
+            synchronized( this ) {
+                if( this.done ) {
+                    return ;
+                }
+                this.error = stErr ;
+                this.done = true ;
+            }
+            this.doneLatch.countDown() ;
+            if( this.callback != null ) {
+                try {
+                    this.callback.requestFailed( stErr ) ;
+                }
+                catch ( final Throwable e ) {
+                    logger.error( "Failure callback failed for URL " + this.url, e ) ;
+                }
+            }
+        }
+
+        /**
+         * Cancels the request if it is not complete. An attempt in progress
+         * runs to completion, but its result is discarded.
+         */
+        public boolean cancel( final boolean mayInterruptIfRunning ) {
+            synchronized( this ) {
+                if( this.done ) {
+                    return false ;
+                }
+                this.cancelled = true ;
+                this.done = true ;
+            }
+            this.doneLatch.countDown() ;
+            return true ;
+        }
+
+        public synchronized boolean isCancelled() {
+            return this.cancelled ;
+        }
+
+        public synchronized boolean isDone() {
+            return this.done ;
+        }
+
+        public byte[] get() throws InterruptedException, ExecutionException {
+            this.doneLatch.await() ;
+            return getResult() ;
+        }
+
+        public byte[] get( final long timeout, final TimeUnit unit )
+            throws InterruptedException, ExecutionException, TimeoutException {
+
+            if( !this.doneLatch.await( timeout, unit ) ) {
+                throw new TimeoutException( "Request for URL " + this.url + " timed out" ) ;
+            }
+            return getResult() ;
+        }
+
+        private synchronized byte[] getResult() throws ExecutionException {
+            if( this.cancelled ) {
+                throw new CancellationException( "Request for URL " + this.url + " cancelled" ) ;
+            }
+            if( this.error != null ) {
+                throw new ExecutionException( this.error ) ;
+            }
+            return this.response ;
+        }
+    }
+
+    /**
+     * INJECTABLE: The maximum number of requests executed concurrently. The
+     * configured value overrides the injected value.
+     */
+    private int maxConcurrentRequests = DEF_NETWORK_SVC_MAX_CONCURRENT_REQUESTS ;
+
+    /** The executor on whose threads the network requests are executed. */
+    private ThreadPoolExecutor executor = null ;
+
+    /** The timer which resubmits the requests to be retried. */
+    private ScheduledThreadPoolExecutor retrialTimer = null ;
+
+    /** Public constructor. */
+    public AsyncNetworkSvc() {
+        super() ;
+    }
+
+    /**
+     * This method should be called post initialization to initialize the
+     * network service and start the network threads. This method is invoked
+     * by the container framework (Spring)
+     */
+    @Override
+    public void initialize() throws Exception {
+
+        this.maxConcurrentRequests = ConfigManager.getInstance().getInt(
+                                   NETWORK_SVC_MAX_CONCURRENT_REQUESTS,
+                                   this.maxConcurrentRequests ) ;
+
+        final AtomicInteger threadNum = new AtomicInteger() ;
+        this.executor = new ThreadPoolExecutor( this.maxConcurrentRequests,
+                                                this.maxConcurrentRequests,
+                                                60, TimeUnit.SECONDS,
+                                                new LinkedBlockingQueue<Runnable>(),
+                                                new ThreadFactory() {
+            public Thread newThread( final Runnable runnable ) {
+                return new NetworkThread( runnable, "NetworkIO-" + threadNum.incrementAndGet() ) ;
+            }
+        } ) ;
+        this.executor.allowCoreThreadTimeOut( true ) ;
+
+        this.retrialTimer = new ScheduledThreadPoolExecutor( 1, new ThreadFactory() {
+            public Thread newThread( final Runnable runnable ) {
+                final Thread thread = new Thread( runnable, "NetworkRetrialTimer" ) ;
+                thread.setDaemon( true ) ;
+                return thread ;
+            }
+        } ) ;
+
+        logger.info( "Async network service using " + this.maxConcurrentRequests +
+                     " network threads" ) ;
+        super.initialize() ;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Future<byte[]> getRawGETResultAsync( final String url,
+                                                final Map<String, String> parameters,
+                                                final ResponseCallback callback ) {
+        return submit( url, "GET", parameters, callback ) ;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Future<byte[]> getRawPOSTResultAsync( final String url,
+                                                 final Map<String, String> parameters,
+                                                 final ResponseCallback callback ) {
+        return submit( url, "POST", parameters, callback ) ;
+    }
+
+    /**
+     * OVERRIDDEN METHOD: Submits the request to the network threads and waits
+     * for its completion. On a network thread, the request is executed on the
+     * calling thread.
+     */
+    @Override
+    protected byte[] communciate( final String url, final String action,
+                                  final Map<String, String> parameters )
+        throws STException {
+
+        if( Thread.currentThread() instanceof NetworkThread ) {
+            return super.communciate( url, action, parameters ) ;
+        }
+
+        final NetworkRequest request = submit( url, action, parameters, null ) ;
+        try {
+            return request.get() ;
+        }
+        catch ( final ExecutionException e ) {
+            throw ( STException )e.getCause() ;
+        }
+        catch ( final InterruptedException e ) {
+            request.cancel( false ) ;
+            Thread.currentThread().interrupt() ;
+            throw new STException( action + " interrupted for URL " + url, e,
+                                   ErrorCode.NETWORK_UNAVAILABLE ) ;
+        }
+    }
+
+    /** Creates a request and submits it to the network threads. */
+    private NetworkRequest submit( final String url, final String action,
+                                   final Map<String, String> parameters,
+                                   final ResponseCallback callback ) {
+
+        final NetworkRequest request = new NetworkRequest( url, action, parameters, callback ) ;
+        execute( request ) ;
+        return request ;
+    }
+
+    /** Executes the request on a network thread. */
+    private void execute( final NetworkRequest request ) {
+        try {
+            this.executor.execute( request ) ;
+        }
+        catch ( final RejectedExecutionException e ) {
+            request.fail( new STException( "Network service is shut down", e,
+                                           ErrorCode.NETWORK_UNAVAILABLE ) ) ;
+        }
+    }
+
+    /** Returns the number of requests waiting for a network thread. */
+    public int getNumQueuedRequests() {
+        return this.executor.getQueue().size() ;
+    }
+
+    /**
+     * @return the maximum number of concurrently executed requests.
+     */
+    public int getMaxConcurrentRequests() {
+        return this.maxConcurrentRequests ;
+    }
+
+    /**
+     * @param maxConcurrentRequests the maximum number of concurrently
+     *        executed requests.
+     */
+    public void setMaxConcurrentRequests( final int maxConcurrentRequests ) {
+        this.maxConcurrentRequests = maxConcurrentRequests ;
+    }
+}
@@ -0,0 +1,398 @@
+/**
+ * Creation Date: Oct 18, 2026
+ */
+
+package com.sandy.apps.pluto.biz.svc.impl;
+import java.util.ArrayList ;
+import java.util.Date ;
+import java.util.List ;
+import java.util.concurrent.ArrayBlockingQueue ;
+import java.util.concurrent.BlockingQueue ;
+import java.util.concurrent.CountDownLatch ;
+import java.util.concurrent.atomic.AtomicInteger ;
+
+import org.apache.log4j.Logger ;
+
+import com.sandy.apps.pluto.biz.svc.IEODImportSvc.ImportCallback ;
+import com.sandy.apps.pluto.shared.ErrorCode ;
+import com.sandy.apps.pluto.shared.EventType ;
+import com.sandy.apps.pluto.shared.STException ;
+import com.sandy.apps.pluto.shared.dto.ScripEOD ;
+import com.sandy.apps.pluto.shared.event.EventBus ;
+
+/**
+ * Imports the bhavcopies of a list of dates in a pipeline of three stages -
+ * download, unpack and parse, and insert. Each stage runs on its own threads
+ * and hands the bhavcopies over to the next stage through a bounded queue,
+ * such that the downloads of the later dates overlap the parsing and the
+ * inserts of the earlier ones, while at most a queue full of bhavcopies
+ * waits on a slower stage.
+ * <p>
+ * The stages complete the dates out of order. The calling thread waits for
+ * the dates in their order and informs the callback, and publishes the
+ * bhavcopy import event, for each date in order. If a date fails, the dates
+ * after it are abandoned - the stages stop picking them up and the calling
+ * thread throws the failure once the dates before it have been informed.
+ * <p>
+ * An instance of this class runs a single import.
+ *
+ * @author Sandeep Deb [deb.sandeep@gmail.com]
+ */
+class BhavcopyImportPipeline {
+
+    /** Log4J logger for this class. */
+    public static final Logger logger = Logger.getLogger( BhavcopyImportPipeline.class ) ;
+
+    /** The bhavcopy of a date as it moves through the stages. */
+    private static class Bhavcopy {
+
+        private final int  index ;
+        private final Date date ;
+        private final CountDownLatch doneLatch = new CountDownLatch( 1 ) ;
+
+        private byte[]         zipContent = null ;
+        private List<ScripEOD> records    = null ;
+        private boolean        found      = false ;
+        private STException    error      = null ;
+
+        Bhavcopy( final int index, final Date date ) {
+            this.index = index ;
+            this.date  = date ;
+        }
+    }
+
+    /** The marker which tells the workers of a stage that no more work follows. */
+    private static final Bhavcopy END_OF_WORK = new Bhavcopy( -1, null ) ;
+
+    /** The import service, which does the work of the stages. */
+    private final EODImportSvc importSvc ;
+
+    /** The bhavcopies of the dates being imported, in the order of the dates. */
+    private final List<Bhavcopy> bhavcopies = new ArrayList<Bhavcopy>() ;
+
+    /** The queue of the downloaded bhavcopies, waiting to be parsed. */
+    private final BlockingQueue<Bhavcopy> parseQueue ;
+
+    /** The queue of the parsed bhavcopies, waiting to be inserted. */
+    private final BlockingQueue<Bhavcopy> insertQueue ;
+
+    private final int numDownloaders ;
+    private final int numParsers ;
+    private final int numInserters ;
+
+    private final List<Thread> workers = new ArrayList<Thread>() ;
+
+    /** The index of the next bhavcopy to be downloaded. */
+    private final AtomicInteger nextDownload = new AtomicInteger( 0 ) ;
+
+    // The number of workers of a stage which are yet to finish. The last
+    // worker of a stage to finish ends the work of the next stage.
+    private final AtomicInteger activeDownloaders ;
+    private final AtomicInteger activeParsers ;
+
+    /**
+     * The index of the first bhavcopy which failed, the bhavcopies after it
+     * are abandoned.
+     */
+    private final AtomicInteger firstFailure = new AtomicInteger( Integer.MAX_VALUE ) ;
+
+    /**
+     * Constructor.
+     *
+     * @param importSvc The import service which does the work of the stages.
+     * @param numDownloaders The number of threads downloading the bhavcopies.
+     * @param numParsers The number of threads parsing the bhavcopies.
+     * @param numInserters The number of threads inserting the bhavcopies.
+     * @param queueSize The capacity of the queues between the stages.
+     */
+    BhavcopyImportPipeline( final EODImportSvc importSvc,
+                            final int numDownloaders, final int numParsers,
+                            final int numInserters, final int queueSize ) {
+
+        this.importSvc      = importSvc ;
+        this.numDownloaders = numDownloaders ;
+        this.numParsers     = numParsers ;
+        this.numInserters   = numInserters ;
+
+        this.parseQueue  = new ArrayBlockingQueue<Bhavcopy>( queueSize + numParsers ) ;
+        this.insertQueue = new ArrayBlockingQueue<Bhavcopy>( queueSize + numInserters ) ;
+
+        this.activeDownloaders = new AtomicInteger( numDownloaders ) ;
+        this.activeParsers     = new AtomicInteger( numParsers ) ;
+    }
+
+    /**
+     * Imports the bhavcopies of the dates, informing the callback of the
+     * imported dates in the order of the dates.
+     *
+     * @param dates The dates to import, in ascending order.
+     * @param callback The callback informed of the imported dates.
+     *
+     * @throws STException For the first date whose bhavcopy could not be
+     *         imported.
+     */
+    public void run( final List<Date> dates, final ImportCallback callback )
+        throws STException {
+
+        for( int i=0; i<dates.size(); i++ ) {
+            this.bhavcopies.add( new Bhavcopy( i, dates.get( i ) ) ) ;
+        }
+
+        startWorkers() ;
+        try {
+            for( final Bhavcopy bhavcopy : this.bhavcopies ) {
+
+                try {
+                    bhavcopy.doneLatch.await() ;
+                }
+                catch( final InterruptedException e ) {
+                    Thread.currentThread().interrupt() ;
+                    throw new STException( "Interrupted waiting for the bhavcopy of " +
+                                           EODImportSvc.format( bhavcopy.date ), e,
+                                           ErrorCode.EOD_IMPORT_FAILURE ) ;
+                }
+
+                if( bhavcopy.error != null ) {
+                    throw bhavcopy.error ;
+                }
+
+                final String dateStr = EODImportSvc.format( bhavcopy.date ) ;
+                if( bhavcopy.found ) {
+                    EventBus.publish( EventType.EVT_BHAVCOPY_IMPORT_SUCCESS, bhavcopy.date ) ;
+                    logger.info( "Imported Bhavcopy for date " + dateStr ) ;
+                }
+                else {
+                    logger.warn( "Bhavcopy not found for date " + dateStr ) ;
+                }
+
+                if( callback != null ) {
+                    callback.bhavcopyImported( bhavcopy.date, bhavcopy.found ) ;
+                }
+            }
+        }
+        finally {
+            // If we are leaving early, abandon all the remaining dates and
+            // let the workers drain the queues.
+            failed( -1 ) ;
+            joinWorkers() ;
+        }
+    }
+
+    /** Starts the worker threads of all the stages. */
+    private void startWorkers() {
+
+        for( int i=0; i<this.numDownloaders; i++ ) {
+            startWorker( "BhavcopyDownload-" + i, new Runnable() {
+                public void run() { download() ; }
+            } ) ;
+        }
+        for( int i=0; i<this.numParsers; i++ ) {
+            startWorker( "BhavcopyParse-" + i, new Runnable() {
+                public void run() { parse() ; }
+            } ) ;
+        }
+        for( int i=0; i<this.numInserters; i++ ) {
+            startWorker( "BhavcopyInsert-" + i, new Runnable() {
+                public void run() { insert() ; }
+            } ) ;
+        }
+    }
+
+    private void startWorker( final String name, final Runnable runnable ) {
+        final Thread thread = new Thread( runnable, name ) ;
+        thread.setDaemon( true ) ;
+        this.workers.add( thread ) ;
+        thread.start() ;
+    }
+
+    private void joinWorkers() {
+        for( final Thread worker : this.workers ) {
+            try {
+                worker.join() ;
+            }
+            catch( final InterruptedException e ) {
+                Thread.currentThread().interrupt() ;
+                return ;
+            }
+        }
+    }
+
+    /**
+     * The download stage, which picks up the dates in their order, downloads
+     * their bhavcopies and hands them over to the parse stage.
+     */
+    private void download() {
+        try {
+            while( true ) {
+                final int index = this.nextDownload.getAndIncrement() ;
+                if( index >= this.bhavcopies.size() || isAbandoned( index ) ) {
+                    break ;
+                }
+
+                final Bhavcopy bhavcopy = this.bhavcopies.get( index ) ;
+                try {
+                    logger.debug( "Downloading bhavcopy for date " + EODImportSvc.format( bhavcopy.date ) ) ;
+                    bhavcopy.zipContent = this.importSvc.fetchNSEEquityBhavcopy( bhavcopy.date ) ;
+                    this.parseQueue.put( bhavcopy ) ;
+                }
+                catch( final STException e ) {
+                    fail( bhavcopy, e ) ;
+                }
+                catch( final InterruptedException e ) {
+                    throw e ;
+                }
+                catch( final Throwable e ) {
+                    fail( bhavcopy, new STException( "Bhavcopy download failure for " +
+                                                     EODImportSvc.format( bhavcopy.date ), e,
+                                                     ErrorCode.DOWNLOAD_FAILURE ) ) ;
+                }
+            }
+        }
+        catch( final InterruptedException e ) {
+            logger.error( "Bhavcopy download interrupted" ) ;
+            failPending( "Bhavcopy download interrupted", e ) ;
+        }
+        finally {
+            if( this.activeDownloaders.decrementAndGet() == 0 ) {
+                endWork( this.parseQueue, this.numParsers ) ;
+            }
+        }
+    }
+
+    /**
+     * The parse stage, which unpacks the downloaded bhavcopies, saves them in
+     * the download directory and parses them. The bhavcopies with records are
+     * handed over to the insert stage.
+     */
+    private void parse() {
+        try {
+            Bhavcopy bhavcopy = null ;
+            while( ( bhavcopy = this.parseQueue.take() ) != END_OF_WORK ) {
+                if( isAbandoned( bhavcopy.index ) ) {
+                    continue ;
+                }
+
+                try {
+                    final byte[] content = this.importSvc.unpackNSEEquityBhavcopy(
+                                                    bhavcopy.date, bhavcopy.zipContent ) ;
+                    bhavcopy.zipContent = null ;
+                    this.importSvc.saveNSEEquityBhavcopy( bhavcopy.date, content ) ;
+                    bhavcopy.records = this.importSvc.parseNSEEquityBhavcopy(
+                                                    bhavcopy.date, content ) ;
+
+                    if( bhavcopy.records.isEmpty() ) {
+                        // This implies that the downloaded bhavopy did not
+                        // have any records, which can happen on an exchange
+                        // holiday. There is nothing to insert.
+                        bhavcopy.doneLatch.countDown() ;
+                    }
+                    else {
+                        this.insertQueue.put( bhavcopy ) ;
+                    }
+                }
+                catch( final STException e ) {
+                    fail( bhavcopy, e ) ;
+                }
+                catch( final InterruptedException e ) {
+                    throw e ;
+                }
+                catch( final Throwable e ) {
+                    fail( bhavcopy, new STException( "Bhavcopy parse failure for " +
+                                                     EODImportSvc.format( bhavcopy.date ), e,
+                                                     ErrorCode.EOD_IMPORT_FAILURE ) ) ;
+                }
+            }
+        }
+        catch( final InterruptedException e ) {
+            logger.error( "Bhavcopy parsing interrupted" ) ;
+            failPending( "Bhavcopy parsing interrupted", e ) ;
+        }
+        finally {
+            if( this.activeParsers.decrementAndGet() == 0 ) {
+                endWork( this.insertQueue, this.numInserters ) ;
+            }
+        }
+    }
+
+    /** The insert stage, which inserts the records of the parsed bhavcopies. */
+    private void insert() {
+        try {
+            Bhavcopy bhavcopy = null ;
+            while( ( bhavcopy = this.insertQueue.take() ) != END_OF_WORK ) {
+                if( isAbandoned( bhavcopy.index ) ) {
+                    continue ;
+                }
+
+                try {
+                    final int numInserted = this.importSvc.getEodIndexDAO().insert( bhavcopy.records ) ;
+                    logger.debug( "Inserted " + numInserted + " of " +
+                                  bhavcopy.records.size() + " EOD records for " +
+                                  EODImportSvc.format( bhavcopy.date ) ) ;
+                    bhavcopy.records = null ;
+                    bhavcopy.found = true ;
+                    bhavcopy.doneLatch.countDown() ;
+                }
+                catch( final Throwable e ) {
+                    fail( bhavcopy, new STException( "EOD insert failure for " +
+                                                     EODImportSvc.format( bhavcopy.date ), e,
+                                                     ErrorCode.EOD_IMPORT_FAILURE ) ) ;
+                }
+            }
+        }
+        catch( final InterruptedException e ) {
+            logger.error( "Bhavcopy insert interrupted" ) ;
+            failPending( "Bhavcopy insert interrupted", e ) ;
+        }
+    }
+
+    /** Ends the work of a stage, telling each of its workers to finish. */
+    private void endWork( final BlockingQueue<Bhavcopy> queue, final int numWorkers ) {
+        for( int i=0; i<numWorkers; i++ ) {
+            try {
+                queue.put( END_OF_WORK ) ;
+            }
+            catch( final InterruptedException e ) {
+                logger.error( "Interrupted ending the bhavcopy import stage" ) ;
+                Thread.currentThread().interrupt() ;
+                return ;
+            }
+        }
+    }
+
+    /** Marks the bhavcopy as failed, abandoning the bhavcopies after it. */
+    private void fail( final Bhavcopy bhavcopy, final STException error ) {
+        logger.debug( "Bhavcopy import failure for date " + EODImportSvc.format( bhavcopy.date ), error ) ;
+        bhavcopy.error = error ;
+        failed( bhavcopy.index ) ;
+        bhavcopy.doneLatch.countDown() ;
+    }
+
+    /**
+     * Fails all the bhavcopies which are not yet done. This is called when a
+     * worker is interrupted, since the bhavcopy it holds and the bhavcopies
+     * waiting in its queue may never be done otherwise, leaving the calling
+     * thread waiting for them forever.
+     */
+    private void failPending( final String msg, final Throwable cause ) {
+        for( final Bhavcopy bhavcopy : this.bhavcopies ) {
+            if( bhavcopy.doneLatch.getCount() > 0 ) {
+                fail( bhavcopy, new STException( msg + " for " +
+                                                 EODImportSvc.format( bhavcopy.date ),
+                                                 cause, ErrorCode.EOD_IMPORT_FAILURE ) ) ;
+            }
+        }
+    }
+
+    /** Abandons the bhavcopies after the index. */
+    private void failed( final int index ) {
+        int current = this.firstFailure.get() ;
+        while( index < current && !this.firstFailure.compareAndSet( current, index ) ) {
+            current = this.firstFailure.get() ;
+        }
+    }
+
+    /** Returns true if the bhavcopy at the index has been abandoned. */
+    private boolean isAbandoned( final int index ) {
+        return index > this.firstFailure.get() ;
+    }
+}
@@ -0,0 +1,482 @@
+/**
+ * Creation Date: Oct 18, 2026
+ */
+
+package com.sandy.apps.pluto.biz.svc.impl;
+import java.io.IOException ;
+import java.io.InputStream ;
+import java.util.ArrayList ;
+import java.util.Calendar ;
+import java.util.Date ;
+import java.util.List ;
+
+import org.apache.log4j.Logger ;
+
+import com.sandy.apps.pluto.shared.dto.ScripEOD ;
+
+/**
+ * A streaming parser for the NSE bhavcopy CSV format. The parser reads the
+ * raw bytes from an input stream (a file or the unzipped download) and
+ * yields {@link ScripEOD} instances one row at a time.
+ * <p>
+ * The parser works directly on the bytes of a line and does not create any
+ * intermediate strings, except for the symbol name which is carried by the
+ * DTO. Prices are parsed as a scaled long mantissa and the date column, which
+ * is the same for all the rows of a bhavcopy, is converted only when it
+ * differs from the previous row's date.
+ * <p>
+ * A bhavcopy has the following format (the first line is the header):
+ * <pre>
+ * SYMBOL,SERIES,OPEN,HIGH,LOW,CLOSE,LAST,PREVCLOSE,TOTTRDQTY,TOTTRDVAL,TIMESTAMP,
+ * 3IINFOTECH,EQ,112.4,113.45,111,112,112.5,112.5,137904,15436573.3,1-SEP-2008,
+ * </pre>
+ * Rows which can't be parsed are logged and skipped. Instances of this class
+ * are not thread safe.
+ *
+ * @author Sandeep Deb [deb.sandeep@gmail.com]
+ */
+public class BhavcopyParser {
+
+    /** Log4J logger for this class. */
+    public static final Logger logger = Logger.getLogger( BhavcopyParser.class ) ;
+
+    /** The prefix of the header line of a valid bhavcopy. */
+    public static final String HEADER_PREFIX = "SYMBOL,SERIES,OPEN,HIGH," ;
+
+    // Column indexes of the bhavcopy CSV
+    private static final int COL_SYMBOL     = 0 ;
+    private static final int COL_OPEN       = 2 ;
+    private static final int COL_HIGH       = 3 ;
+    private static final int COL_LOW        = 4 ;
+    private static final int COL_CLOSE      = 5 ;
+    private static final int COL_PREV_CLOSE = 7 ;
+    private static final int COL_TRADE_QTY  = 8 ;
+    private static final int COL_DATE       = 10 ;
+    private static final int NUM_COLS       = 11 ;
+
+    /** Powers of ten which are exactly representable as doubles. */
+    private static final double[] POW10 = new double[23] ;
+
+    /** The maximum mantissa which can be converted exactly to a double. */
+    private static final long MAX_EXACT_MANTISSA = 1L << 53 ;
+
+    /** Upper case month abbreviations, as used in the date column. */
+    private static final String[] MONTHS = {
+        "JAN", "FEB", "MAR", "APR", "MAY", "JUN",
+        "JUL", "AUG", "SEP", "OCT", "NOV", "DEC"
+    } ;
+
+    static {
+        POW10[0] = 1.0D ;
+        for( int i=1; i<POW10.length; i++ ) {
+            POW10[i] = POW10[i-1] * 10 ;
+        }
+    }
+
+    /** The stream from which the bhavcopy bytes are read. */
+    private final InputStream in ;
+
+    /** The read buffer and the current read window inside it. */
+    private final byte[] readBuf = new byte[8192] ;
+    private int readPos = 0 ;
+    private int readLen = 0 ;
+
+    /** The bytes of the current line. Grows if a line is unusually long. */
+    private byte[] line = new byte[256] ;
+    private int lineLen = 0 ;
+
+    /** Start and end offsets of the columns of the current line. */
+    private final int[] colStart = new int[NUM_COLS] ;
+    private final int[] colEnd   = new int[NUM_COLS] ;
+
+    /** Reusable character buffer for creating the symbol strings. */
+    private final char[] symbolChars = new char[64] ;
+
+    /** The bytes and the converted value of the last date parsed. */
+    private final byte[] lastDate = new byte[16] ;
+    private int  lastDateLen    = -1 ;
+    private long lastDateMillis = 0 ;
+
+    /** Calendar used to convert a date which differs from the last one. */
+    private final Calendar cal = Calendar.getInstance() ;
+
+    /** True if the header of the stream marks it as a valid bhavcopy. */
+    private final boolean valid ;
+
+    /** The number of lines read so far, used for error reporting. */
+    private int lineNum = 0 ;
+
+    /**
+     * Creates a parser over the specified stream and reads the header line.
+     * The stream is not closed by the parser.
+     *
+     * @param in The input stream containing the bhavcopy bytes.
+     *
+     * @throws IOException If the header could not be read.
+     */
+    public BhavcopyParser( final InputStream in ) throws IOException {
+        super() ;
+        this.in = in ;
+        this.valid = readLine() && startsWith( HEADER_PREFIX ) ;
+    }
+
+    /**
+     * Returns true if the stream starts with a bhavcopy header. A stream
+     * which doesn't, for example the not found page returned for an exchange
+     * holiday, does not yield any records.
+     */
+    public boolean isValid() {
+        return this.valid ;
+    }
+
+    /**
+     * Returns the next EOD record from the stream or null if the stream has
+     * been exhausted. Rows which can't be parsed are logged and skipped.
+     *
+     * @return The next {@link ScripEOD} or null at the end of the stream.
+     *
+     * @throws IOException If the stream could not be read.
+     */
+    public ScripEOD next() throws IOException {
+
+        if( !this.valid ) {
+            return null ;
+        }
+
+        while( readLine() ) {
+            if( this.lineLen == 0 ) {
+                continue ;
+            }
+
+            final ScripEOD eod = parseLine() ;
+            if( eod != null ) {
+                return eod ;
+            }
+        }
+        return null ;
+    }
+
+    /**
+     * Reads up to the specified number of records into the list provided.
+     *
+     * @param eodList The list to which the records are added.
+     * @param maxRecords The maximum number of records to read.
+     *
+     * @return The number of records added to the list. A value less than
+     *         maxRecords implies that the stream has been exhausted.
+     *
+     * @throws IOException If the stream could not be read.
+     */
+    public int next( final List<ScripEOD> eodList, final int maxRecords )
+        throws IOException {
+
+        int numRead = 0 ;
+        ScripEOD eod = null ;
+        while( numRead < maxRecords && ( eod = next() ) != null ) {
+            eodList.add( eod ) ;
+            numRead++ ;
+        }
+        return numRead ;
+    }
+
+    /**
+     * Reads all the remaining records of the stream.
+     *
+     * @return A list of {@link ScripEOD} instances.
+     *
+     * @throws IOException If the stream could not be read.
+     */
+    public List<ScripEOD> parseAll() throws IOException {
+
+        final List<ScripEOD> eodList = new ArrayList<ScripEOD>() ;
+        next( eodList, Integer.MAX_VALUE ) ;
+        return eodList ;
+    }
+
+    /**
+     * Reads the next line into the line buffer, stripping the line
+     * terminator.
+     *
+     * @return false if the end of stream has been reached and no more
+     *         bytes could be read.
+     */
+    private boolean readLine() throws IOException {
+
+        this.lineLen = 0 ;
+        boolean gotData = false ;
+        while( true ) {
+            if( this.readPos >= this.readLen ) {
+                this.readLen = this.in.read( this.readBuf, 0, this.readBuf.length ) ;
+                this.readPos = 0 ;
+                if( this.readLen <= 0 ) {
+                    this.readLen = 0 ;
+                    break ;
+                }
+            }
+
+            gotData = true ;
+            final int start = this.readPos ;
+            int end = start ;
+            while( end < this.readLen && this.readBuf[end] != '\n' ) {
+                end++ ;
+            }
+
+            appendToLine( start, end - start ) ;
+            if( end < this.readLen ) {
+                this.readPos = end + 1 ;
+                break ;
+            }
+            this.readPos = this.readLen ;
+        }
+
+        if( this.lineLen > 0 && this.line[this.lineLen-1] == '\r' ) {
+            this.lineLen-- ;
+        }
+        if( gotData ) {
+            this.lineNum++ ;
+        }
+        return gotData ;
+    }
+
+    /** Appends the specified bytes of the read buffer to the line buffer. */
+    private void appendToLine( final int offset, final int len ) {
+
+        if( this.lineLen + len > this.line.length ) {
+            final byte[] newLine = new byte[Math.max( this.line.length*2, this.lineLen + len )] ;
+            System.arraycopy( this.line, 0, newLine, 0, this.lineLen ) ;
+            this.line = newLine ;
+        }
+        System.arraycopy( this.readBuf, offset, this.line, this.lineLen, len ) ;
+        this.lineLen += len ;
+    }
+
+    /** Returns true if the current line starts with the prefix specified. */
+    private boolean startsWith( final String prefix ) {
+
+        if( this.lineLen < prefix.length() ) {
+            return false ;
+        }
+        for( int i=0; i<prefix.length(); i++ ) {
+            if( this.line[i] != prefix.charAt( i ) ) {
+                return false ;
+            }
+        }
+        return true ;
+    }
+
+    /**
+     * Parses the current line into a {@link ScripEOD} instance. Returns null
+     * if the line can't be parsed.
+     */
+    private ScripEOD parseLine() {
+
+        // Locate the columns of interest. The columns beyond the date
+        // column, if any, are ignored.
+        int col = 0 ;
+        int start = 0 ;
+        for( int i=0; i<=this.lineLen && col<NUM_COLS; i++ ) {
+            if( i == this.lineLen || this.line[i] == ',' ) {
+                this.colStart[col] = start ;
+                this.colEnd[col]   = i ;
+                col++ ;
+                start = i+1 ;
+            }
+        }
+
+        if( col < NUM_COLS ) {
+            logger.error( "Insufficient columns in bhavcopy line " + this.lineNum ) ;
+            return null ;
+        }
+
+        try {
+            final ScripEOD eod = new ScripEOD() ;
+            eod.setSymbolId( parseSymbol() ) ;
+            eod.setOpeningPrice( parseDouble( COL_OPEN ) ) ;
+            eod.setHighestPrice( parseDouble( COL_HIGH ) ) ;
+            eod.setLowestPrice( parseDouble( COL_LOW ) ) ;
+            eod.setClosingPrice( parseDouble( COL_CLOSE ) ) ;
+            eod.setPrevClosePrice( parseDouble( COL_PREV_CLOSE ) ) ;
+            eod.setTotalTradeQty( parseLong( COL_TRADE_QTY ) ) ;
+            eod.setDate( new Date( parseDate( COL_DATE ) ) ) ;
+            return eod ;
+        }
+        catch( final NumberFormatException e ) {
+            logger.error( "Could not parse bhavcopy line " + this.lineNum +
+                          ". Msg=" + e.getMessage() ) ;
+        }
+        return null ;
+    }
+
+    /** Creates the symbol string from the bytes of the symbol column. */
+    private String parseSymbol() {
+
+        final int start = this.colStart[COL_SYMBOL] ;
+        final int len   = this.colEnd[COL_SYMBOL] - start ;
+        if( len == 0 ) {
+            throw new NumberFormatException( "Empty symbol" ) ;
+        }
+
+        final char[] chars = ( len <= this.symbolChars.length ) ? this.symbolChars : new char[len] ;
+        for( int i=0; i<len; i++ ) {
+            chars[i] = ( char )( this.line[start+i] & 0xFF ) ;
+        }
+        return new String( chars, 0, len ) ;
+    }
+
+    /**
+     * Parses the specified column as a double. Plain decimal values, which
+     * is all a bhavcopy contains, are parsed as a scaled long mantissa. The
+     * division of an exact mantissa by an exact power of ten is correctly
+     * rounded, hence the result is identical to that of Double.parseDouble.
+     * Any other format is delegated to Double.parseDouble.
+     */
+    private double parseDouble( final int col ) {
+
+        final int start = this.colStart[col] ;
+        final int end   = this.colEnd[col] ;
+
+        int     i        = start ;
+        boolean negative = false ;
+        if( i < end && ( this.line[i] == '-' || this.line[i] == '+' ) ) {
+            negative = ( this.line[i] == '-' ) ;
+            i++ ;
+        }
+
+        long    mantissa  = 0 ;
+        int     scale     = 0 ;
+        int     numDigits = 0 ;
+        boolean fraction  = false ;
+        for( ; i<end; i++ ) {
+            final byte b = this.line[i] ;
+            if( b >= '0' && b <= '9' ) {
+                mantissa = mantissa*10 + ( b - '0' ) ;
+                numDigits++ ;
+                if( fraction ) {
+                    scale++ ;
+                }
+                if( mantissa >= MAX_EXACT_MANTISSA || scale >= POW10.length ) {
+                    return parseDoubleSlow( start, end ) ;
+                }
+            }
+            else if( b == '.' && !fraction ) {
+                fraction = true ;
+            }
+            else {
+                return parseDoubleSlow( start, end ) ;
+            }
+        }
+
+        if( numDigits == 0 ) {
+            return parseDoubleSlow( start, end ) ;
+        }
+
+        final double value = ( scale == 0 ) ? mantissa : mantissa / POW10[scale] ;
+        return negative ? -value : value ;
+    }
+
+    /** Falls back to Double.parseDouble for unusual numeric formats. */
+    private double parseDoubleSlow( final int start, final int end ) {
+        return Double.parseDouble( new String( this.line, start, end - start ).trim() ) ;
+    }
+
+    /** Parses the specified column as a long. */
+    private long parseLong( final int col ) {
+
+        final int start = this.colStart[col] ;
+        final int end   = this.colEnd[col] ;
+        if( start == end || end - start > 18 ) {
+            return Long.parseLong( new String( this.line, start, end - start ).trim() ) ;
+        }
+
+        long value = 0 ;
+        for( int i=start; i<end; i++ ) {
+            final byte b = this.line[i] ;
+            if( b < '0' || b > '9' ) {
+                return Long.parseLong( new String( this.line, start, end - start ).trim() ) ;
+            }
+            value = value*10 + ( b - '0' ) ;
+        }
+        return value ;
+    }
+
+    /**
+     * Parses the date column, in the d-MMM-yyyy format, and returns the time
+     * in milliseconds at the start of the day in the default time zone. The
+     * last converted date is cached, since all the rows of a bhavcopy carry
+     * the same date.
+     */
+    private long parseDate( final int col ) {
+
+        final int start = this.colStart[col] ;
+        final int len   = this.colEnd[col] - start ;
+
+        if( len == this.lastDateLen ) {
+            boolean same = true ;
+            for( int i=0; i<len && same; i++ ) {
+                same = ( this.line[start+i] == this.lastDate[i] ) ;
+            }
+            if( same ) {
+                return this.lastDateMillis ;
+            }
+        }
+
+        if( len > this.lastDate.length ) {
+            throw new NumberFormatException( "Invalid date" ) ;
+        }
+
+        // Day of month - one or two digits followed by a hyphen
+        int i = start ;
+        final int end = start + len ;
+        int day = 0 ;
+        if( i == end || this.line[i] == '-' ) {
+            throw new NumberFormatException( "Invalid day of month in date" ) ;
+        }
+        while( i < end && this.line[i] != '-' ) {
+            final byte b = this.line[i++] ;
+            if( b < '0' || b > '9' ) {
+                throw new NumberFormatException( "Invalid day of month in date" ) ;
+            }
+            day = day*10 + ( b - '0' ) ;
+        }
+        i++ ;
+
+        // Month - three letters, case insensitive, followed by a hyphen
+        if( i + 4 > end || this.line[i+3] != '-' ) {
+            throw new NumberFormatException( "Invalid month in date" ) ;
+        }
+        int month = -1 ;
+        for( int m=0; m<MONTHS.length && month==-1; m++ ) {
+            final String name = MONTHS[m] ;
+            if( Character.toUpperCase( ( char )this.line[i]   ) == name.charAt( 0 ) &&
+                Character.toUpperCase( ( char )this.line[i+1] ) == name.charAt( 1 ) &&
+                Character.toUpperCase( ( char )this.line[i+2] ) == name.charAt( 2 ) ) {
+                month = m ;
+            }
+        }
+        if( month == -1 ) {
+            throw new NumberFormatException( "Invalid month in date" ) ;
+        }
+        i += 4 ;
+
+        // Year - four digits
+        if( end - i != 4 ) {
+            throw new NumberFormatException( "Invalid year in date" ) ;
+        }
+        int year = 0 ;
+        for( ; i<end; i++ ) {
+            final byte b = this.line[i] ;
+            if( b < '0' || b > '9' ) {
+                throw new NumberFormatException( "Invalid year in date" ) ;
+            }
+            year = year*10 + ( b - '0' ) ;
+        }
+
+        this.cal.clear() ;
+        this.cal.set( year, month, day ) ;
+
+        System.arraycopy( this.line, start, this.lastDate, 0, len ) ;
+        this.lastDateLen    = len ;
+        this.lastDateMillis = this.cal.getTimeInMillis() ;
+        return this.lastDateMillis ;
+    }
+}
@@ -0,0 +1,187 @@
+/**
+ * Creation Date: Oct 18, 2026
+ */
+
+package com.sandy.apps.pluto.biz.svc.impl;
+import java.util.ArrayList ;
+import java.util.Arrays ;
+import java.util.LinkedList ;
+import java.util.List ;
+
+/**
+ * Searches raw bytes for a set of signatures in a single pass, without
+ * decoding them into strings. The signatures are compiled into an Aho-Corasick
+ * automaton, whose transitions for every byte are precomputed, hence each byte
+ * searched costs a single table look up irrespective of the number of
+ * signatures.
+ * <p>
+ * The bytes can be searched in one go with {@link #find(byte[])}, or as they
+ * arrive in chunks with a {@link Scanner}, which carries the partial matches
+ * over from one chunk to the next.
+ * <p>
+ * An instance of this class is immutable and thread safe, a scanner is not.
+ *
+ * @author Sandeep Deb [deb.sandeep@gmail.com]
+ */
+public class ByteSignatureMatcher {
+
+    /** The transitions of the automaton, by state and byte. */
+    private final int[][] transitions ;
+
+    /**
+     * The signature matched on reaching a state, -1 if the state completes no
+     * signature. If a state completes several signatures, the one specified
+     * first is reported.
+     */
+    private final int[] matches ;
+
+    /**
+     * A scanner of a stream of bytes, which reports the first signature
+     * found in the bytes scanned so far.
+     */
+    public class Scanner {
+
+        private int state = 0 ;
+        private int match = -1 ;
+
+        /**
+         * Scans the next chunk of bytes.
+         *
+         * @return The index of the first signature found in the bytes scanned
+         *         so far, -1 if none has been found.
+         */
+        public int scan( final byte[] bytes, final int offset, final int length ) {
+            if( this.match == -1 ) {
+                final int end = offset + length ;
+                int current = this.state ;
+                for( int i=offset; i<end; i++ ) {
+                    current = ByteSignatureMatcher.this.transitions[current][bytes[i] & 0xFF] ;
+                    if( ByteSignatureMatcher.this.matches[current] != -1 ) {
+                        this.match = ByteSignatureMatcher.this.matches[current] ;
+                        break ;
+                    }
+                }
+                this.state = current ;
+            }
+            return this.match ;
+        }
+
+        /** Returns the index of the signature found, -1 if none has been found. */
+        public int getMatch() {
+            return this.match ;
+        }
+    }
+
+    /**
+     * Constructor, which compiles the signatures.
+     *
+     * @param signatures The signatures to search for, none of which can be
+     *        empty.
+     */
+    public ByteSignatureMatcher( final byte[]... signatures ) {
+
+        // Build the trie of the signatures, the state 0 being the root
+        final List<int[]> trie = new ArrayList<int[]>() ;
+        final List<Integer> terminals = new ArrayList<Integer>() ;
+        trie.add( newState() ) ;
+        terminals.add( -1 ) ;
+
+        for( int sig=0; sig<signatures.length; sig++ ) {
+            if( signatures[sig].length == 0 ) {
+                throw new IllegalArgumentException( "Empty signature at " + sig ) ;
+            }
+
+            int state = 0 ;
+            for( final byte b : signatures[sig] ) {
+                final int c = b & 0xFF ;
+                if( trie.get( state )[c] == -1 ) {
+                    trie.get( state )[c] = trie.size() ;
+                    trie.add( newState() ) ;
+                    terminals.add( -1 ) ;
+                }
+                state = trie.get( state )[c] ;
+            }
+            if( terminals.get( state ) == -1 ) {
+                terminals.set( state, sig ) ;
+            }
+        }
+
+        final int numStates = trie.size() ;
+        this.transitions = trie.toArray( new int[numStates][] ) ;
+        this.matches     = new int[numStates] ;
+        final int[] failures = new int[numStates] ;
+
+        // Complete the transitions breadth first. A missing transition of a
+        // state is the transition of its failure state - the state of the
+        // longest proper suffix of its path which is also in the trie.
+        final LinkedList<Integer> queue = new LinkedList<Integer>() ;
+        this.matches[0] = -1 ;
+        for( int c=0; c<256; c++ ) {
+            final int next = this.transitions[0][c] ;
+            if( next == -1 ) {
+                this.transitions[0][c] = 0 ;
+            }
+            else {
+                failures[next] = 0 ;
+                queue.add( next ) ;
+            }
+        }
+
+        while( !queue.isEmpty() ) {
+            final int state = queue.removeFirst() ;
+            final int failure = failures[state] ;
+
+            // A state completes its own signature or any completed by its
+            // failure state, preferring the signature specified first.
+            final int own = terminals.get( state ) ;
+            final int inherited = this.matches[failure] ;
+            if( own == -1 ) {
+                this.matches[state] = inherited ;
+            }
+            else if( inherited == -1 ) {
+                this.matches[state] = own ;
+            }
+            else {
+                this.matches[state] = Math.min( own, inherited ) ;
+            }
+
+            for( int c=0; c<256; c++ ) {
+                final int next = this.transitions[state][c] ;
+                if( next == -1 ) {
+                    this.transitions[state][c] = this.transitions[failure][c] ;
+                }
+                else {
+                    failures[next] = this.transitions[failure][c] ;
+                    queue.add( next ) ;
+                }
+            }
+        }
+    }
+
+    private static int[] newState() {
+        final int[] state = new int[256] ;
+        Arrays.fill( state, -1 ) ;
+        return state ;
+    }
+
+    /** Returns a new scanner, positioned at the start of a stream. */
+    public Scanner newScanner() {
+        return new Scanner() ;
+    }
+
+    /**
+     * Returns the index of the first signature found in the bytes, -1 if
+     * none of the signatures is found.
+     */
+    public int find( final byte[] bytes ) {
+        return find( bytes, 0, bytes.length ) ;
+    }
+
+    /**
+     * Returns the index of the first signature found in the range of bytes,
+     * -1 if none of the signatures is found.
+     */
+    public int find( final byte[] bytes, final int offset, final int length ) {
+        return newScanner().scan( bytes, offset, length ) ;
+    }
+}
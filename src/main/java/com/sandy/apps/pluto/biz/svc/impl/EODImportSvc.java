@@ -3,19 +3,23 @@
  */
 
 package com.sandy.apps.pluto.biz.svc.impl;
-import java.io.BufferedReader ;
+import java.io.ByteArrayInputStream ;
 import java.io.File ;
+import java.io.FileInputStream ;
+import java.io.FileOutputStream ;
 import java.io.IOException ;
-import java.io.StringReader ;
+import java.io.InputStream ;
+import java.io.OutputStream ;
 import java.text.DateFormat ;
-import java.text.ParseException ;
 import java.text.SimpleDateFormat ;
 import java.util.ArrayList ;
 import java.util.Calendar ;
-import java.util.Collections ;
 import java.util.Date ;
+import java.util.Iterator ;
 import java.util.List ;
-import java.util.StringTokenizer ;
+import java.util.NoSuchElementException ;
+import java.util.zip.ZipException ;
+import java.util.zip.ZipInputStream ;
 
 import org.apache.log4j.Logger ;
 
@@ -29,10 +33,10 @@ import com.sandy.apps.pluto.shared.EventType ;
 import com.sandy.apps.pluto.shared.STException ;
 import com.sandy.apps.pluto.shared.dto.ScripEOD ;
 import com.sandy.apps.pluto.shared.event.EventBus ;
+import com.sandy.apps.pluto.shared.metrics.LatencyHistogram ;
+import com.sandy.apps.pluto.shared.metrics.MetricsRegistry ;
 import com.sandy.apps.pluto.shared.util.util.ConfigManager ;
-import com.sandy.apps.pluto.shared.util.util.StringUtil ;
 import com.sandy.apps.pluto.shared.util.util.ZipUtils ;
-import com.sandy.common.util.FileUtils ;
 import com.sandy.common.util.IOUtils ;
 
 /**
@@ -49,11 +53,8 @@ public class EODImportSvc implements IEODImportSvc {
     private static final String URL_BHAVCOPY_PREFIX =
                         "http://www.nseindia.com/content/historical/EQUITIES/" ;
 
-    /**
-     * A string constant indicating that the downloaded content is not a valid
-     * bhavcopy.
-     */
-    private static final String BHAVCOPY_NOT_FOUND = "<H1>Not Found</H1>" ;
+    /** The number of EOD records handed to the DAO in one bulk load batch. */
+    private static final int BULK_LOAD_BATCH_SIZE = 1000 ;
 
     /**
      * INJECTABLE: This reference should be injected with the IEODIndexDAO
@@ -72,6 +73,35 @@ public class EODImportSvc implements IEODImportSvc {
      */
     private INetworkSvc networkSvc = null ;
 
+    /**
+     * INJECTABLE: The number of threads downloading the bhavcopies during a
+     * multiple date import.
+     */
+    private int downloadThreads = 4 ;
+
+    /**
+     * INJECTABLE: The number of threads unzipping and parsing the bhavcopies
+     * during a multiple date import.
+     */
+    private int parseThreads = 2 ;
+
+    /**
+     * INJECTABLE: The number of threads inserting the bhavcopies during a
+     * multiple date import. The inserts of a date might create the partition
+     * of its month, hence by default the inserts are done by a single thread.
+     */
+    private int insertThreads = 1 ;
+
+    /**
+     * INJECTABLE: The number of bhavcopies which can wait between the stages
+     * of a multiple date import.
+     */
+    private int queueSize = 4 ;
+
+    /** The time taken to parse a bhavcopy. */
+    private final LatencyHistogram parseTimes =
+                        MetricsRegistry.instance().getHistogram( "parse.bhavcopy" ) ;
+
     /** Public no argument constructor. */
     public EODImportSvc() {
         super() ;
@@ -119,6 +149,62 @@ public class EODImportSvc implements IEODImportSvc {
         this.networkSvc = networkSvc ;
     }
 
+    /**
+     * @return the downloadThreads
+     */
+    public int getDownloadThreads() {
+        return this.downloadThreads ;
+    }
+
+    /**
+     * @param downloadThreads the downloadThreads to set
+     */
+    public void setDownloadThreads( final int downloadThreads ) {
+        this.downloadThreads = Math.max( 1, downloadThreads ) ;
+    }
+
+    /**
+     * @return the parseThreads
+     */
+    public int getParseThreads() {
+        return this.parseThreads ;
+    }
+
+    /**
+     * @param parseThreads the parseThreads to set
+     */
+    public void setParseThreads( final int parseThreads ) {
+        this.parseThreads = Math.max( 1, parseThreads ) ;
+    }
+
+    /**
+     * @return the insertThreads
+     */
+    public int getInsertThreads() {
+        return this.insertThreads ;
+    }
+
+    /**
+     * @param insertThreads the insertThreads to set
+     */
+    public void setInsertThreads( final int insertThreads ) {
+        this.insertThreads = Math.max( 1, insertThreads ) ;
+    }
+
+    /**
+     * @return the queueSize
+     */
+    public int getQueueSize() {
+        return this.queueSize ;
+    }
+
+    /**
+     * @param queueSize the queueSize to set
+     */
+    public void setQueueSize( final int queueSize ) {
+        this.queueSize = Math.max( 1, queueSize ) ;
+    }
+
     /**
      * This operation bhavcopy data for the specified date. The raw bhavcopy
      * data is first downloaded and saved onto the HISTORIC_EOD directory and
@@ -150,6 +236,73 @@ public class EODImportSvc implements IEODImportSvc {
         }
     }
 
+    /**
+     * Imports the bhavcopy data for the dates specified through a
+     * {@link BhavcopyImportPipeline}. The unzipped bhavcopies are saved onto
+     * the download directory as in the single date import, but are parsed
+     * from memory rather than being read back from the disk.
+     *
+     * @param dates The dates to import, in ascending order.
+     * @param callback The callback informed of the imported dates.
+     *
+     * @throws STException For the first date, in the order of the dates,
+     *         whose bhavcopy could not be imported.
+     */
+    public void importBhavcopyEODData( final List<Date> dates,
+                                       final ImportCallback callback )
+        throws STException {
+
+        if( dates == null || dates.isEmpty() ) {
+            return ;
+        }
+
+        final long startTime = System.currentTimeMillis() ;
+        final BhavcopyImportPipeline pipeline = new BhavcopyImportPipeline( this,
+                                    Math.min( this.downloadThreads, dates.size() ),
+                                    Math.min( this.parseThreads, dates.size() ),
+                                    Math.min( this.insertThreads, dates.size() ),
+                                    this.queueSize ) ;
+        pipeline.run( dates, callback ) ;
+        logger.debug( "Imported bhavcopies for " + dates.size() + " dates in " +
+                      ( System.currentTimeMillis() - startTime ) + " ms" ) ;
+    }
+
+    /**
+     * Bulk imports the bhavcopy CSV files specified. The files are streamed
+     * through the {@link BhavcopyParser} as and when the DAO pulls the next
+     * batch, such that only one batch of EOD data is held in memory at any
+     * point in time.
+     *
+     * @param files The bhavcopy CSV files to import.
+     *
+     * @return The number of EOD records newly inserted.
+     *
+     * @throws STException If an exception is encountered during the import
+     *         process.
+     */
+    public int importBhavcopyFiles( final List<File> files )
+        throws STException {
+
+        if( files == null || files.isEmpty() ) {
+            return 0 ;
+        }
+
+        final Iterator<List<ScripEOD>> eodBatches = new BhavcopyBatchIterator( files ) ;
+
+        try {
+            final long startTime = System.currentTimeMillis() ;
+            final int numInserted = this.eodIndexDAO.bulkLoad( eodBatches ) ;
+            logger.info( "Bulk imported " + numInserted + " EOD records from " +
+                         files.size() + " bhavcopies in " +
+                         ( System.currentTimeMillis() - startTime ) + " ms" ) ;
+            return numInserted ;
+        }
+        catch( final RuntimeException e ) {
+            throw new STException( "Bulk bhavcopy import failure", e,
+                                   ErrorCode.EOD_IMPORT_FAILURE ) ;
+        }
+    }
+
     /**
      * Download the historic Bhavcopy Equity data for the date provided.
      * This function checks for the existence of the configuration
@@ -168,10 +321,82 @@ public class EODImportSvc implements IEODImportSvc {
      * @throws STException If an exception is encountered during the import
      *         process.
      */
-    private String downloadNSEEquityBhavcopy( final Date date )
+    public String downloadNSEEquityBhavcopy( final Date date )
         throws STException {
 
-        logger.debug( "Downloading bhavcopy for date " + NSE_CSV_DF.format( date ) ) ;
+        logger.debug( "Downloading bhavcopy for date " + format( date ) ) ;
+
+        // The bhavcopy is unzipped as it is downloaded, straight into the
+        // file, without holding the zipped or the unzipped contents in memory
+        final File file = getBhavcopyFile( date ) ;
+        final String url = getBhavcopyURL( date ) ;
+        logger.debug( "Streaming bhavcopy from URL " + url ) ;
+        this.networkSvc.getGETStream( url, null, new INetworkSvc.ResponseHandler<Void>() {
+            public Void handleResponse( final InputStream in ) throws IOException {
+                unpackNSEEquityBhavcopy( in, file ) ;
+                return null ;
+            }
+        } ) ;
+        return file.getAbsolutePath() ;
+    }
+
+    /**
+     * Unzips the streamed bhavcopy into the file. A stream which is not a zip
+     * holding the bhavcopy, for example an error page sent by a proxy, is a
+     * failure - the network service checks the rest of the stream for the
+     * known error pages.
+     *
+     * @throws IOException If the stream is not a zipped bhavcopy, or if the
+     *         bhavcopy could not be unzipped or saved.
+     */
+    private void unpackNSEEquityBhavcopy( final InputStream in, final File file )
+        throws IOException {
+
+        final ZipInputStream zipIn = new ZipInputStream( in ) ;
+        if( zipIn.getNextEntry() == null ) {
+            throw new ZipException( "Response is not a zipped bhavcopy" ) ;
+        }
+
+        final OutputStream out = new FileOutputStream( file ) ;
+        boolean saved = false ;
+        try {
+            final byte[] buffer = new byte[8192] ;
+            int numRead = 0 ;
+            while( ( numRead = zipIn.read( buffer ) ) != -1 ) {
+                out.write( buffer, 0, numRead ) ;
+            }
+            saved = true ;
+        }
+        finally {
+            out.close() ;
+            // A partial bhavcopy must not be imported
+            if( !saved ) {
+                file.delete() ;
+            }
+        }
+    }
+
+    /**
+     * Gets the zipped NSE equity bhavcopy for the date from the NSE site.
+     *
+     * @param date The date for which the bhavcopy needs to be downloaded
+     *
+     * @return The zipped contents of the bhavcopy.
+     *
+     * @throws STException If the bhavcopy could not be downloaded.
+     */
+    byte[] fetchNSEEquityBhavcopy( final Date date )
+        throws STException {
+
+        // Download the contents of the URL into memory - note that the
+        // bhavcopy is never huge, approximately 70KB worth of data.
+        final String url = getBhavcopyURL( date ) ;
+        logger.debug( "Getting bhavcopy from URL " + url ) ;
+        return this.networkSvc.getRawGETResult( url ) ;
+    }
+
+    /** Returns the URL of the zipped NSE equity bhavcopy for the date. */
+    private String getBhavcopyURL( final Date date ) {
 
         final DateFormat DMF    = new SimpleDateFormat( "MMM" ) ;
         final String     month  = DMF.format( date ).toUpperCase() ;
@@ -181,33 +406,47 @@ public class EODImportSvc implements IEODImportSvc {
         // Create the URL based on the date
         final StringBuffer url = new StringBuffer( URL_BHAVCOPY_PREFIX ) ;
         url.append( DF.format( date ) ) ;
+        return url.toString() ;
+    }
 
-        // Now download the contents of the URL into a String - note that
-        // the bhavcopy is never huge, approximately 70KB worth of data. We
-        // can directly load it into memory
-        logger.debug( "Getting bhavcopy from URL " + url.toString() ) ;
-        final byte[] bhavcopyContent = this.networkSvc.getRawGETResult( url.toString() ) ;
-
-        final ConfigManager cfgMgr = ConfigManager.getInstance() ;
-        final String saveDir = cfgMgr.getString( ConfigKey.EOD_DOWNLOAD_DIR,
-                                                 System.getProperty( "user.dir" ) ) ;
+    /**
+     * Unzips the CSV contents of a downloaded bhavcopy.
+     *
+     * @param date The date of the bhavcopy.
+     * @param bhavcopyContent The zipped contents of the bhavcopy.
+     *
+     * @return The CSV contents of the bhavcopy.
+     *
+     * @throws STException If the contents could not be unzipped.
+     */
+    byte[] unpackNSEEquityBhavcopy( final Date date, final byte[] bhavcopyContent )
+        throws STException {
 
-        final File dir = new File( saveDir ) ;
-        if( !dir.exists() ) {
-            if( !dir.mkdirs() ) {
-                throw new STException( "Could not create directory " + dir,
-                                       ErrorCode.DOWNLOAD_FAILURE ) ;
-            }
+        try {
+            return ZipUtils.unpackContentsUsingZip( bhavcopyContent ) ;
         }
-        else if( !dir.isDirectory() ) {
-            throw new STException( "Path is not a directory - " + dir,
-                                   ErrorCode.DOWNLOAD_FAILURE ) ;
+        catch ( final Exception e ) {
+            throw new STException( "Could not unpack bhavcopy for " +
+                                   format( date ), e, ErrorCode.DOWNLOAD_FAILURE ) ;
         }
+    }
 
-        final String fileName = "BHAVCOPY_" + NSE_CSV_DF.format( date ) + ".csv" ;
-        final File file = new File( dir, fileName ) ;
+    /**
+     * Saves the CSV contents of a bhavcopy as a BHAVCOPY_dd-MMM-yyyy.csv file
+     * in the download directory.
+     *
+     * @param date The date of the bhavcopy.
+     * @param data The CSV contents of the bhavcopy.
+     *
+     * @return The absolute path of the file where the data has been saved.
+     *
+     * @throws STException If the contents could not be saved.
+     */
+    String saveNSEEquityBhavcopy( final Date date, final byte[] data )
+        throws STException {
+
+        final File file = getBhavcopyFile( date ) ;
         try {
-            final byte[] data = ZipUtils.unpackContentsUsingZip( bhavcopyContent ) ;
             IOUtils.writeFile( data, file.getAbsolutePath() ) ;
         }
         catch ( final Exception e ) {
@@ -219,6 +458,74 @@ public class EODImportSvc implements IEODImportSvc {
         return file.getAbsolutePath() ;
     }
 
+    /**
+     * Returns the BHAVCOPY_dd-MMM-yyyy.csv file of the date in the download
+     * directory, creating the directory if required.
+     *
+     * @throws STException If the download directory could not be created.
+     */
+    private File getBhavcopyFile( final Date date )
+        throws STException {
+
+        final ConfigManager cfgMgr = ConfigManager.getInstance() ;
+        final String saveDir = cfgMgr.getString( ConfigKey.EOD_DOWNLOAD_DIR,
+                                                 System.getProperty( "user.dir" ) ) ;
+
+        final File dir = new File( saveDir ) ;
+        synchronized( this ) {
+            if( !dir.exists() ) {
+                if( !dir.mkdirs() ) {
+                    throw new STException( "Could not create directory " + dir,
+                                           ErrorCode.DOWNLOAD_FAILURE ) ;
+                }
+            }
+            else if( !dir.isDirectory() ) {
+                throw new STException( "Path is not a directory - " + dir,
+                                       ErrorCode.DOWNLOAD_FAILURE ) ;
+            }
+        }
+
+        final String fileName = "BHAVCOPY_" + format( date ) + ".csv" ;
+        return new File( dir, fileName ) ;
+    }
+
+    /**
+     * Parses the CSV contents of a bhavcopy.
+     *
+     * @param date The date of the bhavcopy.
+     * @param data The CSV contents of the bhavcopy.
+     *
+     * @return The EOD records of the bhavcopy, empty if the contents are not
+     *         a bhavcopy.
+     *
+     * @throws STException If the contents could not be parsed.
+     */
+    List<ScripEOD> parseNSEEquityBhavcopy( final Date date, final byte[] data )
+        throws STException {
+
+        try {
+            final long startTime = System.nanoTime() ;
+            final List<ScripEOD> eodIndices =
+                    new BhavcopyParser( new ByteArrayInputStream( data ) ).parseAll() ;
+            this.parseTimes.recordSince( startTime ) ;
+            return eodIndices ;
+        }
+        catch ( final IOException e ) {
+            throw new STException( "Bhavcopy read failure for " + format( date ), e,
+                                   ErrorCode.EOD_IMPORT_FAILURE ) ;
+        }
+    }
+
+    /**
+     * Formats the date in the NSE CSV format. The format is shared between
+     * threads, hence the access to it is serialized.
+     */
+    static String format( final Date date ) {
+        synchronized( NSE_CSV_DF ) {
+            return NSE_CSV_DF.format( date ) ;
+        }
+    }
+
     /**
      * This operation imports the data as contained in the file specified. The
      * format of the data is conveyed through the format parameter. The data
@@ -238,127 +545,132 @@ public class EODImportSvc implements IEODImportSvc {
         throws STException {
 
         boolean result = false ;
+        InputStream in = null ;
         try {
             logger.debug( "Importing bhavcopy from " + filePath ) ;
-            final String fileContents = FileUtils.readFileToString( new File( filePath ) ) ;
-            if( StringUtil.isEmptyOrNull( fileContents ) ||
-                fileContents.contains( BHAVCOPY_NOT_FOUND ) ||
-                fileContents.length() < 100 ) {
+            in = new FileInputStream( filePath ) ;
+            final long startTime = System.nanoTime() ;
+            final BhavcopyParser parser = new BhavcopyParser( in ) ;
+            final List<ScripEOD> eodIndices = parser.parseAll() ;
+            this.parseTimes.recordSince( startTime ) ;
+            if( eodIndices.isEmpty() ) {
                 // This implies that the downloaded bhavopy did not have any
                 // records. This can happen if we have encountered an exchange
-                // holiday. In this case, just skip population and return a
-                // false, indicating no records were imported.
+                // holiday, in which case the server returns a not found page
+                // instead of the bhavcopy. In this case, just skip population
+                // and return a false, indicating no records were imported.
                 logger.debug( "No records found in " + filePath ) ;
             }
             else {
-                final List<ScripEOD> eodIndices = parseBhavcopy( fileContents ) ;
-                this.eodIndexDAO.insert( eodIndices ) ;
+                final int numInserted = this.eodIndexDAO.insert( eodIndices ) ;
+                logger.debug( "Inserted " + numInserted + " of " +
+                              eodIndices.size() + " EOD records from " + filePath ) ;
                 result = true ;
             }
         }
-        catch( final NumberFormatException ne ) {
-            // This will result when the file could not be parsed. Typical
-            // cases are when the stock exchange was closed e.g. Saturday,
-            // Sunday or national holidays. We simply ignore this error
-            logger.error( "Could not parse file " + filePath ) ;
-        }
         catch ( final IOException e ) {
             throw new STException( "File read failure - " + filePath,
                                    ErrorCode.EOD_IMPORT_FAILURE ) ;
         }
+        finally {
+            IOUtils.closeQuietly( in ) ;
+        }
         return result ;
     }
 
     /**
-     * Parses the contents as EOD indices in the NSE Bhavcopy format.
-     *
-     * @param contents The CSV file contents of NSE Bhavcopy export.
-     *
-     * @return A list of {@link ScripEOD} DTO instances.
+     * An iterator which streams the EOD records of a list of bhavcopy files
+     * in batches of {@link #BULK_LOAD_BATCH_SIZE} records. A batch may span
+     * files. Files which can't be read are logged and skipped.
      */
-    private List<ScripEOD> parseBhavcopy( final String contents )
-        throws IOException {
+    private static class BhavcopyBatchIterator implements Iterator<List<ScripEOD>> {
 
-        // If the contents are not valid bhavcopy contents, return an empty
-        // list. This can happen if we are trying to fetch bhavcopy for a holiday
-        // in which case the server would return a not found page.
-        if( !checkBhavcopyValidity( contents ) ) {
-            return Collections.emptyList() ;
+        private final Iterator<File> fileIter ;
+        private File           file     = null ;
+        private InputStream    in       = null ;
+        private BhavcopyParser parser   = null ;
+        private List<ScripEOD> nextBatch = null ;
+
+        public BhavcopyBatchIterator( final List<File> files ) {
+            this.fileIter = files.iterator() ;
         }
 
-        final List<ScripEOD> eodIndices = new ArrayList<ScripEOD>() ;
-        final BufferedReader reader = new BufferedReader( new StringReader( contents ) ) ;
-        String          line      = null ;
-        StringTokenizer tokenizer = null ;
-        boolean         firstLine = true ;
-        ScripEOD        eodIndex  = null ;
-        while( ( line = reader.readLine() ) != null ) {
-            // Skip the first line in the file - this is the header line.
-            if( firstLine ) {
-                firstLine = false ;
-                continue ;
+        public boolean hasNext() {
+            if( this.nextBatch == null ) {
+                this.nextBatch = readBatch() ;
             }
+            return !this.nextBatch.isEmpty() ;
+        }
 
-            try {
-                eodIndex = new ScripEOD() ;
-                tokenizer = new StringTokenizer( line, "," ) ;
-                // NSE CSV has the following format
-                // Column - 1: Symbol
-                eodIndex.setSymbolId( tokenizer.nextToken() ) ;
-
-                // Column - 2: Series (We ignore this)
-                tokenizer.nextToken() ;
-
-                // Column - 3: Open Price
-                eodIndex.setOpeningPrice( Double.parseDouble( tokenizer.nextToken() ) ) ;
-
-                // Column - 4: High Price
-                eodIndex.setHighestPrice( Double.parseDouble( tokenizer.nextToken() ) ) ;
-
-                // Column - 5: Low Price
-                eodIndex.setLowestPrice( Double.parseDouble( tokenizer.nextToken() ) ) ;
-
-                // Column - 6: Close Price
-                eodIndex.setClosingPrice( Double.parseDouble( tokenizer.nextToken() ) ) ;
-
-                // Column - 7: Last Price - we ignore this
-                tokenizer.nextToken() ;
-
-                // Column - 8: Previous close price - we ignore this
-                eodIndex.setPrevClosePrice( Double.parseDouble( tokenizer.nextToken() ) ) ;
-
-                // Column - 9: Total trade quantity
-                eodIndex.setTotalTradeQty( Long.parseLong( tokenizer.nextToken() ) ) ;
-
-                // Column - 10: Total trade value - we ignore this
-                tokenizer.nextToken() ;
-
-                // Column - 11: Date
-                eodIndex.setDate( NSE_CSV_DF.parse( tokenizer.nextToken() ) ) ;
+        public List<ScripEOD> next() {
+            if( !hasNext() ) {
+                throw new NoSuchElementException() ;
+            }
+            final List<ScripEOD> batch = this.nextBatch ;
+            this.nextBatch = null ;
+            return batch ;
+        }
 
-                // Ignore the rest of the line.
+        public void remove() {
+            throw new UnsupportedOperationException() ;
+        }
 
-                eodIndices.add( eodIndex ) ;
+        /**
+         * Reads the next batch of records, moving on to the next file when
+         * the current one is exhausted. Returns an empty list when all the
+         * files have been read.
+         */
+        private List<ScripEOD> readBatch() {
+
+            final List<ScripEOD> batch = new ArrayList<ScripEOD>( BULK_LOAD_BATCH_SIZE ) ;
+            while( batch.size() < BULK_LOAD_BATCH_SIZE ) {
+                if( this.parser == null && !openNextFile() ) {
+                    break ;
+                }
+
+                try {
+                    final int wanted = BULK_LOAD_BATCH_SIZE - batch.size() ;
+                    if( this.parser.next( batch, wanted ) < wanted ) {
+                        closeFile() ;
+                    }
+                }
+                catch( final IOException e ) {
+                    logger.error( "File read failure - " + this.file + ". Msg=" + e.getMessage() ) ;
+                    closeFile() ;
+                }
             }
-            catch ( final ParseException e ) {
-                // If we have an exception - we ignore this EOD index.
-                logger.error( "Parse exception. Msg=" + e.getMessage() ) ;
-                logger.debug( "Parse exception", e ) ;
+            return batch ;
+        }
+
+        /** Opens the next readable file. Returns false if none are left. */
+        private boolean openNextFile() {
+
+            while( this.fileIter.hasNext() ) {
+                this.file = this.fileIter.next() ;
+                try {
+                    logger.debug( "Bulk importing bhavcopy from " + this.file ) ;
+                    this.in = new FileInputStream( this.file ) ;
+                    this.parser = new BhavcopyParser( this.in ) ;
+                    if( !this.parser.isValid() ) {
+                        logger.debug( "No records found in " + this.file ) ;
+                        closeFile() ;
+                        continue ;
+                    }
+                    return true ;
+                }
+                catch( final IOException e ) {
+                    logger.error( "File read failure - " + this.file + ". Msg=" + e.getMessage() ) ;
+                    closeFile() ;
+                }
             }
+            return false ;
         }
-        return eodIndices ;
-    }
 
-    /**
-     * Checks if the contents resemble a valid bhavcopy content. A valid bhavcopy
-     * CSV content string always starts with the headers and hence we check
-     * if the contents start with a piece of known header information.
-     *
-     * @param contents The contents of the bhavcopy
-     * @return true if the contents are of a valid bhavcopy, false otherwise.
-     */
-    private boolean checkBhavcopyValidity( final String contents ) {
-        return contents.startsWith( "SYMBOL,SERIES,OPEN,HIGH," ) ;
+        private void closeFile() {
+            IOUtils.closeQuietly( this.in ) ;
+            this.in     = null ;
+            this.parser = null ;
+        }
     }
 
     /**
@@ -367,6 +679,11 @@ public class EODImportSvc implements IEODImportSvc {
      * records would be moved to the STOCK_EOD_DATA_ARCHIVE table and deleted
      * from the live table.
      * <p>
+     * The partitions of the live table which lie entirely before the boundary
+     * are archived as a whole, without copying their rows. Only the records
+     * held by the live table itself, which were inserted before the table was
+     * partitioned, are copied and deleted row by row.
+     * <p>
      * Note that the data is moved from live to archive table and deleted from
      * live table within one transaction boundary and hence if either the insert
      * or the delete fails, the transaction is rolled back. The transaction
@@ -391,8 +708,13 @@ public class EODImportSvc implements IEODImportSvc {
         final Date boundary = boundaryDate.getTime() ;
         logger.debug( "Archiving all records prior to " + NSE_CSV_DF.format( boundary ) ) ;
 
-        // Ask the DAO to copy the data from live to archive table with one
-        // query operation (insert with nested select)
+        // Ask the DAO to move the partitions past the calculated date from
+        // the live to the archive table
+        final int numPartitions = this.eodIndexDAO.archivePartitions( boundary ) ;
+        logger.debug( "Archived " + numPartitions + " partitions" ) ;
+
+        // Ask the DAO to copy the remaining data from live to archive table
+        // with one query operation (insert with nested select)
         logger.debug( "Copying records to archive table" ) ;
         this.eodIndexDAO.archiveLiveRecords( boundary ) ;
 
@@ -21,17 +21,21 @@ import org.apache.log4j.Logger ;
 
 import com.csvreader.CsvReader ;
 import com.sandy.apps.pluto.biz.dao.IExIndexDAO ;
+import com.sandy.apps.pluto.biz.dao.IITDBarDAO ;
 import com.sandy.apps.pluto.biz.svc.IExIndexSvc ;
 import com.sandy.apps.pluto.biz.svc.INetworkSvc ;
 import com.sandy.apps.pluto.biz.svc.impl.scraper.NSEIndexITDScreenParser ;
 import com.sandy.apps.pluto.shared.ConfigKey ;
 import com.sandy.apps.pluto.shared.ErrorCode ;
 import com.sandy.apps.pluto.shared.EventType ;
+import com.sandy.apps.pluto.shared.ITDBarBuilder ;
+import com.sandy.apps.pluto.shared.ITDBarInterval ;
 import com.sandy.apps.pluto.shared.STException ;
 import com.sandy.apps.pluto.shared.STUtils ;
 import com.sandy.apps.pluto.shared.dto.ChartData ;
 import com.sandy.apps.pluto.shared.dto.ExIndexEOD ;
 import com.sandy.apps.pluto.shared.dto.ExIndexITD ;
+import com.sandy.apps.pluto.shared.dto.ITDBar ;
 import com.sandy.apps.pluto.shared.dto.LogMsg ;
 import com.sandy.apps.pluto.shared.event.EventBus ;
 import com.sandy.apps.pluto.shared.util.dataaccess.DataAccessException ;
@@ -77,6 +81,12 @@ public class ExIndexSvc implements IExIndexSvc {
      */
     private IExIndexDAO exIndexDAO = null ;
 
+    /**
+     * INJECTABLE: This variable should be injected with a reference to the
+     * implementation of IITDBarDAO interface
+     */
+    private IITDBarDAO itdBarDAO = null ;
+
     /**
      * INJECTABLE: This reference to the network service
      */
@@ -527,6 +537,40 @@ public class ExIndexSvc implements IExIndexSvc {
         return this.exIndexDAO.getExIndexITDList( name, startTime, endTime ) ;
     }
 
+    /**
+     * Retrieves the OHLCV bars of the specified index and date range. For
+     * the days before the first bar found, the bars are rolled up from the
+     * ITD values here and saved, so that the next request for the range
+     * finds them.
+     *
+     * @see IExIndexSvc#getExIndexITDBars(String, Date, Date, ITDBarInterval)
+     */
+    @Override
+    public List<ITDBar> getExIndexITDBars( final String name,
+                                           final Date startTime,
+                                           final Date endTime,
+                                           final ITDBarInterval interval ) {
+
+        final List<ITDBar> bars = new ArrayList<ITDBar>() ;
+        final List<ITDBar> savedBars = this.itdBarDAO.getIndexBars(
+                                name, interval.getSeconds(), startTime, endTime ) ;
+
+        final Date backfillEnd = savedBars.isEmpty() ? endTime :
+                         STUtils.getStartOfDay( savedBars.get( 0 ).getTime() ) ;
+        if( backfillEnd.after( startTime ) ) {
+            final List<ExIndexITD> itdValues = this.exIndexDAO.getExIndexITDList(
+                                                 name, startTime, backfillEnd ) ;
+            if( itdValues != null && !itdValues.isEmpty() ) {
+                final List<ITDBar> rolledBars = ITDBarBuilder.aggregate( name, itdValues ) ;
+                this.itdBarDAO.saveIndexBars( rolledBars ) ;
+                bars.addAll( ITDBarBuilder.select( rolledBars, interval ) ) ;
+                logger.debug( "Rolled up " + rolledBars.size() + " bars for " + name ) ;
+            }
+        }
+        bars.addAll( savedBars ) ;
+        return bars ;
+    }
+
     /**
      * Returns a list of all the indexes for a given exchange.
      *
@@ -558,6 +602,20 @@ public class ExIndexSvc implements IExIndexSvc {
         this.exIndexDAO = exIndexDAO ;
     }
 
+    /**
+     * @return the itdBarDAO
+     */
+    public IITDBarDAO getItdBarDAO() {
+        return this.itdBarDAO ;
+    }
+
+    /**
+     * @param itdBarDAO the itdBarDAO to set
+     */
+    public void setItdBarDAO( final IITDBarDAO itdBarDAO ) {
+        this.itdBarDAO = itdBarDAO ;
+    }
+
     /**
      * @return the networkSvc
      */
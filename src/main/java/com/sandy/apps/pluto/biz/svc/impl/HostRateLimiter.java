@@ -0,0 +1,149 @@
+/**
+ * Creation Date: Oct 18, 2026
+ */
+
+package com.sandy.apps.pluto.biz.svc.impl;
+import java.net.MalformedURLException ;
+import java.net.URL ;
+import java.util.concurrent.ConcurrentHashMap ;
+import java.util.concurrent.ConcurrentMap ;
+
+import org.apache.log4j.Logger ;
+
+/**
+ * Limits the rate of requests made to each host with a token bucket per
+ * host. The bucket of a host fills at the configured rate up to the burst
+ * size, and each request takes a token, waiting for the bucket to fill if
+ * it is empty. Waiting requests are served in the order of their arrival.
+ * This class is thread safe.
+ *
+ * @author Sandeep Deb [deb.sandeep@gmail.com]
+ */
+public class HostRateLimiter {
+
+    /** Log4J logger for this class. */
+    public static final Logger logger = Logger.getLogger( HostRateLimiter.class ) ;
+
+    /**
+     * A token bucket. The tokens can go negative, which reserves the tokens
+     * for the waiting requests.
+     */
+    private class TokenBucket {
+
+        private double tokens = HostRateLimiter.this.burstSize ;
+        private long   lastRefillTime = System.currentTimeMillis() ;
+
+        /**
+         * Takes a token from the bucket, and returns the milliseconds to wait
+         * before the token is available.
+         */
+        synchronized long take() {
+            final long now = System.currentTimeMillis() ;
+            final double permitsPerMilli = HostRateLimiter.this.permitsPerSecond / 1000.0D ;
+            this.tokens = Math.min( HostRateLimiter.this.burstSize,
+                          this.tokens + ( now - this.lastRefillTime ) * permitsPerMilli ) ;
+            this.lastRefillTime = now ;
+            this.tokens -= 1 ;
+            return ( this.tokens >= 0 ) ? 0 : ( long )Math.ceil( -this.tokens / permitsPerMilli ) ;
+        }
+    }
+
+    /** The token buckets by host. */
+    private final ConcurrentMap<String, TokenBucket> buckets =
+                                    new ConcurrentHashMap<String, TokenBucket>() ;
+
+    /**
+     * INJECTABLE: The number of requests per second allowed to a host. A
+     * default value of 10 is used in case this parameter is not injected.
+     */
+    private int permitsPerSecond = 10 ;
+
+    /**
+     * INJECTABLE: The number of requests which can be made to a host in a
+     * burst, after the host has not been requested for a while. A default
+     * value of 10 is used in case this parameter is not injected.
+     */
+    private int burstSize = 10 ;
+
+    /** Public constructor. */
+    public HostRateLimiter() {
+        super() ;
+    }
+
+    /**
+     * @return the permitsPerSecond
+     */
+    public int getPermitsPerSecond() {
+        return this.permitsPerSecond ;
+    }
+
+    /**
+     * @param permitsPerSecond the permitsPerSecond to set
+     */
+    public void setPermitsPerSecond( final int permitsPerSecond ) {
+        if( permitsPerSecond <= 0 ) {
+            throw new IllegalArgumentException( "Permits per second should " +
+                                                "be a positive integer" ) ;
+        }
+        this.permitsPerSecond = permitsPerSecond ;
+    }
+
+    /**
+     * @return the burstSize
+     */
+    public int getBurstSize() {
+        return this.burstSize ;
+    }
+
+    /**
+     * @param burstSize the burstSize to set
+     */
+    public void setBurstSize( final int burstSize ) {
+        if( burstSize <= 0 ) {
+            throw new IllegalArgumentException( "Burst size should be a " +
+                                                "positive integer" ) ;
+        }
+        this.burstSize = burstSize ;
+    }
+
+    /**
+     * Waits till a request can be made to the host of the URL. If the calling
+     * thread is interrupted while waiting, this method returns right away
+     * with the interrupt status of the thread set.
+     *
+     * @param url The URL which is about to be requested.
+     */
+    public void acquire( final String url ) {
+
+        final String host = getHost( url ) ;
+        TokenBucket bucket = this.buckets.get( host ) ;
+        if( bucket == null ) {
+            final TokenBucket newBucket = new TokenBucket() ;
+            bucket = this.buckets.putIfAbsent( host, newBucket ) ;
+            if( bucket == null ) {
+                bucket = newBucket ;
+            }
+        }
+
+        final long waitTime = bucket.take() ;
+        if( waitTime > 0 ) {
+            try {
+                logger.debug( "Waiting " + waitTime + " ms for a request to " + host ) ;
+                Thread.sleep( waitTime ) ;
+            }
+            catch ( final InterruptedException e ) {
+                Thread.currentThread().interrupt() ;
+            }
+        }
+    }
+
+    /** Returns the host of the URL, or the URL itself if it is malformed. */
+    private String getHost( final String url ) {
+        try {
+            return new URL( url ).getHost() ;
+        }
+        catch ( final MalformedURLException e ) {
+            return url ;
+        }
+    }
+}
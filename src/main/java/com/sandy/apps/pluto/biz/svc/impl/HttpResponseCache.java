@@ -0,0 +1,796 @@
+/**
+ * Creation Date: Oct 18, 2026
+ */
+
+package com.sandy.apps.pluto.biz.svc.impl;
+import java.io.Closeable ;
+import java.io.File ;
+import java.io.FileInputStream ;
+import java.io.FileOutputStream ;
+import java.io.IOException ;
+import java.io.InputStream ;
+import java.io.OutputStream ;
+import java.security.MessageDigest ;
+import java.security.NoSuchAlgorithmException ;
+import java.util.AbstractMap ;
+import java.util.ArrayList ;
+import java.util.Collections ;
+import java.util.Comparator ;
+import java.util.HashMap ;
+import java.util.Iterator ;
+import java.util.LinkedHashMap ;
+import java.util.List ;
+import java.util.Map ;
+import java.util.Properties ;
+import java.util.TreeMap ;
+import java.util.regex.Pattern ;
+import java.util.regex.PatternSyntaxException ;
+
+import org.apache.log4j.Logger ;
+
+import com.sandy.apps.pluto.shared.ConfigKey ;
+import com.sandy.apps.pluto.shared.dto.NetworkCacheStats ;
+import com.sandy.apps.pluto.shared.util.util.ConfigManager ;
+
+/**
+ * An on-disk cache of the responses of the network service. Only the
+ * responses of the URLs matching a configured rule are cached, and each rule
+ * specifies the time for which the responses of its URLs are served from the
+ * cache without asking the server. Once the time elapses the cached response
+ * is revalidated with the server using its ETag and Last-Modified validators,
+ * if the server sent any.
+ * <p>
+ * The response bodies are stored in files named by the SHA-1 digest of their
+ * contents, hence identical responses of different requests share a file.
+ * An index of the cached requests is kept in memory in the least recently
+ * used order and saved along with the files, such that the cache survives a
+ * restart. Once the files exceed the configured size, the least recently used
+ * requests are evicted.
+ * <p>
+ * This class is thread safe.
+ *
+ * @author Sandeep Deb [deb.sandeep@gmail.com]
+ */
+public class HttpResponseCache {
+
+    /** Log4J logger for this class. */
+    public static final Logger logger = Logger.getLogger( HttpResponseCache.class ) ;
+
+    /** The name of the index file in the cache directory. */
+    private static final String INDEX_FILE = "cache.index" ;
+
+    /** The expiry of the responses which never expire. */
+    private static final long NEVER = Long.MAX_VALUE ;
+
+    /**
+     * A caching rule - the responses of the URLs matching the pattern are
+     * fresh for the time to live. A negative time to live implies that the
+     * responses never expire, a time to live of zero implies that the
+     * responses are revalidated on every request.
+     */
+    public static class Rule {
+
+        private final Pattern pattern ;
+        private final long    ttlMillis ;
+
+        public Rule( final String regex, final long ttlSeconds ) {
+            this.pattern   = Pattern.compile( regex ) ;
+            this.ttlMillis = ( ttlSeconds < 0 ) ? -1 : ttlSeconds * 1000 ;
+        }
+
+        long getExpiry( final long now ) {
+            return ( this.ttlMillis < 0 ) ? NEVER : now + this.ttlMillis ;
+        }
+    }
+
+    /** A cached request. */
+    private static class Entry {
+
+        private final String hash ;
+        private final long   size ;
+        private final String eTag ;
+        private final String lastModified ;
+        private long expiry ;
+        private long lastAccess ;
+
+        Entry( final String hash, final long size, final long expiry,
+               final long lastAccess, final String lastModified, final String eTag ) {
+            this.hash         = hash ;
+            this.size         = size ;
+            this.expiry       = expiry ;
+            this.lastAccess   = lastAccess ;
+            this.lastModified = lastModified ;
+            this.eTag         = eTag ;
+        }
+    }
+
+    /** The directory where the responses are stored. */
+    private final File dir ;
+
+    /** The maximum number of bytes of the stored responses. */
+    private final long maxSize ;
+
+    /** The caching rules, the first rule matching a URL applies. */
+    private final List<Rule> rules ;
+
+    /** The cached requests by key, in the least recently used order. */
+    private final LinkedHashMap<String, Entry> entries =
+                                    new LinkedHashMap<String, Entry>( 64, 0.75F, true ) ;
+
+    /** The number of cached requests referring to each stored response. */
+    private final Map<String, Integer> refCounts = new HashMap<String, Integer>() ;
+
+    /** The number of bytes of the stored responses. */
+    private long size = 0 ;
+
+    // The counters, guarded by the instance
+    private long numHits          = 0 ;
+    private long numRevalidations = 0 ;
+    private long numMisses        = 0 ;
+    private long numBytesSaved    = 0 ;
+
+    /**
+     * Creates the response cache as configured. Returns null if the cache is
+     * not enabled or no caching rules are configured.
+     */
+    @SuppressWarnings( "unchecked" )
+    public static HttpResponseCache create() {
+
+        final ConfigManager cfgMgr = ConfigManager.getInstance() ;
+        if( !cfgMgr.getBoolean( ConfigKey.NETWORK_CACHE_ENABLED, false ) ) {
+            return null ;
+        }
+
+        final List<Rule> rules = new ArrayList<Rule>() ;
+        final List<String> ruleCfgs = cfgMgr.getList( ConfigKey.NETWORK_CACHE_RULES ) ;
+        if( ruleCfgs != null ) {
+            for( final String ruleCfg : ruleCfgs ) {
+                final Rule rule = parseRule( ruleCfg ) ;
+                if( rule != null ) {
+                    rules.add( rule ) ;
+                }
+            }
+        }
+        if( rules.isEmpty() ) {
+            logger.info( "No network cache rules configured, responses are not cached" ) ;
+            return null ;
+        }
+
+        final String dirPath = cfgMgr.getString( ConfigKey.NETWORK_CACHE_DIR,
+                                   System.getProperty( "user.dir" ) + File.separator + "netcache" ) ;
+        final long maxSize = 1024L * cfgMgr.getInt( ConfigKey.NETWORK_CACHE_MAX_SIZE,
+                                                    ConfigKey.DEF_NETWORK_CACHE_MAX_SIZE ) ;
+        try {
+            return new HttpResponseCache( new File( dirPath ), maxSize, rules ) ;
+        }
+        catch( final IOException e ) {
+            logger.error( "Could not open network cache at " + dirPath +
+                          ". Msg = " + e.getMessage() ) ;
+            return null ;
+        }
+    }
+
+    /**
+     * Parses a caching rule of the form [ttl seconds]:[url regex]. Returns null
+     * if the rule is invalid.
+     */
+    static Rule parseRule( final String ruleCfg ) {
+        final int index = ruleCfg.indexOf( ':' ) ;
+        try {
+            if( index != -1 ) {
+                return new Rule( ruleCfg.substring( index+1 ).trim(),
+                                 Long.parseLong( ruleCfg.substring( 0, index ).trim() ) ) ;
+            }
+        }
+        catch( final NumberFormatException e ) {
+            // Logged below
+        }
+        catch( final PatternSyntaxException e ) {
+            // Logged below
+        }
+        logger.error( "Ignoring invalid network cache rule " + ruleCfg ) ;
+        return null ;
+    }
+
+    /**
+     * Constructor, which opens the cache in the directory, creating the
+     * directory if required.
+     *
+     * @param dir The directory where the responses are stored.
+     * @param maxSize The maximum number of bytes of the stored responses.
+     * @param rules The caching rules, the first rule matching a URL applies.
+     *
+     * @throws IOException If the directory can't be created.
+     */
+    public HttpResponseCache( final File dir, final long maxSize, final List<Rule> rules )
+        throws IOException {
+
+        this.dir     = dir ;
+        this.maxSize = maxSize ;
+        this.rules   = rules ;
+
+        if( !dir.isDirectory() && !dir.mkdirs() ) {
+            throw new IOException( "Could not create directory " + dir ) ;
+        }
+        loadIndex() ;
+        logger.info( "Network cache at " + dir + " holds " + this.entries.size() +
+                     " responses, " + this.size + " bytes" ) ;
+    }
+
+    /**
+     * Returns the key identifying the request in the cache, or null if the
+     * responses of the URL are not cached.
+     */
+    public String getKey( final String url, final String action,
+                          final Map<String, String> parameters ) {
+
+        Rule rule = null ;
+        for( final Rule aRule : this.rules ) {
+            if( aRule.pattern.matcher( url ).matches() ) {
+                rule = aRule ;
+                break ;
+            }
+        }
+        if( rule == null ) {
+            return null ;
+        }
+
+        final StringBuilder key = new StringBuilder( action ).append( ' ' ).append( url ) ;
+        if( parameters != null && !parameters.isEmpty() ) {
+            // Sort the parameters, such that the key doesn't depend upon the
+            // iteration order of the map
+            char separator = ( url.indexOf( '?' ) == -1 ) ? '?' : '&' ;
+            for( final Map.Entry<String, String> param :
+                            new TreeMap<String, String>( parameters ).entrySet() ) {
+                key.append( separator ).append( param.getKey() )
+                   .append( '=' ).append( param.getValue() ) ;
+                separator = '&' ;
+            }
+        }
+        return key.toString() ;
+    }
+
+    /**
+     * Returns the cached response of the request if it has not expired, else
+     * null.
+     */
+    public synchronized byte[] getFresh( final String key ) {
+
+        final Entry entry = this.entries.get( key ) ;
+        if( entry == null || entry.expiry <= System.currentTimeMillis() ) {
+            return null ;
+        }
+
+        final byte[] response = read( key, entry ) ;
+        if( response != null ) {
+            entry.lastAccess = System.currentTimeMillis() ;
+            this.numHits++ ;
+            this.numBytesSaved += response.length ;
+        }
+        return response ;
+    }
+
+    /**
+     * Returns the validators of the expired cached response of the request,
+     * the ETag and the Last-Modified values, either of which can be null.
+     * Returns null if the request is not cached or has no validators.
+     */
+    public synchronized String[] getValidators( final String key ) {
+        final Entry entry = this.entries.get( key ) ;
+        if( entry == null || ( entry.eTag == null && entry.lastModified == null ) ) {
+            return null ;
+        }
+        return new String[] { entry.eTag, entry.lastModified } ;
+    }
+
+    /**
+     * Returns the cached response of the request after the server has
+     * confirmed that it is still valid, and renews its expiry. Returns null
+     * if the response is no longer cached.
+     */
+    public synchronized byte[] getRevalidated( final String key, final String url ) {
+
+        final Entry entry = this.entries.get( key ) ;
+        if( entry == null ) {
+            return null ;
+        }
+
+        final byte[] response = read( key, entry ) ;
+        if( response != null ) {
+            final long now = System.currentTimeMillis() ;
+            entry.expiry     = getRule( url ).getExpiry( now ) ;
+            entry.lastAccess = now ;
+            this.numRevalidations++ ;
+            this.numBytesSaved += response.length ;
+            saveIndex() ;
+        }
+        return response ;
+    }
+
+    /**
+     * Stores the response of the request, evicting the least recently used
+     * requests if the stored responses exceed the cache size.
+     *
+     * @param key The key of the request.
+     * @param url The URL of the request.
+     * @param response The body of the response.
+     * @param eTag The ETag header of the response, can be null.
+     * @param lastModified The Last-Modified header of the response, can be null.
+     */
+    public synchronized void store( final String key, final String url,
+                                    final byte[] response, final String eTag,
+                                    final String lastModified ) {
+
+        this.numMisses++ ;
+        if( response.length > this.maxSize ) {
+            return ;
+        }
+
+        final String hash = digest( response ) ;
+        final File file = getFile( hash ) ;
+        if( !this.refCounts.containsKey( hash ) ) {
+            try {
+                write( file, response ) ;
+            }
+            catch( final IOException e ) {
+                logger.warn( "Could not cache response of " + url + ". Msg = " + e.getMessage() ) ;
+                return ;
+            }
+        }
+
+        commit( key, url, hash, response.length, eTag, lastModified ) ;
+    }
+
+    /**
+     * Returns a stream over the cached response of the request if it has not
+     * expired, else null. The caller should close the stream.
+     */
+    public synchronized InputStream openFresh( final String key ) {
+
+        final Entry entry = this.entries.get( key ) ;
+        if( entry == null || entry.expiry <= System.currentTimeMillis() ) {
+            return null ;
+        }
+
+        final InputStream in = open( key, entry ) ;
+        if( in != null ) {
+            entry.lastAccess = System.currentTimeMillis() ;
+            this.numHits++ ;
+            this.numBytesSaved += entry.size ;
+        }
+        return in ;
+    }
+
+    /**
+     * Returns a stream over the cached response of the request after the
+     * server has confirmed that it is still valid, and renews its expiry.
+     * Returns null if the response is no longer cached. The caller should
+     * close the stream.
+     */
+    public synchronized InputStream openRevalidated( final String key, final String url ) {
+
+        final Entry entry = this.entries.get( key ) ;
+        if( entry == null ) {
+            return null ;
+        }
+
+        final InputStream in = open( key, entry ) ;
+        if( in != null ) {
+            final long now = System.currentTimeMillis() ;
+            entry.expiry     = getRule( url ).getExpiry( now ) ;
+            entry.lastAccess = now ;
+            this.numRevalidations++ ;
+            this.numBytesSaved += entry.size ;
+            saveIndex() ;
+        }
+        return in ;
+    }
+
+    /**
+     * Returns a writer which stores the response of the request as it is
+     * streamed. The response is cached only once the writer is committed.
+     *
+     * @param key The key of the request.
+     * @param url The URL of the request.
+     */
+    public ResponseWriter newWriter( final String key, final String url ) {
+        return new ResponseWriter( key, url ) ;
+    }
+
+    /**
+     * A writer which stores a streamed response in a temporary file, digesting
+     * the contents as they are written. On commit, the file is renamed to the
+     * digest of its contents and the request is cached. A writer should be
+     * either committed or aborted. A writer is not thread safe.
+     */
+    public class ResponseWriter {
+
+        private final String key ;
+        private final String url ;
+        private final File tmpFile ;
+        private MessageDigest digest = null ;
+        private OutputStream out = null ;
+        private long size = 0 ;
+
+        ResponseWriter( final String key, final String url ) {
+            this.key = key ;
+            this.url = url ;
+            this.tmpFile = new File( HttpResponseCache.this.dir,
+                                     "stream-" + System.nanoTime() + "-" +
+                                     Thread.currentThread().getId() + ".tmp" ) ;
+            try {
+                this.digest = MessageDigest.getInstance( "SHA-1" ) ;
+                this.out    = new FileOutputStream( this.tmpFile ) ;
+            }
+            catch( final Exception e ) {
+                logger.warn( "Could not cache response of " + url + ". Msg = " + e.getMessage() ) ;
+                abort() ;
+            }
+        }
+
+        /**
+         * Writes the next chunk of the response. If the chunk can't be
+         * written the writer is aborted, without failing the response.
+         */
+        public void write( final byte[] bytes, final int offset, final int length ) {
+            if( this.out == null ) {
+                return ;
+            }
+            try {
+                this.out.write( bytes, offset, length ) ;
+                this.digest.update( bytes, offset, length ) ;
+                this.size += length ;
+                if( this.size > HttpResponseCache.this.maxSize ) {
+                    abort() ;
+                }
+            }
+            catch( final IOException e ) {
+                logger.warn( "Could not cache response of " + this.url + ". Msg = " + e.getMessage() ) ;
+                abort() ;
+            }
+        }
+
+        /**
+         * Caches the written response.
+         *
+         * @param eTag The ETag header of the response, can be null.
+         * @param lastModified The Last-Modified header of the response, can be null.
+         */
+        public void commit( final String eTag, final String lastModified ) {
+
+            synchronized( HttpResponseCache.this ) {
+                HttpResponseCache.this.numMisses++ ;
+            }
+            if( this.out == null ) {
+                return ;
+            }
+
+            close( this.out ) ;
+            this.out = null ;
+
+            final String hash = toHex( this.digest.digest() ) ;
+            synchronized( HttpResponseCache.this ) {
+                final File file = getFile( hash ) ;
+                if( HttpResponseCache.this.refCounts.containsKey( hash ) ) {
+                    this.tmpFile.delete() ;
+                }
+                else if( ( file.exists() && !file.delete() ) || !this.tmpFile.renameTo( file ) ) {
+                    logger.warn( "Could not cache response of " + this.url ) ;
+                    this.tmpFile.delete() ;
+                    return ;
+                }
+                HttpResponseCache.this.commit( this.key, this.url, hash, this.size,
+                                               eTag, lastModified ) ;
+            }
+        }
+
+        /** Discards the written response. */
+        public void abort() {
+            if( this.out != null ) {
+                close( this.out ) ;
+                this.out = null ;
+            }
+            if( this.tmpFile.exists() && !this.tmpFile.delete() ) {
+                logger.warn( "Could not delete " + this.tmpFile ) ;
+            }
+        }
+    }
+
+    /**
+     * Caches the request against the stored response, evicting the least
+     * recently used requests if the stored responses exceed the cache size.
+     */
+    private void commit( final String key, final String url, final String hash,
+                         final long size, final String eTag, final String lastModified ) {
+
+        // The old entry is released only after the new one refers to its
+        // response, since both refer to the same file if the response has
+        // not changed.
+        final long now = System.currentTimeMillis() ;
+        final Entry oldEntry = this.entries.remove( key ) ;
+        addEntry( key, new Entry( hash, size, getRule( url ).getExpiry( now ),
+                                  now, lastModified, eTag ) ) ;
+        if( oldEntry != null ) {
+            release( oldEntry ) ;
+        }
+        evict() ;
+        saveIndex() ;
+    }
+
+    /**
+     * Opens the stored response of the entry. If the file is missing or
+     * corrupt, the entry is removed and null is returned.
+     */
+    private InputStream open( final String key, final Entry entry ) {
+
+        final File file = getFile( entry.hash ) ;
+        if( file.length() == entry.size ) {
+            try {
+                return new FileInputStream( file ) ;
+            }
+            catch( final IOException e ) {
+                logger.warn( "Could not read cached response " + file + ". Msg = " + e.getMessage() ) ;
+            }
+        }
+        else {
+            logger.warn( "Cached response " + file + " is corrupt" ) ;
+        }
+
+        remove( key ) ;
+        saveIndex() ;
+        return null ;
+    }
+
+    /** Returns a snapshot of the cache counters. */
+    public synchronized NetworkCacheStats getStats() {
+        return new NetworkCacheStats( this.numHits, this.numRevalidations,
+                                      this.numMisses, this.numBytesSaved, this.size ) ;
+    }
+
+    /** Returns the rule applicable to the URL. */
+    private Rule getRule( final String url ) {
+        for( final Rule rule : this.rules ) {
+            if( rule.pattern.matcher( url ).matches() ) {
+                return rule ;
+            }
+        }
+        // The rules can't change, a URL which had a rule still has it
+        throw new IllegalStateException( "No cache rule for " + url ) ;
+    }
+
+    /**
+     * Reads the stored response of the entry. If the file can't be read, the
+     * entry is removed and null is returned.
+     */
+    private byte[] read( final String key, final Entry entry ) {
+
+        final File file = getFile( entry.hash ) ;
+        InputStream in = null ;
+        try {
+            in = new FileInputStream( file ) ;
+            final byte[] response = new byte[ ( int )entry.size ] ;
+            int offset = 0 ;
+            int numRead = 0 ;
+            while( offset < response.length &&
+                   ( numRead = in.read( response, offset, response.length - offset ) ) != -1 ) {
+                offset += numRead ;
+            }
+            if( offset == response.length && in.read() == -1 ) {
+                return response ;
+            }
+            logger.warn( "Cached response " + file + " is corrupt" ) ;
+        }
+        catch( final IOException e ) {
+            logger.warn( "Could not read cached response " + file + ". Msg = " + e.getMessage() ) ;
+        }
+        finally {
+            close( in ) ;
+        }
+
+        remove( key ) ;
+        saveIndex() ;
+        return null ;
+    }
+
+    private void addEntry( final String key, final Entry entry ) {
+        this.entries.put( key, entry ) ;
+        final Integer refCount = this.refCounts.get( entry.hash ) ;
+        if( refCount == null ) {
+            this.refCounts.put( entry.hash, 1 ) ;
+            this.size += entry.size ;
+        }
+        else {
+            this.refCounts.put( entry.hash, refCount + 1 ) ;
+        }
+    }
+
+    /** Removes the entry of the key, deleting its file if no longer referred. */
+    private void remove( final String key ) {
+        final Entry entry = this.entries.remove( key ) ;
+        if( entry != null ) {
+            release( entry ) ;
+        }
+    }
+
+    private void release( final Entry entry ) {
+        final int refCount = this.refCounts.get( entry.hash ) - 1 ;
+        if( refCount > 0 ) {
+            this.refCounts.put( entry.hash, refCount ) ;
+        }
+        else {
+            this.refCounts.remove( entry.hash ) ;
+            this.size -= entry.size ;
+            final File file = getFile( entry.hash ) ;
+            if( file.exists() && !file.delete() ) {
+                logger.warn( "Could not delete cached response " + file ) ;
+            }
+        }
+    }
+
+    /** Evicts the least recently used entries till the cache fits its size. */
+    private void evict() {
+        final Iterator<Entry> iter = this.entries.values().iterator() ;
+        while( this.size > this.maxSize && iter.hasNext() ) {
+            final Entry entry = iter.next() ;
+            iter.remove() ;
+            release( entry ) ;
+        }
+    }
+
+    private File getFile( final String hash ) {
+        return new File( this.dir, hash + ".bin" ) ;
+    }
+
+    /** Returns the hex SHA-1 digest of the contents. */
+    private static String digest( final byte[] contents ) {
+        try {
+            return toHex( MessageDigest.getInstance( "SHA-1" ).digest( contents ) ) ;
+        }
+        catch( final NoSuchAlgorithmException e ) {
+            // SHA-1 is mandated in every Java platform
+            throw new IllegalStateException( e ) ;
+        }
+    }
+
+    private static String toHex( final byte[] digest ) {
+        final StringBuilder hex = new StringBuilder( digest.length * 2 ) ;
+        for( final byte b : digest ) {
+            hex.append( Character.forDigit( ( b >> 4 ) & 0xF, 16 ) ) ;
+            hex.append( Character.forDigit( b & 0xF, 16 ) ) ;
+        }
+        return hex.toString() ;
+    }
+
+    /**
+     * Writes the contents into a temporary file and renames it to the file,
+     * such that a partially written file is never read.
+     */
+    private void write( final File file, final byte[] contents ) throws IOException {
+
+        final File tmpFile = new File( file.getPath() + ".tmp" ) ;
+        OutputStream out = null ;
+        try {
+            out = new FileOutputStream( tmpFile ) ;
+            out.write( contents ) ;
+        }
+        finally {
+            close( out ) ;
+        }
+
+        if( file.exists() && !file.delete() ) {
+            throw new IOException( "Could not replace " + file ) ;
+        }
+        if( !tmpFile.renameTo( file ) ) {
+            throw new IOException( "Could not rename " + tmpFile + " to " + file ) ;
+        }
+    }
+
+    /**
+     * Loads the index of the cached requests. The entries are kept in the
+     * order of their last access, and the entries whose files are missing
+     * are dropped.
+     */
+    private void loadIndex() {
+
+        final File indexFile = new File( this.dir, INDEX_FILE ) ;
+        if( !indexFile.exists() ) {
+            return ;
+        }
+
+        final Properties index = new Properties() ;
+        InputStream in = null ;
+        try {
+            in = new FileInputStream( indexFile ) ;
+            index.load( in ) ;
+        }
+        catch( final IOException e ) {
+            logger.warn( "Could not load network cache index. Msg = " + e.getMessage() ) ;
+            return ;
+        }
+        finally {
+            close( in ) ;
+        }
+
+        final List<Map.Entry<String, Entry>> loaded = new ArrayList<Map.Entry<String, Entry>>() ;
+        for( final String key : index.stringPropertyNames() ) {
+            final String[] fields = index.getProperty( key ).split( "\\|", 6 ) ;
+            try {
+                final Entry entry = new Entry( fields[0], Long.parseLong( fields[1] ),
+                                               Long.parseLong( fields[2] ),
+                                               Long.parseLong( fields[3] ),
+                                               toValue( fields[4] ), toValue( fields[5] ) ) ;
+                if( getFile( entry.hash ).length() == entry.size ) {
+                    loaded.add( new AbstractMap.SimpleEntry<String, Entry>( key, entry ) ) ;
+                }
+            }
+            catch( final RuntimeException e ) {
+                logger.warn( "Dropping invalid network cache index entry " + key ) ;
+            }
+        }
+
+        Collections.sort( loaded, new Comparator<Map.Entry<String, Entry>>() {
+            public int compare( final Map.Entry<String, Entry> e1,
+                                final Map.Entry<String, Entry> e2 ) {
+                final long t1 = e1.getValue().lastAccess ;
+                final long t2 = e2.getValue().lastAccess ;
+                return ( t1 < t2 ) ? -1 : ( ( t1 == t2 ) ? 0 : 1 ) ;
+            }
+        } ) ;
+        for( final Map.Entry<String, Entry> entry : loaded ) {
+            addEntry( entry.getKey(), entry.getValue() ) ;
+        }
+        evict() ;
+    }
+
+    /** Saves the index of the cached requests. */
+    private void saveIndex() {
+
+        final Properties index = new Properties() ;
+        for( final Map.Entry<String, Entry> mapEntry : this.entries.entrySet() ) {
+            final Entry entry = mapEntry.getValue() ;
+            index.setProperty( mapEntry.getKey(),
+                               entry.hash + "|" + entry.size + "|" + entry.expiry + "|" +
+                               entry.lastAccess + "|" + toField( entry.lastModified ) +
+                               "|" + toField( entry.eTag ) ) ;
+        }
+
+        final File indexFile = new File( this.dir, INDEX_FILE ) ;
+        final File tmpFile   = new File( this.dir, INDEX_FILE + ".tmp" ) ;
+        OutputStream out = null ;
+        try {
+            out = new FileOutputStream( tmpFile ) ;
+            index.store( out, "Network response cache index" ) ;
+            close( out ) ;
+            out = null ;
+            if( ( indexFile.exists() && !indexFile.delete() ) ||
+                !tmpFile.renameTo( indexFile ) ) {
+                logger.warn( "Could not replace network cache index " + indexFile ) ;
+            }
+        }
+        catch( final IOException e ) {
+            logger.warn( "Could not save network cache index. Msg = " + e.getMessage() ) ;
+        }
+        finally {
+            close( out ) ;
+        }
+    }
+
+    private static String toField( final String value ) {
+        return ( value == null ) ? "" : value ;
+    }
+
+    private static String toValue( final String field ) {
+        return ( field.length() == 0 ) ? null : field ;
+    }
+
+    private static void close( final Closeable closeable ) {
+        if( closeable != null ) {
+            try {
+                closeable.close() ;
+            }
+            catch( final IOException e ) {
+                // Ignore
+            }
+        }
+    }
+}
@@ -0,0 +1,383 @@
+/**
+ * Creation Date: Oct 18, 2026
+ */
+
+package com.sandy.apps.pluto.biz.svc.impl;
+import java.util.ArrayList ;
+import java.util.Collection ;
+import java.util.Date ;
+import java.util.HashMap ;
+import java.util.LinkedHashMap ;
+import java.util.List ;
+import java.util.Map ;
+
+import org.apache.log4j.Logger ;
+
+import com.sandy.apps.pluto.biz.dao.IExIndexDAO ;
+import com.sandy.apps.pluto.biz.dao.IITDBarDAO ;
+import com.sandy.apps.pluto.biz.dao.IITDIndexDAO ;
+import com.sandy.apps.pluto.shared.ConfigKey ;
+import com.sandy.apps.pluto.shared.DebouncedTask ;
+import com.sandy.apps.pluto.shared.EventType ;
+import com.sandy.apps.pluto.shared.ITDBarBuilder ;
+import com.sandy.apps.pluto.shared.ITDTickSeries ;
+import com.sandy.apps.pluto.shared.ITDTickStore ;
+import com.sandy.apps.pluto.shared.Initializable ;
+import com.sandy.apps.pluto.shared.STException ;
+import com.sandy.apps.pluto.shared.STUtils ;
+import com.sandy.apps.pluto.shared.dto.AbstractITDValue ;
+import com.sandy.apps.pluto.shared.dto.ExIndexITD ;
+import com.sandy.apps.pluto.shared.dto.ITDBar ;
+import com.sandy.apps.pluto.shared.dto.ScripITD ;
+import com.sandy.apps.pluto.shared.event.Event ;
+import com.sandy.apps.pluto.shared.event.EventBus ;
+import com.sandy.apps.pluto.shared.event.IEventSubscriber ;
+import com.sandy.apps.pluto.shared.util.util.ConfigManager ;
+
+/**
+ * Rolls the scrip and index ITD values published on the event bus into OHLCV
+ * bars and writes the updated bars to the bar tables. The bars of each scrip
+ * and index are built incrementally by an {@link ITDBarBuilder}, as the ITD
+ * insert events are received.
+ * <p>
+ * The high resolution import events carry only the name of the scrip or the
+ * index, the day's bars of which are then rebuilt from the day's ITD values.
+ * The high resolution values are interpolated into the day and hence can't be
+ * rolled up incrementally.
+ * <p>
+ * The updated bars are written in the background, at most once per the
+ * configured flush interval. Note that this implementation is initializable
+ * and hence it is imperative that the creation mechanism invokes the
+ * initialize method before the instance of this class is ready for usage.
+ *
+ * @author Sandeep Deb [deb.sandeep@gmail.com]
+ */
+public class ITDBarAggregator implements IEventSubscriber, Initializable {
+
+    /** Log4J logger for this class. */
+    public static final Logger logger = Logger.getLogger( ITDBarAggregator.class ) ;
+
+    /**
+     * INJECTABLE: This variable should be injected with a reference to the
+     * implementation of IITDBarDAO interface.
+     */
+    private IITDBarDAO itdBarDAO = null ;
+
+    /**
+     * INJECTABLE: This variable should be injected with a reference to the
+     * implementation of IITDIndexDAO interface.
+     */
+    private IITDIndexDAO itdIndexDAO = null ;
+
+    /**
+     * INJECTABLE: This variable should be injected with a reference to the
+     * implementation of IExIndexDAO interface.
+     */
+    private IExIndexDAO exIndexDAO = null ;
+
+    /** The bar builders of the scrips, keyed by symbol. */
+    private final Map<String, ITDBarBuilder> scripBuilders = new HashMap<String, ITDBarBuilder>() ;
+
+    /** The bar builders of the indexes, keyed by index name. */
+    private final Map<String, ITDBarBuilder> indexBuilders = new HashMap<String, ITDBarBuilder>() ;
+
+    /** The scrip bars updated since the last flush, keyed by bar key. */
+    private Map<String, ITDBar> dirtyScripBars = new LinkedHashMap<String, ITDBar>() ;
+
+    /** The index bars updated since the last flush, keyed by bar key. */
+    private Map<String, ITDBar> dirtyIndexBars = new LinkedHashMap<String, ITDBar>() ;
+
+    /** The task which writes the updated bars in the background. */
+    private DebouncedTask flushTask = null ;
+
+    /** Public constructor. */
+    public ITDBarAggregator() {
+        super() ;
+    }
+
+    /**
+     * @return the itdBarDAO
+     */
+    public IITDBarDAO getItdBarDAO() {
+        return this.itdBarDAO ;
+    }
+
+    /**
+     * @param itdBarDAO the itdBarDAO to set
+     */
+    public void setItdBarDAO( final IITDBarDAO itdBarDAO ) {
+        this.itdBarDAO = itdBarDAO ;
+    }
+
+    /**
+     * @return the itdIndexDAO
+     */
+    public IITDIndexDAO getItdIndexDAO() {
+        return this.itdIndexDAO ;
+    }
+
+    /**
+     * @param itdIndexDAO the itdIndexDAO to set
+     */
+    public void setItdIndexDAO( final IITDIndexDAO itdIndexDAO ) {
+        this.itdIndexDAO = itdIndexDAO ;
+    }
+
+    /**
+     * @return the exIndexDAO
+     */
+    public IExIndexDAO getExIndexDAO() {
+        return this.exIndexDAO ;
+    }
+
+    /**
+     * @param exIndexDAO the exIndexDAO to set
+     */
+    public void setExIndexDAO( final IExIndexDAO exIndexDAO ) {
+        this.exIndexDAO = exIndexDAO ;
+    }
+
+    /**
+     * Creates the flush task and subscribes this aggregator to the scrip and
+     * index ITD insert events.
+     */
+    public void initialize() throws STException {
+
+        final int interval = ConfigManager.getInstance().getInt(
+                                    ConfigKey.ITD_BAR_FLUSH_INTERVAL,
+                                    ConfigKey.DEF_ITD_BAR_FLUSH_INTERVAL ) ;
+        this.flushTask = new DebouncedTask( "ITDBarFlush", new Runnable() {
+            public void run() {
+                flush() ;
+            }
+        }, interval * 1000L ) ;
+
+        EventBus.instance().addSubscriberForEventTypes( this,
+                                EventType.EVT_SCRIP_ITD_INSERT,
+                                EventType.EVT_HI_RES_SCRIP_ITD_INSERT,
+                                EventType.EVT_NSE_INDEX_ITD_INSERT,
+                                EventType.EVT_HI_RES_NSE_INDEX_ITD_INSERT ) ;
+    }
+
+    /**
+     * Handles the ITD insert events. The ITD values of the low resolution
+     * events are added to the bars, the bars of the day are rebuilt for the
+     * high resolution events.
+     */
+    @SuppressWarnings("unchecked")
+    @Override
+    public void handleEvent( final Event event ) {
+
+        try {
+            switch( event.getEventType() ) {
+                case EVT_SCRIP_ITD_INSERT:
+                case EVT_NSE_INDEX_ITD_INSERT:
+                    addITDValues( ( List<AbstractITDValue> )event.getValue() ) ;
+                    break ;
+
+                case EVT_HI_RES_SCRIP_ITD_INSERT:
+                    rebuildScripBars( ( String )event.getValue(), event ) ;
+                    break ;
+
+                case EVT_HI_RES_NSE_INDEX_ITD_INSERT:
+                    rebuildIndexBars( ( String )event.getValue(), event ) ;
+                    break ;
+            }
+            this.flushTask.request() ;
+        }
+        catch ( final Exception e ) {
+            logger.error( "Could not aggregate ITD bars for " + event.getEventType(), e ) ;
+        }
+    }
+
+    /** Adds the ITD values to the bars of their scrips or indexes. */
+    private synchronized void addITDValues( final List<AbstractITDValue> itdValues ) {
+
+        if( itdValues == null ) {
+            return ;
+        }
+
+        final List<ITDBar> updatedBars = new ArrayList<ITDBar>() ;
+        for( final AbstractITDValue itd : itdValues ) {
+            updatedBars.clear() ;
+            if( itd instanceof ScripITD ) {
+                getBuilder( this.scripBuilders, (( ScripITD )itd).getSymbolId() )
+                                                  .addTick( itd, updatedBars ) ;
+                markDirty( this.dirtyScripBars, updatedBars ) ;
+            }
+            else {
+                getBuilder( this.indexBuilders, (( ExIndexITD )itd).getIndex() )
+                                                  .addTick( itd, updatedBars ) ;
+                markDirty( this.dirtyIndexBars, updatedBars ) ;
+            }
+        }
+    }
+
+    /**
+     * Rebuilds the bars of the day of the scrip's high resolution values. The
+     * high resolution import adds the values to the latest series of the
+     * scrip in the ITD tick store, the day of which is hence the day of the
+     * values. The ticks are taken from the series if it holds all the ticks
+     * of the day, else from the database.
+     * <p>
+     * The bars are built and swapped in under the aggregator's lock, such
+     * that no tick added in the meanwhile is lost to the swap.
+     */
+    private void rebuildScripBars( final String symbol, final Event event ) {
+
+        final ITDTickSeries series = ITDTickStore.instance().getLatestSeries( symbol ) ;
+        final Date day = ( series != null ) ? new Date( series.getDayStart() ) :
+                                              new Date( event.getEventTime() ) ;
+        final ITDBarBuilder builder = new ITDBarBuilder( symbol ) ;
+        final List<ITDBar> bars = new ArrayList<ITDBar>() ;
+
+        synchronized( this ) {
+            if( series != null && series.isComplete() ) {
+                synchronized( series ) {
+                    for( int i=0; i<series.size(); i++ ) {
+                        builder.addTick( series.getTime( i ), series.getPrice( i ),
+                                         series.getVolume( i ), bars ) ;
+                    }
+                }
+            }
+            else {
+                for( final ScripITD itd : this.itdIndexDAO.getScripITD( symbol, day ) ) {
+                    builder.addTick( itd, bars ) ;
+                }
+            }
+
+            this.scripBuilders.put( symbol, builder ) ;
+            markDirty( this.dirtyScripBars, bars ) ;
+        }
+    }
+
+    /**
+     * Rebuilds the bars of the index from the database, for the day on which
+     * the high resolution import event was published. The import saves only
+     * the values of its own day, which is the day of the event.
+     * <p>
+     * The bars are built and swapped in under the aggregator's lock, such
+     * that no tick added in the meanwhile is lost to the swap.
+     */
+    private void rebuildIndexBars( final String index, final Event event ) {
+
+        final Date day = new Date( event.getEventTime() ) ;
+        final ITDBarBuilder builder = new ITDBarBuilder( index ) ;
+        final List<ITDBar> bars = new ArrayList<ITDBar>() ;
+
+        synchronized( this ) {
+            final List<ExIndexITD> itdValues = this.exIndexDAO.getExIndexITDList(
+                             index, STUtils.getStartOfDay( day ), STUtils.getEndOfDay( day ) ) ;
+            if( itdValues != null ) {
+                for( final ExIndexITD itd : itdValues ) {
+                    builder.addTick( itd, bars ) ;
+                }
+            }
+
+            this.indexBuilders.put( index, builder ) ;
+            markDirty( this.dirtyIndexBars, bars ) ;
+        }
+    }
+
+    /** Returns the bar builder of the symbol, creating one if required. */
+    private ITDBarBuilder getBuilder( final Map<String, ITDBarBuilder> builders,
+                                      final String symbol ) {
+        ITDBarBuilder builder = builders.get( symbol ) ;
+        if( builder == null ) {
+            builder = new ITDBarBuilder( symbol ) ;
+            builders.put( symbol, builder ) ;
+        }
+        return builder ;
+    }
+
+    /** Records the bars as updated since the last flush. */
+    private void markDirty( final Map<String, ITDBar> dirtyBars,
+                            final Collection<ITDBar> bars ) {
+        for( final ITDBar bar : bars ) {
+            dirtyBars.put( bar.getSymbol() + "|" + bar.getInterval() + "|" +
+                           bar.getTime().getTime(), bar ) ;
+        }
+    }
+
+    /**
+     * Writes the bars updated since the last flush. This method is called on
+     * the flush task's thread. A bar which is updated while it is being
+     * written is written again in the next flush. The bars which could not
+     * be written are merged back into the updated bars and written again in
+     * the next flush, which is requested right away.
+     */
+    private void flush() {
+
+        List<ITDBar> scripBars = null ;
+        List<ITDBar> indexBars = null ;
+        synchronized( this ) {
+            scripBars = copyBars( this.dirtyScripBars ) ;
+            indexBars = copyBars( this.dirtyIndexBars ) ;
+            this.dirtyScripBars = new LinkedHashMap<String, ITDBar>() ;
+            this.dirtyIndexBars = new LinkedHashMap<String, ITDBar>() ;
+        }
+
+        boolean failed = false ;
+        try {
+            this.itdBarDAO.saveScripBars( scripBars ) ;
+        }
+        catch ( final RuntimeException e ) {
+            logger.error( "Could not save " + scripBars.size() + " scrip bars", e ) ;
+            synchronized( this ) {
+                this.dirtyScripBars = remerge( scripBars, this.dirtyScripBars ) ;
+            }
+            failed = true ;
+        }
+
+        try {
+            this.itdBarDAO.saveIndexBars( indexBars ) ;
+        }
+        catch ( final RuntimeException e ) {
+            logger.error( "Could not save " + indexBars.size() + " index bars", e ) ;
+            synchronized( this ) {
+                this.dirtyIndexBars = remerge( indexBars, this.dirtyIndexBars ) ;
+            }
+            failed = true ;
+        }
+
+        if( failed ) {
+            this.flushTask.request() ;
+        }
+    }
+
+    /**
+     * Returns the bars which could not be written merged with the bars
+     * updated since. The updated bars take precedence, since they are newer
+     * than the bars which could not be written.
+     */
+    private Map<String, ITDBar> remerge( final List<ITDBar> failedBars,
+                                         final Map<String, ITDBar> dirtyBars ) {
+
+        final Map<String, ITDBar> merged = new LinkedHashMap<String, ITDBar>() ;
+        markDirty( merged, failedBars ) ;
+        merged.putAll( dirtyBars ) ;
+        return merged ;
+    }
+
+    /**
+     * Returns copies of the bars, since the bars held by the builders keep
+     * changing while they are being written.
+     */
+    private List<ITDBar> copyBars( final Map<String, ITDBar> bars ) {
+
+        final List<ITDBar> copies = new ArrayList<ITDBar>( bars.size() ) ;
+        for( final ITDBar bar : bars.values() ) {
+            final ITDBar copy = new ITDBar() ;
+            copy.setSymbol( bar.getSymbol() ) ;
+            copy.setInterval( bar.getInterval() ) ;
+            copy.setTime( bar.getTime() ) ;
+            copy.setOpen( bar.getOpen() ) ;
+            copy.setHigh( bar.getHigh() ) ;
+            copy.setLow( bar.getLow() ) ;
+            copy.setClose( bar.getClose() ) ;
+            copy.setVolume( bar.getVolume() ) ;
+            copies.add( copy ) ;
+        }
+        return copies ;
+    }
+}
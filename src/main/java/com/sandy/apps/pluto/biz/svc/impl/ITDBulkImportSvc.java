@@ -21,6 +21,7 @@ import com.sandy.apps.pluto.biz.svc.IJobSvc.JobState ;
 import com.sandy.apps.pluto.biz.svc.INetworkSvc ;
 import com.sandy.apps.pluto.shared.ErrorCode ;
 import com.sandy.apps.pluto.shared.EventType ;
+import com.sandy.apps.pluto.shared.ITDTickStore ;
 import com.sandy.apps.pluto.shared.STException ;
 import com.sandy.apps.pluto.shared.STUtils ;
 import com.sandy.apps.pluto.shared.dto.JobAttribute ;
@@ -28,6 +29,8 @@ import com.sandy.apps.pluto.shared.dto.JobConfig ;
 import com.sandy.apps.pluto.shared.dto.LogMsg ;
 import com.sandy.apps.pluto.shared.dto.ScripITD ;
 import com.sandy.apps.pluto.shared.event.EventBus ;
+import com.sandy.apps.pluto.shared.metrics.LatencyHistogram ;
+import com.sandy.apps.pluto.shared.metrics.MetricsRegistry ;
 import com.sandy.apps.pluto.shared.util.dataaccess.DataAccessException ;
 import com.sandy.apps.pluto.shared.util.util.ConfigManager ;
 
@@ -127,6 +130,10 @@ public class ITDBulkImportSvc implements IITDBulkImportSvc {
      */
     private IITDIndexDAO itdIndexDAO = null ;
 
+    /** The time taken to parse the fetched ITD contents of an index. */
+    private final LatencyHistogram parseTimes =
+                        MetricsRegistry.instance().getHistogram( "parse.itdBulk" ) ;
+
     /** Public no argument constructor for ease of DI loading. */
     public ITDBulkImportSvc() {
         super() ;
@@ -234,8 +241,11 @@ public class ITDBulkImportSvc implements IITDBulkImportSvc {
             // Extract the contents of the price information table
             final int startIndex = contents.indexOf( AS_ON_STR ) ;
             if( startIndex != -1 ) {
+                final long parseStartTime = System.nanoTime() ;
                 final List<ScripITD> itdValues = parseScripITD( contents ) ;
+                this.parseTimes.recordSince( parseStartTime ) ;
                 this.itdIndexDAO.insert( itdValues ) ;
+                ITDTickStore.instance().addAll( itdValues ) ;
 
                 // Publish an event notifying that Scrip ITD indexes have been
                 // added. Note that the collection of ITD values have been
@@ -293,7 +303,7 @@ public class ITDBulkImportSvc implements IITDBulkImportSvc {
      * @param contents The HTML contents
      * @return The date at which this report was generated
      */
-    private Date getLowResTime( final ParsingContext ctx ) {
+    private static Date getLowResTime( final ParsingContext ctx ) {
 
         final int beginIndex = ctx.contents.indexOf( AS_ON_STR ) + AS_ON_STR.length() - 1 ;
         int endIndex = ctx.contents.indexOf( HOURS_IST_STR, beginIndex ) ;
@@ -326,12 +336,44 @@ public class ITDBulkImportSvc implements IITDBulkImportSvc {
      */
     private List<ScripITD> parseScripITD( final String contents ) {
 
+        // Get the list of Scrips being currently managed by the Scrip ITD
+        // Job. We need to ignore these scrips from the bulk import process
+        final List<String> itdJobScrips = new ArrayList<String>() ;
+        final JobState state = this.jobSvc.getJobState( SCRIP_ITD_JOB_ID ) ;
+        if( state == JobState.STARTED || state == JobState.EXECUTING ) {
+            final JobConfig config = this.jobSvc.getJobConfig( SCRIP_ITD_JOB_ID ) ;
+            final List<JobAttribute> attributes = config.getAttributeValues( "scrip" ) ;
+            for( final JobAttribute attr : attributes ) {
+                itdJobScrips.add( attr.getValue().trim() ) ;
+            }
+        }
+
+        return parseScripITD( contents, new Date(), itdJobScrips ) ;
+    }
+
+    /**
+     * Parses the scraped contents of the day specified and returns a list of
+     * populated {@link ScripITD} instances. This method depends on no state
+     * of the service, such that the parsing can be benchmarked over recorded
+     * pages.
+     *
+     * @param contents The scraped html contents from the NSE site.
+     *
+     * @param day The day of which the contents are expected to be. Contents
+     *        of any other day are ignored.
+     *
+     * @param ignoredScrips The scrips whose values are not to be returned.
+     *
+     * @return A list of {@link ScripITD} instances.
+     */
+    public static List<ScripITD> parseScripITD( final String contents, final Date day,
+                                                final List<String> ignoredScrips ) {
+
         final List<ScripITD> list = new ArrayList<ScripITD>() ;
 
         String      scripName   = null ;
         ScripITD    itd         = null ;
         Date        time        = null ;
-        final List<String> itdJobScrips = new ArrayList<String>() ;
 
         final ParsingContext ctx = new ParsingContext() ;
         ctx.contents = contents ;
@@ -344,11 +386,11 @@ public class ITDBulkImportSvc implements IITDBulkImportSvc {
         // to represent a time either in the past or the future. This causes
         // malicious entries and hinders data analysis. We try to filter out
         // the bad entries before persisting them.
-        final Date startOfDay    = STUtils.getStartOfDay( new Date() ) ;
+        final Date startOfDay    = STUtils.getStartOfDay( day ) ;
         final long beginingOfBiz = startOfDay.getTime() + (9*60*60*1000) ;
         final long endOfBiz      = startOfDay.getTime() + (17*60*60*1000) ;
 
-        // Anything which is not of today, we ignore.
+        // Anything which is not of the day, we ignore.
         if( time.getTime() < beginingOfBiz ||
             time.getTime() > endOfBiz ) {
             logger.debug( "Got an invalid ITD scrip time, ignoring" ) ;
@@ -356,17 +398,6 @@ public class ITDBulkImportSvc implements IITDBulkImportSvc {
             return list ;
         }
 
-        // Get the list of Scrips being currently managed by the Scrip ITD
-        // Job. We need to ignore these scrips from the bulk import process
-        final JobState state = this.jobSvc.getJobState( SCRIP_ITD_JOB_ID ) ;
-        if( state == JobState.STARTED || state == JobState.EXECUTING ) {
-            final JobConfig config = this.jobSvc.getJobConfig( SCRIP_ITD_JOB_ID ) ;
-            final List<JobAttribute> attributes = config.getAttributeValues( "scrip" ) ;
-            for( final JobAttribute attr : attributes ) {
-                itdJobScrips.add( attr.getValue().trim() ) ;
-            }
-        }
-
         while( true ) {
 
             scripName = getNextScripName( ctx ) ;
@@ -400,7 +431,7 @@ public class ITDBulkImportSvc implements IITDBulkImportSvc {
                 // Set the change in amount
                 itd.setChange( itd.getPrice() - itd.getPrevClose() ) ;
 
-                if( !itdJobScrips.contains( scripName ) ) {
+                if( !ignoredScrips.contains( scripName ) ) {
                     list.add( itd ) ;
                 }
                 else {
@@ -423,7 +454,7 @@ public class ITDBulkImportSvc implements IITDBulkImportSvc {
      * Gets the next scrip name present in the scrapped HTML from the position
      * provided. If no scrip name is found, this method returns a null.
      */
-    private String getNextScripName( final ParsingContext ctx ) {
+    private static String getNextScripName( final ParsingContext ctx ) {
         String scripName = null ;
         final int startIndex = ctx.contents.indexOf( PRE_SCRIP_TOKEN, ctx.parsePos ) ;
         if( startIndex >= 0 ) {
@@ -440,7 +471,7 @@ public class ITDBulkImportSvc implements IITDBulkImportSvc {
      * Gets the next scrip name present in the scrapped HTML from the position
      * provided. If no scrip name is found, this method returns a null.
      */
-    private double getNextValue( final ParsingContext ctx ) {
+    private static double getNextValue( final ParsingContext ctx ) {
 
         String value = null ;
         double retVal= 0.0D ;
@@ -464,11 +495,16 @@ public class ITDBulkImportSvc implements IITDBulkImportSvc {
     }
 
     /**
-     * Archives all the data from STOCK_EOD_DATA table which are older than
-     * the configured interval 'scrip.eod.archive.days.threshold'. The archived
-     * records would be moved to the STOCK_EOD_DATA_ARCHIVE table and deleted
+     * Archives all the data from STOCK_ITD_DATA table which are older than
+     * the configured interval 'scrip.itd.archive.days.threshold'. The archived
+     * records would be moved to the STOCK_ITD_DATA_ARCHIVE table and deleted
      * from the live table.
      * <p>
+     * The partitions of the live table which lie entirely before the boundary
+     * are archived as a whole, without copying their rows. Only the records
+     * held by the live table itself, which were inserted before the table was
+     * partitioned, are copied and deleted row by row.
+     * <p>
      * Note that the data is moved from live to archive table and deleted from
      * live table within one transaction boundary and hence if either the insert
      * or the delete fails, the transaction is rolled back. The transaction
@@ -493,8 +529,13 @@ public class ITDBulkImportSvc implements IITDBulkImportSvc {
         final Date boundary = boundaryDate.getTime() ;
         logger.debug( "Archiving all Scrip ITD records prior to " + boundary ) ;
 
-        // Ask the DAO to copy the data from live to archive table with one
-        // query operation (insert with nested select)
+        // Ask the DAO to move the partitions past the calculated date from
+        // the live to the archive table
+        final int numPartitions = this.itdIndexDAO.archivePartitions( boundary ) ;
+        logger.debug( "Archived " + numPartitions + " partitions" ) ;
+
+        // Ask the DAO to copy the remaining data from live to archive table
+        // with one query operation (insert with nested select)
         logger.debug( "Copying records to archive table" ) ;
         this.itdIndexDAO.archiveLiveRecords( boundary ) ;
 
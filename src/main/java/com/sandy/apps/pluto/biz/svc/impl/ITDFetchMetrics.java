@@ -0,0 +1,88 @@
+/**
+ * Creation Date: Oct 18, 2026
+ */
+
+package com.sandy.apps.pluto.biz.svc.impl;
+import java.util.Map ;
+import java.util.TreeMap ;
+import java.util.concurrent.ConcurrentHashMap ;
+import java.util.concurrent.ConcurrentMap ;
+
+import com.sandy.apps.pluto.shared.dto.FetchStats ;
+import com.sandy.apps.pluto.shared.dto.FetchStats.Phase ;
+
+/**
+ * Records the time spent by the ITD fetches of each symbol in the phases of
+ * a fetch - waiting in the fetch queue, fetching over the network and parsing
+ * the fetched contents. An instance is shared between the ITD import service
+ * and the ITD fetch scheduler. This class is thread safe.
+ *
+ * @author Sandeep Deb [deb.sandeep@gmail.com]
+ */
+public class ITDFetchMetrics {
+
+    /** The recorded times of a symbol. Guarded by the instance. */
+    private static class SymbolMetrics {
+        final long[] count       = new long[ Phase.values().length ] ;
+        final long[] totalMillis = new long[ Phase.values().length ] ;
+        final long[] maxMillis   = new long[ Phase.values().length ] ;
+    }
+
+    /** The recorded times by symbol. */
+    private final ConcurrentMap<String, SymbolMetrics> metrics =
+                                    new ConcurrentHashMap<String, SymbolMetrics>() ;
+
+    /** Public constructor. */
+    public ITDFetchMetrics() {
+        super() ;
+    }
+
+    /**
+     * Records the time spent by a fetch of the symbol in the phase.
+     *
+     * @param symbol The symbol being fetched.
+     * @param phase The phase of the fetch.
+     * @param millis The milliseconds spent in the phase.
+     */
+    public void record( final String symbol, final Phase phase, final long millis ) {
+
+        SymbolMetrics symMetrics = this.metrics.get( symbol ) ;
+        if( symMetrics == null ) {
+            final SymbolMetrics newMetrics = new SymbolMetrics() ;
+            symMetrics = this.metrics.putIfAbsent( symbol, newMetrics ) ;
+            if( symMetrics == null ) {
+                symMetrics = newMetrics ;
+            }
+        }
+
+        final int index = phase.ordinal() ;
+        synchronized( symMetrics ) {
+            symMetrics.count[index]++ ;
+            symMetrics.totalMillis[index] += millis ;
+            if( millis > symMetrics.maxMillis[index] ) {
+                symMetrics.maxMillis[index] = millis ;
+            }
+        }
+    }
+
+    /** Returns a snapshot of the fetch statistics, sorted by symbol. */
+    public Map<String, FetchStats> getStats() {
+
+        final Map<String, FetchStats> stats = new TreeMap<String, FetchStats>() ;
+        for( final Map.Entry<String, SymbolMetrics> entry : this.metrics.entrySet() ) {
+            final SymbolMetrics symMetrics = entry.getValue() ;
+            synchronized( symMetrics ) {
+                stats.put( entry.getKey(), new FetchStats( entry.getKey(),
+                                                 symMetrics.count.clone(),
+                                                 symMetrics.totalMillis.clone(),
+                                                 symMetrics.maxMillis.clone() ) ) ;
+            }
+        }
+        return stats ;
+    }
+
+    /** Discards all the recorded times. */
+    public void reset() {
+        this.metrics.clear() ;
+    }
+}
@@ -0,0 +1,202 @@
+/**
+ * Creation Date: Oct 18, 2026
+ */
+
+package com.sandy.apps.pluto.biz.svc.impl;
+import java.util.Map ;
+import java.util.concurrent.ConcurrentHashMap ;
+import java.util.concurrent.ConcurrentMap ;
+import java.util.concurrent.LinkedBlockingQueue ;
+import java.util.concurrent.RejectedExecutionException ;
+import java.util.concurrent.ThreadFactory ;
+import java.util.concurrent.ThreadPoolExecutor ;
+import java.util.concurrent.TimeUnit ;
+import java.util.concurrent.atomic.AtomicInteger ;
+import java.util.concurrent.atomic.AtomicLong ;
+
+import org.apache.log4j.Logger ;
+
+import com.sandy.apps.pluto.biz.svc.IAsyncExecutorSvc.AsyncTask ;
+import com.sandy.apps.pluto.biz.svc.IITDFetchSchedulerSvc ;
+import com.sandy.apps.pluto.shared.Initializable ;
+import com.sandy.apps.pluto.shared.STException ;
+import com.sandy.apps.pluto.shared.dto.FetchStats ;
+import com.sandy.apps.pluto.shared.dto.LogMsg ;
+
+/**
+ * Implementation of {@link IITDFetchSchedulerSvc} interface. The fetches are
+ * executed on a dedicated pool of threads, with a bounded queue. Note that
+ * this implementation is initializable and hence it is imperative that the
+ * creation mechanism invokes the initialize method before the instance of
+ * this class is ready for usage.
+ * <p>
+ * The rate of the requests to the data sources is not limited by this class,
+ * but by the {@link HostRateLimiter} used by the import services.
+ *
+ * @author Sandeep Deb [deb.sandeep@gmail.com]
+ */
+public class ITDFetchSchedulerSvc implements IITDFetchSchedulerSvc, Initializable {
+
+    /** Log4J logger for this class. */
+    public static final Logger logger = Logger.getLogger( ITDFetchSchedulerSvc.class ) ;
+
+    /** The executor on which the fetches are executed. */
+    private ThreadPoolExecutor executor = null ;
+
+    /** The symbols whose fetches are queued or running. */
+    private final ConcurrentMap<String, Boolean> pendingSymbols =
+                                    new ConcurrentHashMap<String, Boolean>() ;
+
+    /** The number of fetches skipped as the symbol was being fetched. */
+    private final AtomicLong numSkipped = new AtomicLong() ;
+
+    /**
+     * INJECTABLE: The maximum number of concurrent fetches. A default value
+     * of 10 is used in case this parameter is not injected.
+     */
+    private int maxConcurrency = 10 ;
+
+    /**
+     * INJECTABLE: The maximum number of fetches waiting for execution. A
+     * default value of 500 is used in case this parameter is not injected.
+     */
+    private int queueCapacity = 500 ;
+
+    /**
+     * INJECTABLE: The metrics into which the time spent waiting in the queue
+     * is recorded. The same instance should be injected into the import
+     * services, which record the fetch and parse times.
+     */
+    private ITDFetchMetrics fetchMetrics = new ITDFetchMetrics() ;
+
+    /** Public constructor. */
+    public ITDFetchSchedulerSvc() {
+        super() ;
+    }
+
+    /**
+     * @return the maxConcurrency
+     */
+    public int getMaxConcurrency() {
+        return this.maxConcurrency ;
+    }
+
+    /**
+     * @param maxConcurrency the maxConcurrency to set
+     */
+    public void setMaxConcurrency( final int maxConcurrency ) {
+        if( maxConcurrency <= 0 ) {
+            throw new IllegalArgumentException( "Maximum concurrency should " +
+                                                "be a positive integer" ) ;
+        }
+        this.maxConcurrency = maxConcurrency ;
+    }
+
+    /**
+     * @return the queueCapacity
+     */
+    public int getQueueCapacity() {
+        return this.queueCapacity ;
+    }
+
+    /**
+     * @param queueCapacity the queueCapacity to set
+     */
+    public void setQueueCapacity( final int queueCapacity ) {
+        if( queueCapacity <= 0 ) {
+            throw new IllegalArgumentException( "Queue capacity should " +
+                                                "be a positive integer" ) ;
+        }
+        this.queueCapacity = queueCapacity ;
+    }
+
+    /**
+     * @return the fetchMetrics
+     */
+    public ITDFetchMetrics getFetchMetrics() {
+        return this.fetchMetrics ;
+    }
+
+    /**
+     * @param fetchMetrics the fetchMetrics to set
+     */
+    public void setFetchMetrics( final ITDFetchMetrics fetchMetrics ) {
+        this.fetchMetrics = fetchMetrics ;
+    }
+
+    /**
+     * This method should be invoked on this instance before this instance is
+     * used for public usage. This method sets up the internal executor.
+     */
+    @Override
+    public void initialize() throws STException {
+
+        final AtomicInteger threadNum = new AtomicInteger() ;
+        this.executor = new ThreadPoolExecutor( this.maxConcurrency, this.maxConcurrency,
+                              60, TimeUnit.SECONDS,
+                              new LinkedBlockingQueue<Runnable>( this.queueCapacity ),
+                              new ThreadFactory() {
+            public Thread newThread( final Runnable runnable ) {
+                final Thread thread = new Thread( runnable, "ITDFetch-" +
+                                                  threadNum.incrementAndGet() ) ;
+                thread.setDaemon( true ) ;
+                return thread ;
+            }
+        } ) ;
+        this.executor.allowCoreThreadTimeOut( true ) ;
+    }
+
+    /**
+     * Submits the fetch task of the symbol for asynchronous execution, unless
+     * a fetch of the symbol is already queued or running.
+     */
+    @Override
+    public boolean submit( final String symbol, final AsyncTask task ) {
+
+        if( this.pendingSymbols.putIfAbsent( symbol, Boolean.TRUE ) != null ) {
+            this.numSkipped.incrementAndGet() ;
+            logger.debug( "Skipping " + task.getName() + ", previous fetch pending" ) ;
+            return false ;
+        }
+
+        final long queueTime = System.currentTimeMillis() ;
+        try {
+            this.executor.execute( new Runnable() {
+                public void run() {
+                    ITDFetchSchedulerSvc.this.fetchMetrics.record( symbol,
+                            FetchStats.Phase.QUEUE_WAIT, System.currentTimeMillis() - queueTime ) ;
+                    try {
+                        task.run() ;
+                    }
+                    catch ( final Throwable e ) {
+                        logger.error( "Fetch task resulted in an exception. Msg=" +
+                                      e.getMessage(), e ) ;
+                        LogMsg.error( "Error executing fetch task " + task.getName() +
+                                      ". Msg = " + e.getMessage() ) ;
+                    }
+                    finally {
+                        ITDFetchSchedulerSvc.this.pendingSymbols.remove( symbol ) ;
+                    }
+                }
+            } ) ;
+        }
+        catch ( final RejectedExecutionException e ) {
+            this.pendingSymbols.remove( symbol ) ;
+            logger.warn( "Fetch queue full, skipping " + task.getName() ) ;
+            return false ;
+        }
+        return true ;
+    }
+
+    /** Returns a snapshot of the fetch statistics by symbol. */
+    @Override
+    public Map<String, FetchStats> getFetchStats() {
+        return this.fetchMetrics.getStats() ;
+    }
+
+    /** Returns the number of fetches skipped as the symbol was being fetched. */
+    @Override
+    public long getNumSkipped() {
+        return this.numSkipped.get() ;
+    }
+}
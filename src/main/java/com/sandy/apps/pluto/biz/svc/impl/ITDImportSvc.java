@@ -10,10 +10,11 @@ import java.util.ArrayList ;
 import java.util.Collections ;
 import java.util.Date ;
 import java.util.HashMap ;
-import java.util.Iterator ;
 import java.util.List ;
 import java.util.Map ;
 import java.util.Vector ;
+import java.util.concurrent.ConcurrentHashMap ;
+import java.util.concurrent.ConcurrentMap ;
 
 import org.apache.log4j.Logger ;
 
@@ -26,13 +27,18 @@ import com.sandy.apps.pluto.biz.svc.INetworkSvc ;
 import com.sandy.apps.pluto.shared.ConfigKey ;
 import com.sandy.apps.pluto.shared.ErrorCode ;
 import com.sandy.apps.pluto.shared.EventType ;
+import com.sandy.apps.pluto.shared.ITDTickSeries ;
+import com.sandy.apps.pluto.shared.ITDTickStore ;
 import com.sandy.apps.pluto.shared.STException ;
 import com.sandy.apps.pluto.shared.STUtils ;
 import com.sandy.apps.pluto.shared.dto.ChartData ;
+import com.sandy.apps.pluto.shared.dto.FetchStats ;
 import com.sandy.apps.pluto.shared.dto.LogMsg ;
 import com.sandy.apps.pluto.shared.dto.ScripITD ;
 import com.sandy.apps.pluto.shared.dto.Symbol ;
 import com.sandy.apps.pluto.shared.event.EventBus ;
+import com.sandy.apps.pluto.shared.metrics.LatencyHistogram ;
+import com.sandy.apps.pluto.shared.metrics.MetricsRegistry ;
 import com.sandy.apps.pluto.shared.util.dataaccess.DataAccessException ;
 import com.sandy.apps.pluto.shared.util.util.ConfigManager ;
 
@@ -73,6 +79,30 @@ public class ITDImportSvc implements IITDImportSvc {
      */
     private IEODIndexDAO eodIndexDAO = null ;
 
+    /**
+     * INJECTABLE: This variable can be injected with the rate limiter which
+     * limits the rate of the requests to NSE. If not injected, the requests
+     * are not rate limited.
+     */
+    private HostRateLimiter rateLimiter = null ;
+
+    /**
+     * INJECTABLE: This variable can be injected with the metrics into which
+     * the fetch and parse times of the imports are recorded. If not injected,
+     * the times are not recorded.
+     */
+    private ITDFetchMetrics fetchMetrics = null ;
+
+    /** The time taken to parse the fetched ITD contents of a symbol. */
+    private final LatencyHistogram parseTimes =
+                        MetricsRegistry.instance().getHistogram( "parse.itd" ) ;
+
+    /**
+     * The locks which serialize the high resolution imports of a symbol. The
+     * imports of different symbols run in parallel.
+     */
+    private final ConcurrentMap<String, Object> hiResLocks = new ConcurrentHashMap<String, Object>() ;
+
     /** The URL to use for fetching NSE intra day data. */
     private static final String NSE_ITD_URL =
                  "http://www.nseindia.com/marketinfo/equities/cmquote_tab.jsp" ;
@@ -98,11 +128,22 @@ public class ITDImportSvc implements IITDImportSvc {
     private static final String PI_PCT_CHANGE       = "% Change" ;
     private static final String PI_TOTAL_TRD_QTY    = "Total traded quantity" ;
 
-    /** The date format in which the time is specified. 06-AUG-2008 14:52:33 */
-    private static final DateFormat LOW_RES_ITD_DF = new SimpleDateFormat( "dd-MMM-yyyy HH:mm:ss" ) ;
+    /**
+     * The date format in which the time is specified. 06-AUG-2008 14:52:33
+     * The date formats are per thread, since the imports run concurrently.
+     */
+    private static final ThreadLocal<DateFormat> LOW_RES_ITD_DF = new ThreadLocal<DateFormat>() {
+        protected DateFormat initialValue() {
+            return new SimpleDateFormat( "dd-MMM-yyyy HH:mm:ss" ) ;
+        }
+    } ;
 
     /** The date format used to specify the time for the ITD index values. */
-    private static final DateFormat HI_RES_ITD_DF = new SimpleDateFormat( "dd/MM/yyyy HH:mm:ss" ) ;
+    private static final ThreadLocal<DateFormat> HI_RES_ITD_DF = new ThreadLocal<DateFormat>() {
+        protected DateFormat initialValue() {
+            return new SimpleDateFormat( "dd/MM/yyyy HH:mm:ss" ) ;
+        }
+    } ;
 
     /** Public constructor. */
     public ITDImportSvc() {
@@ -165,6 +206,57 @@ public class ITDImportSvc implements IITDImportSvc {
         this.eodIndexDAO = eodIndexDAO ;
     }
 
+    /**
+     * @return the rateLimiter
+     */
+    public HostRateLimiter getRateLimiter() {
+        return this.rateLimiter ;
+    }
+
+    /**
+     * @param rateLimiter the rateLimiter to set
+     */
+    public void setRateLimiter( final HostRateLimiter rateLimiter ) {
+        this.rateLimiter = rateLimiter ;
+    }
+
+    /**
+     * @return the fetchMetrics
+     */
+    public ITDFetchMetrics getFetchMetrics() {
+        return this.fetchMetrics ;
+    }
+
+    /**
+     * @param fetchMetrics the fetchMetrics to set
+     */
+    public void setFetchMetrics( final ITDFetchMetrics fetchMetrics ) {
+        this.fetchMetrics = fetchMetrics ;
+    }
+
+    /** Waits till a request can be made to the URL, if rate limited. */
+    private void acquireRequest( final String url ) {
+        if( this.rateLimiter != null ) {
+            this.rateLimiter.acquire( url ) ;
+        }
+    }
+
+    /**
+     * Records the time spent by an import of the symbol in the phase.
+     *
+     * @param startTime The start time of the phase, as per System.nanoTime()
+     */
+    private void recordTime( final String symbol, final FetchStats.Phase phase,
+                             final long startTime ) {
+        final long nanos = System.nanoTime() - startTime ;
+        if( phase == FetchStats.Phase.PARSE ) {
+            this.parseTimes.record( nanos ) ;
+        }
+        if( this.fetchMetrics != null ) {
+            this.fetchMetrics.record( symbol, phase, nanos / 1000000 ) ;
+        }
+    }
+
     /**
      * Imports the latest available intra day data from NSE exchange for the
      * given symbol. Note that NSE requires two parameters, symbol and key to
@@ -228,7 +320,11 @@ public class ITDImportSvc implements IITDImportSvc {
 
         String contents = null ;
         try {
+            acquireRequest( NSE_ITD_URL ) ;
+            final long fetchStartTime = System.nanoTime() ;
             contents = new String( this.networkSvc.getRawGETResult( NSE_ITD_URL, paramMap ) ) ;
+            recordTime( symbol, FetchStats.Phase.FETCH, fetchStartTime ) ;
+            final long parseStartTime = System.nanoTime() ;
 
             // Extract the contents of the price information table
             final int startIndex = contents.indexOf( PRICE_INFO_TABLE_HDR ) ;
@@ -262,7 +358,9 @@ public class ITDImportSvc implements IITDImportSvc {
                     }
 
                     itdIndex.setTime( time ) ;
+                    recordTime( symbol, FetchStats.Phase.PARSE, parseStartTime ) ;
                     this.itdIndexDAO.insert( itdIndex ) ;
+                    ITDTickStore.instance().add( itdIndex ) ;
 
                     final List<ScripITD> insertedVals = new ArrayList<ScripITD>() ;
                     insertedVals.add( itdIndex ) ;
@@ -337,7 +435,7 @@ public class ITDImportSvc implements IITDImportSvc {
         Date date = null ;
 
         try {
-            date = LOW_RES_ITD_DF.parse( tmp ) ;
+            date = LOW_RES_ITD_DF.get().parse( tmp ) ;
         }
         catch ( final Exception e ) {
             logger.warn( "Could not parse date '" + tmp + "'" ) ;
@@ -428,8 +526,31 @@ public class ITDImportSvc implements IITDImportSvc {
      *         to true, any exceptions encountered will be silently ignored
      *         with a log entry made at INFO level.
      */
+    public void importHighResNSESymbol( final String symbol, final boolean ignoreError )
+        throws STException {
+
+        // The imports of a symbol are serialized, as each merges the fetched
+        // values with the values of the symbol in the database.
+        Object lock = this.hiResLocks.get( symbol ) ;
+        if( lock == null ) {
+            final Object newLock = new Object() ;
+            lock = this.hiResLocks.putIfAbsent( symbol, newLock ) ;
+            if( lock == null ) {
+                lock = newLock ;
+            }
+        }
+
+        synchronized( lock ) {
+            importHighResNSESymbolValues( symbol, ignoreError ) ;
+        }
+    }
+
+    /**
+     * Imports the high resolution intra day data for the symbol. Called with
+     * the lock of the symbol held.
+     */
     @SuppressWarnings("unchecked")
-    public synchronized void importHighResNSESymbol( final String symbol, final boolean ignoreError )
+    private void importHighResNSESymbolValues( final String symbol, final boolean ignoreError )
         throws STException {
 
         final Symbol symb = this.symbolDAO.getSymbol( symbol ) ;
@@ -453,8 +574,11 @@ public class ITDImportSvc implements IITDImportSvc {
 
         try {
             LogMsg.info( "Downloading hi res ITD data for " + symbol ) ;
+            acquireRequest( NSE_ITD_CHARTDATA_URL ) ;
+            final long fetchStartTime = System.nanoTime() ;
             final ChartData chartData = this.networkSvc.getChartDataGET(
                                              NSE_ITD_CHARTDATA_URL, paramMap ) ;
+            recordTime( symbol, FetchStats.Phase.FETCH, fetchStartTime ) ;
             // Do error checking of the data
             if( !checkHiResDataValidity( chartData, ignoreError ) ) {
                 return ;
@@ -464,20 +588,31 @@ public class ITDImportSvc implements IITDImportSvc {
             // NSE preserves the ITD data over the weekend and holidays
             final Date date = getHiResDate( chartData ) ;
 
-            // Get the list of ITD indexes for the date from the DAO
-            final List<ScripITD> itdList = this.itdIndexDAO.getScripITD( symbol, date ) ;
+            // Get the ticks for the date from the tick store. If the store does
+            // not yet hold all the ticks of the date, load them from the DAO.
+            final ITDTickSeries series = ITDTickStore.instance().getOrCreateSeries( symbol, date ) ;
+            if( !series.isComplete() ) {
+                final List<ScripITD> storedList = this.itdIndexDAO.getScripITD( symbol, date ) ;
+                synchronized( series ) {
+                    if( !series.isComplete() ) {
+                        ITDTickStore.instance().addAll( storedList ) ;
+                        series.setComplete( true ) ;
+                    }
+                }
+            }
 
             // Create a list of ScriptITD based on the high resolution data
-            // we have received, filtering them on the basis of the resolution
-            // configuration. Mark these instances as interpolated. Add the
-            // newly created instances to the list of ITD scrip data received.
+            // we have received, which are not already present in the series.
+            // Mark these instances as interpolated.
+            final long parseStartTime = System.nanoTime() ;
             final Vector<String> timeList = chartData.getStockData()[0] ;
             final Vector<String> priceList= chartData.getStockData()[1] ;
+            final List<ScripITD> hiResList = new ArrayList<ScripITD>( timeList.size() ) ;
             ScripITD itdIndex = null ;
             for( int i=0; i<timeList.size(); i++ ) {
                 itdIndex = new ScripITD() ;
                 itdIndex.setSymbolId( symbol ) ;
-                itdIndex.setTime( HI_RES_ITD_DF.parse( timeList.get( i ) ) ) ;
+                itdIndex.setTime( HI_RES_ITD_DF.get().parse( timeList.get( i ) ) ) ;
                 itdIndex.setPrice( Double.parseDouble( priceList.get( i ) ) ) ;
                 itdIndex.setInterpolated( true ) ;
                 itdIndex.setPrevClose( Double.parseDouble( chartData.getPrevClose() ) ) ;
@@ -486,37 +621,46 @@ public class ITDImportSvc implements IITDImportSvc {
                 itdIndex.setTotalTradeQty( -1 ) ;
 
                 // If we already have a data point, we don't add one again.
-                if( !itdList.contains( itdIndex ) ) {
-                    itdList.add( itdIndex ) ;
+                if( series.indexOf( itdIndex.getTime().getTime() ) < 0 ) {
+                    hiResList.add( itdIndex ) ;
                 }
             }
 
             // Sort the script list in the order of time
-            Collections.sort( itdList ) ;
+            Collections.sort( hiResList ) ;
 
-            // Enforce resolution. Knock out the items from the list which are
-            // spaced closer than the configured ITD resolution interval.
-            long lastTime = -1 ;
+            // Enforce resolution. Walk the ticks of the series and the high
+            // resolution values in the order of time, knocking out the high
+            // resolution values which are spaced closer than the configured
+            // ITD resolution interval.
             final long resolution = ConfigManager.getInstance().getLong(
                                     ConfigKey.NSE_SCRIP_ITD_RESOLUTION, 6000 ) ;
-            for( final Iterator<ScripITD> itdIter =itdList.iterator(); itdIter.hasNext(); ) {
-                final ScripITD tmpScrip = itdIter.next() ;
-                if( lastTime == -1 ) {
-                    lastTime = tmpScrip.getTime().getTime() ;
-                }
-                else {
-                    if( (tmpScrip.getTime().getTime() - lastTime) > resolution ) {
-                        lastTime = tmpScrip.getTime().getTime() ;
+            final List<ScripITD> itdList = new ArrayList<ScripITD>() ;
+            synchronized( series ) {
+                long lastTime = -1 ;
+                int seriesIndex = 0 ;
+                for( final ScripITD hiResITD : hiResList ) {
+                    final long time = hiResITD.getTime().getTime() ;
+                    for( ; seriesIndex < series.size() &&
+                           series.getTime( seriesIndex ) < time; seriesIndex++ ) {
+                        final long seriesTime = series.getTime( seriesIndex ) ;
+                        if( lastTime == -1 || (seriesTime - lastTime) > resolution ) {
+                            lastTime = seriesTime ;
+                        }
                     }
-                    else {
-                        itdIter.remove() ;
+                    if( lastTime == -1 || (time - lastTime) > resolution ) {
+                        lastTime = time ;
+                        itdList.add( hiResITD ) ;
                     }
                 }
             }
 
-            // Save the list and publish events while saving.
+            recordTime( symbol, FetchStats.Phase.PARSE, parseStartTime ) ;
+
+            // Save the list and add the saved values to the tick store.
             LogMsg.info( "Saving hi res ITD data for " + symbol ) ;
             this.itdIndexDAO.insert( itdList ) ;
+            ITDTickStore.instance().addAll( itdList ) ;
 
             // We publish an event intimating that high resolution data has been
             // downloaded for the scrip. The value of this event is the scrip
@@ -546,7 +690,7 @@ public class ITDImportSvc implements IITDImportSvc {
         Date date = null ;
         final String firstTime = ( String )data.getStockData()[0].get( 0 ) ;
         try {
-            date = HI_RES_ITD_DF.parse( firstTime ) ;
+            date = HI_RES_ITD_DF.get().parse( firstTime ) ;
             date = STUtils.getStartOfDay( date ) ;
         }
         catch ( final ParseException e ) {
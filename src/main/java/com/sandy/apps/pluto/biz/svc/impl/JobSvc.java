@@ -30,6 +30,7 @@ import com.sandy.apps.pluto.shared.dto.JobAttribute ;
 import com.sandy.apps.pluto.shared.dto.JobConfig ;
 import com.sandy.apps.pluto.shared.dto.LogMsg ;
 import com.sandy.apps.pluto.shared.event.EventBus ;
+import com.sandy.apps.pluto.shared.metrics.MetricsRegistry ;
 import com.sandy.apps.pluto.shared.util.dataaccess.DataAccessException ;
 import com.sandy.apps.pluto.shared.util.util.ReflectionUtil ;
 
@@ -497,14 +498,21 @@ public class JobSvc implements IJobSvc, Initializable, JobListener {
     /**
      * This is invoked when the job has finished execution. We take this
      * opportunity to remove the job from the executing list, so that the state
-     * can be successfully tracked.
+     * can be successfully tracked, and to record the duration of the run
+     * against the job name in the metrics.
      */
     @Override
     public void jobWasExecuted( final JobExecutionContext context,
                                 final JobExecutionException jobException ) {
         final int jobId = context.getMergedJobDataMap().getInt( KEY_JOB_ID ) ;
         this.executingJobIdList.remove( new Integer( jobId ) ) ;
-        EventBus.publish( EventType.JOB_STARTED, this.jobDAO.getJobConfig( jobId ) ) ;
+
+        final JobConfig config = this.jobDAO.getJobConfig( jobId ) ;
+        if( config != null && context.getJobRunTime() >= 0 ) {
+            MetricsRegistry.instance().getHistogram( "job." + config.getName() )
+                           .record( context.getJobRunTime() * 1000000 ) ;
+        }
+        EventBus.publish( EventType.JOB_STARTED, config ) ;
     }
 
     /**
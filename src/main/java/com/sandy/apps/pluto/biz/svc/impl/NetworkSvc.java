@@ -3,7 +3,10 @@
  */
 
 package com.sandy.apps.pluto.biz.svc.impl;
+import java.io.ByteArrayInputStream ;
+import java.io.FilterInputStream ;
 import java.io.IOException ;
+import java.io.InputStream ;
 import java.net.InetAddress ;
 import java.net.UnknownHostException ;
 import java.util.ArrayList ;
@@ -14,6 +17,7 @@ import java.util.Map ;
 import org.apache.commons.httpclient.ConnectTimeoutException ;
 import org.apache.commons.httpclient.ConnectionPoolTimeoutException ;
 import org.apache.commons.httpclient.Credentials ;
+import org.apache.commons.httpclient.Header ;
 import org.apache.commons.httpclient.HttpClient ;
 import org.apache.commons.httpclient.HttpException ;
 import org.apache.commons.httpclient.HttpMethod ;
@@ -41,14 +45,25 @@ import com.sandy.apps.pluto.shared.EventType ;
 import com.sandy.apps.pluto.shared.STException ;
 import com.sandy.apps.pluto.shared.dto.ChartData ;
 import com.sandy.apps.pluto.shared.dto.LogMsg ;
+import com.sandy.apps.pluto.shared.dto.NetworkCacheStats ;
 import com.sandy.apps.pluto.shared.event.Event ;
 import com.sandy.apps.pluto.shared.event.EventBus ;
 import com.sandy.apps.pluto.shared.event.IEventSubscriber ;
+import com.sandy.apps.pluto.shared.metrics.Counter ;
+import com.sandy.apps.pluto.shared.metrics.LatencyHistogram ;
+import com.sandy.apps.pluto.shared.metrics.MetricsRegistry ;
 import com.sandy.apps.pluto.shared.util.util.ConfigManager ;
 import com.sandy.apps.pluto.shared.util.util.StringUtil ;
 
 /**
- * Implementation of the {@link INetworkSvc} interface.
+ * Implementation of the {@link INetworkSvc} interface. The requests are
+ * executed on the calling thread, which also waits out the retrial intervals.
+ * {@link AsyncNetworkSvc} extends this implementation to execute the requests
+ * asynchronously, the implementation to use is chosen by {@link #create()}.
+ * <p>
+ * If configured, the responses are cached in a {@link HttpResponseCache}. A
+ * fresh cached response is returned without a request, and an expired one is
+ * revalidated with a conditional request.
  *
  * @author Sandeep Deb [deb.sandeep@gmail.com]
  */
@@ -67,6 +82,13 @@ public class NetworkSvc implements INetworkSvc, IEventSubscriber, ConfigKey {
        "Background: The server you are attempting to access has refused the connection with the gateway."
     } ;
 
+    /**
+     * The matcher which searches the raw responses for all the known error
+     * messages in one pass.
+     */
+    private final ByteSignatureMatcher errMsgMatcher = new ByteSignatureMatcher(
+                                                    toSignatures( this.KNOWN_ERR_MSGS ) ) ;
+
     /** The maximum number of retrial attemps. */
     private int maxRetrialAttemps = ConfigKey.DEF_MAX_NETWORK_RETRIAL ;
 
@@ -126,11 +148,39 @@ public class NetworkSvc implements INetworkSvc, IEventSubscriber, ConfigKey {
     /** A count of the number of bytes downloaded since the program was started. */
     private long numBytesDownloaded = 0 ;
 
+    /** The cache of the responses, null if the responses are not cached. */
+    private HttpResponseCache responseCache = null ;
+
+    /** The time taken by the successful fetches over the network. */
+    private final LatencyHistogram fetchTimes =
+                        MetricsRegistry.instance().getHistogram( "network.fetch" ) ;
+
+    /** The number of failed network communications. */
+    private final Counter fetchFailures =
+                        MetricsRegistry.instance().getCounter( "network.failures" ) ;
+
+    /** The number of bytes downloaded, as exposed through the metrics. */
+    private final Counter bytesDownloaded =
+                        MetricsRegistry.instance().getCounter( "network.bytes" ) ;
+
     /** Public constructor. */
     public NetworkSvc() {
         super() ;
     }
 
+    /**
+     * Creates the network service implementation as configured against the
+     * NETWORK_SVC_ASYNC key - an {@link AsyncNetworkSvc} if the key is true,
+     * else a NetworkSvc. This method is used as the factory method by the
+     * container framework (Spring).
+     */
+    public static NetworkSvc create() {
+        final boolean async = ConfigManager.getInstance().getBoolean(
+                                      NETWORK_SVC_ASYNC, DEF_NETWORK_SVC_ASYNC ) ;
+        logger.info( "Using " + ( async ? "asynchronous" : "blocking" ) + " network service" ) ;
+        return async ? new AsyncNetworkSvc() : new NetworkSvc() ;
+    }
+
     // ---------------------- INITIALIZATION BEGINS --------------------------
     /**
      * This method should be called post initialization to initialize the
@@ -149,6 +199,9 @@ public class NetworkSvc implements INetworkSvc, IEventSubscriber, ConfigKey {
         this.retrialInterval = ConfigManager.getInstance().getInt(
                 NETWORK_RETRIAL_INTERVAL, DEF_RETRIAL_INTERVAL ) ;
 
+        // Open the response cache, if one is configured
+        this.responseCache = HttpResponseCache.create() ;
+
         // Register this service as a consumer of preference change events
         final EventBus bus = EventBus.instance() ;
         bus.addSubscriberForEventTypes( this, EventType.USER_PREF_CHANGED ) ;
@@ -563,6 +616,28 @@ public class NetworkSvc implements INetworkSvc, IEventSubscriber, ConfigKey {
         return getRawPOSTResult( url, (Map<String, String>)null ) ;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public <T> T getGETStream( final String url, final Map<String, String> parameters,
+                               final ResponseHandler<T> handler )
+        throws STException {
+
+        return communicateStream( url, "GET", parameters, handler ) ;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public <T> T getPOSTStream( final String url, final Map<String, String> parameters,
+                                final ResponseHandler<T> handler )
+        throws STException {
+
+        return communicateStream( url, "POST", parameters, handler ) ;
+    }
+
     /**
      * Posts or gets the contents at the specified URL with the name value
      * pairs specified as parameters.
@@ -576,11 +651,18 @@ public class NetworkSvc implements INetworkSvc, IEventSubscriber, ConfigKey {
      * @throws STException If an exception is encountered during the network
      *         operation.
      */
-    private byte[] communciate( final String url, final String action,
-                                final Map<String, String> parameters )
+    protected byte[] communciate( final String url, final String action,
+                                  final Map<String, String> parameters )
         throws STException {
 
+        final String cacheKey = getCacheKey( url, action, parameters ) ;
+        final byte[] cachedResponse = getFreshResponse( cacheKey ) ;
+        if( cachedResponse != null ) {
+            return cachedResponse ;
+        }
+
         final HttpMethod httpMethod = getHttpMethod( url, parameters, action ) ;
+        addCacheValidators( cacheKey, httpMethod ) ;
         byte[] response = null ;
         try {
             if( logger.isDebugEnabled() ) {
@@ -588,53 +670,575 @@ public class NetworkSvc implements INetworkSvc, IEventSubscriber, ConfigKey {
                 logger.debug( "\tParameters = " + parameters ) ;
             }
 
+            final long startTime = System.nanoTime() ;
             executeHTTPMethod( httpMethod, 0, null ) ;
 
-            response = httpMethod.getResponseBody() ;
+            response = receiveResponse( url, cacheKey, httpMethod ) ;
+            recordFetchTime( startTime ) ;
+        }
+        catch ( final Exception e ) {
+            throw processFailure( url, action, e ) ;
+        }
+        finally {
+            if( httpMethod != null ) {
+                httpMethod.releaseConnection() ;
+            }
+        }
+        return response ;
+    }
+
+    /**
+     * Posts or gets the contents at the specified URL with the name value
+     * pairs specified as parameters, and streams the response through the
+     * handler. The streamed requests are always executed on the calling
+     * thread.
+     *
+     * @param url The URL to post the data (name value parameters) to.
+     * @param action The type of action to perform. Either "GET" or "POST"
+     * @param parameters The parameters to post
+     * @param handler The handler which consumes the response.
+     *
+     * @return The result returned by the handler.
+     *
+     * @throws STException If an exception is encountered during the network
+     *         operation or by the handler.
+     */
+    protected <T> T communicateStream( final String url, final String action,
+                                       final Map<String, String> parameters,
+                                       final ResponseHandler<T> handler )
+        throws STException {
 
-            // Update the number of bytes downloaded and publish an event
-            // denoting that bytes have been downloaded from the network
-            final long numBytes = response.length ;
-            synchronized ( this.LOCK ) {
-                this.numBytesDownloaded += numBytes ;
+        final String cacheKey = getCacheKey( url, action, parameters ) ;
+        InputStream cachedIn = openFreshResponse( cacheKey ) ;
+        if( cachedIn == null ) {
+
+            final HttpMethod httpMethod = getHttpMethod( url, parameters, action ) ;
+            addCacheValidators( cacheKey, httpMethod ) ;
+            ResponseStream in = null ;
+            try {
+                if( logger.isDebugEnabled() ) {
+                    logger.debug( "Initiating URL stream communication with " + url ) ;
+                    logger.debug( "\tParameters = " + parameters ) ;
+                }
+
+                final long startTime = System.nanoTime() ;
+                executeHTTPMethod( httpMethod, 0, null ) ;
+
+                cachedIn = openRevalidatedResponse( url, cacheKey, httpMethod ) ;
+                if( cachedIn == null ) {
+                    in = new ResponseStream( url, cacheKey, httpMethod ) ;
+                    final T result = in.handle( handler ) ;
+                    updateHeuristics( true ) ;
+                    recordFetchTime( startTime ) ;
+                    return result ;
+                }
+                recordFetchTime( startTime ) ;
             }
-            EventBus.publish( EventType.NETWORK_DATA_DOWNLOADED, new Long( numBytes ) ) ;
+            catch ( final HandlerException e ) {
+                throw e.getFailure() ;
+            }
+            catch ( final Exception e ) {
+                throw processFailure( url, action, e ) ;
+            }
+            finally {
+                if( in != null ) {
+                    in.close() ;
+                }
+                httpMethod.releaseConnection() ;
+            }
+        }
 
-            for( int i=0; i<this.KNOWN_ERR_MSGS.length; i++ ) {
-                final String responseStr = new String( response ) ;
-                if( responseStr.contains( this.KNOWN_ERR_MSGS[i] ) ) {
-                    throw new STException( "Proxy error while fetching url " + url +
-                                           "\nMsg: " + this.KNOWN_ERR_MSGS[i],
-                                           ErrorCode.NETWORK_UNAVAILABLE ) ;
+        // The response is served from the cache
+        try {
+            return handler.handleResponse( cachedIn ) ;
+        }
+        catch ( final IOException e ) {
+            throw new STException( "Could not process cached response of URL " + url,
+                                   e, ErrorCode.DOWNLOAD_FAILURE ) ;
+        }
+        finally {
+            closeQuietly( cachedIn ) ;
+        }
+    }
+
+    /**
+     * An exception thrown by a response handler, as against a failure of the
+     * network communication.
+     */
+    private static class HandlerException extends Exception {
+
+        private static final long serialVersionUID = 1L ;
+
+        HandlerException( final STException failure ) {
+            super( failure ) ;
+        }
+
+        STException getFailure() {
+            return ( STException )getCause() ;
+        }
+    }
+
+    /**
+     * The stream of a response body handed over to a response handler. The
+     * bytes are counted and searched for the known error messages as they
+     * are read, and stored in the response cache if the response is
+     * cacheable. The part of the response not read by the handler is read
+     * after it, such that the whole response is searched and cached.
+     */
+    private class ResponseStream extends FilterInputStream {
+
+        private final String url ;
+        private final String eTag ;
+        private final String lastModified ;
+        private final ByteSignatureMatcher.Scanner errMsgScanner =
+                                            NetworkSvc.this.errMsgMatcher.newScanner() ;
+        private HttpResponseCache.ResponseWriter cacheWriter = null ;
+        private long numBytes = 0 ;
+        private boolean eof = false ;
+        private boolean closed = false ;
+        private IOException readError = null ;
+
+        ResponseStream( final String url, final String cacheKey,
+                        final HttpMethod httpMethod ) throws IOException {
+
+            super( getResponseBodyStream( httpMethod ) ) ;
+            this.url          = url ;
+            this.eTag         = getHeader( httpMethod, "ETag" ) ;
+            this.lastModified = getHeader( httpMethod, "Last-Modified" ) ;
+            if( cacheKey != null && httpMethod.getStatusCode() == HttpStatus.SC_OK ) {
+                this.cacheWriter = NetworkSvc.this.responseCache.newWriter( cacheKey, url ) ;
+            }
+        }
+
+        /**
+         * Streams the response through the handler, and checks the streamed
+         * bytes for the known error messages.
+         *
+         * @throws HandlerException If the handler failed to process a valid
+         *         response.
+         * @throws IOException If the response could not be read.
+         * @throws STException If the response is a known error page.
+         */
+        <T> T handle( final ResponseHandler<T> handler )
+            throws HandlerException, IOException, STException {
+
+            T result = null ;
+            try {
+                result = handler.handleResponse( this ) ;
+                drain() ;
+            }
+            catch ( final IOException e ) {
+                drainQuietly() ;
+                checkErrorPage() ;
+                if( this.readError == null ) {
+                    throw new HandlerException( new STException(
+                             "Could not process response of URL " + this.url,
+                             e, ErrorCode.DOWNLOAD_FAILURE ) ) ;
                 }
+                throw e ;
             }
-            updateHeuristics( true ) ;
+            catch ( final STException e ) {
+                drainQuietly() ;
+                checkErrorPage() ;
+                if( this.readError == null ) {
+                    throw new HandlerException( e ) ;
+                }
+                throw e ;
+            }
+            checkErrorPage() ;
+
+            if( this.cacheWriter != null ) {
+                if( this.eof ) {
+                    this.cacheWriter.commit( this.eTag, this.lastModified ) ;
+                }
+                else {
+                    this.cacheWriter.abort() ;
+                }
+                this.cacheWriter = null ;
+                publishCacheStats() ;
+            }
+            return result ;
         }
-        catch ( final Exception e ) {
-            // Log the message appropriately
-            LogMsg.error( "Network connection failed for URL " + url +
-                          ". Reason = " + e.getMessage() ) ;
-            if( e.getCause() != null ) {
-                LogMsg.info( "   Root cause = " + e.getCause().getMessage() ) ;
+
+        /**
+         * Reads the response till its end. Handlers need not read the whole
+         * response - a zip for example is read only up to its entries - but
+         * the rest is needed to detect the error pages and to cache the
+         * response.
+         */
+        private void drain() throws IOException {
+            final byte[] buffer = new byte[4096] ;
+            while( !this.eof && !this.closed ) {
+                read( buffer, 0, buffer.length ) ;
             }
+        }
 
-            updateHeuristics( false ) ;
-            if( e instanceof STException ) {
-                throw ( STException )e ;
+        /**
+         * Reads the response till its end after the handler failed, such that
+         * a failure caused by an error page is reported as such. A failure to
+         * read the response is remembered as the read error.
+         */
+        private void drainQuietly() {
+            if( this.readError == null ) {
+                try {
+                    drain() ;
+                }
+                catch ( final IOException e ) {
+                    // Remembered as the read error
+                }
             }
-            else {
-                throw new STException( action + " failed for URL " + url, e,
+        }
+
+        private void checkErrorPage() throws STException {
+            final int errMsg = this.errMsgScanner.getMatch() ;
+            if( errMsg != -1 ) {
+                throw toProxyError( this.url, errMsg ) ;
+            }
+        }
+
+        @Override
+        public int read() throws IOException {
+            final byte[] b = new byte[1] ;
+            return ( read( b, 0, 1 ) == -1 ) ? -1 : ( b[0] & 0xFF ) ;
+        }
+
+        @Override
+        public int read( final byte[] b, final int off, final int len ) throws IOException {
+            int numRead = -1 ;
+            try {
+                numRead = super.read( b, off, len ) ;
+            }
+            catch ( final IOException e ) {
+                this.readError = e ;
+                throw e ;
+            }
+
+            if( numRead == -1 ) {
+                this.eof = true ;
+            }
+            else if( numRead > 0 ) {
+                this.numBytes += numRead ;
+                this.errMsgScanner.scan( b, off, numRead ) ;
+                if( this.cacheWriter != null ) {
+                    this.cacheWriter.write( b, off, numRead ) ;
+                }
+            }
+            return numRead ;
+        }
+
+        @Override
+        public long skip( final long n ) throws IOException {
+            // The skipped bytes are read, such that they are inspected and cached
+            final byte[] buffer = new byte[ ( int )Math.min( n, 4096 ) ] ;
+            long numSkipped = 0 ;
+            while( numSkipped < n ) {
+                final int numRead = read( buffer, 0, ( int )Math.min( n - numSkipped, buffer.length ) ) ;
+                if( numRead == -1 ) {
+                    break ;
+                }
+                numSkipped += numRead ;
+            }
+            return numSkipped ;
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false ;
+        }
+
+        @Override
+        public synchronized void mark( final int readlimit ) {
+            // Not supported
+        }
+
+        @Override
+        public synchronized void reset() throws IOException {
+            throw new IOException( "Mark not supported" ) ;
+        }
+
+        /**
+         * Closes the stream, accounting for the bytes downloaded. The response
+         * has been read to its end by {@link #handle}, unless reading it
+         * failed, in which case the cached copy of the incomplete response
+         * is discarded.
+         */
+        @Override
+        public void close() {
+            if( this.closed ) {
+                return ;
+            }
+            this.closed = true ;
+            if( this.cacheWriter != null ) {
+                this.cacheWriter.abort() ;
+                this.cacheWriter = null ;
+            }
+            closeQuietly( this.in ) ;
+            recordDownload( this.numBytes ) ;
+        }
+    }
+
+    /**
+     * Returns the stream of the response body, an empty stream if the
+     * response has no body.
+     */
+    private static InputStream getResponseBodyStream( final HttpMethod httpMethod )
+        throws IOException {
+        final InputStream in = httpMethod.getResponseBodyAsStream() ;
+        return ( in == null ) ? new ByteArrayInputStream( new byte[0] ) : in ;
+    }
+
+    private static void closeQuietly( final InputStream in ) {
+        try {
+            in.close() ;
+        }
+        catch ( final IOException e ) {
+            // Ignore
+        }
+    }
+
+    /**
+     * Returns the key of the request in the response cache, or null if the
+     * response of the request is not cached.
+     */
+    protected String getCacheKey( final String url, final String action,
+                                  final Map<String, String> parameters ) {
+        if( this.responseCache == null ) {
+            return null ;
+        }
+        return this.responseCache.getKey( url, action, parameters ) ;
+    }
+
+    /**
+     * Returns the cached response of the request if it has not expired, else
+     * null.
+     *
+     * @param cacheKey The key of the request, null if it is not cached.
+     */
+    protected byte[] getFreshResponse( final String cacheKey ) {
+        if( cacheKey == null ) {
+            return null ;
+        }
+
+        final byte[] response = this.responseCache.getFresh( cacheKey ) ;
+        if( response != null ) {
+            logger.debug( "Serving cached response for " + cacheKey ) ;
+            publishCacheStats() ;
+        }
+        return response ;
+    }
+
+    /**
+     * Returns a stream over the cached response of the request if it has not
+     * expired, else null.
+     *
+     * @param cacheKey The key of the request, null if it is not cached.
+     */
+    protected InputStream openFreshResponse( final String cacheKey ) {
+        if( cacheKey == null ) {
+            return null ;
+        }
+
+        final InputStream in = this.responseCache.openFresh( cacheKey ) ;
+        if( in != null ) {
+            logger.debug( "Serving cached response for " + cacheKey ) ;
+            publishCacheStats() ;
+        }
+        return in ;
+    }
+
+    /**
+     * Makes the request conditional upon the validators of the expired
+     * cached response of the request, if any.
+     *
+     * @param cacheKey The key of the request, null if it is not cached.
+     */
+    protected void addCacheValidators( final String cacheKey, final HttpMethod httpMethod ) {
+        if( cacheKey == null ) {
+            return ;
+        }
+
+        final String[] validators = this.responseCache.getValidators( cacheKey ) ;
+        if( validators != null ) {
+            if( validators[0] != null ) {
+                httpMethod.setRequestHeader( "If-None-Match", validators[0] ) ;
+            }
+            if( validators[1] != null ) {
+                httpMethod.setRequestHeader( "If-Modified-Since", validators[1] ) ;
+            }
+        }
+    }
+
+    /**
+     * Receives the response of an executed HTTP method. If the server has
+     * confirmed that the cached response is still valid, the cached response
+     * is returned. Otherwise the downloaded response is processed, and cached
+     * if it is cacheable.
+     *
+     * @param cacheKey The key of the request, null if it is not cached.
+     *
+     * @return The response.
+     *
+     * @throws STException If the response is a known error page, or the
+     *         cached response has been evicted after being revalidated.
+     */
+    protected byte[] receiveResponse( final String url, final String cacheKey,
+                                      final HttpMethod httpMethod )
+        throws IOException, STException {
+
+        if( cacheKey != null &&
+            httpMethod.getStatusCode() == HttpStatus.SC_NOT_MODIFIED ) {
+
+            final byte[] response = this.responseCache.getRevalidated( cacheKey, url ) ;
+            if( response == null ) {
+                // The next request will not be conditional
+                throw new STException( "Cached response evicted for URL " + url,
                                        ErrorCode.NETWORK_UNAVAILABLE ) ;
             }
+            logger.debug( "Revalidated cached response for " + cacheKey ) ;
+            updateHeuristics( true ) ;
+            publishCacheStats() ;
+            return response ;
         }
-        finally {
-            if( httpMethod != null ) {
-                httpMethod.releaseConnection() ;
+
+        final byte[] response = processResponse( url, httpMethod.getResponseBody() ) ;
+        if( cacheKey != null ) {
+            if( httpMethod.getStatusCode() == HttpStatus.SC_OK ) {
+                this.responseCache.store( cacheKey, url, response,
+                                          getHeader( httpMethod, "ETag" ),
+                                          getHeader( httpMethod, "Last-Modified" ) ) ;
             }
+            publishCacheStats() ;
         }
         return response ;
     }
 
+    /**
+     * Returns a stream over the cached response if the server has confirmed
+     * that it is still valid, else null if the response has been downloaded.
+     *
+     * @param cacheKey The key of the request, null if it is not cached.
+     *
+     * @throws STException If the cached response has been evicted after
+     *         being revalidated.
+     */
+    protected InputStream openRevalidatedResponse( final String url, final String cacheKey,
+                                                   final HttpMethod httpMethod )
+        throws STException {
+
+        if( cacheKey == null ||
+            httpMethod.getStatusCode() != HttpStatus.SC_NOT_MODIFIED ) {
+            return null ;
+        }
+
+        final InputStream in = this.responseCache.openRevalidated( cacheKey, url ) ;
+        if( in == null ) {
+            // The next request will not be conditional
+            throw new STException( "Cached response evicted for URL " + url,
+                                   ErrorCode.NETWORK_UNAVAILABLE ) ;
+        }
+        logger.debug( "Revalidated cached response for " + cacheKey ) ;
+        updateHeuristics( true ) ;
+        publishCacheStats() ;
+        return in ;
+    }
+
+    /** Returns the value of the response header, or null if not present. */
+    private String getHeader( final HttpMethod httpMethod, final String name ) {
+        final Header header = httpMethod.getResponseHeader( name ) ;
+        return ( header == null ) ? null : header.getValue() ;
+    }
+
+    /** Publishes the counters of the response cache. */
+    private void publishCacheStats() {
+        EventBus.publish( EventType.NETWORK_CACHE_STATS, this.responseCache.getStats() ) ;
+    }
+
+    /**
+     * Processes the response of a successful HTTP communication - the number
+     * of downloaded bytes is updated and the response is checked for known
+     * error pages.
+     *
+     * @return The response.
+     *
+     * @throws STException If the response is a known error page.
+     */
+    protected byte[] processResponse( final String url, final byte[] response )
+        throws STException {
+
+        recordDownload( response.length ) ;
+
+        final int errMsg = this.errMsgMatcher.find( response ) ;
+        if( errMsg != -1 ) {
+            throw toProxyError( url, errMsg ) ;
+        }
+        updateHeuristics( true ) ;
+        return response ;
+    }
+
+    /**
+     * Updates the number of bytes downloaded and publishes an event denoting
+     * that bytes have been downloaded from the network.
+     */
+    private void recordDownload( final long numBytes ) {
+        synchronized ( this.LOCK ) {
+            this.numBytesDownloaded += numBytes ;
+        }
+        this.bytesDownloaded.add( numBytes ) ;
+        EventBus.publish( EventType.NETWORK_DATA_DOWNLOADED, new Long( numBytes ) ) ;
+    }
+
+    /**
+     * Records the time taken by a successful fetch over the network, which
+     * includes the time taken to receive the response.
+     *
+     * @param startTime The start time of the fetch, as per System.nanoTime()
+     */
+    protected void recordFetchTime( final long startTime ) {
+        this.fetchTimes.recordSince( startTime ) ;
+    }
+
+    /** Returns the exception denoting that the response is a known error page. */
+    private STException toProxyError( final String url, final int errMsg ) {
+        return new STException( "Proxy error while fetching url " + url +
+                                "\nMsg: " + this.KNOWN_ERR_MSGS[errMsg],
+                                ErrorCode.NETWORK_UNAVAILABLE ) ;
+    }
+
+    /**
+     * Returns the byte signatures of the error messages, encoded in the
+     * platform charset in which the responses were decoded earlier.
+     */
+    private static byte[][] toSignatures( final String[] errMsgs ) {
+        final byte[][] signatures = new byte[errMsgs.length][] ;
+        for( int i=0; i<errMsgs.length; i++ ) {
+            signatures[i] = errMsgs[i].getBytes() ;
+        }
+        return signatures ;
+    }
+
+    /**
+     * Processes the failure of a HTTP communication, and returns the
+     * exception to be thrown to the caller.
+     */
+    protected STException processFailure( final String url, final String action,
+                                          final Exception e ) {
+
+        // Log the message appropriately
+        LogMsg.error( "Network connection failed for URL " + url +
+                      ". Reason = " + e.getMessage() ) ;
+        if( e.getCause() != null ) {
+            LogMsg.info( "   Root cause = " + e.getCause().getMessage() ) ;
+        }
+
+        this.fetchFailures.increment() ;
+        updateHeuristics( false ) ;
+        if( e instanceof STException ) {
+            return ( STException )e ;
+        }
+        return new STException( action + " failed for URL " + url, e,
+                                ErrorCode.NETWORK_UNAVAILABLE ) ;
+    }
+
     /**
      * Creates a HTTP method based on the URL, parameters and type of action
      * specified.
@@ -646,9 +1250,9 @@ public class NetworkSvc implements INetworkSvc, IEventSubscriber, ConfigKey {
      *
      * @return A HttpMethod instance.
      */
-    private HttpMethod getHttpMethod( final String url,
-                                      final Map<String, String> params,
-                                      final String action ) {
+    protected HttpMethod getHttpMethod( final String url,
+                                        final Map<String, String> params,
+                                        final String action ) {
         HttpMethod httpMethod = null ;
 
         NameValuePair[] data = null ;
@@ -743,42 +1347,75 @@ public class NetworkSvc implements INetworkSvc, IEventSubscriber, ConfigKey {
                 catch( final InterruptedException e ) { /* Ignore */ }
             }
 
-            final int status = this.httpClient.executeMethod( method ) ;
-            if( logger.isDebugEnabled() ) {
-                logger.debug( "HTTP execution status = " + HttpStatus.getStatusText( status ) +
-                              ". Status code = " + status ) ;
-            }
-
-            processHttpCommunicationStatus( status ) ;
+            executeHTTPMethodOnce( method ) ;
         }
         catch ( final HttpException e ) {
-            // For a protocol exception - there is no way we can recover. Print
-            // an error message and throw an exception.
-            final String errMsg = "Communication error - Unrecoverable protocol exception. Msg=" + e.getMessage() ;
-            logger.error( errMsg ) ;
-            throw new STException( errMsg, e, ErrorCode.NETWORK_CONNECTION_FAILURE ) ;
+            throw toUnrecoverableError( e ) ;
         }
         catch ( final IOException e ) {
             // IO exceptions can be recovered from. We just log the appropriate
             // cause of failure for this trial count and call on this method again
-            if( e instanceof ConnectionPoolTimeoutException ) {
-                logger.info( "Communication error - Time out occured trying to get a HTTP connection from pool" ) ;
-            }
-            else if( e instanceof ConnectTimeoutException ) {
-                logger.info( "Communication error - Time out occured trying to execute HTTP connection" ) ;
-            }
-            else if( e instanceof NoHttpResponseException ) {
-                logger.info( "Communication error - No response from server" ) ;
-            }
-            else {
-                logger.info( "Communication error - " + e.getMessage() ) ;
-            }
+            logRecoverableError( e ) ;
 
             // Call on the execute method again
             executeHTTPMethod( method, trialCount+1, e ) ;
         }
     }
 
+    /**
+     * Executes the HTTP method once.
+     *
+     * @throws HttpException For unrecoverable protocol errors.
+     * @throws IOException For recoverable communication errors.
+     */
+    protected void executeHTTPMethodOnce( final HttpMethod method )
+        throws IOException, HttpException {
+
+        final int status = this.httpClient.executeMethod( method ) ;
+        if( logger.isDebugEnabled() ) {
+            logger.debug( "HTTP execution status = " + HttpStatus.getStatusText( status ) +
+                          ". Status code = " + status ) ;
+        }
+
+        processHttpCommunicationStatus( status ) ;
+    }
+
+    /**
+     * Returns the exception for a protocol error. For a protocol exception
+     * there is no way we can recover.
+     */
+    protected STException toUnrecoverableError( final HttpException e ) {
+        final String errMsg = "Communication error - Unrecoverable protocol exception. Msg=" + e.getMessage() ;
+        logger.error( errMsg ) ;
+        return new STException( errMsg, e, ErrorCode.NETWORK_CONNECTION_FAILURE ) ;
+    }
+
+    /** Logs the appropriate cause of a recoverable communication failure. */
+    protected void logRecoverableError( final IOException e ) {
+        if( e instanceof ConnectionPoolTimeoutException ) {
+            logger.info( "Communication error - Time out occured trying to get a HTTP connection from pool" ) ;
+        }
+        else if( e instanceof ConnectTimeoutException ) {
+            logger.info( "Communication error - Time out occured trying to execute HTTP connection" ) ;
+        }
+        else if( e instanceof NoHttpResponseException ) {
+            logger.info( "Communication error - No response from server" ) ;
+        }
+        else {
+            logger.info( "Communication error - " + e.getMessage() ) ;
+        }
+    }
+
+    /** Returns the maximum number of retrial attempts. */
+    protected int getMaxRetrialAttempts() {
+        return this.maxRetrialAttemps ;
+    }
+
+    /** Returns the number of milliseconds between retrial attempts. */
+    protected int getRetrialInterval() {
+        return this.retrialInterval ;
+    }
+
     /**
      * Processes the return code of the HTTP execute method and classifies
      * them as recoverable or unrecoverable exceptions.
@@ -954,6 +1591,14 @@ public class NetworkSvc implements INetworkSvc, IEventSubscriber, ConfigKey {
         return this.numBytesDownloaded ;
     }
 
+    /**
+     * Returns a snapshot of the counters of the network response cache, or
+     * null if the responses are not cached.
+     */
+    public NetworkCacheStats getCacheStats() {
+        return ( this.responseCache == null ) ? null : this.responseCache.getStats() ;
+    }
+
     /** @return the userPrefSvc */
     public IUserPreferenceSvc getUserPrefSvc() {
         return this.userPrefSvc ;
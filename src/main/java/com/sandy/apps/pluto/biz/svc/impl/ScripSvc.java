@@ -3,19 +3,25 @@
  */
 
 package com.sandy.apps.pluto.biz.svc.impl;
+import java.util.ArrayList ;
 import java.util.Date ;
 import java.util.List ;
 
 import org.apache.log4j.Logger ;
 
 import com.sandy.apps.pluto.biz.dao.IEODIndexDAO ;
+import com.sandy.apps.pluto.biz.dao.IITDBarDAO ;
 import com.sandy.apps.pluto.biz.dao.IITDIndexDAO ;
 import com.sandy.apps.pluto.biz.dao.ISymbolDAO ;
 import com.sandy.apps.pluto.biz.svc.IScripSvc ;
 import com.sandy.apps.pluto.biz.svc.impl.scraper.ICICIDirectCoSnapshotScreenParser ;
 import com.sandy.apps.pluto.shared.ErrorCode ;
+import com.sandy.apps.pluto.shared.ITDBarBuilder ;
+import com.sandy.apps.pluto.shared.ITDBarInterval ;
 import com.sandy.apps.pluto.shared.STException ;
+import com.sandy.apps.pluto.shared.STUtils ;
 import com.sandy.apps.pluto.shared.ServiceMgr ;
+import com.sandy.apps.pluto.shared.dto.ITDBar ;
 import com.sandy.apps.pluto.shared.dto.ScripEOD ;
 import com.sandy.apps.pluto.shared.dto.ScripITD ;
 import com.sandy.apps.pluto.shared.dto.Symbol ;
@@ -45,6 +51,12 @@ public class ScripSvc implements IScripSvc {
      */
     private IITDIndexDAO itdIndexDAO = null ;
 
+    /**
+     * INJECTABLE: This variable should be injected with a reference to the
+     * implementation of IITDBarDAO interface.
+     */
+    private IITDBarDAO itdBarDAO = null ;
+
     /**
      * INJECTABLE: This variable should be injected with a reference to the
      * implementation of ISymbolDAO interface.
@@ -118,6 +130,39 @@ public class ScripSvc implements IScripSvc {
         return data ;
     }
 
+    /**
+     * Retrieves the OHLCV bars of the specified scrip and date range, of the
+     * interval specified. The bars are rolled up incrementally by the ITD bar aggregator as the ITD
+     * values are imported. For the days before the first bar found, the bars
+     * are rolled up from the ITD values here and saved, so that the next
+     * request for the range finds them.
+     *
+     * @see IScripSvc#getITDBars(String, Date, Date, ITDBarInterval)
+     */
+    public List<ITDBar> getITDBars( final String scrip, final Date start,
+                                    final Date end, final ITDBarInterval interval )
+        throws STException {
+
+        final List<ITDBar> bars = new ArrayList<ITDBar>() ;
+        final List<ITDBar> savedBars = this.itdBarDAO.getScripBars(
+                                  scrip, interval.getSeconds(), start, end ) ;
+
+        final Date backfillEnd = savedBars.isEmpty() ? end :
+                         STUtils.getStartOfDay( savedBars.get( 0 ).getTime() ) ;
+        if( backfillEnd.after( start ) ) {
+            final List<ScripITD> itdValues = this.itdIndexDAO.getScripITD(
+                                                    scrip, start, backfillEnd ) ;
+            if( itdValues != null && !itdValues.isEmpty() ) {
+                final List<ITDBar> rolledBars = ITDBarBuilder.aggregate( scrip, itdValues ) ;
+                this.itdBarDAO.saveScripBars( rolledBars ) ;
+                bars.addAll( ITDBarBuilder.select( rolledBars, interval ) ) ;
+                logger.debug( "Rolled up " + rolledBars.size() + " bars for " + scrip ) ;
+            }
+        }
+        bars.addAll( savedBars ) ;
+        return bars ;
+    }
+
     /**
      * Retrieves a list of archived EOD data points for the specified scrip. This
      * method retrieves all the archived EOD data we have in the Pluto system.
@@ -339,6 +384,20 @@ public class ScripSvc implements IScripSvc {
         this.itdIndexDAO = itdIndexDAO ;
     }
 
+    /**
+     * @return the itdBarDAO
+     */
+    public IITDBarDAO getItdBarDAO() {
+        return this.itdBarDAO ;
+    }
+
+    /**
+     * @param itdBarDAO the itdBarDAO to set
+     */
+    public void setItdBarDAO( final IITDBarDAO itdBarDAO ) {
+        this.itdBarDAO = itdBarDAO ;
+    }
+
     /**
      * @param symbolDAO the symbolDAO to set
      */
@@ -19,6 +19,8 @@ import org.apache.log4j.Logger ;
 import com.sandy.apps.pluto.biz.svc.INetworkSvc ;
 import com.sandy.apps.pluto.shared.STException ;
 import com.sandy.apps.pluto.shared.dto.WorldIndex ;
+import com.sandy.apps.pluto.shared.metrics.LatencyHistogram ;
+import com.sandy.apps.pluto.shared.metrics.MetricsRegistry ;
 
 /**
  * This class encapsulates the logic of parsing the screen scraped data for
@@ -80,6 +82,10 @@ public class BloombergWIParser {
     /** The network service reference. */
     private final INetworkSvc networkSvc ;
 
+    /** The time taken to parse a world index page. */
+    private static final LatencyHistogram PARSE_TIMES =
+                MetricsRegistry.instance().getHistogram( "parse.scraper.worldIndex" ) ;
+
     /** Public no argument constructor. */
     public BloombergWIParser( final INetworkSvc netSvc ) {
         super() ;
@@ -133,6 +139,7 @@ public class BloombergWIParser {
 
         final List<WorldIndex> indexes  = new ArrayList<WorldIndex>() ;
         final String           contents = this.networkSvc.getGETResult( url ) ;
+        final long             startTime= System.nanoTime() ;
         final ParsingContext   context  = new ParsingContext( contents ) ;
 
         TOKEN_TYPE nextTok    = null ;
@@ -155,6 +162,7 @@ public class BloombergWIParser {
             }
         }
 
+        PARSE_TIMES.recordSince( startTime ) ;
         return indexes ;
     }
 
@@ -13,6 +13,9 @@ import org.w3c.dom.Document ;
 import org.w3c.dom.Node ;
 import org.w3c.tidy.Tidy ;
 
+import com.sandy.apps.pluto.shared.metrics.LatencyHistogram ;
+import com.sandy.apps.pluto.shared.metrics.MetricsRegistry ;
+
 /**
  * This class contains method to help scrape data out of an HTML string
  * via XPath queries.
@@ -29,6 +32,10 @@ public class HTMLScraper {
 
     private final Tidy tidy = new Tidy() ;
 
+    /** The time taken to parse the HTML into a DOM. */
+    private static final LatencyHistogram PARSE_TIMES =
+                MetricsRegistry.instance().getHistogram( "parse.scraper.html" ) ;
+
     /** Constructor which takes in the HTML string to scrape. */
     public HTMLScraper( final String html ) {
 
@@ -36,7 +43,9 @@ public class HTMLScraper {
         this.tidy.setShowWarnings( false ) ;
         this.tidy.setXHTML( true ) ;
         this.tidy.setIndentContent( true ) ;
+        final long startTime = System.nanoTime() ;
         this.doc = this.tidy.parseDOM( new StringReader( html ), null ) ;
+        PARSE_TIMES.recordSince( startTime ) ;
     }
 
     /** Returns the pretty formatted document. */
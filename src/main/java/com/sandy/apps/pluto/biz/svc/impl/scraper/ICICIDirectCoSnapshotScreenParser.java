@@ -10,6 +10,8 @@ import org.apache.log4j.Logger ;
 import com.sandy.apps.pluto.biz.svc.INetworkSvc ;
 import com.sandy.apps.pluto.shared.STException ;
 import com.sandy.apps.pluto.shared.dto.Symbol ;
+import com.sandy.apps.pluto.shared.metrics.LatencyHistogram ;
+import com.sandy.apps.pluto.shared.metrics.MetricsRegistry ;
 import com.sandy.apps.pluto.shared.util.util.StringUtil ;
 
 /**
@@ -37,6 +39,10 @@ public class ICICIDirectCoSnapshotScreenParser {
     /** The network sevice reference. */
     private final INetworkSvc networkSvc ;
 
+    /** The time taken to parse a company snapshot page. */
+    private static final LatencyHistogram PARSE_TIMES =
+                MetricsRegistry.instance().getHistogram( "parse.scraper.coSnapshot" ) ;
+
     /** Public constructor which accepts a reference to the network service.*/
     public ICICIDirectCoSnapshotScreenParser( final INetworkSvc netSvc ) {
         super() ;
@@ -71,11 +77,13 @@ public class ICICIDirectCoSnapshotScreenParser {
 
         final String         url      = CO_SNAPSHOT_URL + iciciCode ;
         final String         contents = this.networkSvc.getGETResult( url ) ;
+        final long           startTime= System.nanoTime() ;
         final Symbol         symbol   = new Symbol() ;
         final ParsingContext ctx      = new ParsingContext( contents ) ;
 
         parseWebsite( symbol, ctx ) ;
         parseSegment( symbol, ctx ) ;
+        PARSE_TIMES.recordSince( startTime ) ;
 
         symbol.setIciciCode( iciciCode ) ;
 
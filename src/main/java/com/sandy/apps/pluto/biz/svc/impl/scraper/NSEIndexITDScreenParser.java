@@ -15,6 +15,8 @@ import com.sandy.apps.pluto.biz.svc.INetworkSvc ;
 import com.sandy.apps.pluto.shared.ErrorCode ;
 import com.sandy.apps.pluto.shared.STException ;
 import com.sandy.apps.pluto.shared.dto.ExIndexITD ;
+import com.sandy.apps.pluto.shared.metrics.LatencyHistogram ;
+import com.sandy.apps.pluto.shared.metrics.MetricsRegistry ;
 
 /**
  * This class encapsulates the logic of parsing the screen scraped data for
@@ -51,6 +53,10 @@ public class NSEIndexITDScreenParser {
     /** The network sevice reference. */
     private final INetworkSvc networkSvc ;
 
+    /** The time taken to parse the index ITD page. */
+    private static final LatencyHistogram PARSE_TIMES =
+                MetricsRegistry.instance().getHistogram( "parse.scraper.indexITD" ) ;
+
     /** Public no argument constructor. */
     public NSEIndexITDScreenParser( final INetworkSvc netSvc ) {
         super() ;
@@ -72,6 +78,7 @@ public class NSEIndexITDScreenParser {
         logger.debug( "Importing low resolution index ITD data" ) ;
 
         final String contents = this.networkSvc.getGETResult( NSE_ITD_LOW_RES_URL ) ;
+        final long startTime = System.nanoTime() ;
         final List<ExIndexITD> itdValues = new ArrayList<ExIndexITD>() ;
 
         if( contents.indexOf( LOW_RES_TIME_PREFIX ) != -1 ) {
@@ -87,6 +94,7 @@ public class NSEIndexITDScreenParser {
             throw new STException( "Invalid server response", ErrorCode.ITD_IMPORT_FAILURE ) ;
         }
 
+        PARSE_TIMES.recordSince( startTime ) ;
         return itdValues ;
     }
 
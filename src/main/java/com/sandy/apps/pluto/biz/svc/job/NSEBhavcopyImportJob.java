@@ -3,9 +3,12 @@
  */
 
 package com.sandy.apps.pluto.biz.svc.job;
+import java.io.File ;
 import java.text.ParseException ;
+import java.util.ArrayList ;
 import java.util.Calendar ;
 import java.util.Date ;
+import java.util.List ;
 
 import org.apache.commons.lang.time.DateUtils ;
 import org.apache.log4j.Logger ;
@@ -136,32 +139,46 @@ public class NSEBhavcopyImportJob extends AbstractBaseJob {
                         IUserPreferenceSvc.DF.format( latestDwnDt ) + " for " +
                         numBhavcopyDwnload + " days " ) ;
 
-        Date   date    = latestDwnDt ;
-        int    numDwn  = 0 ;
-        String dateStr = null ;
+        // Collect the weekdays to be imported. The dates are imported in a
+        // pipeline, several of them at once.
+        final List<Date> dates = new ArrayList<Date>() ;
+        Date date = latestDwnDt ;
+        while( dates.size() < numBhavcopyDwnload && date.before( today.getTime() )) {
+            if( !isWeekend( date ) ) {
+                dates.add( date ) ;
+            }
+            else {
+                logger.debug( "Skipping bhavcopy for date " + DF.format( date ) +
+                              " since it is a weekend") ;
+            }
+            date = DateUtils.addDays( date, 1 ) ;
+        }
+        final Date endDate = date ;
+
+        // The dates are reported back in their order, the job attribute is
+        // moved past each date only once it and all the dates before it have
+        // been imported.
+        final IEODImportSvc.ImportCallback callback = new IEODImportSvc.ImportCallback() {
+            public void bhavcopyImported( final Date importedDate, final boolean found ) {
+                final String dateStr = DF.format( importedDate ) ;
+                LogMsg.info( "Bhavcopy downloaded for date " + dateStr ) ;
+
+                latestDwnDtAttr.setValue( DF.format( DateUtils.addDays( importedDate, 1 ) ) ) ;
+                updateJobAttribute( latestDwnDtAttr ) ;
+            }
+        } ;
 
         try {
-            while( numDwn < numBhavcopyDwnload && date.before( today.getTime() )) {
-                dateStr = DF.format( date ) ;
-                if( !isWeekend( date ) ) {
-                    logger.info( "Importing bhavcopy for date " + dateStr ) ;
-                    eodSvc.importBhavcopyEODData( date ) ;
-                    numDwn ++ ;
-                    LogMsg.info( "Bhavcopy downloaded for date " + dateStr ) ;
-                }
-                else {
-                    logger.debug( "Skipping bhavcopy for date " + dateStr +
-                                  " since it is a weekend") ;
-                }
-
-                date = DateUtils.addDays( date, 1 ) ;
+            logger.info( "Importing bhavcopies for " + dates.size() + " dates" ) ;
+            eodSvc.importBhavcopyEODData( dates, callback ) ;
 
-                // Update the job attribute
-                latestDwnDtAttr.setValue( DF.format( date ) ) ;
-                super.updateJobAttribute( latestDwnDtAttr ) ;
-            }
+            // Move past the weekend days which trail the imported dates
+            latestDwnDtAttr.setValue( DF.format( endDate ) ) ;
+            super.updateJobAttribute( latestDwnDtAttr ) ;
         }
         catch ( final Exception e ) {
+            // The job attribute holds the date from which the import failed
+            final String dateStr = latestDwnDtAttr.getValue() ;
             LogMsg.error( "Bhavcopy downloaded failure for date " + dateStr
                           + ". Msg " + e.getMessage() ) ;
 
@@ -208,7 +225,9 @@ public class NSEBhavcopyImportJob extends AbstractBaseJob {
         final IEODImportSvc    eodSvc     = ( IEODImportSvc )objectFact.getBean( "EODImportSvc" ) ;
 
         // From the oldest date, going backwards for the specified number of
-        // downloads, keep downloading and importing the bhavcopy.
+        // downloads, keep downloading the bhavcopies. The downloaded files are
+        // bulk imported in one go once the downloads are through.
+        final List<File> files = new ArrayList<File>() ;
         Date date   = oldestDwnDt ;
         int  numDwn = 0 ;
         String dateStr = null ;
@@ -217,8 +236,8 @@ public class NSEBhavcopyImportJob extends AbstractBaseJob {
             while( numDwn < numDownloads ) {
                 dateStr = DF.format( date ) ;
                 if( !isWeekend( date ) ) {
-                    logger.info( "Importing old bhavcopy for date " + dateStr ) ;
-                    eodSvc.importBhavcopyEODData( date ) ;
+                    logger.info( "Downloading old bhavcopy for date " + dateStr ) ;
+                    files.add( new File( eodSvc.downloadNSEEquityBhavcopy( date ) ) ) ;
                     numDwn ++ ;
                 }
                 else {
@@ -228,20 +247,30 @@ public class NSEBhavcopyImportJob extends AbstractBaseJob {
 
                 // Move back one day
                 date = DateUtils.addDays( date, -1 ) ;
-
-                // Save the oldest bhavcopy date job attribute
-                oldestDwnDtAttr.setValue( IUserPreferenceSvc.DF.format( date ) ) ;
-                super.updateJobAttribute( oldestDwnDtAttr ) ;
             }
         }
         catch ( final Exception e ) {
-            // If any of the iteration attempts fail, abort this job iteration
-            // We don't want holes in the end of the day. The next iteration
-            // of the job schedule will try to pick this up and if not manual
-            // intervention would be required to set this job straight.
-            logger.error( "Could not import oldest bhavcopy data for date " +
+            // If any of the download attempts fail, stop going further back.
+            // We don't want holes in the end of the day data - the files
+            // downloaded till now are imported and the next iteration of the
+            // job schedule will resume from the failed date.
+            logger.error( "Could not download oldest bhavcopy data for date " +
+                          date + ". Msg = " + e.getMessage() ) ;
+            logger.debug( "Oldest bhavcopy download failure for date " + date, e ) ;
+        }
+
+        try {
+            eodSvc.importBhavcopyFiles( files ) ;
+
+            // Save the oldest bhavcopy date job attribute only after the
+            // downloaded bhavcopies have been imported.
+            oldestDwnDtAttr.setValue( IUserPreferenceSvc.DF.format( date ) ) ;
+            super.updateJobAttribute( oldestDwnDtAttr ) ;
+        }
+        catch ( final Exception e ) {
+            logger.error( "Could not import oldest bhavcopy data till date " +
                           date + ". Msg = " + e.getMessage() ) ;
-            logger.debug( "Oldest bhavcopy import failure for date " + date, e ) ;
+            logger.debug( "Oldest bhavcopy import failure till date " + date, e ) ;
         }
     }
 }
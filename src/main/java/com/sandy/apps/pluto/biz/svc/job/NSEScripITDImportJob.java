@@ -12,8 +12,8 @@ import java.util.List ;
 import org.apache.log4j.Logger ;
 import org.quartz.JobExecutionException ;
 
-import com.sandy.apps.pluto.biz.svc.IAsyncExecutorSvc ;
 import com.sandy.apps.pluto.biz.svc.IAsyncExecutorSvc.AsyncTask ;
+import com.sandy.apps.pluto.biz.svc.IITDFetchSchedulerSvc ;
 import com.sandy.apps.pluto.biz.svc.IITDImportSvc ;
 import com.sandy.apps.pluto.shared.ServiceMgr ;
 import com.sandy.apps.pluto.shared.dto.JobAttribute ;
@@ -25,7 +25,9 @@ import com.sandy.apps.pluto.shared.util.util.StringUtil ;
  * This class helps import NSE intraday quotes for the registered scrips. Many
  * scrips can be registered against an instance of this job, by using an
  * indexed job configuration variable named 'scrip'. Each of the scrip values
- * will be fetched asynchronously at the scheduled time of this job.
+ * will be fetched asynchronously at the scheduled time of this job, through
+ * the {@link IITDFetchSchedulerSvc}. A scrip whose previous fetch has not
+ * completed by the scheduled time is skipped for the cycle.
  * <p>
  * Please note that this job does not enrich the data with past high resolution
  * values. So, if a cycle is missed or on an exception, the value for that
@@ -116,8 +118,11 @@ public class NSEScripITDImportJob extends AbstractBaseJob {
                 if( interval > this.enrichInterval ) {
                     svc.importHighResNSESymbol( symbolName, false ) ;
 
-                    // Update the last enrich time stamp.
-                    this.symbol.setExtraData1( TIMESTAMP_FMT.format( new Date() ) ) ;
+                    // Update the last enrich time stamp. The format is shared
+                    // by the tasks, which run concurrently.
+                    synchronized( TIMESTAMP_FMT ) {
+                        this.symbol.setExtraData1( TIMESTAMP_FMT.format( new Date() ) ) ;
+                    }
                     updateJobAttribute( this.symbol ) ;
                 }
             }
@@ -149,7 +154,7 @@ public class NSEScripITDImportJob extends AbstractBaseJob {
         final List<JobAttribute> scrips = jobCfg.getAttributeValues( SCRIP_ATTR_VAL ) ;
         if( scrips != null && !scrips.isEmpty() ) {
             // Schedule each script as asynchronous tasks
-            final IAsyncExecutorSvc executor = ServiceMgr.getAsyncExecutorSvc() ;
+            final IITDFetchSchedulerSvc scheduler = ServiceMgr.getITDFetchSchedulerSvc() ;
 
             final JobAttribute enrichIntervalAttr = jobCfg.getAttributeValue( SCRIP_ENRICH_INTERVAL ) ;
             int enrichInterval = DEF_ENRICH_INTERVAL ;
@@ -158,7 +163,7 @@ public class NSEScripITDImportJob extends AbstractBaseJob {
             }
 
             for( final JobAttribute scrip : scrips ) {
-                executor.submit( new AsyncScripITDImportTask( scrip, enrichInterval ) ) ;
+                scheduler.submit( scrip.getValue(), new AsyncScripITDImportTask( scrip, enrichInterval ) ) ;
             }
         }
     }
@@ -21,6 +21,89 @@ public interface ConfigKey {
      */
     String ASYNC_EVENT_DISPATCH = "event.bus.event.dispatch.async" ;
 
+    /**
+     * The number of threads shared by the asynchronous event dispatch proxies
+     * for delivering events to the subscribers.
+     */
+    String EVENT_DISPATCH_THREADS = "event.bus.dispatch.threads" ;
+
+    /** The default number of event dispatch threads. */
+    int DEF_EVENT_DISPATCH_THREADS = 4 ;
+
+    /**
+     * The maximum number of events queued for a subscriber when the events
+     * are dispatched asynchronously.
+     */
+    String EVENT_DISPATCH_QUEUE_CAPACITY = "event.bus.dispatch.queue.capacity" ;
+
+    /** The default capacity of a subscriber's event queue. */
+    int DEF_EVENT_DISPATCH_QUEUE_CAPACITY = 1000 ;
+
+    /**
+     * The maximum number of events delivered to a subscriber in one batch
+     * when the events are dispatched asynchronously.
+     */
+    String EVENT_DISPATCH_BATCH_SIZE = "event.bus.dispatch.batch.size" ;
+
+    /** The default maximum event batch size. */
+    int DEF_EVENT_DISPATCH_BATCH_SIZE = 100 ;
+
+    /**
+     * The action taken when a subscriber's event queue is full.
+     *
+     * @valueType "BLOCK", "DROP_OLDEST" or "COALESCE". Defaults to BLOCK,
+     *            which never loses events.
+     */
+    String EVENT_DISPATCH_OVERFLOW_POLICY = "event.bus.dispatch.overflow.policy" ;
+
+    /**
+     * The maximum number of times per second the UI components (ITD summary
+     * cache and charts) are notified of scrip ITD inserts. The scrip ITD
+     * values published between two notifications are conflated to the latest
+     * value per symbol.
+     */
+    String SCRIP_ITD_UI_MAX_DELIVERY_RATE = "scrip.itd.ui.max.delivery.rate" ;
+
+    /** The default maximum scrip ITD notification rate for the UI. */
+    int DEF_SCRIP_ITD_UI_MAX_DELIVERY_RATE = 4 ;
+
+    /**
+     * The minimum interval in seconds between two writes of the ITD summary
+     * cache snapshots. The cache changes in between are written together.
+     */
+    String ITD_CACHE_SNAPSHOT_INTERVAL = "itd.cache.snapshot.interval" ;
+
+    /** The default ITD summary cache snapshot interval in seconds. */
+    int DEF_ITD_CACHE_SNAPSHOT_INTERVAL = 10 ;
+
+    /**
+     * The number of days for which the intra day ticks are retained in the
+     * in memory ITD tick store.
+     */
+    String ITD_TICK_STORE_RETENTION_DAYS = "itd.tick.store.retention.days" ;
+
+    /** By default, the ticks are retained for two weeks - the 2W chart range. */
+    int DEF_ITD_TICK_STORE_RETENTION_DAYS = 14 ;
+
+    /**
+     * The interval in seconds at which the ITD bars updated from the ITD
+     * stream are written to the bar tables.
+     */
+    String ITD_BAR_FLUSH_INTERVAL = "itd.bar.flush.interval" ;
+
+    /** The default ITD bar flush interval in seconds. */
+    int DEF_ITD_BAR_FLUSH_INTERVAL = 5 ;
+
+    /**
+     * The approximate heap size in kilobytes up to which the chart data
+     * loaded for the scrips and indexes is cached. The data of the least
+     * recently charted entities is evicted beyond the size.
+     */
+    String CHART_DATA_CACHE_MAX_SIZE = "chart.data.cache.max.size" ;
+
+    /** The default chart data cache size in kilobytes. */
+    int DEF_CHART_DATA_CACHE_MAX_SIZE = 32768 ;
+
     /**
      * The configuration key, value of which signifies the directory where
      * the EOD historic data will be stored.
@@ -51,6 +134,53 @@ public interface ConfigKey {
     /** The default retrial interval in milliseconds. */
     int DEF_RETRIAL_INTERVAL = 500 ;
 
+    /**
+     * A boolean flag to indicate if the asynchronous network service should
+     * be used, which executes the requests on a pool of network threads and
+     * schedules the retrials instead of sleeping on a thread.
+     */
+    String NETWORK_SVC_ASYNC = "network.svc.async" ;
+
+    /** By default, the blocking network service is used. */
+    boolean DEF_NETWORK_SVC_ASYNC = false ;
+
+    /** The maximum number of concurrent requests of the async network service. */
+    String NETWORK_SVC_MAX_CONCURRENT_REQUESTS = "network.svc.max.concurrent.requests" ;
+
+    /** The default maximum number of concurrent network requests. */
+    int DEF_NETWORK_SVC_MAX_CONCURRENT_REQUESTS = 20 ;
+
+    /**
+     * A boolean flag to indicate if the responses of the network service
+     * should be cached on the disk. Only the responses of the URLs matching
+     * the NETWORK_CACHE_RULES are cached.
+     */
+    String NETWORK_CACHE_ENABLED = "network.cache.enabled" ;
+
+    /**
+     * The directory where the network responses are cached. By default the
+     * responses are cached in the netcache folder of the working directory.
+     */
+    String NETWORK_CACHE_DIR = "network.cache.dir" ;
+
+    /**
+     * The size in kilobytes up to which the network responses are cached.
+     * The least recently used responses are evicted beyond the size.
+     */
+    String NETWORK_CACHE_MAX_SIZE = "network.cache.max.size" ;
+
+    /** The default network cache size in kilobytes. */
+    int DEF_NETWORK_CACHE_MAX_SIZE = 102400 ;
+
+    /**
+     * The list of network caching rules, delimited by a ,. Each rule is of
+     * the form [ttl seconds]:[url regex], and the responses of the URLs
+     * matching the regex are served from the cache for the ttl. A negative
+     * ttl implies the responses never expire, a ttl of 0 implies that the
+     * responses are revalidated with the server on every request.
+     */
+    String NETWORK_CACHE_RULES = "network.cache.rules" ;
+
     /**
      * Time interval for checking the network connectivity. Any request to
      * check for the network connectivity within last check time + check interval,
@@ -0,0 +1,116 @@
+/**
+ * Creation Date: Oct 18, 2026
+ */
+
+package com.sandy.apps.pluto.shared;
+import java.util.concurrent.ScheduledThreadPoolExecutor ;
+import java.util.concurrent.ThreadFactory ;
+import java.util.concurrent.TimeUnit ;
+
+import org.apache.log4j.Logger ;
+
+/**
+ * Runs a task in the background at most once per configured interval, no
+ * matter how often it is requested. The first request after a run schedules
+ * the task after the interval, the requests made till then are absorbed by
+ * the scheduled run. A pending run is also executed when the JVM shuts down.
+ * <p>
+ * The tasks of all the instances share one daemon thread, hence the tasks
+ * should be short lived, for example writing a snapshot of a cache.
+ *
+ * @author Sandeep Deb [deb.sandeep@gmail.com]
+ */
+public class DebouncedTask implements Runnable {
+
+    /** Log4J logger for this class. */
+    public static final Logger logger = Logger.getLogger( DebouncedTask.class ) ;
+
+    /** The executor shared by all the debounced tasks. */
+    private static ScheduledThreadPoolExecutor executor = null ;
+
+    /** The name of the task, used for logging. */
+    private final String name ;
+
+    /** The task to run. */
+    private final Runnable task ;
+
+    /** The minimum interval between two runs of the task. */
+    private final long intervalMillis ;
+
+    /** True if a run of the task has been requested and not yet run. */
+    private boolean pending = false ;
+
+    /** The lock ensuring that the runs of the task are never concurrent. */
+    private final Object runLock = new Object() ;
+
+    /**
+     * Constructor.
+     *
+     * @param name The name of the task, used for logging and thread names.
+     * @param task The task to run.
+     * @param intervalMillis The minimum interval between two runs.
+     */
+    public DebouncedTask( final String name, final Runnable task,
+                          final long intervalMillis ) {
+        this.name = name ;
+        this.task = task ;
+        this.intervalMillis = intervalMillis ;
+
+        Runtime.getRuntime().addShutdownHook( new Thread( name + "-Flush" ) {
+            public void run() {
+                flush() ;
+            }
+        } ) ;
+    }
+
+    /** Returns the executor shared by the debounced tasks. */
+    private static synchronized ScheduledThreadPoolExecutor getExecutor() {
+        if( executor == null ) {
+            executor = new ScheduledThreadPoolExecutor( 1, new ThreadFactory() {
+                public Thread newThread( final Runnable runnable ) {
+                    final Thread thread = new Thread( runnable, "DebouncedTask" ) ;
+                    thread.setDaemon( true ) ;
+                    return thread ;
+                }
+            } ) ;
+        }
+        return executor ;
+    }
+
+    /**
+     * Requests a run of the task. If a run is already pending, this call
+     * has no effect, else the task is scheduled after the interval.
+     */
+    public void request() {
+        synchronized( this ) {
+            if( this.pending ) {
+                return ;
+            }
+            this.pending = true ;
+        }
+        getExecutor().schedule( this, this.intervalMillis, TimeUnit.MILLISECONDS ) ;
+    }
+
+    /** Runs the task right away if a run is pending. */
+    public void flush() {
+        synchronized( this.runLock ) {
+            synchronized( this ) {
+                if( !this.pending ) {
+                    return ;
+                }
+                this.pending = false ;
+            }
+            try {
+                this.task.run() ;
+            }
+            catch ( final Throwable e ) {
+                logger.error( "Debounced task " + this.name + " failed", e ) ;
+            }
+        }
+    }
+
+    /** OVERRIDDEN METHOD: Runs the pending run of the task, if any. */
+    public void run() {
+        flush() ;
+    }
+}
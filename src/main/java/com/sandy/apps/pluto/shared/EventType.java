@@ -6,6 +6,7 @@ package com.sandy.apps.pluto.shared;
 
 import com.sandy.apps.pluto.shared.dto.JobConfig ;
 import com.sandy.apps.pluto.shared.dto.LogMsg ;
+import com.sandy.apps.pluto.shared.dto.NetworkCacheStats ;
 import com.sandy.apps.pluto.shared.dto.Trade ;
 import com.sandy.apps.pluto.shared.event.EventBus ;
 
@@ -60,6 +61,14 @@ public enum EventType {
      */
     NETWORK_DATA_DOWNLOADED,
 
+    /**
+     * Event indicating the state of the network response cache. This event
+     * is accompanied by a {@link NetworkCacheStats} value holding the cache
+     * counters, and is fired along with NETWORK_DATA_DOWNLOADED on all
+     * communications whose responses are cacheable.
+     */
+    NETWORK_CACHE_STATS,
+
     /**
      * Event indicating the last network communication status. This is published
      * after every network communication and communicates the outcome of the
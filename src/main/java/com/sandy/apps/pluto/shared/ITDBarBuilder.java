@@ -0,0 +1,182 @@
+/**
+ * Creation Date: Oct 18, 2026
+ */
+
+package com.sandy.apps.pluto.shared;
+
+import java.util.ArrayList ;
+import java.util.Collection ;
+import java.util.Date ;
+import java.util.LinkedHashSet ;
+import java.util.List ;
+
+import com.sandy.apps.pluto.shared.dto.AbstractITDValue ;
+import com.sandy.apps.pluto.shared.dto.ExIndexITD ;
+import com.sandy.apps.pluto.shared.dto.ITDBar ;
+import com.sandy.apps.pluto.shared.dto.ScripITD ;
+
+/**
+ * Rolls the intra day values of one scrip or index into OHLCV bars of all the
+ * {@link ITDBarInterval}s, one value at a time. Only the latest bar of each
+ * interval is held by the builder, a value falling before the latest bar of
+ * an interval does not update the bars of that interval. When a value of a
+ * new day is added, the builder starts afresh for that day.
+ * <p>
+ * The volume of a bar is derived from the cumulative traded quantity of the
+ * scrip values, as the quantity traded since the previous value. Interpolated
+ * scrip values and index values carry no volume information and only update
+ * the prices of the bars.
+ * <p>
+ * This class is not thread safe.
+ *
+ * @author Sandeep Deb [deb.sandeep@gmail.com]
+ */
+public class ITDBarBuilder {
+
+    /** The intervals for which the bars are built. */
+    private static final ITDBarInterval[] INTERVALS = ITDBarInterval.values() ;
+
+    /** The symbol of the scrip or the name of the index. */
+    private final String symbol ;
+
+    /** The start of the day of the values being rolled up. */
+    private long dayStart = -1 ;
+
+    /** The cumulative traded quantity of the last value, or -1. */
+    private long lastQty = -1 ;
+
+    /** The latest bar of each interval, in the order of INTERVALS. */
+    private final ITDBar[] currentBars = new ITDBar[INTERVALS.length] ;
+
+    /** Constructor. */
+    public ITDBarBuilder( final String symbol ) {
+        this.symbol = symbol ;
+    }
+
+    /** Returns the symbol of the scrip or the name of the index. */
+    public String getSymbol() {
+        return this.symbol ;
+    }
+
+    /**
+     * Adds an intra day value, a {@link ScripITD} or an {@link ExIndexITD},
+     * to the bars.
+     *
+     * @see #addTick(long, double, long, Collection)
+     */
+    public void addTick( final AbstractITDValue itd, final Collection<ITDBar> updatedBars ) {
+
+        if( itd instanceof ScripITD ) {
+            final ScripITD sItd = ( ScripITD )itd ;
+            addTick( sItd.getTime().getTime(), sItd.getPrice(),
+                     sItd.isInterpolated() ? ITDTickSeries.NO_VOLUME : sItd.getTotalTradeQty(),
+                     updatedBars ) ;
+        }
+        else {
+            final ExIndexITD iItd = ( ExIndexITD )itd ;
+            addTick( iItd.getDate().getTime(), iItd.getCurrentVal(),
+                     ITDTickSeries.NO_VOLUME, updatedBars ) ;
+        }
+    }
+
+    /**
+     * Adds a tick to the bars.
+     *
+     * @param time The time of the tick in milliseconds.
+     * @param price The price of the tick.
+     * @param qty The cumulative traded quantity of the tick, or
+     *        {@link ITDTickSeries#NO_VOLUME}.
+     * @param updatedBars The collection to which the bars updated by the
+     *        tick are added, can be null.
+     */
+    public void addTick( final long time, final double price, final long qty,
+                         final Collection<ITDBar> updatedBars ) {
+
+        final long tickDayStart = STUtils.getStartOfDay( new Date( time ) ).getTime() ;
+        if( tickDayStart < this.dayStart ) {
+            return ;
+        }
+        else if( tickDayStart > this.dayStart ) {
+            this.dayStart = tickDayStart ;
+            this.lastQty  = -1 ;
+            for( int i=0; i<this.currentBars.length; i++ ) {
+                this.currentBars[i] = null ;
+            }
+        }
+
+        // The volume of the tick is the quantity traded since the last tick.
+        // The first tick of the day only sets the reference quantity.
+        long volume = 0 ;
+        if( qty != ITDTickSeries.NO_VOLUME ) {
+            if( this.lastQty >= 0 && qty > this.lastQty ) {
+                volume = qty - this.lastQty ;
+            }
+            this.lastQty = Math.max( this.lastQty, qty ) ;
+        }
+
+        for( int i=0; i<INTERVALS.length; i++ ) {
+            final long barStart = INTERVALS[i].getBarStart( this.dayStart, time ) ;
+            ITDBar bar = this.currentBars[i] ;
+
+            if( bar == null || bar.getTime().getTime() < barStart ) {
+                bar = new ITDBar() ;
+                bar.setSymbol( this.symbol ) ;
+                bar.setInterval( INTERVALS[i].getSeconds() ) ;
+                bar.setTime( new Date( barStart ) ) ;
+                bar.setOpen( price ) ;
+                bar.setHigh( price ) ;
+                bar.setLow( price ) ;
+                this.currentBars[i] = bar ;
+            }
+            else if( bar.getTime().getTime() > barStart ) {
+                // A late tick for a bar which has already been closed.
+                continue ;
+            }
+
+            bar.setHigh( Math.max( bar.getHigh(), price ) ) ;
+            bar.setLow( Math.min( bar.getLow(), price ) ) ;
+            bar.setClose( price ) ;
+            bar.setVolume( bar.getVolume() + volume ) ;
+
+            if( updatedBars != null ) {
+                updatedBars.add( bar ) ;
+            }
+        }
+    }
+
+    /**
+     * Rolls up a list of intra day values, sorted in the ascending order of
+     * their time, into bars of all the intervals.
+     *
+     * @param symbol The symbol of the scrip or the name of the index.
+     * @param itdValues The {@link ScripITD} or {@link ExIndexITD} values.
+     *
+     * @return The bars, in the order in which they were opened.
+     */
+    public static List<ITDBar> aggregate( final String symbol,
+                                          final List<? extends AbstractITDValue> itdValues ) {
+
+        final ITDBarBuilder builder = new ITDBarBuilder( symbol ) ;
+        final Collection<ITDBar> bars = new LinkedHashSet<ITDBar>() ;
+        for( final AbstractITDValue itd : itdValues ) {
+            builder.addTick( itd, bars ) ;
+        }
+        return new ArrayList<ITDBar>( bars ) ;
+    }
+
+    /**
+     * Returns the bars of the specified interval from a list of bars of all
+     * the intervals, in the order in which they appear in the list.
+     */
+    public static List<ITDBar> select( final List<ITDBar> bars,
+                                       final ITDBarInterval interval ) {
+
+        final List<ITDBar> selected = new ArrayList<ITDBar>() ;
+        for( final ITDBar bar : bars ) {
+            if( bar.getInterval() == interval.getSeconds() ) {
+                selected.add( bar ) ;
+            }
+        }
+        return selected ;
+    }
+}
@@ -0,0 +1,94 @@
+/**
+ * Creation Date: Oct 18, 2026
+ */
+
+package com.sandy.apps.pluto.shared;
+
+import java.util.Calendar ;
+import java.util.Date ;
+
+/**
+ * The intervals over which the intra day values are rolled up into OHLCV
+ * bars. The bars of an interval are aligned to the start of the day.
+ *
+ * @author Sandeep Deb [deb.sandeep@gmail.com]
+ */
+public enum ITDBarInterval {
+
+    MIN_1 ( 60 ),
+    MIN_5 ( 5*60 ),
+    MIN_15( 15*60 ),
+    HOUR_1( 60*60 ) ;
+
+    /** The length of the interval in seconds. */
+    private final int seconds ;
+
+    private ITDBarInterval( final int seconds ) {
+        this.seconds = seconds ;
+    }
+
+    /** Returns the length of the interval in seconds. */
+    public int getSeconds() {
+        return this.seconds ;
+    }
+
+    /** Returns the length of the interval in milliseconds. */
+    public long getMillis() {
+        return this.seconds * 1000L ;
+    }
+
+    /**
+     * Returns the start time of the bar of this interval in which the time
+     * specified falls.
+     *
+     * @param dayStart The start of the day of the time, in milliseconds.
+     * @param time The time in milliseconds.
+     */
+    public long getBarStart( final long dayStart, final long time ) {
+        return dayStart + (( time - dayStart )/getMillis())*getMillis() ;
+    }
+
+    /**
+     * Returns the interval of the bars needed to render the time range in
+     * the number of points specified, or null if the range is short enough
+     * to be rendered from the intra day values themselves. Only the business
+     * hours of the week days in the range are considered. The finest interval
+     * whose bars fit in the points is returned, the coarsest interval if none
+     * of them fit.
+     *
+     * @param start The start of the time range.
+     * @param end The end of the time range.
+     * @param numPoints The number of points, typically the pixel width of
+     *        the chart.
+     */
+    public static ITDBarInterval forRange( final Date start, final Date end,
+                                           final int numPoints ) {
+
+        final long bizDayMillis = STUtils.getBizEndTime( start ).getTime() -
+                                  STUtils.getBizStartTime( start ).getTime() ;
+
+        // Count the week days in the range
+        final Calendar cal = Calendar.getInstance() ;
+        cal.setTime( STUtils.getStartOfDay( start ) ) ;
+        int numDays = 0 ;
+        while( !cal.getTime().after( end ) ) {
+            final int dayOfWeek = cal.get( Calendar.DAY_OF_WEEK ) ;
+            if( dayOfWeek != Calendar.SATURDAY && dayOfWeek != Calendar.SUNDAY ) {
+                numDays++ ;
+            }
+            cal.add( Calendar.DATE, 1 ) ;
+        }
+
+        final long millisPerPoint = ( numDays*bizDayMillis )/Math.max( 1, numPoints ) ;
+        if( millisPerPoint < MIN_1.getMillis() ) {
+            return null ;
+        }
+
+        for( final ITDBarInterval interval : values() ) {
+            if( interval.getMillis() >= millisPerPoint ) {
+                return interval ;
+            }
+        }
+        return HOUR_1 ;
+    }
+}
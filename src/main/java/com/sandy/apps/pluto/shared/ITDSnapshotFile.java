@@ -0,0 +1,435 @@
+/**
+ * Creation Date: Oct 18, 2026
+ */
+
+package com.sandy.apps.pluto.shared;
+import java.io.File ;
+import java.io.FileInputStream ;
+import java.io.FileOutputStream ;
+import java.io.IOException ;
+import java.io.ObjectInputStream ;
+import java.io.RandomAccessFile ;
+import java.nio.ByteBuffer ;
+import java.nio.channels.FileChannel ;
+import java.util.ArrayList ;
+import java.util.Date ;
+import java.util.LinkedHashMap ;
+import java.util.List ;
+import java.util.Map ;
+
+import org.apache.log4j.Logger ;
+
+import com.sandy.apps.pluto.shared.dto.ExIndexITD ;
+import com.sandy.apps.pluto.shared.dto.ScripITD ;
+
+/**
+ * A snapshot file of the latest ITD values held by the ITD summary caches,
+ * which is read back at startup such that the summaries are populated before
+ * the first refresh cycle.
+ * <p>
+ * The snapshot is stored in a compact columnar binary format - a header, a
+ * dictionary of the symbol (or index) names, followed by one primitive array
+ * per attribute of the ITD values. Snapshots are written to a temporary file
+ * which is then renamed over the snapshot file, such that a crash while
+ * writing never leaves a truncated snapshot behind. Snapshots are loaded
+ * through a single channel read of the file.
+ * <p>
+ * Snapshot files written by the earlier versions through Java serialization
+ * are still loaded, they are replaced by the binary format on the next write.
+ *
+ * @author Sandeep Deb [deb.sandeep@gmail.com]
+ */
+public class ITDSnapshotFile {
+
+    /** Log4J logger for this class. */
+    public static final Logger logger = Logger.getLogger( ITDSnapshotFile.class ) ;
+
+    /** The magic number at the start of the binary snapshots - "PITD". */
+    private static final int MAGIC = 0x50495444 ;
+
+    /** The version of the binary snapshot format. */
+    private static final byte VERSION = 1 ;
+
+    /** The kind of the snapshot holding {@link ScripITD} values. */
+    private static final byte KIND_SCRIP_ITD = 1 ;
+
+    /** The kind of the snapshot holding {@link ExIndexITD} values. */
+    private static final byte KIND_INDEX_ITD = 2 ;
+
+    /** The size of the header - magic, version, kind, refresh time, rows. */
+    private static final int HEADER_SIZE = 4 + 1 + 1 + 8 + 4 ;
+
+    /** The value stored in place of null dates. */
+    private static final long NULL_TIME = Long.MIN_VALUE ;
+
+    /** The snapshot file. */
+    private final File file ;
+
+    /** The last refresh time read by the last load. */
+    private Date lastRefreshTime = null ;
+
+    /** The ITD values read by the last load. */
+    private List<?> values = null ;
+
+    /** Constructor, which accepts the snapshot file. */
+    public ITDSnapshotFile( final File file ) {
+        this.file = file ;
+    }
+
+    /** Returns the snapshot file. */
+    public File getFile() {
+        return this.file ;
+    }
+
+    /** Returns the last refresh time read by the last successful load. */
+    public Date getLastRefreshTime() {
+        return this.lastRefreshTime ;
+    }
+
+    /**
+     * Returns the ITD values read by the last successful load, a list of
+     * {@link ScripITD} or {@link ExIndexITD} instances depending upon the
+     * values which were written.
+     */
+    public List<?> getValues() {
+        return this.values ;
+    }
+
+    /**
+     * Loads the snapshot file. If the snapshot file is missing or can not be
+     * read, the temporary file of the last write is loaded instead - a crash
+     * while the temporary file replaces the snapshot file can leave the
+     * latest snapshot only in the temporary file. Returns false if neither
+     * file exists.
+     *
+     * @throws IOException If the snapshot file could not be read or is corrupt.
+     */
+    public boolean load() throws IOException {
+
+        final File tmpFile = getTmpFile() ;
+        if( !this.file.exists() ) {
+            if( !tmpFile.exists() ) {
+                return false ;
+            }
+            logger.info( "Loading ITD snapshot from " + tmpFile.getAbsolutePath() ) ;
+            load( tmpFile ) ;
+            return true ;
+        }
+
+        try {
+            load( this.file ) ;
+        }
+        catch ( final IOException e ) {
+            if( !tmpFile.exists() ) {
+                throw e ;
+            }
+            logger.warn( "Could not load ITD snapshot " + this.file.getAbsolutePath() +
+                         ", loading " + tmpFile.getAbsolutePath(), e ) ;
+            load( tmpFile ) ;
+        }
+        return true ;
+    }
+
+    /**
+     * Loads the snapshot from the file specified. The file is read into a
+     * heap buffer rather than mapped, since a mapped file can not be replaced
+     * on Windows till the mapping is garbage collected.
+     */
+    private void load( final File snapshot ) throws IOException {
+
+        final RandomAccessFile raf = new RandomAccessFile( snapshot, "r" ) ;
+        try {
+            final FileChannel channel = raf.getChannel() ;
+            final ByteBuffer buffer = ByteBuffer.allocate( ( int )channel.size() ) ;
+            while( buffer.hasRemaining() ) {
+                if( channel.read( buffer ) == -1 ) {
+                    throw new IOException( "Unexpected end of ITD snapshot " +
+                                           snapshot.getAbsolutePath() ) ;
+                }
+            }
+            buffer.flip() ;
+
+            if( buffer.remaining() < HEADER_SIZE || buffer.getInt( 0 ) != MAGIC ) {
+                loadSerialized( snapshot ) ;
+            }
+            else {
+                readSnapshot( buffer ) ;
+            }
+        }
+        catch ( final RuntimeException e ) {
+            // Buffer underflows and bad dictionary indices imply a corrupt file
+            throw ( IOException )new IOException( "Corrupt ITD snapshot " +
+                                         snapshot.getAbsolutePath() ).initCause( e ) ;
+        }
+        finally {
+            raf.close() ;
+        }
+    }
+
+    /** Parses the binary snapshot in the buffer. */
+    private void readSnapshot( final ByteBuffer buffer ) throws IOException {
+
+        buffer.getInt() ;
+        final byte version = buffer.get() ;
+        if( version != VERSION ) {
+            throw new IOException( "Unsupported ITD snapshot version " + version ) ;
+        }
+        final byte kind    = buffer.get() ;
+        final long refTime = buffer.getLong() ;
+        final int  numRows = buffer.getInt() ;
+
+        final String[] dictionary = new String[ buffer.getInt() ] ;
+        for( int i=0; i<dictionary.length; i++ ) {
+            final byte[] bytes = new byte[ buffer.getShort() & 0xFFFF ] ;
+            buffer.get( bytes ) ;
+            dictionary[i] = new String( bytes, "UTF-8" ) ;
+        }
+
+        final int[]  names = new int[ numRows ] ;
+        final long[] times = new long[ numRows ] ;
+        buffer.asIntBuffer().get( names ) ;
+        buffer.position( buffer.position() + numRows * 4 ) ;
+        buffer.asLongBuffer().get( times ) ;
+        buffer.position( buffer.position() + numRows * 8 ) ;
+
+        if( kind == KIND_SCRIP_ITD ) {
+            final double[] price     = readDoubles( buffer, numRows ) ;
+            final double[] high      = readDoubles( buffer, numRows ) ;
+            final double[] low       = readDoubles( buffer, numRows ) ;
+            final double[] prevClose = readDoubles( buffer, numRows ) ;
+            final double[] open      = readDoubles( buffer, numRows ) ;
+            final double[] change    = readDoubles( buffer, numRows ) ;
+            final double[] pctChange = readDoubles( buffer, numRows ) ;
+            final long[]   qty       = new long[ numRows ] ;
+            buffer.asLongBuffer().get( qty ) ;
+            buffer.position( buffer.position() + numRows * 8 ) ;
+            final byte[]   interpolated = new byte[ numRows ] ;
+            buffer.get( interpolated ) ;
+
+            final List<ScripITD> itdList = new ArrayList<ScripITD>( numRows ) ;
+            for( int i=0; i<numRows; i++ ) {
+                final ScripITD itd = new ScripITD() ;
+                itd.setSymbolId( dictionary[ names[i] ] ) ;
+                itd.setTime( toDate( times[i] ) ) ;
+                itd.setPrice( price[i] ) ;
+                itd.setHigh( high[i] ) ;
+                itd.setLow( low[i] ) ;
+                itd.setPrevClose( prevClose[i] ) ;
+                itd.setOpeningPrice( open[i] ) ;
+                itd.setChange( change[i] ) ;
+                itd.setPctChange( pctChange[i] ) ;
+                itd.setTotalTradeQty( qty[i] ) ;
+                itd.setInterpolated( interpolated[i] != 0 ) ;
+                itdList.add( itd ) ;
+            }
+            this.values = itdList ;
+        }
+        else if( kind == KIND_INDEX_ITD ) {
+            final double[] currentVal = readDoubles( buffer, numRows ) ;
+            final double[] prevClose  = readDoubles( buffer, numRows ) ;
+            final double[] open       = readDoubles( buffer, numRows ) ;
+
+            final List<ExIndexITD> itdList = new ArrayList<ExIndexITD>( numRows ) ;
+            for( int i=0; i<numRows; i++ ) {
+                final ExIndexITD itd = new ExIndexITD() ;
+                itd.setIndex( dictionary[ names[i] ] ) ;
+                itd.setDate( toDate( times[i] ) ) ;
+                itd.setCurrentVal( currentVal[i] ) ;
+                itd.setPrevClose( prevClose[i] ) ;
+                itd.setOpen( open[i] ) ;
+                itdList.add( itd ) ;
+            }
+            this.values = itdList ;
+        }
+        else {
+            throw new IOException( "Unknown ITD snapshot kind " + kind ) ;
+        }
+        this.lastRefreshTime = toDate( refTime ) ;
+    }
+
+    /** Loads a snapshot written through Java serialization. */
+    private void loadSerialized( final File snapshot ) throws IOException {
+
+        final ObjectInputStream in = new ObjectInputStream( new FileInputStream( snapshot ) ) ;
+        try {
+            this.lastRefreshTime = ( Date )in.readObject() ;
+            this.values = ( List<?> )in.readObject() ;
+        }
+        catch ( final ClassNotFoundException e ) {
+            throw ( IOException )new IOException( "Corrupt ITD snapshot " +
+                                         snapshot.getAbsolutePath() ).initCause( e ) ;
+        }
+        finally {
+            in.close() ;
+        }
+    }
+
+    /**
+     * Writes a snapshot of the scrip ITD values.
+     *
+     * @param refTime The last refresh time of the values, can be null.
+     * @param itdList The scrip ITD values.
+     *
+     * @throws IOException If the snapshot could not be written.
+     */
+    public void writeScripITD( final Date refTime, final List<ScripITD> itdList )
+        throws IOException {
+
+        final int numRows = itdList.size() ;
+        final Map<String, Integer> dictionary = new LinkedHashMap<String, Integer>() ;
+        final int[] names = new int[ numRows ] ;
+        for( int i=0; i<numRows; i++ ) {
+            names[i] = lookup( dictionary, itdList.get( i ).getSymbolId() ) ;
+        }
+
+        final byte[][] dictBytes = encode( dictionary ) ;
+        final ByteBuffer buffer = ByteBuffer.allocate( HEADER_SIZE + sizeOf( dictBytes ) +
+                                                       numRows * ( 4 + 8 + 7*8 + 8 + 1 ) ) ;
+        writeHeader( buffer, KIND_SCRIP_ITD, refTime, numRows, dictBytes, names ) ;
+
+        for( final ScripITD itd : itdList ) buffer.putLong( toTime( itd.getTime() ) ) ;
+        for( final ScripITD itd : itdList ) buffer.putDouble( itd.getPrice() ) ;
+        for( final ScripITD itd : itdList ) buffer.putDouble( itd.getHigh() ) ;
+        for( final ScripITD itd : itdList ) buffer.putDouble( itd.getLow() ) ;
+        for( final ScripITD itd : itdList ) buffer.putDouble( itd.getPrevClose() ) ;
+        for( final ScripITD itd : itdList ) buffer.putDouble( itd.getOpeningPrice() ) ;
+        for( final ScripITD itd : itdList ) buffer.putDouble( itd.getChange() ) ;
+        for( final ScripITD itd : itdList ) buffer.putDouble( itd.getPctChange() ) ;
+        for( final ScripITD itd : itdList ) buffer.putLong( itd.getTotalTradeQty() ) ;
+        for( final ScripITD itd : itdList ) buffer.put( ( byte )( itd.isInterpolated() ? 1 : 0 ) ) ;
+
+        write( buffer ) ;
+    }
+
+    /**
+     * Writes a snapshot of the index ITD values.
+     *
+     * @param refTime The last refresh time of the values, can be null.
+     * @param itdList The index ITD values.
+     *
+     * @throws IOException If the snapshot could not be written.
+     */
+    public void writeIndexITD( final Date refTime, final List<ExIndexITD> itdList )
+        throws IOException {
+
+        final int numRows = itdList.size() ;
+        final Map<String, Integer> dictionary = new LinkedHashMap<String, Integer>() ;
+        final int[] names = new int[ numRows ] ;
+        for( int i=0; i<numRows; i++ ) {
+            names[i] = lookup( dictionary, itdList.get( i ).getIndex() ) ;
+        }
+
+        final byte[][] dictBytes = encode( dictionary ) ;
+        final ByteBuffer buffer = ByteBuffer.allocate( HEADER_SIZE + sizeOf( dictBytes ) +
+                                                       numRows * ( 4 + 8 + 3*8 ) ) ;
+        writeHeader( buffer, KIND_INDEX_ITD, refTime, numRows, dictBytes, names ) ;
+
+        for( final ExIndexITD itd : itdList ) buffer.putLong( toTime( itd.getDate() ) ) ;
+        for( final ExIndexITD itd : itdList ) buffer.putDouble( itd.getCurrentVal() ) ;
+        for( final ExIndexITD itd : itdList ) buffer.putDouble( itd.getPrevClose() ) ;
+        for( final ExIndexITD itd : itdList ) buffer.putDouble( itd.getOpen() ) ;
+
+        write( buffer ) ;
+    }
+
+    /** Writes the header, the dictionary and the name index column. */
+    private void writeHeader( final ByteBuffer buffer, final byte kind,
+                              final Date refTime, final int numRows,
+                              final byte[][] dictBytes, final int[] names ) {
+        buffer.putInt( MAGIC ) ;
+        buffer.put( VERSION ) ;
+        buffer.put( kind ) ;
+        buffer.putLong( toTime( refTime ) ) ;
+        buffer.putInt( numRows ) ;
+        buffer.putInt( dictBytes.length ) ;
+        for( final byte[] bytes : dictBytes ) {
+            buffer.putShort( ( short )bytes.length ) ;
+            buffer.put( bytes ) ;
+        }
+        for( final int name : names ) {
+            buffer.putInt( name ) ;
+        }
+    }
+
+    /** Returns the temporary file into which the snapshots are written. */
+    private File getTmpFile() {
+        return new File( this.file.getParentFile(), this.file.getName() + ".tmp" ) ;
+    }
+
+    /**
+     * Writes the buffer into a temporary file, and renames the temporary file
+     * over the snapshot file. Where the rename does not replace the snapshot
+     * file, the snapshot file is deleted first - if the rename is then
+     * interrupted, the snapshot is loaded from the temporary file.
+     */
+    private void write( final ByteBuffer buffer ) throws IOException {
+
+        buffer.flip() ;
+        final File tmpFile = getTmpFile() ;
+        final FileOutputStream out = new FileOutputStream( tmpFile ) ;
+        try {
+            final FileChannel channel = out.getChannel() ;
+            while( buffer.hasRemaining() ) {
+                channel.write( buffer ) ;
+            }
+            channel.force( true ) ;
+        }
+        finally {
+            out.close() ;
+        }
+
+        // Rename does not replace an existing file on all the platforms
+        if( !tmpFile.renameTo( this.file ) ) {
+            if( !this.file.delete() || !tmpFile.renameTo( this.file ) ) {
+                throw new IOException( "Could not rename " + tmpFile.getAbsolutePath() +
+                                       " to " + this.file.getAbsolutePath() ) ;
+            }
+        }
+    }
+
+    /** Returns the dictionary index of the name, adding it if required. */
+    private static int lookup( final Map<String, Integer> dictionary, final String name ) {
+        Integer index = dictionary.get( name ) ;
+        if( index == null ) {
+            index = dictionary.size() ;
+            dictionary.put( name, index ) ;
+        }
+        return index ;
+    }
+
+    /** Returns the UTF-8 encoding of the dictionary names, in index order. */
+    private static byte[][] encode( final Map<String, Integer> dictionary )
+        throws IOException {
+        final byte[][] dictBytes = new byte[ dictionary.size() ][] ;
+        int i = 0 ;
+        for( final String name : dictionary.keySet() ) {
+            dictBytes[i++] = name.getBytes( "UTF-8" ) ;
+        }
+        return dictBytes ;
+    }
+
+    /** Returns the size of the encoded dictionary. */
+    private static int sizeOf( final byte[][] dictBytes ) {
+        int size = 4 ;
+        for( final byte[] bytes : dictBytes ) {
+            size += 2 + bytes.length ;
+        }
+        return size ;
+    }
+
+    /** Reads a column of doubles from the buffer. */
+    private static double[] readDoubles( final ByteBuffer buffer, final int numRows ) {
+        final double[] column = new double[ numRows ] ;
+        buffer.asDoubleBuffer().get( column ) ;
+        buffer.position( buffer.position() + numRows * 8 ) ;
+        return column ;
+    }
+
+    private static long toTime( final Date date ) {
+        return ( date == null ) ? NULL_TIME : date.getTime() ;
+    }
+
+    private static Date toDate( final long time ) {
+        return ( time == NULL_TIME ) ? null : new Date( time ) ;
+    }
+}
@@ -0,0 +1,254 @@
+/**
+ * Creation Date: Oct 18, 2026
+ */
+
+package com.sandy.apps.pluto.shared;
+
+/**
+ * The intra day ticks of one symbol for one trading day, stored in columns of
+ * primitive arrays in ascending order of time. A tick takes 16 bytes - the
+ * time as milliseconds since the start of the day, the price as a float and
+ * the cumulative traded quantity as a long. Interpolated ticks carry no
+ * volume information and are stored with a quantity of {@link #NO_VOLUME}.
+ * <p>
+ * The series is modified by the import and event threads while it is being
+ * read by the charts. Mutations are synchronized on the series instance,
+ * readers iterating over the ticks should hold the lock of the series for
+ * the duration of the iteration.
+ *
+ * @author Sandeep Deb [deb.sandeep@gmail.com]
+ */
+public class ITDTickSeries {
+
+    /** The quantity stored for interpolated ticks. */
+    public static final long NO_VOLUME = -1 ;
+
+    private static final int[]   EMPTY_INTS   = new int[0] ;
+    private static final float[] EMPTY_FLOATS = new float[0] ;
+    private static final long[]  EMPTY_LONGS  = new long[0] ;
+
+    /** The time in milliseconds of the start of the day of this series. */
+    private final long dayStart ;
+
+    /** The time of the ticks, in milliseconds since the start of the day. */
+    private int[] time = EMPTY_INTS ;
+
+    /** The price of the ticks. */
+    private float[] price = EMPTY_FLOATS ;
+
+    /** The cumulative traded quantity of the ticks, or NO_VOLUME. */
+    private long[] qty = EMPTY_LONGS ;
+
+    /** The number of ticks in this series. */
+    private int size = 0 ;
+
+    /**
+     * The number of times the ticks of this series have been modified, used
+     * by the readers caching information derived from the ticks to detect
+     * that the ticks have changed since.
+     */
+    private int modCount = 0 ;
+
+    /**
+     * A flag which is set once the series holds all the ticks stored in the
+     * database for the day, and is kept up to date by the importers.
+     */
+    private boolean complete = false ;
+
+    /**
+     * Constructor.
+     *
+     * @param dayStart The time in milliseconds of the start of the day, as
+     *        returned by {@link STUtils#getStartOfDay(java.util.Date)}.
+     */
+    public ITDTickSeries( final long dayStart ) {
+        this.dayStart = dayStart ;
+    }
+
+    /** Returns the time in milliseconds of the start of the day. */
+    public long getDayStart() {
+        return this.dayStart ;
+    }
+
+    /**
+     * Adds a tick to the series. If the series already has a tick at the
+     * same time, the tick is replaced.
+     *
+     * @param tickTime The time of the tick in milliseconds, which should fall
+     *        within the day of this series.
+     * @param tickPrice The price of the tick.
+     * @param tickQty The cumulative traded quantity or {@link #NO_VOLUME}.
+     *
+     * @return true if a new tick was added, false if a tick was replaced.
+     */
+    public synchronized boolean add( final long tickTime, final float tickPrice,
+                                     final long tickQty ) {
+
+        final int offset = toOffset( tickTime ) ;
+
+        // Ticks mostly arrive in the order of time - append without a search
+        int index = this.size ;
+        if( this.size > 0 && offset <= this.time[this.size-1] ) {
+            index = search( offset ) ;
+            if( index >= 0 ) {
+                this.price[index] = tickPrice ;
+                this.qty[index]   = tickQty ;
+                this.modCount++ ;
+                return false ;
+            }
+            index = -( index + 1 ) ;
+        }
+
+        ensureCapacity( this.size + 1 ) ;
+        if( index < this.size ) {
+            final int numMoved = this.size - index ;
+            System.arraycopy( this.time,  index, this.time,  index+1, numMoved ) ;
+            System.arraycopy( this.price, index, this.price, index+1, numMoved ) ;
+            System.arraycopy( this.qty,   index, this.qty,   index+1, numMoved ) ;
+        }
+        this.time[index]  = offset ;
+        this.price[index] = tickPrice ;
+        this.qty[index]   = tickQty ;
+        this.size++ ;
+        this.modCount++ ;
+        return true ;
+    }
+
+    /** Returns the number of ticks in the series. */
+    public synchronized int size() {
+        return this.size ;
+    }
+
+    /** @see #modCount */
+    public synchronized int getModCount() {
+        return this.modCount ;
+    }
+
+    /** Returns true if the series has no ticks. */
+    public synchronized boolean isEmpty() {
+        return this.size == 0 ;
+    }
+
+    /** Returns the time in milliseconds of the tick at the index specified. */
+    public synchronized long getTime( final int index ) {
+        return this.dayStart + this.time[index] ;
+    }
+
+    /** Returns the price of the tick at the index specified. */
+    public synchronized float getPrice( final int index ) {
+        return this.price[index] ;
+    }
+
+    /**
+     * Returns the cumulative traded quantity of the tick at the index
+     * specified, or {@link #NO_VOLUME} for interpolated ticks.
+     */
+    public synchronized long getVolume( final int index ) {
+        return this.qty[index] ;
+    }
+
+    /** Returns true if the tick at the index specified is interpolated. */
+    public synchronized boolean isInterpolated( final int index ) {
+        return this.qty[index] == NO_VOLUME ;
+    }
+
+    /** Returns the price of the last tick, or -1 if the series is empty. */
+    public synchronized float getLastPrice() {
+        return ( this.size == 0 ) ? -1 : this.price[this.size-1] ;
+    }
+
+    /**
+     * Returns the index of the tick at the time specified. If there is no
+     * such tick, -(insertion point + 1) is returned, as with the binary
+     * search methods of {@link java.util.Arrays}.
+     */
+    public synchronized int indexOf( final long tickTime ) {
+        final long offset = tickTime - this.dayStart ;
+        if( offset < 0 ) {
+            return -1 ;
+        }
+        if( offset > Integer.MAX_VALUE ) {
+            return -( this.size + 1 ) ;
+        }
+        return search( ( int )offset ) ;
+    }
+
+    /**
+     * Returns the index of the first tick at or after the time specified. If
+     * all the ticks are before the time, the size of the series is returned.
+     */
+    public synchronized int ceilingIndex( final long tickTime ) {
+        final int index = indexOf( tickTime ) ;
+        return ( index >= 0 ) ? index : -( index + 1 ) ;
+    }
+
+    /**
+     * Returns the index of the last tick at or before the time specified. If
+     * all the ticks are after the time, -1 is returned.
+     */
+    public synchronized int floorIndex( final long tickTime ) {
+        final int index = indexOf( tickTime ) ;
+        return ( index >= 0 ) ? index : -( index + 1 ) - 1 ;
+    }
+
+    /** @see #complete */
+    public synchronized boolean isComplete() {
+        return this.complete ;
+    }
+
+    /** @see #complete */
+    public synchronized void setComplete( final boolean complete ) {
+        this.complete = complete ;
+    }
+
+    /** Returns the approximate number of heap bytes held by the series. */
+    public synchronized long getHeapSize() {
+        return 40 + 3*16 + 4L*this.time.length + 4L*this.price.length +
+               8L*this.qty.length ;
+    }
+
+    /** Binary search for the offset within the ticks. */
+    private int search( final int offset ) {
+        int low  = 0 ;
+        int high = this.size - 1 ;
+        while( low <= high ) {
+            final int mid = ( low + high ) >>> 1 ;
+            final int midVal = this.time[mid] ;
+            if( midVal < offset ) {
+                low = mid + 1 ;
+            }
+            else if( midVal > offset ) {
+                high = mid - 1 ;
+            }
+            else {
+                return mid ;
+            }
+        }
+        return -( low + 1 ) ;
+    }
+
+    private int toOffset( final long tickTime ) {
+        final long offset = tickTime - this.dayStart ;
+        if( offset < 0 || offset > Integer.MAX_VALUE ) {
+            throw new IllegalArgumentException( "Tick time " + tickTime +
+                             " is outside the day starting at " + this.dayStart ) ;
+        }
+        return ( int )offset ;
+    }
+
+    private void ensureCapacity( final int minCapacity ) {
+        if( minCapacity <= this.time.length ) {
+            return ;
+        }
+        final int newCapacity = Math.max( minCapacity, Math.max( 16, this.time.length + ( this.time.length >> 1 ) ) ) ;
+        final int[]   newTime  = new int[newCapacity] ;
+        final float[] newPrice = new float[newCapacity] ;
+        final long[]  newQty   = new long[newCapacity] ;
+        System.arraycopy( this.time,  0, newTime,  0, this.size ) ;
+        System.arraycopy( this.price, 0, newPrice, 0, this.size ) ;
+        System.arraycopy( this.qty,   0, newQty,   0, this.size ) ;
+        this.time  = newTime ;
+        this.price = newPrice ;
+        this.qty   = newQty ;
+    }
+}
@@ -0,0 +1,190 @@
+/**
+ * Creation Date: Oct 18, 2026
+ */
+
+package com.sandy.apps.pluto.shared;
+import java.util.Collection ;
+import java.util.Date ;
+import java.util.Map ;
+import java.util.concurrent.ConcurrentHashMap ;
+import java.util.concurrent.ConcurrentMap ;
+import java.util.concurrent.ConcurrentSkipListMap ;
+
+import org.apache.log4j.Logger ;
+
+import com.sandy.apps.pluto.shared.dto.AbstractITDValue ;
+import com.sandy.apps.pluto.shared.dto.ExIndexITD ;
+import com.sandy.apps.pluto.shared.dto.ScripITD ;
+import com.sandy.apps.pluto.shared.util.util.ConfigManager ;
+
+/**
+ * A process wide store of intra day ticks, keyed by symbol and trading day.
+ * The ticks of a symbol for a day are held in an {@link ITDTickSeries}. The
+ * importers add the ticks they save to the store, and the charts read the
+ * ticks from the store instead of holding their own copies.
+ * <p>
+ * Days older than the configured retention are evicted from the store, the
+ * check is done once a day when the first tick of a new day is added.
+ *
+ * @author Sandeep Deb [deb.sandeep@gmail.com]
+ */
+public class ITDTickStore {
+
+    /** Log4J logger for this class. */
+    public static final Logger logger = Logger.getLogger( ITDTickStore.class ) ;
+
+    /** The number of milliseconds in a day. */
+    private static final long MILLIS_PER_DAY = 24L*60*60*1000 ;
+
+    /** The singleton instance. */
+    private static ITDTickStore instance = null ;
+
+    /** The tick series, keyed by symbol and the start of the day. */
+    private final ConcurrentMap<String, ConcurrentSkipListMap<Long, ITDTickSeries>> store =
+                  new ConcurrentHashMap<String, ConcurrentSkipListMap<Long, ITDTickSeries>>() ;
+
+    /** The number of days for which the ticks are retained. */
+    private final int retentionDays ;
+
+    /** The start of the latest day for which the eviction has been done. */
+    private volatile long evictionDay = 0 ;
+
+    /** Private constructor to enforce the singleton pattern. */
+    private ITDTickStore( final int retentionDays ) {
+        super() ;
+        this.retentionDays = retentionDays ;
+    }
+
+    /** Singleton accessor method. */
+    public static synchronized ITDTickStore instance() {
+        if( instance == null ) {
+            final int retentionDays = ConfigManager.getInstance().getInt(
+                                    ConfigKey.ITD_TICK_STORE_RETENTION_DAYS,
+                                    ConfigKey.DEF_ITD_TICK_STORE_RETENTION_DAYS ) ;
+            instance = new ITDTickStore( retentionDays ) ;
+        }
+        return instance ;
+    }
+
+    /**
+     * Returns the tick series of the symbol for the day in which the date
+     * specified falls, or null if the store has no such series.
+     */
+    public ITDTickSeries getSeries( final String symbol, final Date date ) {
+        final Map<Long, ITDTickSeries> days = this.store.get( symbol ) ;
+        if( days == null ) {
+            return null ;
+        }
+        return days.get( STUtils.getStartOfDay( date ).getTime() ) ;
+    }
+
+    /**
+     * Returns the tick series of the latest day of the symbol, or null if
+     * the store has no series of the symbol.
+     */
+    public ITDTickSeries getLatestSeries( final String symbol ) {
+        final ConcurrentSkipListMap<Long, ITDTickSeries> days = this.store.get( symbol ) ;
+        if( days == null ) {
+            return null ;
+        }
+        final Map.Entry<Long, ITDTickSeries> latest = days.lastEntry() ;
+        return ( latest == null ) ? null : latest.getValue() ;
+    }
+
+    /**
+     * Returns the tick series of the symbol for the day in which the date
+     * specified falls, creating an empty series if the store has no such
+     * series.
+     */
+    public ITDTickSeries getOrCreateSeries( final String symbol, final Date date ) {
+
+        final long dayStart = STUtils.getStartOfDay( date ).getTime() ;
+
+        ConcurrentSkipListMap<Long, ITDTickSeries> days = this.store.get( symbol ) ;
+        if( days == null ) {
+            final ConcurrentSkipListMap<Long, ITDTickSeries> newDays = new ConcurrentSkipListMap<Long, ITDTickSeries>() ;
+            days = this.store.putIfAbsent( symbol, newDays ) ;
+            if( days == null ) {
+                days = newDays ;
+            }
+        }
+
+        ITDTickSeries series = days.get( dayStart ) ;
+        if( series == null ) {
+            final ITDTickSeries newSeries = new ITDTickSeries( dayStart ) ;
+            series = days.putIfAbsent( dayStart, newSeries ) ;
+            if( series == null ) {
+                series = newSeries ;
+                if( dayStart > this.evictionDay ) {
+                    evictStaleDays( dayStart ) ;
+                }
+            }
+        }
+        return series ;
+    }
+
+    /**
+     * Adds the ITD value, a {@link ScripITD} or an {@link ExIndexITD}, to the
+     * series of its symbol and day.
+     *
+     * @return The series to which the value was added.
+     */
+    public ITDTickSeries add( final AbstractITDValue itd ) {
+
+        if( itd instanceof ScripITD ) {
+            final ScripITD sItd = ( ScripITD )itd ;
+            final ITDTickSeries series = getOrCreateSeries( sItd.getSymbolId(), sItd.getTime() ) ;
+            series.add( sItd.getTime().getTime(), ( float )sItd.getPrice(),
+                        sItd.isInterpolated() ? ITDTickSeries.NO_VOLUME : sItd.getTotalTradeQty() ) ;
+            return series ;
+        }
+
+        final ExIndexITD iItd = ( ExIndexITD )itd ;
+        final ITDTickSeries series = getOrCreateSeries( iItd.getIndex(), iItd.getDate() ) ;
+        series.add( iItd.getDate().getTime(), ( float )iItd.getCurrentVal(), 0 ) ;
+        return series ;
+    }
+
+    /** Adds all the ITD values to the store. */
+    public void addAll( final Collection<? extends AbstractITDValue> itdValues ) {
+        for( final AbstractITDValue itd : itdValues ) {
+            add( itd ) ;
+        }
+    }
+
+    /** Removes all the series of the symbol specified. */
+    public void remove( final String symbol ) {
+        this.store.remove( symbol ) ;
+    }
+
+    /** Returns the approximate number of heap bytes held by the tick series. */
+    public long getHeapSize() {
+        long heapSize = 0 ;
+        for( final Map<Long, ITDTickSeries> days : this.store.values() ) {
+            for( final ITDTickSeries series : days.values() ) {
+                heapSize += series.getHeapSize() ;
+            }
+        }
+        return heapSize ;
+    }
+
+    /** Evicts the series of the days older than the retention period. */
+    private synchronized void evictStaleDays( final long today ) {
+
+        if( today <= this.evictionDay ) {
+            return ;
+        }
+        this.evictionDay = today ;
+
+        final Long oldestDay = Long.valueOf( today - this.retentionDays*MILLIS_PER_DAY ) ;
+        int numEvicted = 0 ;
+        for( final ConcurrentSkipListMap<Long, ITDTickSeries> days : this.store.values() ) {
+            final Map<Long, ITDTickSeries> staleDays = days.headMap( oldestDay ) ;
+            numEvicted += staleDays.size() ;
+            staleDays.clear() ;
+        }
+        if( numEvicted > 0 ) {
+            logger.debug( "Evicted " + numEvicted + " stale ITD tick series" ) ;
+        }
+    }
+}
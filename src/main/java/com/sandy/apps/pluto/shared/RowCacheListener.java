@@ -0,0 +1,27 @@
+/**
+ * Creation Date: Oct 18, 2026
+ */
+
+package com.sandy.apps.pluto.shared;
+
+/**
+ * An extension of {@link CacheListener} for listeners of caches which
+ * hold their values as rows, for example table models. When only existing
+ * rows have changed, such caches call upon {@link #cacheRowsUpdated(int, int)}
+ * for the changed rows instead of {@link #cacheDataChanged()}. Structural
+ * changes, i.e. rows being added or removed, are still notified through
+ * {@link #cacheDataChanged()}.
+ *
+ * @author Sandeep Deb [deb.sandeep@gmail.com]
+ */
+public interface RowCacheListener extends CacheListener {
+
+    /**
+     * This method is called upon the listener when the values of the rows
+     * in the specified range, both inclusive, have changed.
+     *
+     * @param firstRow The index of the first changed row.
+     * @param lastRow The index of the last changed row.
+     */
+    void cacheRowsUpdated( final int firstRow, final int lastRow ) ;
+}
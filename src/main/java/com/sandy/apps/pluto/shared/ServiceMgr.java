@@ -15,6 +15,7 @@ import com.sandy.apps.pluto.biz.svc.IAsyncExecutorSvc.AsyncTask ;
 import com.sandy.apps.pluto.biz.svc.IEODImportSvc ;
 import com.sandy.apps.pluto.biz.svc.IExIndexSvc ;
 import com.sandy.apps.pluto.biz.svc.IITDBulkImportSvc ;
+import com.sandy.apps.pluto.biz.svc.IITDFetchSchedulerSvc ;
 import com.sandy.apps.pluto.biz.svc.IITDImportSvc ;
 import com.sandy.apps.pluto.biz.svc.IJobSvc ;
 import com.sandy.apps.pluto.biz.svc.INetworkSvc ;
@@ -53,6 +54,7 @@ public class ServiceMgr {
     public static final String ITD_BULK_IMPORT_SVC  = "ITDBulkImportSvc" ;
     public static final String ST_VIEW_SVC          = "STViewService" ;
     public static final String RSS_SVC              = "RSSSvc" ;
+    public static final String ITD_FETCH_SCHED_SVC  = "ITDFetchSchedulerSvc" ;
 
     public static final String SCRIP_ITD_DAO        = "ITDIndexDAO" ;
     public static final String TRADE_DAO            = "TradeDAO" ;
@@ -177,4 +179,8 @@ public class ServiceMgr {
     public static IAsyncExecutorSvc getAsyncExecutorSvc() {
         return ( IAsyncExecutorSvc )OF.getBean( ASYNC_EXEC_SVC ) ;
     }
+
+    public static IITDFetchSchedulerSvc getITDFetchSchedulerSvc() {
+        return ( IITDFetchSchedulerSvc )OF.getBean( ITD_FETCH_SCHED_SVC ) ;
+    }
 }
@@ -0,0 +1,120 @@
+/**
+ * Creation Date: Oct 18, 2026
+ */
+
+package com.sandy.apps.pluto.shared;
+import java.util.ArrayList ;
+import java.util.List ;
+import java.util.Map ;
+import java.util.TreeMap ;
+
+/**
+ * A set of time ranges, held as disjoint and non adjacent spans in the
+ * ascending order of their start. A span is half open, it includes its start
+ * and excludes its end, both in milliseconds. Adding a span merges it with
+ * the spans it overlaps or touches.
+ * <p>
+ * This class is not thread safe, the users are expected to synchronize the
+ * access.
+ *
+ * @author Sandeep Deb [deb.sandeep@gmail.com]
+ */
+public class TimeRangeSet {
+
+    /** The spans, the end of each span keyed by its start. */
+    private final TreeMap<Long, Long> spans = new TreeMap<Long, Long>() ;
+
+    /** Public constructor. */
+    public TimeRangeSet() {
+        super() ;
+    }
+
+    /**
+     * Adds the span [start, end) to this set. Empty spans are ignored.
+     *
+     * @param start The inclusive start of the span in milliseconds.
+     * @param end The exclusive end of the span in milliseconds.
+     */
+    public void add( final long start, final long end ) {
+
+        if( end <= start ) {
+            return ;
+        }
+
+        long newStart = start ;
+        long newEnd   = end ;
+
+        // Merge with the span starting before the new span, if it reaches
+        // the start of the new span.
+        final Map.Entry<Long, Long> floor = this.spans.floorEntry( start ) ;
+        if( floor != null && floor.getValue() >= start ) {
+            newStart = floor.getKey() ;
+            newEnd   = Math.max( newEnd, floor.getValue() ) ;
+            this.spans.remove( floor.getKey() ) ;
+        }
+
+        // Merge with all the spans starting within the new span.
+        Map.Entry<Long, Long> next = this.spans.ceilingEntry( newStart ) ;
+        while( next != null && next.getKey() <= newEnd ) {
+            newEnd = Math.max( newEnd, next.getValue() ) ;
+            this.spans.remove( next.getKey() ) ;
+            next = this.spans.ceilingEntry( newStart ) ;
+        }
+
+        this.spans.put( newStart, newEnd ) ;
+    }
+
+    /**
+     * Returns the parts of the span [start, end) which are not covered by
+     * this set, in the ascending order of time. Each part is returned as an
+     * array holding its start and its end.
+     *
+     * @param start The inclusive start of the span in milliseconds.
+     * @param end The exclusive end of the span in milliseconds.
+     *
+     * @return The uncovered parts of the span, empty if the span is covered.
+     */
+    public List<long[]> getGaps( final long start, final long end ) {
+
+        final List<long[]> gaps = new ArrayList<long[]>() ;
+        long gapStart = start ;
+
+        final Map.Entry<Long, Long> floor = this.spans.floorEntry( start ) ;
+        if( floor != null && floor.getValue() > gapStart ) {
+            gapStart = floor.getValue() ;
+        }
+
+        for( final Map.Entry<Long, Long> span :
+                          this.spans.subMap( start, false, end, false ).entrySet() ) {
+            if( span.getKey() > gapStart ) {
+                gaps.add( new long[] { gapStart, span.getKey() } ) ;
+            }
+            gapStart = Math.max( gapStart, span.getValue() ) ;
+        }
+
+        if( gapStart < end ) {
+            gaps.add( new long[] { gapStart, end } ) ;
+        }
+        return gaps ;
+    }
+
+    /** Returns true if the span [start, end) is entirely covered by this set. */
+    public boolean covers( final long start, final long end ) {
+        return getGaps( start, end ).isEmpty() ;
+    }
+
+    /** Returns true if this set holds no spans. */
+    public boolean isEmpty() {
+        return this.spans.isEmpty() ;
+    }
+
+    /** Removes all the spans from this set. */
+    public void clear() {
+        this.spans.clear() ;
+    }
+
+    @Override
+    public String toString() {
+        return this.spans.toString() ;
+    }
+}
@@ -0,0 +1,72 @@
+/**
+ * Creation Date: Oct 18, 2026
+ */
+
+package com.sandy.apps.pluto.shared.dto;
+
+/**
+ * A snapshot of the fetch statistics of a symbol - the number of samples,
+ * the average and the maximum time spent in each phase of the fetches.
+ *
+ * @author Sandeep Deb [deb.sandeep@gmail.com]
+ */
+public class FetchStats {
+
+    /** The phases of a fetch for which the time spent is measured. */
+    public enum Phase {
+        /** The time spent waiting in the fetch queue. */
+        QUEUE_WAIT,
+        /** The time spent fetching the contents over the network. */
+        FETCH,
+        /** The time spent parsing the fetched contents. */
+        PARSE
+    } ;
+
+    private final String symbol ;
+    private final long[] count ;
+    private final long[] totalMillis ;
+    private final long[] maxMillis ;
+
+    /** Constructor, the arrays are indexed by the phase ordinals. */
+    public FetchStats( final String symbol, final long[] count,
+                       final long[] totalMillis, final long[] maxMillis ) {
+        this.symbol      = symbol ;
+        this.count       = count ;
+        this.totalMillis = totalMillis ;
+        this.maxMillis   = maxMillis ;
+    }
+
+    /**
+     * @return the symbol
+     */
+    public String getSymbol() {
+        return this.symbol ;
+    }
+
+    /** Returns the number of samples recorded for the phase. */
+    public long getCount( final Phase phase ) {
+        return this.count[ phase.ordinal() ] ;
+    }
+
+    /** Returns the average milliseconds spent in the phase. */
+    public long getAvgMillis( final Phase phase ) {
+        final long num = this.count[ phase.ordinal() ] ;
+        return ( num == 0 ) ? 0 : this.totalMillis[ phase.ordinal() ] / num ;
+    }
+
+    /** Returns the maximum milliseconds spent in the phase. */
+    public long getMaxMillis( final Phase phase ) {
+        return this.maxMillis[ phase.ordinal() ] ;
+    }
+
+    /** A string representation of this DTO. */
+    public String toString() {
+        final StringBuffer buffer = new StringBuffer( this.symbol ) ;
+        for( final Phase phase : Phase.values() ) {
+            buffer.append( " " ).append( phase ).append( "[n=" ).append( getCount( phase ) )
+                  .append( ", avg=" ).append( getAvgMillis( phase ) )
+                  .append( ", max=" ).append( getMaxMillis( phase ) ).append( "]" ) ;
+        }
+        return buffer.toString() ;
+    }
+}
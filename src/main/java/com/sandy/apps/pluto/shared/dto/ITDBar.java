@@ -0,0 +1,167 @@
+/**
+ * Creation Date: Oct 18, 2026
+ */
+
+package com.sandy.apps.pluto.shared.dto;
+
+import java.io.Serializable ;
+import java.util.Date ;
+
+/**
+ * This DTO encapsulates an OHLCV bar of the intra day values of a scrip or an
+ * index, rolled up over an interval of the trading day. The time of the bar
+ * is the start of the interval and the volume is the quantity traded within
+ * the interval. Index bars have no volume.
+ *
+ * @author Sandeep Deb [deb.sandeep@gmail.com]
+ */
+public class ITDBar implements Comparable<ITDBar>, Serializable {
+
+    /** Generated serial version UID. */
+    private static final long serialVersionUID = 4715342915872315601L ;
+
+    private String symbol   = null ;
+    private int    interval = 0 ;
+    private Date   time     = null ;
+    private double open     = 0.0D ;
+    private double high     = 0.0D ;
+    private double low      = 0.0D ;
+    private double close    = 0.0D ;
+    private long   volume   = 0 ;
+
+    /** Public constructor. */
+    public ITDBar() {
+        super() ;
+    }
+
+    /**
+     * @return the symbol of the scrip or the name of the index
+     */
+    public String getSymbol() {
+        return this.symbol ;
+    }
+
+    /**
+     * @param symbol the symbol to set
+     */
+    public void setSymbol( final String symbol ) {
+        this.symbol = symbol ;
+    }
+
+    /**
+     * @return the length of the bar interval in seconds
+     */
+    public int getInterval() {
+        return this.interval ;
+    }
+
+    /**
+     * @param interval the length of the bar interval in seconds
+     */
+    public void setInterval( final int interval ) {
+        this.interval = interval ;
+    }
+
+    /**
+     * @return the start of the bar interval
+     */
+    public Date getTime() {
+        return this.time ;
+    }
+
+    /**
+     * @param time the time to set
+     */
+    public void setTime( final Date time ) {
+        this.time = time ;
+    }
+
+    /**
+     * @return the open
+     */
+    public double getOpen() {
+        return this.open ;
+    }
+
+    /**
+     * @param open the open to set
+     */
+    public void setOpen( final double open ) {
+        this.open = open ;
+    }
+
+    /**
+     * @return the high
+     */
+    public double getHigh() {
+        return this.high ;
+    }
+
+    /**
+     * @param high the high to set
+     */
+    public void setHigh( final double high ) {
+        this.high = high ;
+    }
+
+    /**
+     * @return the low
+     */
+    public double getLow() {
+        return this.low ;
+    }
+
+    /**
+     * @param low the low to set
+     */
+    public void setLow( final double low ) {
+        this.low = low ;
+    }
+
+    /**
+     * @return the close
+     */
+    public double getClose() {
+        return this.close ;
+    }
+
+    /**
+     * @param close the close to set
+     */
+    public void setClose( final double close ) {
+        this.close = close ;
+    }
+
+    /**
+     * @return the quantity traded within the bar interval
+     */
+    public long getVolume() {
+        return this.volume ;
+    }
+
+    /**
+     * @param volume the volume to set
+     */
+    public void setVolume( final long volume ) {
+        this.volume = volume ;
+    }
+
+    /**
+     * Compares two instances of {@link ITDBar} on the basis of their time.
+     */
+    public int compareTo( final ITDBar o ) {
+        return this.time.compareTo( o.time ) ;
+    }
+
+    /** Returns a string representation of this bar. */
+    @Override
+    public String toString() {
+        final StringBuilder buffer = new StringBuilder() ;
+        buffer.append( this.symbol ).append( "[" ).append( this.interval )
+              .append( "s @ " ).append( this.time ).append( "] O=" )
+              .append( this.open ).append( " H=" ).append( this.high )
+              .append( " L=" ).append( this.low ).append( " C=" )
+              .append( this.close ).append( " V=" ).append( this.volume ) ;
+        return buffer.toString() ;
+    }
+}
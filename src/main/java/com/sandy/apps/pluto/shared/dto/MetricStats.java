@@ -0,0 +1,100 @@
+/**
+ * Creation Date: Oct 18, 2026
+ */
+
+package com.sandy.apps.pluto.shared.dto;
+
+/**
+ * A snapshot of a metric of the application - either a counter, which has
+ * only a count, or a latency histogram, which has the count of the recorded
+ * latencies along with their mean, percentiles and maximum in nanoseconds.
+ *
+ * @author Sandeep Deb [deb.sandeep@gmail.com]
+ */
+public class MetricStats {
+
+    private final String name ;
+    private final boolean latency ;
+    private final long count ;
+    private final long meanNanos ;
+    private final long p50Nanos ;
+    private final long p90Nanos ;
+    private final long p99Nanos ;
+    private final long maxNanos ;
+
+    /** Constructor for the snapshot of a counter. */
+    public MetricStats( final String name, final long count ) {
+        this( name, false, count, 0, 0, 0, 0, 0 ) ;
+    }
+
+    /** Constructor for the snapshot of a latency histogram. */
+    public MetricStats( final String name, final long count, final long meanNanos,
+                        final long p50Nanos, final long p90Nanos,
+                        final long p99Nanos, final long maxNanos ) {
+        this( name, true, count, meanNanos, p50Nanos, p90Nanos, p99Nanos, maxNanos ) ;
+    }
+
+    private MetricStats( final String name, final boolean latency, final long count,
+                         final long meanNanos, final long p50Nanos, final long p90Nanos,
+                         final long p99Nanos, final long maxNanos ) {
+        this.name      = name ;
+        this.latency   = latency ;
+        this.count     = count ;
+        this.meanNanos = meanNanos ;
+        this.p50Nanos  = p50Nanos ;
+        this.p90Nanos  = p90Nanos ;
+        this.p99Nanos  = p99Nanos ;
+        this.maxNanos  = maxNanos ;
+    }
+
+    /** Returns the name of the metric. */
+    public String getName() {
+        return this.name ;
+    }
+
+    /** Returns true if the metric is a latency histogram, false if a counter. */
+    public boolean isLatency() {
+        return this.latency ;
+    }
+
+    /** Returns the count of the counter, or the number of recorded latencies. */
+    public long getCount() {
+        return this.count ;
+    }
+
+    /** Returns the mean latency in nanoseconds. */
+    public long getMeanNanos() {
+        return this.meanNanos ;
+    }
+
+    /** Returns the median latency in nanoseconds. */
+    public long getP50Nanos() {
+        return this.p50Nanos ;
+    }
+
+    /** Returns the 90th percentile latency in nanoseconds. */
+    public long getP90Nanos() {
+        return this.p90Nanos ;
+    }
+
+    /** Returns the 99th percentile latency in nanoseconds. */
+    public long getP99Nanos() {
+        return this.p99Nanos ;
+    }
+
+    /** Returns the maximum latency in nanoseconds. */
+    public long getMaxNanos() {
+        return this.maxNanos ;
+    }
+
+    @Override
+    public String toString() {
+        if( !this.latency ) {
+            return this.name + ": count=" + this.count ;
+        }
+        return this.name + ": count=" + this.count +
+               ", mean=" + this.meanNanos/1000 + "us, p50=" + this.p50Nanos/1000 +
+               "us, p90=" + this.p90Nanos/1000 + "us, p99=" + this.p99Nanos/1000 +
+               "us, max=" + this.maxNanos/1000 + "us" ;
+    }
+}
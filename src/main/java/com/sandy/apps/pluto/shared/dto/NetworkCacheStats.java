@@ -0,0 +1,66 @@
+/**
+ * Creation Date: Oct 18, 2026
+ */
+
+package com.sandy.apps.pluto.shared.dto;
+
+/**
+ * A snapshot of the counters of the network response cache - the number of
+ * requests served from the cache, revalidated with the server or missed, and
+ * the number of bytes which did not have to be downloaded.
+ *
+ * @author Sandeep Deb [deb.sandeep@gmail.com]
+ */
+public class NetworkCacheStats {
+
+    private final long numHits ;
+    private final long numRevalidations ;
+    private final long numMisses ;
+    private final long numBytesSaved ;
+    private final long cacheSize ;
+
+    /** Constructor. */
+    public NetworkCacheStats( final long numHits, final long numRevalidations,
+                              final long numMisses, final long numBytesSaved,
+                              final long cacheSize ) {
+        this.numHits          = numHits ;
+        this.numRevalidations = numRevalidations ;
+        this.numMisses        = numMisses ;
+        this.numBytesSaved    = numBytesSaved ;
+        this.cacheSize        = cacheSize ;
+    }
+
+    /** Returns the number of requests served from the cache without a request. */
+    public long getNumHits() {
+        return this.numHits ;
+    }
+
+    /**
+     * Returns the number of requests for which the server confirmed that the
+     * cached response is still valid.
+     */
+    public long getNumRevalidations() {
+        return this.numRevalidations ;
+    }
+
+    /** Returns the number of cacheable requests which had to be downloaded. */
+    public long getNumMisses() {
+        return this.numMisses ;
+    }
+
+    /** Returns the number of bytes served from the cache. */
+    public long getNumBytesSaved() {
+        return this.numBytesSaved ;
+    }
+
+    /** Returns the number of bytes held in the cache. */
+    public long getCacheSize() {
+        return this.cacheSize ;
+    }
+
+    @Override
+    public String toString() {
+        return "hits=" + this.numHits + ", revalidated=" + this.numRevalidations +
+               ", misses=" + this.numMisses + ", bytes saved=" + this.numBytesSaved ;
+    }
+}
@@ -3,10 +3,8 @@
  */
 
 package com.sandy.apps.pluto.shared.dto;
-import java.util.Calendar ;
 import java.util.Date ;
 
-import org.apache.commons.lang.time.DateUtils ;
 import org.apache.log4j.Logger ;
 
 import com.sandy.apps.pluto.shared.STConstant ;
@@ -62,13 +60,10 @@ public class ScripEOD implements Comparable<ScripEOD> {
      * @param date the date to set
      */
     public void setDate( final Date date ) {
+        // For EOD date doesn't have any significance for hours minutes and
+        // seconds. The parsers create dates at the start of the day, hence
+        // the date is stored as is.
         this.date = date ;
-
-        // For EOD date doesn't have any significance for hours minutes and seconds
-        DateUtils.truncate( this.date, Calendar.HOUR ) ;
-        DateUtils.truncate( this.date, Calendar.MINUTE ) ;
-        DateUtils.truncate( this.date, Calendar.SECOND ) ;
-        DateUtils.truncate( this.date, Calendar.MILLISECOND ) ;
     }
 
     /**
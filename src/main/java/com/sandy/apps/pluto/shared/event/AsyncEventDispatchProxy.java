@@ -3,14 +3,37 @@
  */
 
 package com.sandy.apps.pluto.shared.event;
-import java.util.concurrent.LinkedBlockingQueue ;
+import java.util.ArrayDeque ;
+import java.util.ArrayList ;
+import java.util.Iterator ;
+import java.util.LinkedHashMap ;
+import java.util.List ;
+import java.util.concurrent.locks.Condition ;
+import java.util.concurrent.locks.ReentrantLock ;
+
+import javax.swing.SwingUtilities ;
 
 import org.apache.log4j.Logger ;
 
+import com.sandy.apps.pluto.shared.metrics.Counter ;
+import com.sandy.apps.pluto.shared.metrics.LatencyHistogram ;
+import com.sandy.apps.pluto.shared.metrics.MetricsRegistry ;
+
 /**
  * An implementation of {@link IEventSubscriber}, which wraps around concrete
  * implementations of subscribers and dispatches events to them in an
  * asynchronous fashion.
+ * <p>
+ * Published events are queued in a bounded queue, as specified by the
+ * {@link DispatchPolicy} of the proxy, and are delivered in batches on the
+ * threads of the shared {@link EventDispatcher}. Subscribers implementing
+ * {@link IBatchEventSubscriber} receive each batch in one call. The time
+ * taken by the subscriber to handle an event, or a batch for the batch
+ * subscribers, is recorded as its handling time, and the time the oldest
+ * event of a batch waited in the queue as its queueing time.
+ * <p>
+ * The events dropped by the overflow policy are counted in the metrics
+ * registry, and logged as a warning when the next batch is delivered.
  *
  * @author Sandeep Deb [deb.sandeep@gmail.com]
  */
@@ -25,11 +48,26 @@ class AsyncEventDispatchProxy implements IEventSubscriber, Runnable {
      */
     private final IEventSubscriber subscriber ;
 
-    /**
-     * The dispatch thread. This is created if and only if the dispatch has
-     * to be done asynchronously.
-     */
-    private Thread dispatchThread = null ;
+    /** The queueing and batching policy for this subscriber. */
+    private final DispatchPolicy policy ;
+
+    /** The dispatcher on whose threads the events are delivered. */
+    private final EventDispatcher dispatcher ;
+
+    /** The lock guarding the event queue and the state of this proxy. */
+    private final ReentrantLock lock = new ReentrantLock() ;
+
+    /** The condition on which blocked publishers wait for room in the queue. */
+    private final Condition notFull = this.lock.newCondition() ;
+
+    /** The queue in which events are stored before dispatching. */
+    private final ArrayDeque<Event> eventQueue = new ArrayDeque<Event>() ;
+
+    /** The queued events, by coalesce key, for the COALESCE policy. */
+    private final LinkedHashMap<Object, Event> coalesceQueue = new LinkedHashMap<Object, Event>() ;
+
+    /** True if a delivery of this proxy is scheduled on the dispatcher. */
+    private boolean scheduled = false ;
 
     /**
      * A boolean flag which advises this dispatch proxy to stop dispatching
@@ -37,8 +75,23 @@ class AsyncEventDispatchProxy implements IEventSubscriber, Runnable {
      */
     private boolean stop = false ;
 
-    /** The unbounded queue in which events are stored before dispatching. */
-    private final LinkedBlockingQueue<Event> eventQueue = new LinkedBlockingQueue<Event>() ;
+    /** The number of events dropped because the queue was full. */
+    private long numDropped = 0 ;
+
+    /** The number of dropped events which have been logged. */
+    private long numDroppedLogged = 0 ;
+
+    /** The number of events replaced by a later event with the same key. */
+    private long numCoalesced = 0 ;
+
+    /** The time taken by the subscriber to handle an event, or a batch of events. */
+    private final LatencyHistogram handlingTimes ;
+
+    /** The time the oldest event of a batch waited before being delivered. */
+    private final LatencyHistogram queueingTimes ;
+
+    /** The metrics counter of the events dropped because the queue was full. */
+    private final Counter droppedEvents ;
 
     /**
      * Constructor, which accepts the concrete implementation of the subscriber
@@ -46,40 +99,224 @@ class AsyncEventDispatchProxy implements IEventSubscriber, Runnable {
      *
      * @param subscriber A concrete implementation of IEventSubscriber
      *
-     * @param async A boolean flag which indicates if the event dispatch
-     *        has to be done asynchronously.
+     * @param policy The queueing and batching policy for the subscriber.
+     *
+     * @param dispatcher The dispatcher on which events are delivered.
      */
-    public AsyncEventDispatchProxy( final IEventSubscriber subscriber ) {
+    public AsyncEventDispatchProxy( final IEventSubscriber subscriber,
+                                    final DispatchPolicy policy,
+                                    final EventDispatcher dispatcher ) {
         this.subscriber = subscriber ;
-        this.dispatchThread = new Thread( this ) ;
-        this.dispatchThread.setDaemon( true ) ;
-        this.dispatchThread.start() ;
+        this.policy     = policy ;
+        this.dispatcher = dispatcher ;
+        this.handlingTimes = EventBus.getHandlingTimes( subscriber ) ;
+        this.queueingTimes = MetricsRegistry.instance().getHistogram(
+                                    this.handlingTimes.getName() + ".queued" ) ;
+        this.droppedEvents = MetricsRegistry.instance().getCounter(
+                                    this.handlingTimes.getName() + ".dropped" ) ;
     }
 
     /**
-     * OVERRIDDEN METHOD: Dispatches the events in the queue to the subscriber
-     * asynchronously and blocks when the dispatch queue is empty.
+     * OVERRIDDEN METHOD: Delivers a batch of the queued events to the
+     * subscriber. If more events are pending after the delivery, the proxy
+     * is scheduled again, such that the dispatch threads are shared fairly
+     * across the subscribers.
      */
     public void run() {
-        while( !this.stop ) {
-            Event evt = null ;
+
+        final List<Event> batch = new ArrayList<Event>( Math.min( 64, this.policy.getBatchSize() ) ) ;
+        long newlyDropped = 0 ;
+        this.lock.lock() ;
+        try {
+            newlyDropped = this.numDropped - this.numDroppedLogged ;
+            this.numDroppedLogged = this.numDropped ;
+
+            if( this.policy.getOverflowPolicy() == OverflowPolicy.COALESCE ) {
+                final Iterator<Event> iter = this.coalesceQueue.values().iterator() ;
+                while( iter.hasNext() && batch.size() < this.policy.getBatchSize() ) {
+                    batch.add( iter.next() ) ;
+                    iter.remove() ;
+                }
+            }
+            else {
+                while( !this.eventQueue.isEmpty() && batch.size() < this.policy.getBatchSize() ) {
+                    batch.add( this.eventQueue.poll() ) ;
+                }
+            }
+            this.notFull.signalAll() ;
+        }
+        finally {
+            this.lock.unlock() ;
+        }
+
+        if( newlyDropped > 0 ) {
+            logger.warn( "Dropped " + newlyDropped + " events for " +
+                         this.handlingTimes.getName() + ", its queue of " +
+                         this.policy.getCapacity() + " events was full" ) ;
+        }
+
+        if( !batch.isEmpty() ) {
+            deliver( batch ) ;
+        }
+
+        boolean reschedule = false ;
+        this.lock.lock() ;
+        try {
+            reschedule = !this.stop && size() > 0 ;
+            this.scheduled = reschedule ;
+        }
+        finally {
+            this.lock.unlock() ;
+        }
+
+        if( reschedule ) {
+            this.dispatcher.schedule( this ) ;
+        }
+    }
+
+    /** Delivers the batch of events to the subscriber. */
+    private void deliver( final List<Event> batch ) {
+
+        long oldestEventTime = Long.MAX_VALUE ;
+        for( final Event evt : batch ) {
+            oldestEventTime = Math.min( oldestEventTime, evt.getEventTime() ) ;
+        }
+        this.queueingTimes.record( ( System.currentTimeMillis() - oldestEventTime ) * 1000000 ) ;
+
+        if( this.subscriber instanceof IBatchEventSubscriber ) {
+            final long startTime = System.nanoTime() ;
             try {
-                evt = this.eventQueue.take() ;
-                this.subscriber.handleEvent( evt ) ;
+                ( ( IBatchEventSubscriber )this.subscriber ).handleEvents( batch ) ;
             }
             catch ( final Throwable e ) {
-                logger.error( "Dispatch failed for event " + evt, e ) ;
+                logger.error( "Dispatch failed for " + batch.size() + " events", e ) ;
+            }
+            this.handlingTimes.recordSince( startTime ) ;
+        }
+        else {
+            for( final Event evt : batch ) {
+                final long startTime = System.nanoTime() ;
+                try {
+                    this.subscriber.handleEvent( evt ) ;
+                }
+                catch ( final Throwable e ) {
+                    logger.error( "Dispatch failed for event " + evt, e ) ;
+                }
+                this.handlingTimes.recordSince( startTime ) ;
             }
         }
-        this.eventQueue.clear() ;
     }
 
     /**
-     * OVERRIDDEN METHOD: Adds the event to the queue for dispatching asynchronously
-     * by the dispatch thread.
+     * OVERRIDDEN METHOD: Adds the event to the queue for dispatching
+     * asynchronously, applying the overflow policy if the queue is full.
      */
     public void handleEvent( final Event event ) {
-        this.eventQueue.add( event ) ;
+
+        boolean schedule = false ;
+        this.lock.lock() ;
+        try {
+            if( this.stop ) {
+                return ;
+            }
+
+            switch( this.policy.getOverflowPolicy() ) {
+                case COALESCE:
+                    enqueueCoalesced( event ) ;
+                    break ;
+
+                case DROP_OLDEST:
+                    if( this.eventQueue.size() >= this.policy.getCapacity() ) {
+                        this.eventQueue.poll() ;
+                        dropped() ;
+                    }
+                    this.eventQueue.add( event ) ;
+                    break ;
+
+                default:
+                    if( !awaitRoom() ) {
+                        return ;
+                    }
+                    this.eventQueue.add( event ) ;
+                    break ;
+            }
+
+            if( !this.scheduled ) {
+                this.scheduled = true ;
+                schedule = true ;
+            }
+        }
+        finally {
+            this.lock.unlock() ;
+        }
+
+        if( schedule ) {
+            this.dispatcher.schedule( this ) ;
+        }
+    }
+
+    /**
+     * Replaces a queued event having the same coalesce key with the event, or
+     * queues it, dropping the oldest event if the queue is full. Called with
+     * the lock held.
+     */
+    private void enqueueCoalesced( final Event event ) {
+
+        final Object key = this.policy.getCoalesceKey( event ) ;
+        if( this.coalesceQueue.containsKey( key ) ) {
+            // Replacing the value retains the position of the key in the queue
+            this.coalesceQueue.put( key, event ) ;
+            this.numCoalesced++ ;
+        }
+        else {
+            if( this.coalesceQueue.size() >= this.policy.getCapacity() ) {
+                final Iterator<Event> iter = this.coalesceQueue.values().iterator() ;
+                iter.next() ;
+                iter.remove() ;
+                dropped() ;
+            }
+            this.coalesceQueue.put( key, event ) ;
+        }
+    }
+
+    /**
+     * Blocks the publishing thread till there is room in the queue. Dispatch
+     * threads are not blocked, since the room can only be made by a dispatch
+     * thread, and neither is the Swing event dispatch thread, which would
+     * freeze the UI. Called with the lock held.
+     *
+     * @return false if the event is not to be queued - the proxy was stopped
+     *         or the publisher was interrupted while waiting. The event of an
+     *         interrupted publisher is counted as dropped.
+     */
+    private boolean awaitRoom() {
+
+        if( EventDispatcher.isDispatchThread() || SwingUtilities.isEventDispatchThread() ) {
+            return true ;
+        }
+
+        while( !this.stop && this.eventQueue.size() >= this.policy.getCapacity() ) {
+            try {
+                this.notFull.await() ;
+            }
+            catch ( final InterruptedException e ) {
+                Thread.currentThread().interrupt() ;
+                dropped() ;
+                return false ;
+            }
+        }
+        return !this.stop ;
+    }
+
+    /** Counts an event dropped by the overflow policy. Called with the lock held. */
+    private void dropped() {
+        this.numDropped++ ;
+        this.droppedEvents.increment() ;
+    }
+
+    /** Returns the number of queued events. Called with the lock held. */
+    private int size() {
+        return this.eventQueue.size() + this.coalesceQueue.size() ;
     }
 
     /**
@@ -89,12 +326,47 @@ class AsyncEventDispatchProxy implements IEventSubscriber, Runnable {
         return this.subscriber ;
     }
 
+    /**
+     * @return the number of events dropped because the queue was full.
+     */
+    public long getNumDropped() {
+        this.lock.lock() ;
+        try {
+            return this.numDropped ;
+        }
+        finally {
+            this.lock.unlock() ;
+        }
+    }
+
+    /**
+     * @return the number of events replaced by later events with the same key.
+     */
+    public long getNumCoalesced() {
+        this.lock.lock() ;
+        try {
+            return this.numCoalesced ;
+        }
+        finally {
+            this.lock.unlock() ;
+        }
+    }
+
     /**
      * Advises the dispatch proxy to stop dispatching and purge all the remaining
-     * events in the queue
+     * events in the queue. Publishers blocked on the queue are released.
      */
     public void stop() {
-        this.stop = true ;
+        this.lock.lock() ;
+        try {
+            this.stop = true ;
+            this.eventQueue.clear() ;
+            this.coalesceQueue.clear() ;
+            this.notFull.signalAll() ;
+        }
+        finally {
+            this.lock.unlock() ;
+        }
     }
 
     /**
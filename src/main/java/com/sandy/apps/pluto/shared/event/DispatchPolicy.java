@@ -0,0 +1,120 @@
+/**
+ * Creation Date: Oct 18, 2026
+ */
+
+package com.sandy.apps.pluto.shared.event;
+import org.apache.log4j.Logger ;
+
+import com.sandy.apps.pluto.shared.ConfigKey ;
+import com.sandy.apps.pluto.shared.util.util.ConfigManager ;
+
+/**
+ * Specifies how events are queued for a subscriber when the event bus
+ * dispatches asynchronously - the capacity of the subscriber's event queue,
+ * the maximum number of events delivered in one batch and the
+ * {@link OverflowPolicy} applied when the queue is full.
+ * <p>
+ * For the {@link OverflowPolicy#COALESCE} policy, events are coalesced by
+ * their event type. Subscribers needing a finer key, for example the symbol
+ * of the event value, can override {@link #getCoalesceKey(Event)}.
+ *
+ * @author Sandeep Deb [deb.sandeep@gmail.com]
+ */
+public class DispatchPolicy {
+
+    /** Log4J logger for this class. */
+    public static final Logger logger = Logger.getLogger( DispatchPolicy.class ) ;
+
+    /** The maximum number of events queued for a subscriber. */
+    private final int capacity ;
+
+    /** The maximum number of events delivered to a subscriber in one batch. */
+    private final int batchSize ;
+
+    /** The action taken when the subscriber's queue is full. */
+    private final OverflowPolicy overflowPolicy ;
+
+    /**
+     * Constructor.
+     *
+     * @param capacity The maximum number of events queued for a subscriber.
+     * @param batchSize The maximum number of events delivered in one batch.
+     * @param overflowPolicy The action taken when the queue is full.
+     */
+    public DispatchPolicy( final int capacity, final int batchSize,
+                           final OverflowPolicy overflowPolicy ) {
+        super() ;
+        this.capacity       = Math.max( 1, capacity ) ;
+        this.batchSize      = Math.max( 1, batchSize ) ;
+        this.overflowPolicy = overflowPolicy ;
+    }
+
+    /**
+     * Creates the default dispatch policy as configured by the keys
+     * 'event.bus.dispatch.queue.capacity', 'event.bus.dispatch.batch.size'
+     * and 'event.bus.dispatch.overflow.policy'.
+     */
+    public static DispatchPolicy getDefault() {
+
+        final ConfigManager cfgMgr = ConfigManager.getInstance() ;
+        final int capacity = cfgMgr.getInt( ConfigKey.EVENT_DISPATCH_QUEUE_CAPACITY,
+                                            ConfigKey.DEF_EVENT_DISPATCH_QUEUE_CAPACITY ) ;
+        final int batchSize = cfgMgr.getInt( ConfigKey.EVENT_DISPATCH_BATCH_SIZE,
+                                             ConfigKey.DEF_EVENT_DISPATCH_BATCH_SIZE ) ;
+        final String policyName = cfgMgr.getString( ConfigKey.EVENT_DISPATCH_OVERFLOW_POLICY,
+                                                    OverflowPolicy.BLOCK.name() ) ;
+
+        OverflowPolicy policy = OverflowPolicy.BLOCK ;
+        try {
+            policy = OverflowPolicy.valueOf( policyName.trim().toUpperCase() ) ;
+        }
+        catch( final IllegalArgumentException e ) {
+            logger.error( "Invalid event dispatch overflow policy " + policyName +
+                          ". Using " + policy ) ;
+        }
+        return new DispatchPolicy( capacity, batchSize, policy ) ;
+    }
+
+    /**
+     * @return the capacity
+     */
+    public int getCapacity() {
+        return this.capacity ;
+    }
+
+    /**
+     * @return the batchSize
+     */
+    public int getBatchSize() {
+        return this.batchSize ;
+    }
+
+    /**
+     * @return the overflowPolicy
+     */
+    public OverflowPolicy getOverflowPolicy() {
+        return this.overflowPolicy ;
+    }
+
+    /**
+     * Returns the key by which queued events are coalesced under the
+     * {@link OverflowPolicy#COALESCE} policy. Of the queued events with equal
+     * keys, only the latest one is delivered. This implementation returns
+     * the event type.
+     *
+     * @param event The event being queued.
+     *
+     * @return The coalesce key of the event, not null.
+     */
+    public Object getCoalesceKey( final Event event ) {
+        return event.getEventType() ;
+    }
+
+    /**
+     * OVERRIDDEN METHOD: Returns a string representation of this policy.
+     */
+    public String toString() {
+        return this.overflowPolicy + "[capacity=" + this.capacity +
+               ", batchSize=" + this.batchSize + "]" ;
+    }
+}
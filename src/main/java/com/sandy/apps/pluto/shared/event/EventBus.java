@@ -3,10 +3,11 @@
  */
 
 package com.sandy.apps.pluto.shared.event;
-import java.util.ArrayList ;
-import java.util.Collection ;
-import java.util.EnumMap ;
-import java.util.List ;
+import java.util.HashMap ;
+import java.util.Map ;
+import java.util.concurrent.ConcurrentHashMap ;
+import java.util.concurrent.ConcurrentMap ;
+import java.util.concurrent.atomic.AtomicReferenceArray ;
 import java.util.regex.Matcher ;
 import java.util.regex.Pattern ;
 
@@ -14,6 +15,8 @@ import org.apache.log4j.Logger ;
 
 import com.sandy.apps.pluto.shared.ConfigKey ;
 import com.sandy.apps.pluto.shared.EventType ;
+import com.sandy.apps.pluto.shared.metrics.LatencyHistogram ;
+import com.sandy.apps.pluto.shared.metrics.MetricsRegistry ;
 import com.sandy.apps.pluto.shared.util.util.ConfigManager ;
 import com.sandy.apps.pluto.shared.util.util.StringUtil ;
 
@@ -22,6 +25,24 @@ import com.sandy.apps.pluto.shared.util.util.StringUtil ;
  * class can register multiple subscribers and helps in dispatching events to
  * the registered subscribers in a synchronous or asynchronous fashion based
  * on the configuration 'event.bus.event.dispatch.async'.
+ * <p>
+ * The subscribers of each event type are held in an immutable array, which
+ * is replaced (copy on write) when a subscriber is added or removed. The
+ * registrations are serialized on a private lock, while publishing reads the
+ * current array of the event type without any locking. Hence a slow
+ * subscriber holds up only the publisher calling it, and not the publishers
+ * of other events. A subscriber added or removed during a publish may or may
+ * not receive that event.
+ * <p>
+ * When dispatching asynchronously, each subscriber is wrapped in a single
+ * {@link AsyncEventDispatchProxy}, shared across all the event types the
+ * subscriber is registered for. The proxies queue the events as per their
+ * {@link DispatchPolicy} and deliver them in batches on a pool of dispatch
+ * threads shared by all the subscribers.
+ * <p>
+ * The time taken by the subscribers to handle the events is recorded in the
+ * "event.&lt;subscriber class&gt;" latency histograms of the
+ * {@link MetricsRegistry}.
  *
  * @author Sandeep Deb [deb.sandeep@gmail.com]
  */
@@ -33,12 +54,34 @@ public class EventBus {
     /** The singleton instance. */
     private static EventBus BUS = null ;
 
+    /** An empty subscriber array, shared by the event types with no subscribers. */
+    private static final IEventSubscriber[] NO_SUBSCRIBERS = new IEventSubscriber[0] ;
+
+    /** The event handling times of the subscribers, keyed by the subscriber class. */
+    private static final ConcurrentMap<Class<?>, LatencyHistogram> HANDLING_TIMES =
+                                new ConcurrentHashMap<Class<?>, LatencyHistogram>() ;
+
+    /**
+     * The registered subscribers of the event bus, indexed by the ordinal of
+     * the event type. The arrays are never modified once published in here.
+     */
+    private final AtomicReferenceArray<IEventSubscriber[]> subscribers ;
+
+    /** The lock which serializes the modifications to the subscribers. */
+    private final Object registrationLock = new Object() ;
+
+    /**
+     * The async dispatch proxies of the subscribers, keyed by the subscriber.
+     * Guarded by the registration lock.
+     */
+    private final Map<IEventSubscriber, AsyncEventDispatchProxy> asyncProxies =
+                            new HashMap<IEventSubscriber, AsyncEventDispatchProxy>() ;
+
     /**
-     * The map holding and categorizing the registered subscribers of the
-     * event bus.
+     * The dispatcher shared by the async dispatch proxies, created when the
+     * first asynchronous subscriber is registered.
      */
-    private final EnumMap<EventType, List<IEventSubscriber>> subscriberMap =
-                   new EnumMap<EventType, List<IEventSubscriber>>( EventType.class ) ;
+    private EventDispatcher dispatcher = null ;
 
     /** A boolean flag indicating if this event bus operates asynchronously. */
     private boolean asyncOperation = false ;
@@ -46,6 +89,10 @@ public class EventBus {
     /** Private constructor to prevent instantiation. */
     private EventBus() {
         super() ;
+        this.subscribers = new AtomicReferenceArray<IEventSubscriber[]>( EventType.values().length ) ;
+        for( int i=0; i<EventType.values().length; i++ ) {
+            this.subscribers.set( i, NO_SUBSCRIBERS ) ;
+        }
     }
 
     /** Singleton accessor method. */
@@ -69,7 +116,9 @@ public class EventBus {
     /**
      * Register a subscriber with a variable number of interested event types.
      * The added subscriber will be notified if an event is generated for
-     * any of the interested event types.
+     * any of the interested event types. If the event bus dispatches
+     * asynchronously, the events are queued for the subscriber as per the
+     * default {@link DispatchPolicy}.
      *
      * @param subscriber The subscriber instance to register.
      *
@@ -79,41 +128,83 @@ public class EventBus {
      */
     public void addSubscriberForEventTypes( final IEventSubscriber subscriber,
                                             final EventType... eventTypes ) {
+        addSubscriberForEventTypes( subscriber, null, eventTypes ) ;
+    }
+
+    /**
+     * Register a subscriber with a variable number of interested event types,
+     * specifying how the events are to be queued for the subscriber if the
+     * event bus dispatches asynchronously. The policy is ignored if the event
+     * bus dispatches synchronously, or if the subscriber is already registered
+     * for some other event types, in which case the policy of the earlier
+     * registration applies.
+     *
+     * @param subscriber The subscriber instance to register.
+     *
+     * @param policy The dispatch policy for the subscriber. If null, the
+     *        default dispatch policy is used.
+     *
+     * @param eventTypes The interested event types for which this subscriber
+     *        will be notified by the bus. If the event types is null,
+     *        this subscriber will be notified on all the events.
+     */
+    public void addSubscriberForEventTypes( final IEventSubscriber subscriber,
+                                            final DispatchPolicy policy,
+                                            EventType... eventTypes ) {
 
         if( eventTypes == null || eventTypes.length == 0 ) {
             // If no specific event types are specified, it implies that this
             // subscriber is to be registered to all the event types.
-            for( final EventType type : EventType.values() ) {
-                addSubscriberForEventTypes( subscriber, type ) ;
-            }
+            eventTypes = EventType.values() ;
         }
-        else {
-            for( final EventType type : eventTypes ) {
-                synchronized (this.subscriberMap ) {
-                    List<IEventSubscriber> sbsList = this.subscriberMap.get( type ) ;
-                    if( sbsList == null ) {
-                        sbsList = new ArrayList<IEventSubscriber>() ;
-                        this.subscriberMap.put( type, sbsList ) ;
-                    }
 
-                    // Adds the subscriber to the list of subscribers registered
-                    // for this event type. If the subscriber is already present
-                    // in the list, do not add another instance.
-                    if( !sbsList.contains( subscriber ) ) {
-                        // If we are dealing with an asynchronous event bus, wrap
-                        // the subscriber in an async proxy and add it to the list
-                        if( this.asyncOperation ) {
-                            sbsList.add( new AsyncEventDispatchProxy( subscriber ) ) ;
-                        }
-                        else {
-                            sbsList.add( subscriber ) ;
-                        }
+        for( final EventType type : eventTypes ) {
+            synchronized( this.registrationLock ) {
+                final IEventSubscriber[] sbsList = this.subscribers.get( type.ordinal() ) ;
+
+                // Adds the subscriber to the list of subscribers registered
+                // for this event type. If the subscriber is already present
+                // in the list, do not add another instance.
+                if( indexOf( sbsList, subscriber ) == -1 ) {
+                    final IEventSubscriber[] newList = new IEventSubscriber[sbsList.length + 1] ;
+                    System.arraycopy( sbsList, 0, newList, 0, sbsList.length ) ;
+
+                    // If we are dealing with an asynchronous event bus, wrap
+                    // the subscriber in an async proxy and add it to the list
+                    if( this.asyncOperation ) {
+                        newList[sbsList.length] = getAsyncProxy( subscriber, policy ) ;
                     }
+                    else {
+                        newList[sbsList.length] = subscriber ;
+                    }
+                    this.subscribers.set( type.ordinal(), newList ) ;
                 }
             }
         }
     }
 
+    /**
+     * Returns the async dispatch proxy of the subscriber, creating one if the
+     * subscriber doesn't have one yet. Called with the registration lock held.
+     */
+    private AsyncEventDispatchProxy getAsyncProxy( final IEventSubscriber subscriber,
+                                                   final DispatchPolicy policy ) {
+
+        AsyncEventDispatchProxy proxy = this.asyncProxies.get( subscriber ) ;
+        if( proxy == null ) {
+            if( this.dispatcher == null ) {
+                final ConfigManager cfgMgr = ConfigManager.getInstance() ;
+                this.dispatcher = new EventDispatcher( cfgMgr.getInt( ConfigKey.EVENT_DISPATCH_THREADS,
+                                                       ConfigKey.DEF_EVENT_DISPATCH_THREADS ) ) ;
+            }
+            proxy = new AsyncEventDispatchProxy( subscriber,
+                            ( policy == null ) ? DispatchPolicy.getDefault() : policy,
+                            this.dispatcher ) ;
+            this.asyncProxies.put( subscriber, proxy ) ;
+        }
+        return proxy ;
+    }
+
     /**
      * Register a subscriber against the event types whose name match the
      * specified patterns.
@@ -178,19 +269,34 @@ public class EventBus {
             eventTypes = EventType.values() ;
         }
 
-        AsyncEventDispatchProxy asyncProxy ;
         for( final EventType type : eventTypes ) {
-            synchronized (this.subscriberMap ) {
-                final List<IEventSubscriber> sbsList = this.subscriberMap.get( type ) ;
-                if( sbsList != null && sbsList.contains( subscriber ) ) {
-
-                    final int index = sbsList.indexOf( subscriber ) ;
-                    final IEventSubscriber proxy = sbsList.get( index ) ;
-                    if( proxy instanceof AsyncEventDispatchProxy ) {
-                        asyncProxy = ( AsyncEventDispatchProxy )proxy ;
-                        asyncProxy.stop() ;
+            synchronized( this.registrationLock ) {
+                final IEventSubscriber[] sbsList = this.subscribers.get( type.ordinal() ) ;
+                final int index = indexOf( sbsList, subscriber ) ;
+                if( index != -1 ) {
+                    IEventSubscriber[] newList = NO_SUBSCRIBERS ;
+                    if( sbsList.length > 1 ) {
+                        newList = new IEventSubscriber[sbsList.length - 1] ;
+                        System.arraycopy( sbsList, 0, newList, 0, index ) ;
+                        System.arraycopy( sbsList, index+1, newList, index, sbsList.length-index-1 ) ;
                     }
-                    sbsList.remove( index ) ;
+                    this.subscribers.set( type.ordinal(), newList ) ;
+                }
+            }
+        }
+
+        // If the subscriber is no longer registered for any event type, stop
+        // its async proxy, if any.
+        synchronized( this.registrationLock ) {
+            final AsyncEventDispatchProxy asyncProxy = this.asyncProxies.get( subscriber ) ;
+            if( asyncProxy != null ) {
+                boolean registered = false ;
+                for( int i=0; i<this.subscribers.length() && !registered; i++ ) {
+                    registered = ( indexOf( this.subscribers.get( i ), subscriber ) != -1 ) ;
+                }
+                if( !registered ) {
+                    asyncProxy.stop() ;
+                    this.asyncProxies.remove( subscriber ) ;
                 }
             }
         }
@@ -201,23 +307,14 @@ public class EventBus {
      */
     public void removeAllSubscribers() {
 
-        AsyncEventDispatchProxy asyncProxy = null ;
-        synchronized ( this.subscriberMap ) {
-
-            Collection<List<IEventSubscriber>> subscriberListCol = null ;
-            subscriberListCol = this.subscriberMap.values() ;
-
-            for( final List<IEventSubscriber> subsList : subscriberListCol ) {
-                while( subsList.size() > 0 ) {
-                    final IEventSubscriber proxy = subsList.remove( 0 ) ;
-                    if( proxy instanceof AsyncEventDispatchProxy ) {
-                        asyncProxy = ( AsyncEventDispatchProxy )proxy ;
-                        asyncProxy.stop() ;
-                    }
-                }
+        synchronized( this.registrationLock ) {
+            for( int i=0; i<this.subscribers.length(); i++ ) {
+                this.subscribers.set( i, NO_SUBSCRIBERS ) ;
             }
-
-            this.subscriberMap.clear() ;
+            for( final AsyncEventDispatchProxy asyncProxy : this.asyncProxies.values() ) {
+                asyncProxy.stop() ;
+            }
+            this.asyncProxies.clear() ;
         }
     }
 
@@ -247,21 +344,60 @@ public class EventBus {
      */
     public void publishEvent( final EventType eventType, final Object value ) {
 
-        synchronized ( this.subscriberMap ) {
+        final IEventSubscriber[] sbsList = this.subscribers.get( eventType.ordinal() ) ;
+        if( sbsList.length > 0 ) {
             final Event event = new Event( eventType, value ) ;
-            final List<IEventSubscriber> sbsList = this.subscriberMap.get( eventType ) ;
-            if( sbsList != null && !sbsList.isEmpty() ) {
-                for( final IEventSubscriber subscriber : sbsList ) {
-                    try {
+            for( final IEventSubscriber subscriber : sbsList ) {
+                try {
+                    if( subscriber instanceof AsyncEventDispatchProxy ) {
+                        // The proxy records the handling time on delivery
                         subscriber.handleEvent( event ) ;
                     }
-                    catch ( final Throwable e ) {
-                        // Harden the event propagation. A subscriber error
-                        // should not be able to bring down the event bus
-                        logger.error( "Exception while dispatching event", e ) ;
+                    else {
+                        final long startTime = System.nanoTime() ;
+                        subscriber.handleEvent( event ) ;
+                        getHandlingTimes( subscriber ).recordSince( startTime ) ;
                     }
                 }
+                catch ( final Throwable e ) {
+                    // Harden the event propagation. A subscriber error
+                    // should not be able to bring down the event bus
+                    logger.error( "Exception while dispatching event", e ) ;
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the histogram of the event handling times of the subscriber,
+     * shared by all the subscribers of its class.
+     */
+    static LatencyHistogram getHandlingTimes( final IEventSubscriber subscriber ) {
+
+        final Class<?> cls = subscriber.getClass() ;
+        LatencyHistogram histogram = HANDLING_TIMES.get( cls ) ;
+        if( histogram == null ) {
+            // Anonymous and nested classes are named after the binary name
+            final String clsName = cls.getName() ;
+            histogram = MetricsRegistry.instance().getHistogram( "event." +
+                              clsName.substring( clsName.lastIndexOf( '.' ) + 1 ) ) ;
+            HANDLING_TIMES.putIfAbsent( cls, histogram ) ;
+        }
+        return histogram ;
+    }
+
+    /**
+     * Returns the index of the subscriber in the array specified, or -1 if the
+     * subscriber is not present. The subscriber is equated using the
+     * subscriber's equals method, as done by the async dispatch proxies.
+     */
+    private static int indexOf( final IEventSubscriber[] sbsList,
+                                final IEventSubscriber subscriber ) {
+        for( int i=0; i<sbsList.length; i++ ) {
+            if( sbsList[i].equals( subscriber ) ) {
+                return i ;
             }
         }
+        return -1 ;
     }
 }
@@ -0,0 +1,68 @@
+/**
+ * Creation Date: Oct 18, 2026
+ */
+
+package com.sandy.apps.pluto.shared.event;
+import java.util.concurrent.LinkedBlockingQueue ;
+import java.util.concurrent.ThreadFactory ;
+import java.util.concurrent.ThreadPoolExecutor ;
+import java.util.concurrent.TimeUnit ;
+import java.util.concurrent.atomic.AtomicInteger ;
+
+import org.apache.log4j.Logger ;
+
+/**
+ * A pool of daemon threads shared by all the asynchronous dispatch proxies
+ * of the event bus. A proxy schedules itself on the pool when events are
+ * queued for its subscriber and the pool delivers them in batches. At most
+ * one delivery is scheduled for a proxy at any point in time, which keeps
+ * the events of a subscriber in order.
+ *
+ * @author Sandeep Deb [deb.sandeep@gmail.com]
+ */
+class EventDispatcher {
+
+    /** Log4J logger for this class. */
+    public static final Logger logger = Logger.getLogger( EventDispatcher.class ) ;
+
+    /** The threads of the dispatcher, which can be identified as such. */
+    private static class DispatchThread extends Thread {
+        DispatchThread( final Runnable runnable, final String name ) {
+            super( runnable, name ) ;
+            setDaemon( true ) ;
+        }
+    }
+
+    /** The executor which runs the deliveries. */
+    private final ThreadPoolExecutor executor ;
+
+    /**
+     * Constructor.
+     *
+     * @param numThreads The number of dispatch threads.
+     */
+    public EventDispatcher( final int numThreads ) {
+
+        final AtomicInteger threadNum = new AtomicInteger() ;
+        final int poolSize = Math.max( 1, numThreads ) ;
+        this.executor = new ThreadPoolExecutor( poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<Runnable>(),
+                new ThreadFactory() {
+                    public Thread newThread( final Runnable runnable ) {
+                        return new DispatchThread( runnable, "EventDispatcher-" +
+                                                   threadNum.incrementAndGet() ) ;
+                    }
+                } ) ;
+        logger.debug( "Event dispatcher started with " + poolSize + " threads" ) ;
+    }
+
+    /** Schedules the delivery task specified. */
+    public void schedule( final Runnable task ) {
+        this.executor.execute( task ) ;
+    }
+
+    /** Returns true if the calling thread is a dispatch thread. */
+    public static boolean isDispatchThread() {
+        return Thread.currentThread() instanceof DispatchThread ;
+    }
+}
@@ -0,0 +1,28 @@
+/**
+ * Creation Date: Oct 18, 2026
+ */
+
+package com.sandy.apps.pluto.shared.event;
+import java.util.List ;
+
+/**
+ * An extension of {@link IEventSubscriber} for subscribers which would rather
+ * receive the events queued for them in one call. When the event bus
+ * dispatches asynchronously, the events accumulated since the last dispatch
+ * are handed to {@link #handleEvents(List)} as a batch, for example allowing
+ * a UI component to redraw once per batch instead of once per event. When the
+ * event bus dispatches synchronously, events are delivered one at a time
+ * through {@link #handleEvent(Event)}.
+ *
+ * @author Sandeep Deb [deb.sandeep@gmail.com]
+ */
+public interface IBatchEventSubscriber extends IEventSubscriber {
+
+    /**
+     * Handles a batch of events, in the order in which they were published.
+     *
+     * @param events A non empty list of events. The list is owned by the
+     *        subscriber once passed.
+     */
+    void handleEvents( final List<Event> events ) ;
+}
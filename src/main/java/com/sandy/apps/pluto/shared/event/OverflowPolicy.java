@@ -0,0 +1,34 @@
+/**
+ * Creation Date: Oct 18, 2026
+ */
+
+package com.sandy.apps.pluto.shared.event;
+
+/**
+ * Enumerates the actions taken by an asynchronous event dispatcher when a
+ * subscriber's event queue is full, that is when the events are being
+ * published faster than the subscriber can consume them.
+ *
+ * @author Sandeep Deb [deb.sandeep@gmail.com]
+ */
+public enum OverflowPolicy {
+
+    /**
+     * The publisher is blocked till the subscriber makes room in its queue.
+     * Publishers running on a dispatch thread or on the Swing event dispatch
+     * thread are never blocked, their events are queued beyond the capacity
+     * instead.
+     */
+    BLOCK,
+
+    /** The oldest queued event is dropped to make room for the new event. */
+    DROP_OLDEST,
+
+    /**
+     * A queued event with the same coalesce key as the new event, as given
+     * by {@link DispatchPolicy#getCoalesceKey(Event)}, is replaced by the new
+     * event. If there is no such event and the queue is full, the oldest
+     * queued event is dropped.
+     */
+    COALESCE
+}
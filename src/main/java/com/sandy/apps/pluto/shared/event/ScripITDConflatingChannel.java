@@ -0,0 +1,312 @@
+/**
+ * Creation Date: Oct 18, 2026
+ */
+
+package com.sandy.apps.pluto.shared.event;
+import java.util.ArrayList ;
+import java.util.LinkedHashMap ;
+import java.util.List ;
+import java.util.Map ;
+import java.util.concurrent.ScheduledThreadPoolExecutor ;
+import java.util.concurrent.ThreadFactory ;
+import java.util.concurrent.TimeUnit ;
+import java.util.concurrent.atomic.AtomicInteger ;
+
+import org.apache.log4j.Logger ;
+
+import com.sandy.apps.pluto.shared.EventType ;
+import com.sandy.apps.pluto.shared.dto.ScripITD ;
+
+/**
+ * A conflating channel for the EVT_SCRIP_ITD_INSERT events, layered on top
+ * of the {@link EventBus}. During market hours the ITD import services
+ * publish scrip ITD values much faster than some subscribers, for example the
+ * Swing caches and charts, can absorb them. Such subscribers register with
+ * this channel instead of the event bus, specifying the maximum rate at which
+ * they want to be notified.
+ * <p>
+ * Between two deliveries to a subscriber, the channel keeps only the newest
+ * {@link ScripITD} per symbol. Each delivery is an EVT_SCRIP_ITD_INSERT event
+ * whose value is the list of the pending ITD values, delivered through the
+ * subscriber's handleEvent method on a thread of the channel. The deliveries
+ * to a subscriber are never concurrent.
+ *
+ * @author Sandeep Deb [deb.sandeep@gmail.com]
+ */
+public class ScripITDConflatingChannel implements IBatchEventSubscriber {
+
+    /** Log4J logger for this class. */
+    public static final Logger logger = Logger.getLogger( ScripITDConflatingChannel.class ) ;
+
+    /** The number of threads delivering the conflated ITD values. */
+    private static final int NUM_DELIVERY_THREADS = 2 ;
+
+    /** The singleton instance. */
+    private static ScripITDConflatingChannel instance = null ;
+
+    /**
+     * A snapshot of the conflation statistics of a subscriber.
+     */
+    public static class ConflationStats {
+
+        private final long numTicksReceived ;
+        private final long numTicksConflated ;
+        private final long numDeliveries ;
+
+        ConflationStats( final long received, final long conflated,
+                         final long deliveries ) {
+            this.numTicksReceived  = received ;
+            this.numTicksConflated = conflated ;
+            this.numDeliveries     = deliveries ;
+        }
+
+        /** @return the number of ITD values published to the subscriber. */
+        public long getNumTicksReceived() {
+            return this.numTicksReceived ;
+        }
+
+        /** @return the number of ITD values superseded before delivery. */
+        public long getNumTicksConflated() {
+            return this.numTicksConflated ;
+        }
+
+        /** @return the number of deliveries made to the subscriber. */
+        public long getNumDeliveries() {
+            return this.numDeliveries ;
+        }
+
+        /** OVERRIDDEN METHOD: Returns a string representation of the stats. */
+        public String toString() {
+            return "received=" + this.numTicksReceived +
+                   ", conflated=" + this.numTicksConflated +
+                   ", deliveries=" + this.numDeliveries ;
+        }
+    }
+
+    /**
+     * The pending ITD values and delivery state of one subscriber. All the
+     * state is guarded by the mailbox instance.
+     */
+    private class Mailbox implements Runnable {
+
+        private final IEventSubscriber subscriber ;
+        private final long minIntervalMillis ;
+        private LinkedHashMap<String, ScripITD> pending = new LinkedHashMap<String, ScripITD>() ;
+        private long    lastDeliveryTime  = 0 ;
+        private boolean scheduled         = false ;
+        private boolean stopped           = false ;
+        private long    numTicksReceived  = 0 ;
+        private long    numTicksConflated = 0 ;
+        private long    numDeliveries     = 0 ;
+
+        Mailbox( final IEventSubscriber subscriber, final double maxRate ) {
+            this.subscriber = subscriber ;
+            this.minIntervalMillis = ( maxRate > 0 ) ? ( long )( 1000 / maxRate ) : 0 ;
+        }
+
+        /** Merges the ITD values into the pending values. */
+        void offer( final List<ScripITD> itdValues ) {
+
+            synchronized( this ) {
+                if( this.stopped ) {
+                    return ;
+                }
+
+                for( final ScripITD itd : itdValues ) {
+                    this.numTicksReceived++ ;
+                    final ScripITD existing = this.pending.get( itd.getSymbolId() ) ;
+                    if( existing == null ) {
+                        this.pending.put( itd.getSymbolId(), itd ) ;
+                    }
+                    else {
+                        this.numTicksConflated++ ;
+                        if( !itd.getTime().before( existing.getTime() ) ) {
+                            this.pending.put( itd.getSymbolId(), itd ) ;
+                        }
+                    }
+                }
+
+                if( this.scheduled || this.pending.isEmpty() ) {
+                    return ;
+                }
+                this.scheduled = true ;
+            }
+            schedule() ;
+        }
+
+        /** Schedules the next delivery, honoring the minimum interval. */
+        private void schedule() {
+            long delay = 0 ;
+            synchronized( this ) {
+                delay = this.lastDeliveryTime + this.minIntervalMillis - System.currentTimeMillis() ;
+            }
+            ScripITDConflatingChannel.this.executor.schedule( this, Math.max( 0, delay ),
+                                                              TimeUnit.MILLISECONDS ) ;
+        }
+
+        /** Delivers the pending ITD values to the subscriber. */
+        public void run() {
+
+            List<ScripITD> itdValues = null ;
+            synchronized( this ) {
+                if( this.stopped ) {
+                    return ;
+                }
+                itdValues = new ArrayList<ScripITD>( this.pending.values() ) ;
+                this.pending = new LinkedHashMap<String, ScripITD>() ;
+                this.lastDeliveryTime = System.currentTimeMillis() ;
+                this.numDeliveries++ ;
+            }
+
+            try {
+                this.subscriber.handleEvent( new Event( EventType.EVT_SCRIP_ITD_INSERT, itdValues ) ) ;
+            }
+            catch( final Throwable e ) {
+                // A subscriber error should not stop the deliveries
+                logger.error( "Exception while delivering conflated ITD values", e ) ;
+            }
+
+            synchronized( this ) {
+                this.scheduled = !this.stopped && !this.pending.isEmpty() ;
+                if( !this.scheduled ) {
+                    return ;
+                }
+            }
+            schedule() ;
+        }
+
+        synchronized void stop() {
+            this.stopped = true ;
+            this.pending.clear() ;
+        }
+
+        synchronized ConflationStats getStats() {
+            return new ConflationStats( this.numTicksReceived, this.numTicksConflated,
+                                        this.numDeliveries ) ;
+        }
+    }
+
+    /**
+     * The mailboxes of the registered subscribers. The map is copied on
+     * registration changes, such that publishing can iterate over it without
+     * locking.
+     */
+    private volatile Map<IEventSubscriber, Mailbox> mailboxes = new LinkedHashMap<IEventSubscriber, Mailbox>() ;
+
+    /** The executor which runs the deliveries to the subscribers. */
+    private final ScheduledThreadPoolExecutor executor ;
+
+    /** Private constructor to enforce the singleton pattern. */
+    private ScripITDConflatingChannel() {
+        super() ;
+        final AtomicInteger threadNum = new AtomicInteger() ;
+        this.executor = new ScheduledThreadPoolExecutor( NUM_DELIVERY_THREADS, new ThreadFactory() {
+            public Thread newThread( final Runnable runnable ) {
+                final Thread thread = new Thread( runnable, "ITDConflatingChannel-" +
+                                                  threadNum.incrementAndGet() ) ;
+                thread.setDaemon( true ) ;
+                return thread ;
+            }
+        } ) ;
+    }
+
+    /** Singleton accessor method. */
+    public static synchronized ScripITDConflatingChannel instance() {
+        if( instance == null ) {
+            instance = new ScripITDConflatingChannel() ;
+        }
+        return instance ;
+    }
+
+    /**
+     * Registers a subscriber for conflated EVT_SCRIP_ITD_INSERT events. If the
+     * subscriber is already registered, this call has no effect.
+     *
+     * @param subscriber The subscriber instance to register.
+     *
+     * @param maxDeliveryRate The maximum number of deliveries per second. A
+     *        value of zero or less implies that the deliveries are not
+     *        throttled, the values are still conflated if the subscriber
+     *        is slower than the publishers.
+     */
+    public synchronized void addSubscriber( final IEventSubscriber subscriber,
+                                            final double maxDeliveryRate ) {
+
+        if( this.mailboxes.containsKey( subscriber ) ) {
+            return ;
+        }
+
+        if( this.mailboxes.isEmpty() ) {
+            // Batches of events are merged into the mailboxes in one go. The
+            // channel should not lose ITD values on the bus, hence the
+            // blocking policy irrespective of the configured default.
+            final DispatchPolicy policy = DispatchPolicy.getDefault() ;
+            EventBus.instance().addSubscriberForEventTypes( this,
+                    new DispatchPolicy( policy.getCapacity(), policy.getBatchSize(), OverflowPolicy.BLOCK ),
+                    EventType.EVT_SCRIP_ITD_INSERT ) ;
+        }
+
+        final Map<IEventSubscriber, Mailbox> newMap = new LinkedHashMap<IEventSubscriber, Mailbox>( this.mailboxes ) ;
+        newMap.put( subscriber, new Mailbox( subscriber, maxDeliveryRate ) ) ;
+        this.mailboxes = newMap ;
+    }
+
+    /**
+     * Removes the subscriber from this channel. Any values pending for the
+     * subscriber are discarded.
+     *
+     * @param subscriber The subscriber instance to de-register.
+     */
+    public synchronized void removeSubscriber( final IEventSubscriber subscriber ) {
+
+        if( !this.mailboxes.containsKey( subscriber ) ) {
+            return ;
+        }
+
+        final Map<IEventSubscriber, Mailbox> newMap = new LinkedHashMap<IEventSubscriber, Mailbox>( this.mailboxes ) ;
+        final Mailbox mailbox = newMap.remove( subscriber ) ;
+        mailbox.stop() ;
+        logger.debug( "Conflation stats for " + subscriber + " : " + mailbox.getStats() ) ;
+        this.mailboxes = newMap ;
+
+        if( this.mailboxes.isEmpty() ) {
+            EventBus.instance().removeSubscriber( this, EventType.EVT_SCRIP_ITD_INSERT ) ;
+        }
+    }
+
+    /**
+     * Returns the conflation statistics for the subscriber specified, or null
+     * if the subscriber is not registered with this channel.
+     */
+    public ConflationStats getStats( final IEventSubscriber subscriber ) {
+        final Mailbox mailbox = this.mailboxes.get( subscriber ) ;
+        return ( mailbox == null ) ? null : mailbox.getStats() ;
+    }
+
+    /**
+     * OVERRIDDEN METHOD: Merges the ITD values of the event into the mailboxes
+     * of all the subscribers.
+     */
+    @SuppressWarnings("unchecked")
+    public void handleEvent( final Event event ) {
+
+        final List<ScripITD> itdValues = ( List<ScripITD> )event.getValue() ;
+        if( itdValues == null || itdValues.isEmpty() ) {
+            return ;
+        }
+
+        for( final Mailbox mailbox : this.mailboxes.values() ) {
+            mailbox.offer( itdValues ) ;
+        }
+    }
+
+    /**
+     * OVERRIDDEN METHOD: Merges the ITD values of a batch of events into the
+     * mailboxes of all the subscribers.
+     */
+    public void handleEvents( final List<Event> events ) {
+        for( final Event event : events ) {
+            handleEvent( event ) ;
+        }
+    }
+}
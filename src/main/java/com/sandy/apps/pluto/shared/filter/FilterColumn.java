@@ -0,0 +1,68 @@
+/**
+ * Creation Date: Oct 18, 2026
+ */
+
+package com.sandy.apps.pluto.shared.filter;
+
+/**
+ * Describes a column which can be referred to in a filter query. A column is
+ * either numeric, in which case it is compared with numbers, or textual, in
+ * which case it is matched with regular expressions.
+ * <p>
+ * The index of the column is the index with which its values are fetched from
+ * a {@link FilterValueSource}. The SQL expression of the column, if any, is
+ * the expression which evaluates to the values of the column in the screening
+ * queries run against the database. Columns without an SQL expression can
+ * only be evaluated in memory.
+ *
+ * @author Sandeep Deb [deb.sandeep@gmail.com]
+ */
+public class FilterColumn {
+
+    private final String  name ;
+    private final int     index ;
+    private final boolean numeric ;
+    private final String  sqlExpr ;
+
+    /**
+     * Constructor.
+     *
+     * @param name The name of the column, used in the error messages.
+     * @param index The index of the column in the value source.
+     * @param numeric True if the values of the column are numbers.
+     * @param sqlExpr The SQL expression for the column or null if the column
+     *        can't be evaluated in the database.
+     */
+    public FilterColumn( final String name, final int index,
+                         final boolean numeric, final String sqlExpr ) {
+        this.name    = name ;
+        this.index   = index ;
+        this.numeric = numeric ;
+        this.sqlExpr = sqlExpr ;
+    }
+
+    /** Returns the name of the column. */
+    public String getName() {
+        return this.name ;
+    }
+
+    /** Returns the index of the column in the value source. */
+    public int getIndex() {
+        return this.index ;
+    }
+
+    /** Returns true if the values of this column are numbers. */
+    public boolean isNumeric() {
+        return this.numeric ;
+    }
+
+    /** Returns the SQL expression of this column or null if there is none. */
+    public String getSqlExpr() {
+        return this.sqlExpr ;
+    }
+
+    @Override
+    public String toString() {
+        return this.name ;
+    }
+}
@@ -0,0 +1,508 @@
+/**
+ * Creation Date: Oct 18, 2026
+ */
+
+package com.sandy.apps.pluto.shared.filter;
+import java.math.BigDecimal ;
+import java.util.ArrayList ;
+import java.util.Arrays ;
+import java.util.Comparator ;
+import java.util.HashMap ;
+import java.util.List ;
+import java.util.Map ;
+import java.util.regex.Pattern ;
+
+/**
+ * A compiled filter query, which is a tree of predicates over the columns of
+ * a {@link FilterValueSource}. The leaves of the tree compare numeric columns
+ * with a number or match text columns with regular expressions, and the
+ * inner nodes combine their children with AND or OR.
+ * <p>
+ * The children of an AND or OR node are evaluated in the order of their
+ * rank, such that the cheapest children which are most likely to decide the
+ * outcome are evaluated first and the rest are short circuited. The ranks
+ * start from estimates of the selectivity of each child and are refined with
+ * the observed fraction of rows each child passes, as the predicate is
+ * evaluated over the rows of a table on every filter pass.
+ * <p>
+ * A predicate whose columns all have SQL expressions can also be rendered
+ * as an SQL condition, such that the same query can be evaluated by the
+ * database over the historic data.
+ * <p>
+ * The predicates are not thread safe, a predicate is expected to be
+ * evaluated by one thread at a time.
+ *
+ * @author Sandeep Deb [deb.sandeep@gmail.com]
+ */
+public abstract class FilterPredicate {
+
+    /** The comparisons of a numeric column with a number. */
+    public enum Comparison {
+
+        GT( ">" ), LT( "<" ), EQ( "=" ), NE( "<>" ) ;
+
+        private final String sqlOp ;
+
+        private Comparison( final String sqlOp ) {
+            this.sqlOp = sqlOp ;
+        }
+
+        /** Returns the SQL operator of this comparison. */
+        public String getSqlOp() {
+            return this.sqlOp ;
+        }
+    }
+
+    /**
+     * The number of evaluations after which the observed selectivity of a
+     * predicate is used in place of its estimate.
+     */
+    private static final int MIN_SAMPLES = 64 ;
+
+    /**
+     * The number of evaluations of an AND or OR node after which its
+     * children are ranked again.
+     */
+    private static final int REORDER_INTERVAL = 1024 ;
+
+    /** The number of times this predicate has been evaluated. */
+    private long numEvaluated = 0 ;
+
+    /** The number of evaluations for which this predicate has passed. */
+    private long numPassed = 0 ;
+
+    /** Constructor for the subclasses. */
+    protected FilterPredicate() {
+        super() ;
+    }
+
+    /**
+     * Returns true if the row of the value source satisfies this predicate.
+     *
+     * @param source The source of the values of the row.
+     * @param row The index of the row in the value source.
+     */
+    public final boolean matches( final FilterValueSource source, final int row ) {
+        this.numEvaluated++ ;
+        final boolean matched = evaluate( source, row ) ;
+        if( matched ) {
+            this.numPassed++ ;
+        }
+        return matched ;
+    }
+
+    /**
+     * Returns the fraction of the rows expected to satisfy this predicate.
+     * The observed fraction is returned once this predicate has been
+     * evaluated enough number of times, else the estimate.
+     */
+    public float getSelectivity() {
+        if( this.numEvaluated >= MIN_SAMPLES ) {
+            return ( float )this.numPassed / this.numEvaluated ;
+        }
+        return getEstimatedSelectivity() ;
+    }
+
+    /**
+     * Returns true if this predicate can be rendered as an SQL condition,
+     * which is the case if all the columns it refers to have SQL expressions.
+     */
+    public abstract boolean isPushable() ;
+
+    /**
+     * Returns this predicate as an SQL condition. Numbers are rendered as
+     * literals and the regular expressions as escaped string literals, which
+     * are matched with the POSIX regular expression operator.
+     *
+     * @throws IllegalStateException If this predicate can't be rendered as an
+     *         SQL condition.
+     */
+    public String toSQL() {
+        if( !isPushable() ) {
+            throw new IllegalStateException( "Filter " + this + " refers to " +
+                                             "columns which are not in the database" ) ;
+        }
+        final StringBuilder sql = new StringBuilder() ;
+        appendSQL( sql ) ;
+        return sql.toString() ;
+    }
+
+    /** Evaluates this predicate for the row of the value source. */
+    protected abstract boolean evaluate( final FilterValueSource source, final int row ) ;
+
+    /** Returns the estimated fraction of the rows satisfying this predicate. */
+    protected abstract float getEstimatedSelectivity() ;
+
+    /** Returns the relative cost of an evaluation of this predicate. */
+    protected abstract float getCost() ;
+
+    /** Appends this predicate as an SQL condition to the buffer. */
+    protected abstract void appendSQL( final StringBuilder sql ) ;
+
+    /**
+     * Returns a predicate which is satisfied if all of the predicates are
+     * satisfied. Nested AND predicates are merged into the returned one, such
+     * that all of their children are ranked together.
+     */
+    public static FilterPredicate and( final FilterPredicate... predicates ) {
+        return new And( flatten( And.class, predicates ) ) ;
+    }
+
+    /**
+     * Returns a predicate which is satisfied if any of the predicates is
+     * satisfied. Nested OR predicates are merged into the returned one.
+     */
+    public static FilterPredicate or( final FilterPredicate... predicates ) {
+        return new Or( flatten( Or.class, predicates ) ) ;
+    }
+
+    /**
+     * Returns a predicate which compares the value of a numeric column with
+     * the number. Rows which have no value for the column don't satisfy the
+     * predicate.
+     */
+    public static FilterPredicate compare( final FilterColumn column,
+                                           final Comparison comparison,
+                                           final double value ) {
+        return new Compare( column, comparison, value ) ;
+    }
+
+    /**
+     * Returns a predicate which is satisfied if any of the regular expressions
+     * is found in the value of any of the columns, or if none is found when
+     * the predicate is negated. Rows which have no value for any of the
+     * columns don't satisfy the predicate.
+     */
+    public static FilterPredicate match( final FilterColumn[] columns,
+                                         final String[] regexes,
+                                         final boolean negated ) {
+        return new Match( columns, regexes, negated ) ;
+    }
+
+    /** Returns the predicates with the children of the nested nodes inlined. */
+    private static List<FilterPredicate> flatten(
+                            final Class<? extends Composite> type,
+                            final FilterPredicate[] predicates ) {
+
+        final List<FilterPredicate> children = new ArrayList<FilterPredicate>() ;
+        for( final FilterPredicate predicate : predicates ) {
+            if( predicate.getClass() == type ) {
+                children.addAll( Arrays.asList( ( ( Composite )predicate ).children ) ) ;
+            }
+            else {
+                children.add( predicate ) ;
+            }
+        }
+        return children ;
+    }
+
+    /**
+     * The base of the AND and OR nodes, which evaluates the children in the
+     * order of their rank and stops at the first child deciding the outcome.
+     */
+    private static abstract class Composite extends FilterPredicate {
+
+        private final FilterPredicate[] children ;
+        private final boolean shortCircuitOn ;
+        private final String sqlOp ;
+
+        private final Comparator<FilterPredicate> rankComparator =
+            new Comparator<FilterPredicate>() {
+                public int compare( final FilterPredicate p1, final FilterPredicate p2 ) {
+                    return Double.compare( getRank( p1 ), getRank( p2 ) ) ;
+                }
+            } ;
+
+        private int numSinceReorder = 0 ;
+
+        /**
+         * @param shortCircuitOn The outcome of a child which decides the
+         *        outcome of this node, false for AND and true for OR.
+         */
+        protected Composite( final List<FilterPredicate> children,
+                             final boolean shortCircuitOn, final String sqlOp ) {
+            this.children       = children.toArray( new FilterPredicate[children.size()] ) ;
+            this.shortCircuitOn = shortCircuitOn ;
+            this.sqlOp          = sqlOp ;
+            Arrays.sort( this.children, this.rankComparator ) ;
+        }
+
+        /**
+         * Returns the rank of a child, which is its cost per unit probability
+         * of deciding the outcome. Children with lower ranks are evaluated
+         * first.
+         */
+        private double getRank( final FilterPredicate child ) {
+            final float selectivity = child.getSelectivity() ;
+            final double pDecide = this.shortCircuitOn ? selectivity : 1 - selectivity ;
+            return child.getCost() / Math.max( pDecide, 1E-6 ) ;
+        }
+
+        @Override
+        protected boolean evaluate( final FilterValueSource source, final int row ) {
+
+            if( ++this.numSinceReorder >= REORDER_INTERVAL ) {
+                this.numSinceReorder = 0 ;
+                Arrays.sort( this.children, this.rankComparator ) ;
+            }
+
+            for( final FilterPredicate child : this.children ) {
+                if( child.matches( source, row ) == this.shortCircuitOn ) {
+                    return this.shortCircuitOn ;
+                }
+            }
+            return !this.shortCircuitOn ;
+        }
+
+        @Override
+        protected float getEstimatedSelectivity() {
+            // The probability of none of the children deciding the outcome.
+            float pUndecided = 1 ;
+            for( final FilterPredicate child : this.children ) {
+                final float selectivity = child.getEstimatedSelectivity() ;
+                pUndecided *= this.shortCircuitOn ? 1 - selectivity : selectivity ;
+            }
+            return this.shortCircuitOn ? 1 - pUndecided : pUndecided ;
+        }
+
+        @Override
+        protected float getCost() {
+            // A child is evaluated only if the children ranked before it
+            // have not decided the outcome.
+            float cost = 0 ;
+            float pReached = 1 ;
+            for( final FilterPredicate child : this.children ) {
+                cost += pReached * child.getCost() ;
+                final float selectivity = child.getSelectivity() ;
+                pReached *= this.shortCircuitOn ? 1 - selectivity : selectivity ;
+            }
+            return cost ;
+        }
+
+        @Override
+        public boolean isPushable() {
+            for( final FilterPredicate child : this.children ) {
+                if( !child.isPushable() ) {
+                    return false ;
+                }
+            }
+            return true ;
+        }
+
+        @Override
+        protected void appendSQL( final StringBuilder sql ) {
+            sql.append( "( " ) ;
+            for( int i=0; i<this.children.length; i++ ) {
+                if( i > 0 ) {
+                    sql.append( this.sqlOp ) ;
+                }
+                this.children[i].appendSQL( sql ) ;
+            }
+            sql.append( " )" ) ;
+        }
+
+        @Override
+        public String toString() {
+            final StringBuilder buffer = new StringBuilder( "( " ) ;
+            for( int i=0; i<this.children.length; i++ ) {
+                if( i > 0 ) {
+                    buffer.append( this.sqlOp ) ;
+                }
+                buffer.append( this.children[i] ) ;
+            }
+            return buffer.append( " )" ).toString() ;
+        }
+    }
+
+    /** A predicate satisfied if all of its children are satisfied. */
+    private static class And extends Composite {
+        And( final List<FilterPredicate> children ) {
+            super( children, false, " AND " ) ;
+        }
+    }
+
+    /** A predicate satisfied if any of its children is satisfied. */
+    private static class Or extends Composite {
+        Or( final List<FilterPredicate> children ) {
+            super( children, true, " OR " ) ;
+        }
+    }
+
+    /** A comparison of a numeric column with a number. */
+    private static class Compare extends FilterPredicate {
+
+        private final FilterColumn column ;
+        private final int          columnIndex ;
+        private final Comparison   comparison ;
+        private final double       value ;
+
+        Compare( final FilterColumn column, final Comparison comparison,
+                 final double value ) {
+            this.column      = column ;
+            this.columnIndex = column.getIndex() ;
+            this.comparison  = comparison ;
+            this.value       = value ;
+        }
+
+        @Override
+        protected boolean evaluate( final FilterValueSource source, final int row ) {
+
+            final double colValue = source.getNumber( row, this.columnIndex ) ;
+            if( Double.isNaN( colValue ) ) {
+                return false ;
+            }
+
+            switch( this.comparison ) {
+                case GT: return colValue >  this.value ;
+                case LT: return colValue <  this.value ;
+                case EQ: return colValue == this.value ;
+                default: return colValue != this.value ;
+            }
+        }
+
+        @Override
+        protected float getEstimatedSelectivity() {
+            switch( this.comparison ) {
+                case EQ: return 0.05F ;
+                case NE: return 0.95F ;
+                default: return 0.5F ;
+            }
+        }
+
+        @Override
+        protected float getCost() {
+            return 1 ;
+        }
+
+        @Override
+        public boolean isPushable() {
+            return this.column.getSqlExpr() != null ;
+        }
+
+        @Override
+        protected void appendSQL( final StringBuilder sql ) {
+            sql.append( this.column.getSqlExpr() )
+               .append( ' ' ).append( this.comparison.getSqlOp() ).append( ' ' )
+               .append( BigDecimal.valueOf( this.value ).stripTrailingZeros().toPlainString() ) ;
+        }
+
+        @Override
+        public String toString() {
+            return this.column + " " + this.comparison.getSqlOp() + " " + this.value ;
+        }
+    }
+
+    /**
+     * A match of text columns with regular expressions. The outcome is cached
+     * by the matched text, since the same symbols are matched on every filter
+     * pass.
+     */
+    private static class Match extends FilterPredicate {
+
+        /** The number of cached outcomes after which the cache is cleared. */
+        private static final int MAX_CACHE_SIZE = 8192 ;
+
+        private final FilterColumn[] columns ;
+        private final String[]       regexes ;
+        private final Pattern[]      patterns ;
+        private final boolean        negated ;
+
+        /** The outcome of the match, keyed by the matched text. */
+        private final Map<String, Boolean> outcomes = new HashMap<String, Boolean>() ;
+
+        Match( final FilterColumn[] columns, final String[] regexes,
+               final boolean negated ) {
+            this.columns  = columns ;
+            this.regexes  = regexes ;
+            this.negated  = negated ;
+            this.patterns = new Pattern[regexes.length] ;
+            for( int i=0; i<regexes.length; i++ ) {
+                this.patterns[i] = Pattern.compile( regexes[i] ) ;
+            }
+        }
+
+        @Override
+        protected boolean evaluate( final FilterValueSource source, final int row ) {
+
+            boolean hasValue = false ;
+            for( final FilterColumn column : this.columns ) {
+                final String text = source.getString( row, column.getIndex() ) ;
+                if( text != null ) {
+                    hasValue = true ;
+                    if( isFound( text ) ) {
+                        return !this.negated ;
+                    }
+                }
+            }
+            return hasValue && this.negated ;
+        }
+
+        /** Returns true if any of the regular expressions is found in the text. */
+        private boolean isFound( final String text ) {
+
+            Boolean found = this.outcomes.get( text ) ;
+            if( found == null ) {
+                found = Boolean.FALSE ;
+                for( final Pattern pattern : this.patterns ) {
+                    if( pattern.matcher( text ).find() ) {
+                        found = Boolean.TRUE ;
+                        break ;
+                    }
+                }
+                if( this.outcomes.size() >= MAX_CACHE_SIZE ) {
+                    this.outcomes.clear() ;
+                }
+                this.outcomes.put( text, found ) ;
+            }
+            return found.booleanValue() ;
+        }
+
+        @Override
+        protected float getEstimatedSelectivity() {
+            final float selectivity = Math.min( 0.05F * this.patterns.length, 0.5F ) ;
+            return this.negated ? 1 - selectivity : selectivity ;
+        }
+
+        @Override
+        protected float getCost() {
+            return 2 * this.columns.length ;
+        }
+
+        @Override
+        public boolean isPushable() {
+            for( final FilterColumn column : this.columns ) {
+                if( column.getSqlExpr() == null ) {
+                    return false ;
+                }
+            }
+            return true ;
+        }
+
+        @Override
+        protected void appendSQL( final StringBuilder sql ) {
+            if( this.negated ) {
+                sql.append( "NOT " ) ;
+            }
+            sql.append( "( " ) ;
+            boolean first = true ;
+            for( final FilterColumn column : this.columns ) {
+                for( final String regex : this.regexes ) {
+                    if( !first ) {
+                        sql.append( " OR " ) ;
+                    }
+                    first = false ;
+                    sql.append( column.getSqlExpr() ).append( " ~ E'" )
+                       .append( regex.replace( "\\", "\\\\" ).replace( "'", "''" ) )
+                       .append( '\'' ) ;
+                }
+            }
+            sql.append( " )" ) ;
+        }
+
+        @Override
+        public String toString() {
+            return ( this.negated ? "NOT " : "" ) + Arrays.toString( this.columns ) +
+                   " ~ " + Arrays.toString( this.regexes ) ;
+        }
+    }
+}
@@ -0,0 +1,211 @@
+/**
+ * Creation Date: Oct 18, 2026
+ */
+
+package com.sandy.apps.pluto.shared.filter;
+import java.text.ParseException ;
+import java.util.ArrayList ;
+import java.util.List ;
+import java.util.Map ;
+import java.util.StringTokenizer ;
+import java.util.regex.Pattern ;
+import java.util.regex.PatternSyntaxException ;
+
+import org.apache.log4j.Logger ;
+
+import com.sandy.apps.pluto.shared.filter.FilterPredicate.Comparison ;
+import com.sandy.apps.pluto.shared.util.util.StringUtil ;
+
+/**
+ * Compiles the filter queries entered in the summary panels into a
+ * {@link FilterPredicate}. A query is a set of conditions such as
+ * <code>PCT > 3 AND VOL > 100000</code> joined with AND and OR, where each
+ * condition compares a column, referred to by any of its aliases, with a
+ * value. Numeric columns are compared with numbers using &gt;, &lt;, = and
+ * &lt;&gt;, while text columns are matched with a comma separated list of
+ * regular expressions, &lt;&gt; negating the match.
+ * <p>
+ * The query is split at the first AND before the first OR, hence OR binds
+ * tighter than AND. A query without any operator is taken as a comma
+ * separated list of regular expressions matched against the default columns,
+ * which lets the user type in just the symbols of interest.
+ *
+ * @author Sandeep Deb [deb.sandeep@gmail.com]
+ */
+public class FilterQueryParser {
+
+    /** Log4J logger for this class. */
+    public static final Logger logger = Logger.getLogger( FilterQueryParser.class ) ;
+
+    // The tokens of the operators supported by this parser.
+    private final static String OPS_TOKEN_AND = " AND " ;
+    private final static String OPS_TOKEN_OR  = " OR " ;
+    private final static String OPS_TOKEN_GT  = ">" ;
+    private final static String OPS_TOKEN_LT  = "<" ;
+    private final static String OPS_TOKEN_EQ  = "=" ;
+    private final static String OPS_TOKEN_NE  = "<>" ;
+
+    // The tokens in the order in which the query is split at them. The not
+    // equal token is looked for before the tokens it contains.
+    private static final String[] OPS_TOKENS = {
+            OPS_TOKEN_AND, OPS_TOKEN_OR, OPS_TOKEN_NE,
+            OPS_TOKEN_GT,  OPS_TOKEN_LT, OPS_TOKEN_EQ
+    } ;
+
+    /** The columns which can be referred to, keyed by their aliases. */
+    private final Map<String, FilterColumn> columns ;
+
+    /** The columns matched by a query without operators. */
+    private final FilterColumn[] defaultColumns ;
+
+    /**
+     * Constructor.
+     *
+     * @param columns The columns which can be referred to in the queries,
+     *        keyed by their upper case aliases.
+     * @param defaultColumns The text columns matched by a query without
+     *        operators.
+     */
+    public FilterQueryParser( final Map<String, FilterColumn> columns,
+                              final FilterColumn... defaultColumns ) {
+        this.columns        = columns ;
+        this.defaultColumns = defaultColumns ;
+    }
+
+    /**
+     * Compiles the query into a predicate.
+     *
+     * @param query The filter query, which is case insensitive.
+     *
+     * @throws ParseException In case the query is not valid, with the
+     *         appropriate error message.
+     */
+    public FilterPredicate parse( final String query ) throws ParseException {
+        final String input = query.trim().toUpperCase() ;
+        if( logger.isDebugEnabled() ) {
+            logger.debug( "Compiling filter query " + input ) ;
+        }
+        return parse( input, true ) ;
+    }
+
+    /**
+     * Recursively compiles the sub query, splitting it at the first operator
+     * token found in it.
+     */
+    private FilterPredicate parse( final String input, final boolean isRoot )
+        throws ParseException {
+
+        for( final String token : OPS_TOKENS ) {
+            final int index = input.indexOf( token ) ;
+            if( index > 0 ) {
+
+                final String lhsVal = input.substring( 0, index ).trim() ;
+                final String rhsVal = input.substring( index + token.length() ).trim() ;
+
+                if( StringUtil.isEmptyOrNull( lhsVal ) ) {
+                    throw new ParseException( "Left hand expression for " +
+                            "token " + token + " is not specified.", 0 ) ;
+                }
+
+                if( StringUtil.isEmptyOrNull( rhsVal ) ) {
+                    throw new ParseException( "Right hand expression for " +
+                            "token " + token + " is not specified.", 0 ) ;
+                }
+
+                if( token.equals( OPS_TOKEN_AND ) ) {
+                    return FilterPredicate.and( parse( lhsVal, false ),
+                                                parse( rhsVal, false ) ) ;
+                }
+                else if( token.equals( OPS_TOKEN_OR ) ) {
+                    return FilterPredicate.or( parse( lhsVal, false ),
+                                               parse( rhsVal, false ) ) ;
+                }
+                return parseCondition( lhsVal, token, rhsVal ) ;
+            }
+        }
+
+        // If the control reaches here, it implies that the query string
+        // does not contain any tokens. Unless this is the root node, this
+        // is a wrong input. Note that the user might just enter the scrip
+        // names in the search box without the name = scrip format.
+        if( !isRoot ) {
+            throw new ParseException( "No tokens found in the input string", 0 ) ;
+        }
+        return FilterPredicate.match( this.defaultColumns, getRegexes( input ), false ) ;
+    }
+
+    /** Compiles a condition on a single column. */
+    private FilterPredicate parseCondition( final String colName, final String token,
+                                            final String value )
+        throws ParseException {
+
+        final FilterColumn column = this.columns.get( colName ) ;
+        if( column == null ) {
+            throw new ParseException( "Invalid column : " + colName +
+                                      " specified in the query", 0 ) ;
+        }
+
+        if( !column.isNumeric() ) {
+            return FilterPredicate.match( new FilterColumn[] { column },
+                                          getRegexes( value ),
+                                          token.equals( OPS_TOKEN_NE ) ) ;
+        }
+
+        double number = 0 ;
+        try {
+            number = Double.parseDouble( value ) ;
+        }
+        catch ( final NumberFormatException e ) {
+            throw new ParseException( "Value " + value + " should be a decimal", 0 ) ;
+        }
+        if( Double.isNaN( number ) || Double.isInfinite( number ) ) {
+            throw new ParseException( "Value " + value + " should be a decimal", 0 ) ;
+        }
+
+        Comparison comparison = null ;
+        if( token.equals( OPS_TOKEN_GT ) ) {
+            comparison = Comparison.GT ;
+        }
+        else if( token.equals( OPS_TOKEN_LT ) ) {
+            comparison = Comparison.LT ;
+        }
+        else if( token.equals( OPS_TOKEN_EQ ) ) {
+            comparison = Comparison.EQ ;
+        }
+        else {
+            comparison = Comparison.NE ;
+        }
+        return FilterPredicate.compare( column, comparison, number ) ;
+    }
+
+    /**
+     * Returns the comma separated regular expressions of the value, checking
+     * that they are valid.
+     */
+    private String[] getRegexes( final String value ) throws ParseException {
+
+        final List<String> regexes = new ArrayList<String>() ;
+        final StringTokenizer tokenizer = new StringTokenizer( value, "," ) ;
+        while( tokenizer.hasMoreTokens() ) {
+            final String regex = tokenizer.nextToken().trim() ;
+            if( regex.length() > 0 ) {
+                regexes.add( regex ) ;
+            }
+        }
+
+        if( regexes.isEmpty() ) {
+            throw new ParseException( "No pattern specified in " + value, 0 ) ;
+        }
+
+        for( final String regex : regexes ) {
+            try {
+                Pattern.compile( regex ) ;
+            }
+            catch ( final PatternSyntaxException e ) {
+                throw new ParseException( "Invalid pattern " + regex + " : " +
+                                          e.getDescription(), 0 ) ;
+            }
+        }
+        return regexes.toArray( new String[regexes.size()] ) ;
+    }
+}
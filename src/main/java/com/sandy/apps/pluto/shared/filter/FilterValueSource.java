@@ -0,0 +1,27 @@
+/**
+ * Creation Date: Oct 18, 2026
+ */
+
+package com.sandy.apps.pluto.shared.filter;
+
+/**
+ * A source of the values of rows, which is evaluated by a
+ * {@link FilterPredicate}. The values are fetched as primitives, such that
+ * filtering a table does not box a value for every cell it looks at.
+ *
+ * @author Sandeep Deb [deb.sandeep@gmail.com]
+ */
+public interface FilterValueSource {
+
+    /**
+     * Returns the numeric value of the column for the row, or NaN if the row
+     * has no value for the column.
+     */
+    double getNumber( final int row, final int column ) ;
+
+    /**
+     * Returns the text value of the column for the row, or null if the row
+     * has no value for the column.
+     */
+    String getString( final int row, final int column ) ;
+}
@@ -0,0 +1,73 @@
+/**
+ * Creation Date: Oct 18, 2026
+ */
+
+package com.sandy.apps.pluto.shared.filter;
+import javax.swing.RowFilter ;
+
+/**
+ * A {@link RowFilter} which includes the rows satisfying a compiled
+ * {@link FilterPredicate}. If the model being filtered is a
+ * {@link FilterValueSource}, the predicate reads the primitive values of the
+ * rows straight from the model. Otherwise the values are read through the
+ * row filter entry.
+ *
+ * @author Sandeep Deb [deb.sandeep@gmail.com]
+ */
+public class PredicateRowFilter extends RowFilter<Object, Object> {
+
+    /** The predicate which the included rows satisfy. */
+    private final FilterPredicate predicate ;
+
+    /**
+     * Constructor.
+     *
+     * @param predicate The predicate which the included rows satisfy.
+     */
+    public PredicateRowFilter( final FilterPredicate predicate ) {
+        this.predicate = predicate ;
+    }
+
+    /** Returns the predicate which the included rows satisfy. */
+    public FilterPredicate getPredicate() {
+        return this.predicate ;
+    }
+
+    @Override
+    public boolean include( final Entry<? extends Object, ? extends Object> entry ) {
+
+        final Object model = entry.getModel() ;
+        final Object id    = entry.getIdentifier() ;
+
+        if( model instanceof FilterValueSource && id instanceof Integer ) {
+            return this.predicate.matches( ( FilterValueSource )model,
+                                           ( ( Integer )id ).intValue() ) ;
+        }
+        return this.predicate.matches( new EntryValueSource( entry ), 0 ) ;
+    }
+
+    /** A value source over the values of a single row filter entry. */
+    private static class EntryValueSource implements FilterValueSource {
+
+        private final Entry<? extends Object, ? extends Object> entry ;
+
+        EntryValueSource( final Entry<? extends Object, ? extends Object> entry ) {
+            this.entry = entry ;
+        }
+
+        public double getNumber( final int row, final int column ) {
+            final Object value = this.entry.getValue( column ) ;
+            if( value instanceof Number ) {
+                return ( ( Number )value ).doubleValue() ;
+            }
+            return Double.NaN ;
+        }
+
+        public String getString( final int row, final int column ) {
+            if( this.entry.getValue( column ) == null ) {
+                return null ;
+            }
+            return this.entry.getStringValue( column ) ;
+        }
+    }
+}
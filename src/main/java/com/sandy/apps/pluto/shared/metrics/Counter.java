@@ -0,0 +1,51 @@
+/**
+ * Creation Date: Oct 18, 2026
+ */
+
+package com.sandy.apps.pluto.shared.metrics;
+import java.util.concurrent.atomic.AtomicLong ;
+
+/**
+ * A monotonically increasing count of occurrences, like the number of failed
+ * fetches or the number of bytes downloaded. This class is thread safe.
+ *
+ * @author Sandeep Deb [deb.sandeep@gmail.com]
+ */
+public class Counter {
+
+    /** The name of the counter in the {@link MetricsRegistry}. */
+    private final String name ;
+
+    /** The current count. */
+    private final AtomicLong count = new AtomicLong() ;
+
+    /** Constructor. */
+    Counter( final String name ) {
+        this.name = name ;
+    }
+
+    /** Increments the count by one. */
+    public void increment() {
+        this.count.incrementAndGet() ;
+    }
+
+    /** Adds the value to the count. */
+    public void add( final long value ) {
+        this.count.addAndGet( value ) ;
+    }
+
+    /** Returns the current count. */
+    public long getCount() {
+        return this.count.get() ;
+    }
+
+    /** Returns the name of this counter. */
+    public String getName() {
+        return this.name ;
+    }
+
+    /** Resets the count to zero. */
+    void reset() {
+        this.count.set( 0 ) ;
+    }
+}
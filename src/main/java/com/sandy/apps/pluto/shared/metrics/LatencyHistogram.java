@@ -0,0 +1,175 @@
+/**
+ * Creation Date: Oct 18, 2026
+ */
+
+package com.sandy.apps.pluto.shared.metrics;
+import java.util.concurrent.atomic.AtomicLong ;
+import java.util.concurrent.atomic.AtomicLongArray ;
+
+import com.sandy.apps.pluto.shared.dto.MetricStats ;
+
+/**
+ * A histogram of latencies in nanoseconds, with a bounded relative error
+ * along the lines of an HDR histogram. The latencies are counted in buckets
+ * whose width doubles with every power of two, each power of two being split
+ * into {@link #SUB_BUCKET_COUNT} linear sub buckets. Hence a latency is
+ * recorded as the bucket it falls in, with an error of at most 1 in
+ * {@link #SUB_BUCKET_COUNT}, whether it is a microsecond or an hour.
+ * <p>
+ * Recording a latency costs a few atomic increments on a fixed array and
+ * never allocates or locks, such that the histograms can be updated on the
+ * hot paths. The snapshots are computed from the bucket counts and are not
+ * atomic with respect to concurrent recordings. This class is thread safe.
+ *
+ * @author Sandeep Deb [deb.sandeep@gmail.com]
+ */
+public class LatencyHistogram {
+
+    /** The number of bits of a latency preserved by its bucket. */
+    private static final int SUB_BUCKET_BITS = 5 ;
+
+    /** The number of sub buckets within each power of two. */
+    static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS ;
+
+    /** The number of buckets needed to cover all the positive longs. */
+    private static final int NUM_BUCKETS = ( 64 - SUB_BUCKET_BITS ) * SUB_BUCKET_COUNT ;
+
+    /** The name of the histogram in the {@link MetricsRegistry}. */
+    private final String name ;
+
+    /** The number of latencies recorded in each bucket. */
+    private final AtomicLongArray counts = new AtomicLongArray( NUM_BUCKETS ) ;
+
+    /** The number of latencies recorded. */
+    private final AtomicLong count = new AtomicLong() ;
+
+    /** The sum of the latencies recorded. */
+    private final AtomicLong total = new AtomicLong() ;
+
+    /** The maximum latency recorded. */
+    private final AtomicLong max = new AtomicLong() ;
+
+    /** Constructor. */
+    LatencyHistogram( final String name ) {
+        this.name = name ;
+    }
+
+    /**
+     * Records a latency.
+     *
+     * @param nanos The latency in nanoseconds. Negative latencies, as can
+     *        result from an adjusted clock, are recorded as zero.
+     */
+    public void record( final long nanos ) {
+
+        final long value = Math.max( 0, nanos ) ;
+        this.counts.incrementAndGet( getBucket( value ) ) ;
+        this.count.incrementAndGet() ;
+        this.total.addAndGet( value ) ;
+
+        long currentMax = this.max.get() ;
+        while( value > currentMax && !this.max.compareAndSet( currentMax, value ) ) {
+            currentMax = this.max.get() ;
+        }
+    }
+
+    /**
+     * Records the latency of an operation which started at the time
+     * specified.
+     *
+     * @param startNanos The start time of the operation, as returned by
+     *        {@link System#nanoTime()}.
+     */
+    public void recordSince( final long startNanos ) {
+        record( System.nanoTime() - startNanos ) ;
+    }
+
+    /** Returns the bucket of the latency. */
+    static int getBucket( final long value ) {
+        if( value < SUB_BUCKET_COUNT ) {
+            return ( int )value ;
+        }
+        // The shift which brings the latency within [SUB_BUCKET_COUNT, 2*SUB_BUCKET_COUNT)
+        final int shift = 63 - Long.numberOfLeadingZeros( value ) - SUB_BUCKET_BITS ;
+        return ( shift + 1 ) * SUB_BUCKET_COUNT + ( int )( value >>> shift ) - SUB_BUCKET_COUNT ;
+    }
+
+    /** Returns the lowest latency counted in the bucket. */
+    static long getLowestValue( final int bucket ) {
+        if( bucket < SUB_BUCKET_COUNT ) {
+            return bucket ;
+        }
+        final int shift = bucket / SUB_BUCKET_COUNT - 1 ;
+        return ( long )( bucket % SUB_BUCKET_COUNT + SUB_BUCKET_COUNT ) << shift ;
+    }
+
+    /** Returns the highest latency counted in the bucket. */
+    static long getHighestValue( final int bucket ) {
+        if( bucket < SUB_BUCKET_COUNT ) {
+            return bucket ;
+        }
+        final int shift = bucket / SUB_BUCKET_COUNT - 1 ;
+        return getLowestValue( bucket ) + ( 1L << shift ) - 1 ;
+    }
+
+    /** Returns the name of this histogram. */
+    public String getName() {
+        return this.name ;
+    }
+
+    /** Returns the number of latencies recorded. */
+    public long getCount() {
+        return this.count.get() ;
+    }
+
+    /**
+     * Returns a snapshot of the recorded latencies. The percentiles are the
+     * highest latency of the bucket they fall in, capped at the maximum.
+     */
+    public MetricStats getStats() {
+
+        final long[] snapshot = new long[NUM_BUCKETS] ;
+        long numRecorded = 0 ;
+        for( int i=0; i<NUM_BUCKETS; i++ ) {
+            snapshot[i] = this.counts.get( i ) ;
+            numRecorded += snapshot[i] ;
+        }
+
+        final long maxNanos = this.max.get() ;
+        if( numRecorded == 0 ) {
+            return new MetricStats( this.name, 0, 0, 0, 0, 0, 0 ) ;
+        }
+
+        final long meanNanos = this.total.get() / Math.max( 1, this.count.get() ) ;
+        return new MetricStats( this.name, numRecorded, meanNanos,
+                                getPercentile( snapshot, numRecorded, 0.50, maxNanos ),
+                                getPercentile( snapshot, numRecorded, 0.90, maxNanos ),
+                                getPercentile( snapshot, numRecorded, 0.99, maxNanos ),
+                                maxNanos ) ;
+    }
+
+    /** Returns the percentile of the latencies counted in the buckets. */
+    private static long getPercentile( final long[] buckets, final long numRecorded,
+                                       final double percentile, final long maxNanos ) {
+
+        final long rank = Math.max( 1, ( long )Math.ceil( percentile * numRecorded ) ) ;
+        long cumulative = 0 ;
+        for( int i=0; i<buckets.length; i++ ) {
+            cumulative += buckets[i] ;
+            if( cumulative >= rank ) {
+                return Math.min( getHighestValue( i ), maxNanos ) ;
+            }
+        }
+        return maxNanos ;
+    }
+
+    /** Discards the recorded latencies. */
+    void reset() {
+        for( int i=0; i<NUM_BUCKETS; i++ ) {
+            this.counts.set( i, 0 ) ;
+        }
+        this.count.set( 0 ) ;
+        this.total.set( 0 ) ;
+        this.max.set( 0 ) ;
+    }
+}
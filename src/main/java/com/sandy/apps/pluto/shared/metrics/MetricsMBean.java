@@ -0,0 +1,137 @@
+/**
+ * Creation Date: Oct 18, 2026
+ */
+
+package com.sandy.apps.pluto.shared.metrics;
+import java.util.ArrayList ;
+import java.util.LinkedHashMap ;
+import java.util.List ;
+import java.util.Map ;
+
+import javax.management.Attribute ;
+import javax.management.AttributeList ;
+import javax.management.AttributeNotFoundException ;
+import javax.management.DynamicMBean ;
+import javax.management.MBeanAttributeInfo ;
+import javax.management.MBeanConstructorInfo ;
+import javax.management.MBeanInfo ;
+import javax.management.MBeanNotificationInfo ;
+import javax.management.MBeanOperationInfo ;
+import javax.management.MBeanParameterInfo ;
+import javax.management.ReflectionException ;
+
+import com.sandy.apps.pluto.shared.dto.MetricStats ;
+
+/**
+ * Exposes the metrics of a {@link MetricsRegistry} as read only JMX
+ * attributes. Since metrics are created as the application runs, the
+ * attributes are derived from the metrics registered at the time of each
+ * request. A counter is exposed as one attribute named after the counter,
+ * and a latency histogram as the count, mean, percentiles and maximum
+ * attributes, suffixed to the histogram name, in microseconds.
+ *
+ * @author Sandeep Deb [deb.sandeep@gmail.com]
+ */
+class MetricsMBean implements DynamicMBean {
+
+    /** The operation which resets the metrics. */
+    private static final String OP_RESET = "reset" ;
+
+    /** The registry whose metrics are exposed. */
+    private final MetricsRegistry registry ;
+
+    /** Constructor. */
+    MetricsMBean( final MetricsRegistry registry ) {
+        this.registry = registry ;
+    }
+
+    /** Returns the attribute values of the current metrics, by attribute name. */
+    private Map<String, Long> getValues() {
+
+        final Map<String, Long> values = new LinkedHashMap<String, Long>() ;
+        for( final MetricStats stats : this.registry.getStats() ) {
+            final String name = stats.getName() ;
+            if( stats.isLatency() ) {
+                values.put( name + ".count",      stats.getCount() ) ;
+                values.put( name + ".meanMicros", stats.getMeanNanos()/1000 ) ;
+                values.put( name + ".p50Micros",  stats.getP50Nanos()/1000 ) ;
+                values.put( name + ".p90Micros",  stats.getP90Nanos()/1000 ) ;
+                values.put( name + ".p99Micros",  stats.getP99Nanos()/1000 ) ;
+                values.put( name + ".maxMicros",  stats.getMaxNanos()/1000 ) ;
+            }
+            else {
+                values.put( name, stats.getCount() ) ;
+            }
+        }
+        return values ;
+    }
+
+    /** {@inheritDoc} */
+    public Object getAttribute( final String attribute )
+        throws AttributeNotFoundException {
+
+        final Long value = getValues().get( attribute ) ;
+        if( value == null ) {
+            throw new AttributeNotFoundException( attribute ) ;
+        }
+        return value ;
+    }
+
+    /** {@inheritDoc} */
+    public AttributeList getAttributes( final String[] attributes ) {
+
+        final Map<String, Long> values = getValues() ;
+        final AttributeList list = new AttributeList() ;
+        for( final String attribute : attributes ) {
+            final Long value = values.get( attribute ) ;
+            if( value != null ) {
+                list.add( new Attribute( attribute, value ) ) ;
+            }
+        }
+        return list ;
+    }
+
+    /** The metrics are read only, hence this always fails. */
+    public void setAttribute( final Attribute attribute )
+        throws AttributeNotFoundException {
+        throw new AttributeNotFoundException( "Metric " + attribute.getName() +
+                                              " is read only" ) ;
+    }
+
+    /** The metrics are read only, hence no attribute is set. */
+    public AttributeList setAttributes( final AttributeList attributes ) {
+        return new AttributeList() ;
+    }
+
+    /** {@inheritDoc} */
+    public Object invoke( final String actionName, final Object[] params,
+                          final String[] signature )
+        throws ReflectionException {
+
+        if( OP_RESET.equals( actionName ) ) {
+            this.registry.reset() ;
+            return null ;
+        }
+        throw new ReflectionException( new NoSuchMethodException( actionName ) ) ;
+    }
+
+    /** {@inheritDoc} */
+    public MBeanInfo getMBeanInfo() {
+
+        final List<MBeanAttributeInfo> attributes = new ArrayList<MBeanAttributeInfo>() ;
+        for( final String name : getValues().keySet() ) {
+            attributes.add( new MBeanAttributeInfo( name, Long.class.getName(),
+                                                    name, true, false, false ) ) ;
+        }
+
+        final MBeanOperationInfo reset = new MBeanOperationInfo( OP_RESET,
+                                "Resets all the metrics", new MBeanParameterInfo[0],
+                                "void", MBeanOperationInfo.ACTION ) ;
+
+        return new MBeanInfo( getClass().getName(), "Pluto metrics",
+                              attributes.toArray( new MBeanAttributeInfo[attributes.size()] ),
+                              new MBeanConstructorInfo[0],
+                              new MBeanOperationInfo[] { reset },
+                              new MBeanNotificationInfo[0] ) ;
+    }
+}
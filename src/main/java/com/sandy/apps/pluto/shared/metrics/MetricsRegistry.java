@@ -0,0 +1,140 @@
+/**
+ * Creation Date: Oct 18, 2026
+ */
+
+package com.sandy.apps.pluto.shared.metrics;
+import java.lang.management.ManagementFactory ;
+import java.util.ArrayList ;
+import java.util.List ;
+import java.util.Map ;
+import java.util.TreeMap ;
+import java.util.concurrent.ConcurrentHashMap ;
+import java.util.concurrent.ConcurrentMap ;
+
+import javax.management.MBeanServer ;
+import javax.management.ObjectName ;
+
+import org.apache.log4j.Logger ;
+
+import com.sandy.apps.pluto.shared.dto.MetricStats ;
+
+/**
+ * The registry of the metrics of the application - the {@link Counter}s and
+ * {@link LatencyHistogram}s, keyed by a dotted name like "network.fetch" or
+ * "dao.insertScripITD". A metric is created the first time it is looked up,
+ * and lives for the life of the application. The instrumented code should
+ * hold on to the metrics it looks up on its hot paths.
+ * <p>
+ * The metrics are exposed over JMX as the attributes of the
+ * {@link #OBJECT_NAME} MBean, and in the metrics panel of the application.
+ * This class is thread safe.
+ *
+ * @author Sandeep Deb [deb.sandeep@gmail.com]
+ */
+public class MetricsRegistry {
+
+    /** Log4J logger for this class. */
+    public static final Logger logger = Logger.getLogger( MetricsRegistry.class ) ;
+
+    /** The JMX object name under which the metrics are registered. */
+    public static final String OBJECT_NAME = "com.sandy.apps.pluto:type=Metrics" ;
+
+    /** The singleton instance. */
+    private static MetricsRegistry instance = null ;
+
+    /** The counters, keyed by name. */
+    private final ConcurrentMap<String, Counter> counters =
+                                     new ConcurrentHashMap<String, Counter>() ;
+
+    /** The latency histograms, keyed by name. */
+    private final ConcurrentMap<String, LatencyHistogram> histograms =
+                                     new ConcurrentHashMap<String, LatencyHistogram>() ;
+
+    /** Public constructor, for creating registries independent of the singleton. */
+    public MetricsRegistry() {
+        super() ;
+    }
+
+    /**
+     * Singleton accessor method. The singleton registry is registered with
+     * the platform MBean server on creation.
+     */
+    public static synchronized MetricsRegistry instance() {
+        if( instance == null ) {
+            instance = new MetricsRegistry() ;
+            instance.registerMBean() ;
+        }
+        return instance ;
+    }
+
+    /**
+     * Registers the metrics of this registry with the platform MBean server.
+     * A failure to register is logged, since the metrics continue to be
+     * available within the application.
+     */
+    private void registerMBean() {
+        try {
+            final MBeanServer server = ManagementFactory.getPlatformMBeanServer() ;
+            final ObjectName name = new ObjectName( OBJECT_NAME ) ;
+            if( !server.isRegistered( name ) ) {
+                server.registerMBean( new MetricsMBean( this ), name ) ;
+            }
+        }
+        catch( final Exception e ) {
+            logger.warn( "Could not register metrics MBean. Msg = " + e.getMessage() ) ;
+        }
+    }
+
+    /** Returns the counter of the name, creating it if required. */
+    public Counter getCounter( final String name ) {
+        Counter counter = this.counters.get( name ) ;
+        if( counter == null ) {
+            final Counter newCounter = new Counter( name ) ;
+            counter = this.counters.putIfAbsent( name, newCounter ) ;
+            if( counter == null ) {
+                counter = newCounter ;
+            }
+        }
+        return counter ;
+    }
+
+    /** Returns the latency histogram of the name, creating it if required. */
+    public LatencyHistogram getHistogram( final String name ) {
+        LatencyHistogram histogram = this.histograms.get( name ) ;
+        if( histogram == null ) {
+            final LatencyHistogram newHistogram = new LatencyHistogram( name ) ;
+            histogram = this.histograms.putIfAbsent( name, newHistogram ) ;
+            if( histogram == null ) {
+                histogram = newHistogram ;
+            }
+        }
+        return histogram ;
+    }
+
+    /** Returns a snapshot of all the metrics, sorted by name. */
+    public List<MetricStats> getStats() {
+
+        final Map<String, MetricStats> stats = new TreeMap<String, MetricStats>() ;
+        for( final Counter counter : this.counters.values() ) {
+            stats.put( counter.getName(), new MetricStats( counter.getName(),
+                                                           counter.getCount() ) ) ;
+        }
+        for( final LatencyHistogram histogram : this.histograms.values() ) {
+            stats.put( histogram.getName(), histogram.getStats() ) ;
+        }
+        return new ArrayList<MetricStats>( stats.values() ) ;
+    }
+
+    /**
+     * Resets all the metrics. The metrics stay registered, hence the
+     * references held by the instrumented code remain valid.
+     */
+    public void reset() {
+        for( final Counter counter : this.counters.values() ) {
+            counter.reset() ;
+        }
+        for( final LatencyHistogram histogram : this.histograms.values() ) {
+            histogram.reset() ;
+        }
+    }
+}
@@ -56,6 +56,7 @@ public class I18N {
     public static final String LBL_MI_WORK_ONLINE               = getMessage( "LBL_MI_WORK_ONLINE" ) ;
     public static final String LBL_TOOLBAR_NAME                 = getMessage( "LBL_TOOLBAR_NAME" ) ;
     public static final String LBL_TASK_CONFIG_DLG_NAME         = getMessage( "LBL_TASK_CONFIG_DLG_NAME" ) ;
+    public static final String LBL_METRICS_PANEL_NAME           = getMessage( "LBL_METRICS_PANEL_NAME" ) ;
     public static final String MSG_USER_ACTION_FAILURE          = getMessage( "MSG_USER_ACTION_FAILURE" ) ;
     public static final String MSG_INVALID_INTEGER              = getMessage( "MSG_INVALID_INTEGER" ) ;
     public static final String MSG_INVALID_STRING               = getMessage( "MSG_INVALID_STRING" ) ;
@@ -12,17 +12,18 @@ import java.awt.Color;
 import java.awt.FontMetrics;
 import java.awt.Graphics;
 import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
 import java.awt.Point;
 import java.awt.Rectangle;
 import java.awt.RenderingHints;
 import java.awt.event.MouseEvent;
 import java.awt.event.MouseListener;
 import java.awt.event.MouseMotionListener;
+import java.awt.image.BufferedImage;
 import java.text.DateFormat;
 import java.text.DecimalFormat;
 import java.text.SimpleDateFormat;
 import java.util.Calendar;
-import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
@@ -32,15 +33,17 @@ import javax.swing.JPanel;
 
 import org.apache.log4j.Logger;
 
+import com.sandy.apps.pluto.shared.ITDTickSeries ;
 import com.sandy.apps.pluto.shared.STConstant ;
 import com.sandy.apps.pluto.ui.GraphicsContextStack ;
 import com.sandy.apps.pluto.ui.UIConstant ;
 import com.sandy.apps.pluto.ui.UIHelper ;
 import com.sandy.apps.pluto.ui.dialogmgr.AbstractPlutoFramePanel ;
+import com.sandy.apps.pluto.ui.dialogmgr.panel.charting.ITDSeriesDecimator.DecimatedSeries ;
 import com.sandy.apps.pluto.ui.dialogmgr.panel.charting.model.ChartEntity ;
 import com.sandy.apps.pluto.ui.dialogmgr.panel.charting.model.ChartModel ;
 import com.sandy.apps.pluto.ui.dialogmgr.panel.charting.model.EODValue ;
-import com.sandy.apps.pluto.ui.dialogmgr.panel.charting.model.ITDValue ;
+import com.sandy.apps.pluto.ui.dialogmgr.panel.charting.model.ValueTransform ;
 import com.sandy.apps.pluto.ui.dialogmgr.panel.charting.model.ChartModel.ModelEvent ;
 import com.sandy.apps.pluto.ui.dialogmgr.panel.charting.model.ChartModel.ModelListener ;
 
@@ -136,6 +139,28 @@ public class ChartCanvas extends JPanel
     /** An instance of the chart meta data which will be refreshed by the helper. */
     private ChartMetaData meta = null ;
 
+    /**
+     * The decimator which reduces the ITD series to the points visible at the
+     * current width and time range, and caches them across the repaints.
+     */
+    private final ITDSeriesDecimator decimator = new ITDSeriesDecimator() ;
+
+    /**
+     * The off screen image holding the axes, the grid and the curves of the
+     * chart. The chart is rendered into this image only when the model or the
+     * display preferences change or when the canvas is resized. The repaints
+     * in between, for example the ones driven by the cross hair, copy this
+     * image onto the screen and draw the cross hair over it.
+     */
+    private BufferedImage chartLayer = null ;
+
+    /**
+     * False if the chart layer needs to be rendered again before it is painted.
+     * This is set by the model listener, which can be called upon by threads
+     * other than the event dispatch thread.
+     */
+    private volatile boolean chartLayerValid = false ;
+
     /**
      * Public constructor which accepts a chart model whose data is being
      * rendered by this canvas.
@@ -168,6 +193,7 @@ public class ChartCanvas extends JPanel
      */
     public void setShowVolGraph( final boolean selected ) {
         this.metaDataHelper.setUserPreferredShowVolGraph( selected ) ;
+        this.chartLayerValid = false ;
         repaint() ;
     }
 
@@ -180,34 +206,94 @@ public class ChartCanvas extends JPanel
     public void modelChanged( final ModelEvent event ) {
         // Remember we can paint on the whole canvas, there is a one pixel on
         // the left and bottom edges which is painted by the parent panel.
+        this.chartLayerValid = false ;
         repaint( 1, 0, getSize().width-1, getSize().height-1 ) ;
     }
 
     /**
-     * Paints the chart. This method calls upon the chart model for the data
-     * that needs rendering. This method is called upon in different scenarios.
-     * For example, if the window is being moved the swing framework calls on
+     * Paints the chart. The chart is painted in two layers, the chart layer
+     * holding the axes, the grid and the curves, and the cross hair drawn over
+     * it. The chart layer is an off screen image which is rendered again only
+     * if the model has changed or the canvas has been resized since it was
+     * last rendered. This method is called upon in different scenarios. For
+     * example, if the window is being moved the swing framework calls on
      * paint to render itself, if the model changes substantially, the
-     * modelChanged method is invoked, which in turn invokes a repaint.
+     * modelChanged method is invoked, which in turn invokes a repaint. The
+     * cross hair movements repaint only the area covered by the old and the
+     * new cross hair.
      */
     @Override
     public void paint( final Graphics g ) {
 
         try {
-            // Let the super class do the default paining, post which we will paint.
-            // The default paint will clear the entire canvas to a black background.
-            super.paint( g ) ;
+            if( !this.chartLayerValid || this.chartLayer == null ||
+                this.chartLayer.getWidth()  != getWidth() ||
+                this.chartLayer.getHeight() != getHeight() ) {
+                renderChartLayer() ;
+            }
 
-            // Clean the cross hair if any
-            cleanCrossHair() ;
+            if( this.chartLayer != null ) {
+                g.drawImage( this.chartLayer, 0, 0, null ) ;
+                drawCrossHair( ( Graphics2D )g ) ;
+            }
+            else {
+                super.paint( g ) ;
+            }
+        }
+        catch ( final Throwable e ) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Renders the axes, the grid and the curves of the chart into the chart
+     * layer, creating the chart layer afresh if the canvas has been resized.
+     * This method calls upon the chart model for the data that needs
+     * rendering.
+     * <p>
+     * The rendering is done on the event dispatch thread, since the model's
+     * render data and the graphics context stack are not safe to be accessed
+     * from another thread.
+     */
+    private void renderChartLayer() {
+
+        final int width  = getWidth() ;
+        final int height = getHeight() ;
+        if( width <= 0 || height <= 0 ) {
+            return ;
+        }
+
+        if( this.chartLayer == null || this.chartLayer.getWidth() != width ||
+            this.chartLayer.getHeight() != height ) {
+
+            final GraphicsConfiguration gc = getGraphicsConfiguration() ;
+            if( gc != null ) {
+                this.chartLayer = gc.createCompatibleImage( width, height ) ;
+            }
+            else {
+                this.chartLayer = new BufferedImage( width, height, BufferedImage.TYPE_INT_RGB ) ;
+            }
+        }
+
+        // Mark the layer valid before rendering, such that a model change
+        // during the rendering results in the layer being rendered again.
+        this.chartLayerValid = true ;
+
+        final Graphics2D g2d = this.chartLayer.createGraphics() ;
+        try {
+            // Clear the entire layer to the background, as the default paint
+            // would clear the canvas.
+            g2d.setColor( getBackground() ) ;
+            g2d.fillRect( 0, 0, width, height ) ;
+            g2d.setFont( getFont() ) ;
 
-            final Graphics2D g2d = ( Graphics2D )g ;
             final Map<Object, Object> hints = new HashMap<Object, Object>() ;
             hints.put( RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON ) ;
             g2d.setRenderingHints( hints );
 
             // Comptue the charting meta data.
             this.meta = this.metaDataHelper.computeMetaData( g2d, this.meta ) ;
+            this.model.setRenderWidth( this.meta.graphRect.width ) ;
 
             drawYAxisTicks( g2d ) ;
             drawXAxisTicks( g2d ) ;
@@ -228,8 +314,8 @@ public class ChartCanvas extends JPanel
             // Just repaint the axis lines for a cleaner finish.
             drawAxisLines( g2d ) ;
         }
-        catch ( final Throwable e ) {
-            e.printStackTrace();
+        finally {
+            g2d.dispose() ;
         }
     }
 
@@ -625,6 +711,10 @@ public class ChartCanvas extends JPanel
      * <b>Draw the intra day values :</b><br/>
      * The intra day values are drawn only in case of 1D, 5D or 2W
      *
+     * The prices are drawn through the value transform of the entity, which
+     * for the comparison charts transforms the prices to their percentage
+     * change.
+     *
      * @param g The graphics context.
      */
     private void drawPriceCurve( final Graphics2D g,
@@ -636,6 +726,7 @@ public class ChartCanvas extends JPanel
 
         final String  fixedRange = this.model.getFixedTimeRange() ;
         final boolean isAbsolute = ( this.model.getRenderData().size() == 1 ) ;
+        final ValueTransform transform = this.model.getValueTransform( entity ) ;
         final Calendar tempCal   = Calendar.getInstance() ;
 
         int     lastDayOfWeek       = -1 ;
@@ -687,13 +778,12 @@ public class ChartCanvas extends JPanel
                 continue ;
             }
 
-            final long dayTime     = eodVal.getDate().getTime() ;
             final int  dayStartXPx = this.meta.xAxisDayOffset.get( eodVal.getDate() ) ;
             final int  dayEndXPx   = ( int )( Math.ceil( dayStartXPx + this.meta.xPixelsPerDay ) ) ;
 
             int lastITDXPix = dayStartXPx ;
             int lastITDYPix = 0 ;
-            lastITDYPix = getPriceGraphYPixel( eodVal.getOpen() ) ;
+            lastITDYPix = getPriceGraphYPixel( transform.apply( eodVal.getOpen() ) ) ;
 
             // ============ Previous close marker rendering ====================
             // Set the graphics properties for printing the previous close marker.
@@ -770,24 +860,25 @@ public class ChartCanvas extends JPanel
 
                 g.setColor( entity.getColor() ) ;
                 g.setStroke( entity.getStroke() ) ;
-                final Collection<ITDValue> itdValues = eodVal.getITDValues() ;
+                final ITDTickSeries itdSeries = eodVal.getITDSeries() ;
 
-                if( itdValues.isEmpty() ) {
+                if( itdSeries.isEmpty() ) {
                     // If we do not have ITD values for this date, draw a line
                     // between the opening and closing values, approximating
                     // a linear extrapolation.
-                    final int openingY = getPriceGraphYPixel( eodVal.getOpen() ) ;
-                    final int closingY = getPriceGraphYPixel( eodVal.getClose() ) ;
+                    final int openingY = getPriceGraphYPixel( transform.apply( eodVal.getOpen() ) ) ;
+                    final int closingY = getPriceGraphYPixel( transform.apply( eodVal.getClose() ) ) ;
                     g.setColor( entity.getColor().brighter() ) ;
                     g.drawLine( dayStartXPx, openingY, dayEndXPx, closingY ) ;
                 }
                 else {
-                    for( final ITDValue itdVal : itdValues ) {
-                        final long deltaMillis = itdVal.getTime() - dayTime - DAY_START_MILLIS ;
-                        final int xPixels = (int)( deltaMillis / this.meta.valPerXPixel ) ;
-
-                        final int xPix = dayStartXPx + xPixels ;
-                        final int yPix = getPriceGraphYPixel( itdVal.getValue() ) ;
+                    // Draw the ticks reduced to the pixel columns of the day,
+                    // a day can hold many more ticks than it has pixels.
+                    final DecimatedSeries points = this.decimator.getDecimatedSeries(
+                                                 itdSeries, this.meta.valPerXPixel ) ;
+                    for( int i=0; i<points.getNumPoints(); i++ ) {
+                        final int xPix = dayStartXPx + points.getPointX( i ) ;
+                        final int yPix = getPriceGraphYPixel( transform.apply( points.getPointPrice( i ) ) ) ;
 
                         g.drawLine( lastITDXPix, lastITDYPix, xPix, yPix ) ;
                         lastITDXPix = xPix ;
@@ -801,7 +892,7 @@ public class ChartCanvas extends JPanel
                 // If we are dealing with 1M, 3M, 6M or 1Y ranges, we revert to
                 // the standard way of rendering, joining all the closing values.
 
-                final float eodClose = eodVal.getClose() ;
+                final float eodClose = transform.apply( eodVal.getClose() ) ;
                 if( !firstEODValue ) {
                     final int closingY = getPriceGraphYPixel( eodClose ) ;
                     g.drawLine( (int)( dayStartXPx - this.meta.xPixelsPerDay ),
@@ -849,7 +940,6 @@ public class ChartCanvas extends JPanel
                 continue ;
             }
 
-            final long dayTime     = eodVal.getDate().getTime() ;
             final int  dayStartXPx = this.meta.xAxisDayOffset.get( eodVal.getDate() ) ;
 
             // ############ Curve rendering ####################################
@@ -864,72 +954,21 @@ public class ChartCanvas extends JPanel
                 // interpolated data points. Filtering does not remove non
                 // interpolated data points. It is the non interpolated data
                 // points that contain the volume information.
-                final Collection<ITDValue> itdValues = eodVal.getITDValues() ;
-
-                long lastVol = 0, vol = 0 ;
-                long interpolationCount = 0 ;
-                boolean skipFirstVol = true ;
-
-                // Synchronize on the collection of ITD values before
-                // iterating, since the itd values can be added to during the
-                // time the volue is being painted. Similarly the itd array
-                // would be synchronized inside the EODVal instance.
-                synchronized( itdValues ) {
-                    for( final ITDValue itdVal : itdValues ) {
-
-                        // Logic behind the interpolation count - Take for example a
-                        // case where we have received ITD data for a period of
-                        // 11:00 - 11:30. Now say, we loose volume continuity for
-                        // 30 minutes. When we receive the volume data at 12:00 PM,
-                        // the difference since the last volume data will be huge,
-                        // overshadowing the graph. Hence we have this logic where
-                        // if we have received more than 15 interpolated data points
-                        // we treat it as a fresh start. Hence we zero out the last
-                        // volume.
-                        if( interpolationCount > 15 ) {
-                            lastVol = 0 ;
-                            skipFirstVol = true ;
-                        }
-
-                        // Ignore the interpolated values - interpolated ITD values
-                        // do not have volume information.
-                        if( itdVal.isInterpolated() ) {
-                            interpolationCount++ ;
-                            continue ;
-                        }
-                        else {
-                            interpolationCount = 0 ;
-
-                            final long deltaMillis = itdVal.getTime() - dayTime - DAY_START_MILLIS ;
-                            final int xPixels = (int)( deltaMillis / this.meta.valPerXPixel ) ;
-
-                            final int xPix = dayStartXPx + xPixels ;
-                            // Skip the first value - this is because we are ignoring
-                            // interpolated values and hence if data is being collected
-                            // late, we might end up having a huge spike since ITD
-                            // data is shown as differential
-                            if( skipFirstVol ) {
-                                skipFirstVol = false ;
-                            }
-                            else {
-                                if( lastVol != 0 ) {
-                                    vol = itdVal.getVolume() - lastVol ;
-                                    // I have been seeing some stray negative strokes. It is
-                                    // not supposed to happen, but then data erronity can't
-                                    // be ruled out. Just putting in a check to ignore such
-                                    // spikes.
-                                    if( vol >= 0 ) {
-                                        final int yPix = (int)
-                                                  (this.meta.volumeRect.height -
-                                                   vol/this.meta.volValPerYPixel) ;
-                                        g.drawLine( xPix, this.meta.volumeRect.height-1,
-                                                    xPix, yPix-1 ) ;
-                                    }
-                                }
-                                lastVol = itdVal.getVolume() ;
-                            }
-                        }
-                    }
+                //
+                // The volume differences are computed by the decimator, which
+                // keeps the largest difference of each pixel column. Refer to
+                // the ITDSeriesDecimator for the treatment of the interpolated
+                // values and of the first volume after a loss of continuity.
+                final ITDTickSeries itdSeries = eodVal.getITDSeries() ;
+                final DecimatedSeries bars = this.decimator.getDecimatedSeries(
+                                                 itdSeries, this.meta.valPerXPixel ) ;
+                for( int i=0; i<bars.getNumBars(); i++ ) {
+                    final int xPix = dayStartXPx + bars.getBarX( i ) ;
+                    final int yPix = (int)
+                              (this.meta.volumeRect.height -
+                               bars.getBarVolume( i )/this.meta.volValPerYPixel) ;
+                    g.drawLine( xPix, this.meta.volumeRect.height-1,
+                                xPix, yPix-1 ) ;
                 }
             }
             else {
@@ -1055,8 +1094,9 @@ public class ChartCanvas extends JPanel
 
     /**
      * Whenever the mouse moves, we redraw the cross hair at the new mouse
-     * location. In case we were inside the graph rectangle during the last
-     * movement - we erase the old cross hair.
+     * location. Only the area covered by the last and the new cross hair is
+     * repainted, which copies the chart layer over the last cross hair and
+     * draws the new one.
      */
     @Override
     public void mouseMoved( final MouseEvent e ) {
@@ -1068,9 +1108,6 @@ public class ChartCanvas extends JPanel
             return ;
         }
 
-        final Point point = e.getPoint() ;
-        final Graphics2D g = ( Graphics2D )super.getGraphics() ;
-
         // Although I can't explain it - but once control came here before
         // paint was called and resulted in a null pointer since meta was null.
         // Till the time I explain, we just handle the scenario of a null meta
@@ -1078,42 +1115,16 @@ public class ChartCanvas extends JPanel
             return ;
         }
 
-        GraphicsContextStack.push( g, this.meta.graphRect ) ;
-        g.setFont( CHART_AXIS_FONT ) ;
-
+        final Point point = e.getPoint() ;
         if( this.meta.graphRect != null && this.meta.graphRect.contains( point ) ) {
-
-            final int x = point.x - this.meta.graphRect.x ;
-            final int y = point.y - this.meta.graphRect.y ;
-
-            // If we are not painting the cross hair for the first time, then
-            // erase the last cross hair.
-            if( !(this.lastMouseX == -1 && this.lastMouseY == -1) ) {
-                g.setXORMode( CROSS_HAIR_COLOR ) ;
-                g.drawLine( this.lastMouseX, 0, this.lastMouseX, this.meta.graphRect.height ) ;
-                g.drawLine( 0, this.lastMouseY, this.meta.graphRect.width, this.lastMouseY ) ;
-
-                g.setXORMode( CROSS_HAIR_VALUE_COLOR ) ;
-                g.drawString( getCrossHairValue( this.lastMouseX, this.lastMouseY ),
-                              CROSS_HAIR_OFFSET, this.meta.graphRect.height-CROSS_HAIR_OFFSET ) ;
-            }
-
-            g.setXORMode( CROSS_HAIR_COLOR ) ;
-            g.drawLine( x, 0, x, this.meta.graphRect.height ) ;
-            g.drawLine( 0, y, this.meta.graphRect.width, y ) ;
-
-            g.setXORMode( CROSS_HAIR_VALUE_COLOR ) ;
-            g.drawString( getCrossHairValue( x, y ), CROSS_HAIR_OFFSET,
-                          this.meta.graphRect.height-CROSS_HAIR_OFFSET ) ;
-
-            this.lastMouseX = x ;
-            this.lastMouseY = y ;
+            repaintCrossHair() ;
+            this.lastMouseX = point.x - this.meta.graphRect.x ;
+            this.lastMouseY = point.y - this.meta.graphRect.y ;
+            repaintCrossHair() ;
         }
         else {
             cleanCrossHair() ;
         }
-        g.setPaintMode() ;
-        GraphicsContextStack.pop( g ) ;
     }
 
     /** Clean the cross hair if we have left a dirty trace behind. */
@@ -1130,24 +1141,54 @@ public class ChartCanvas extends JPanel
 
     /** Clean the old cross hair if and only if one exists. */
     private void cleanCrossHair() {
-        final Graphics2D g = ( Graphics2D )super.getGraphics() ;
-
         if( !(this.lastMouseX == -1 && this.lastMouseY == -1) ) {
-            GraphicsContextStack.push( g, this.meta.graphRect ) ;
-            g.setFont( CHART_AXIS_FONT ) ;
-            g.setXORMode( CROSS_HAIR_COLOR ) ;
+            repaintCrossHair() ;
+            this.lastMouseX = this.lastMouseY = -1 ;
+        }
+    }
 
-            g.drawLine( this.lastMouseX, 0, this.lastMouseX, this.meta.graphRect.height ) ;
-            g.drawLine( 0, this.lastMouseY, this.meta.graphRect.width, this.lastMouseY ) ;
+    /**
+     * Requests a repaint of the area covered by the cross hair at the last
+     * mouse location - the vertical and the horizontal hair lines and the
+     * strip at the bottom of the graph where the cross hair value is shown.
+     */
+    private void repaintCrossHair() {
 
-            g.setXORMode( CROSS_HAIR_VALUE_COLOR ) ;
-            g.drawString( getCrossHairValue( this.lastMouseX, this.lastMouseY ),
-                          CROSS_HAIR_OFFSET, this.meta.graphRect.height-CROSS_HAIR_OFFSET ) ;
+        if( this.meta == null || (this.lastMouseX == -1 && this.lastMouseY == -1) ) {
+            return ;
+        }
 
-            this.lastMouseX = this.lastMouseY = -1 ;
-            g.setPaintMode() ;
-            GraphicsContextStack.pop( g ) ;
+        final Rectangle r = this.meta.graphRect ;
+        final FontMetrics fm = getFontMetrics( CHART_AXIS_FONT ) ;
+        final int valueHeight = fm.getHeight() + CROSS_HAIR_OFFSET ;
+
+        repaint( r.x + this.lastMouseX, r.y, 1, r.height + 1 ) ;
+        repaint( r.x, r.y + this.lastMouseY, r.width + 1, 1 ) ;
+        repaint( r.x, r.y + r.height - valueHeight, r.width, valueHeight ) ;
+    }
+
+    /**
+     * Draws the cross hair at the last mouse location, along with the time and
+     * the value it points to.
+     */
+    private void drawCrossHair( final Graphics2D g ) {
+
+        if( this.meta == null || (this.lastMouseX == -1 && this.lastMouseY == -1) ) {
+            return ;
         }
+
+        GraphicsContextStack.push( g, this.meta.graphRect ) ;
+        g.setFont( CHART_AXIS_FONT ) ;
+
+        g.setColor( CROSS_HAIR_COLOR ) ;
+        g.drawLine( this.lastMouseX, 0, this.lastMouseX, this.meta.graphRect.height ) ;
+        g.drawLine( 0, this.lastMouseY, this.meta.graphRect.width, this.lastMouseY ) ;
+
+        g.setColor( CROSS_HAIR_VALUE_COLOR ) ;
+        g.drawString( getCrossHairValue( this.lastMouseX, this.lastMouseY ),
+                      CROSS_HAIR_OFFSET, this.meta.graphRect.height-CROSS_HAIR_OFFSET ) ;
+
+        GraphicsContextStack.pop( g ) ;
     }
     // ================== CROSS HAIR DRAW ROUTINES END =========================
 }
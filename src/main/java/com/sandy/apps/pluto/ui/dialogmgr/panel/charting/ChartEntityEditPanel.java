@@ -14,7 +14,6 @@ import java.text.DecimalFormat;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.SortedSet;
 
 import javax.swing.BorderFactory;
 import javax.swing.BoxLayout;
@@ -24,11 +23,11 @@ import javax.swing.JPanel;
 
 import org.apache.log4j.Logger;
 
+import com.sandy.apps.pluto.shared.ITDTickSeries ;
 import com.sandy.apps.pluto.ui.UIConstant ;
 import com.sandy.apps.pluto.ui.dialogmgr.panel.charting.model.ChartEntity ;
 import com.sandy.apps.pluto.ui.dialogmgr.panel.charting.model.ChartModel ;
 import com.sandy.apps.pluto.ui.dialogmgr.panel.charting.model.EODValue ;
-import com.sandy.apps.pluto.ui.dialogmgr.panel.charting.model.ITDValue ;
 import com.sandy.apps.pluto.ui.dialogmgr.panel.charting.model.ChartModel.ModelEvent ;
 import com.sandy.apps.pluto.ui.dialogmgr.panel.charting.model.ChartModel.ModelListener ;
 
@@ -207,16 +206,16 @@ public class ChartEntityEditPanel extends JPanel
                 final List<EODValue> eodValues = renderData.get( entity ) ;
                 if( !eodValues.isEmpty() ) {
                     final EODValue eodVal = eodValues.get( eodValues.size()-1 ) ;
-                    final SortedSet<ITDValue> itdValues = eodVal.getITDValues() ;
+                    final ITDTickSeries itdSeries = eodVal.getITDSeries() ;
 
                     double value = 0.0 ;
-                    if( itdValues.isEmpty() ) {
+                    if( itdSeries.isEmpty() ) {
                         value = eodVal.getClose() ;
                     }
                     else {
-                        value = itdValues.last().getValue() ;
+                        value = itdSeries.getLastPrice() ;
                     }
-                    panel.setValue( value ) ;
+                    panel.setValue( this.model.getValueTransform( entity ).apply( ( float )value ) ) ;
                 }
             }
         }
@@ -23,12 +23,12 @@ import java.text.DecimalFormat;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.SortedSet;
 
 import javax.swing.JLabel;
 
 import org.apache.log4j.Logger;
 
+import com.sandy.apps.pluto.shared.ITDTickSeries ;
 import com.sandy.apps.pluto.shared.STException ;
 import com.sandy.apps.pluto.shared.ServiceMgr ;
 import com.sandy.apps.pluto.shared.dto.LogMsg ;
@@ -38,7 +38,6 @@ import com.sandy.apps.pluto.ui.dialogmgr.panel.charting.model.ChartEntity ;
 import com.sandy.apps.pluto.ui.dialogmgr.panel.charting.model.ChartEntityConfig ;
 import com.sandy.apps.pluto.ui.dialogmgr.panel.charting.model.ChartModel ;
 import com.sandy.apps.pluto.ui.dialogmgr.panel.charting.model.EODValue ;
-import com.sandy.apps.pluto.ui.dialogmgr.panel.charting.model.ITDValue ;
 import com.sandy.apps.pluto.ui.dialogmgr.panel.charting.model.ChartModel.ModelEvent ;
 import com.sandy.apps.pluto.ui.dialogmgr.panel.charting.model.ChartModel.ModelEventType ;
 import com.sandy.apps.pluto.ui.dialogmgr.panel.charting.model.ChartModel.ModelListener ;
@@ -322,17 +321,17 @@ public class ChartingPanel extends AbstractPlutoFramePanel
             final List<EODValue> eodValues = renderData.values().iterator().next() ;
             if( !eodValues.isEmpty() ) {
                 final EODValue eodVal = eodValues.get( eodValues.size()-1 ) ;
-                final SortedSet<ITDValue> itdValues = eodVal.getITDValues() ;
+                final ITDTickSeries itdSeries = eodVal.getITDSeries() ;
 
                 double value     = 0.0 ;
                 double pctChange = 0.0 ;
                 double change    = 0 ;
 
-                if( itdValues.isEmpty() ) {
+                if( itdSeries.isEmpty() ) {
                     value = eodVal.getClose() ;
                 }
                 else {
-                    value = itdValues.last().getValue() ;
+                    value = itdSeries.getLastPrice() ;
                 }
 
                 pctChange = (( value - eodVal.getPrevClose() )/eodVal.getPrevClose())*100 ;
@@ -0,0 +1,298 @@
+/**
+ * Creation Date: Oct 18, 2026
+ */
+
+package com.sandy.apps.pluto.ui.dialogmgr.panel.charting;
+import java.util.Map ;
+import java.util.WeakHashMap ;
+
+import com.sandy.apps.pluto.shared.ITDTickSeries ;
+
+/**
+ * Reduces the ticks of an ITD series to the points which are visible on the
+ * chart canvas, and caches the reduced series for the repaints which follow.
+ * <p>
+ * A day of high resolution ticks holds thousands of ticks, while the day
+ * spans a few hundred pixels on the canvas, or only a few tens of pixels for
+ * a 2W chart. The ticks are grouped by the pixel column they fall in and for
+ * each column only the first, the minimum, the maximum and the last price
+ * are kept, in the order of their time. The lines joining the reduced points
+ * cover exactly the pixels covered by the lines joining all the ticks. For
+ * the volume, only the largest volume bar of each column is kept, since the
+ * bars of a column are drawn over each other from the base of the volume
+ * graph.
+ * <p>
+ * The reduced series are cached against the ITD series and are valid for
+ * the milliseconds per pixel they were computed for, which is determined by
+ * the width of the canvas and the time range being charted. A reduced series
+ * is computed again when either changes, or when the ticks of the ITD series
+ * have been modified. The cache does not keep the ITD series from being
+ * garbage collected.
+ * <p>
+ * This class is not thread safe, it is expected to be used by the event
+ * dispatch thread while painting.
+ *
+ * @author Sandeep Deb [deb.sandeep@gmail.com]
+ */
+public class ITDSeriesDecimator {
+
+    /**
+     * The points of an ITD series reduced for a given milliseconds per pixel.
+     * The x coordinates of the points are the pixel columns relative to the
+     * start of the trading day.
+     */
+    public static class DecimatedSeries {
+
+        private final int    modCount ;
+        private final double valPerXPixel ;
+
+        private int     numPoints = 0 ;
+        private int[]   pointX ;
+        private float[] pointPrice ;
+
+        private int     numBars = 0 ;
+        private int[]   barX ;
+        private long[]  barVolume ;
+
+        DecimatedSeries( final int modCount, final double valPerXPixel,
+                         final int capacity ) {
+            this.modCount     = modCount ;
+            this.valPerXPixel = valPerXPixel ;
+            this.pointX       = new int[capacity] ;
+            this.pointPrice   = new float[capacity] ;
+            this.barX         = new int[capacity] ;
+            this.barVolume    = new long[capacity] ;
+        }
+
+        /** Returns the number of price points. */
+        public int getNumPoints() { return this.numPoints ; }
+
+        /** Returns the pixel column of the price point at the index. */
+        public int getPointX( final int index ) { return this.pointX[index] ; }
+
+        /** Returns the price of the price point at the index. */
+        public float getPointPrice( final int index ) { return this.pointPrice[index] ; }
+
+        /** Returns the number of volume bars. */
+        public int getNumBars() { return this.numBars ; }
+
+        /** Returns the pixel column of the volume bar at the index. */
+        public int getBarX( final int index ) { return this.barX[index] ; }
+
+        /** Returns the traded volume of the volume bar at the index. */
+        public long getBarVolume( final int index ) { return this.barVolume[index] ; }
+
+        private void addPoint( final int x, final float price ) {
+            this.pointX[this.numPoints]     = x ;
+            this.pointPrice[this.numPoints] = price ;
+            this.numPoints++ ;
+        }
+
+        private void addBar( final int x, final long volume ) {
+            this.barX[this.numBars]      = x ;
+            this.barVolume[this.numBars] = volume ;
+            this.numBars++ ;
+        }
+    }
+
+    /**
+     * If more than these many interpolated ticks are seen in succession, the
+     * volume continuity is treated as lost and the next volume is not drawn
+     * as a difference from the last known volume.
+     */
+    private static final int MAX_INTERPOLATION_COUNT = 15 ;
+
+    /** The reduced series, keyed by the ITD series they have been reduced from. */
+    private final Map<ITDTickSeries, DecimatedSeries> cache =
+                            new WeakHashMap<ITDTickSeries, DecimatedSeries>() ;
+
+    /** Public constructor. */
+    public ITDSeriesDecimator() {
+        super() ;
+    }
+
+    /**
+     * Returns the reduced series for the ITD series, computing it if it has
+     * not been cached for the milliseconds per pixel or if the ticks of the
+     * ITD series have been modified since it was computed.
+     *
+     * @param series The ITD series to reduce.
+     * @param valPerXPixel The number of milliseconds represented by a pixel.
+     */
+    public DecimatedSeries getDecimatedSeries( final ITDTickSeries series,
+                                               final double valPerXPixel ) {
+
+        synchronized( series ) {
+            DecimatedSeries decimated = this.cache.get( series ) ;
+            if( decimated == null ||
+                decimated.modCount != series.getModCount() ||
+                decimated.valPerXPixel != valPerXPixel ) {
+
+                decimated = decimate( series, valPerXPixel ) ;
+                this.cache.put( series, decimated ) ;
+            }
+            return decimated ;
+        }
+    }
+
+    /**
+     * Reduces the ITD series for the milliseconds per pixel, without caching
+     * the result. The caller should hold the lock of the series.
+     *
+     * @param series The ITD series to reduce.
+     * @param valPerXPixel The number of milliseconds represented by a pixel.
+     */
+    public static DecimatedSeries decimate( final ITDTickSeries series,
+                                            final double valPerXPixel ) {
+
+        final int  size     = series.size() ;
+        final long dayStart = series.getDayStart() + ChartCanvas.DAY_START_MILLIS ;
+        final DecimatedSeries decimated = new DecimatedSeries(
+                                series.getModCount(), valPerXPixel, Math.min( size, 16 ) ) ;
+
+        // The price points of the column being reduced.
+        int column   = Integer.MIN_VALUE ;
+        int firstIdx = -1, minIdx = -1, maxIdx = -1, lastIdx = -1 ;
+
+        // The volume bar of the column being reduced.
+        int  barColumn = Integer.MIN_VALUE ;
+        long maxVolume = -1 ;
+
+        // The state of the volume differences.
+        long    lastVol            = 0 ;
+        int     interpolationCount = 0 ;
+        boolean skipFirstVol       = true ;
+
+        for( int i=0; i<size; i++ ) {
+
+            final int x = ( int )( ( series.getTime( i ) - dayStart ) / valPerXPixel ) ;
+
+            // --------------------------------------------------------- Price
+            if( x != column ) {
+                if( firstIdx != -1 ) {
+                    addColumnPoints( series, decimated, column,
+                                     firstIdx, minIdx, maxIdx, lastIdx ) ;
+                }
+                column   = x ;
+                firstIdx = minIdx = maxIdx = lastIdx = i ;
+            }
+            else {
+                final float price = series.getPrice( i ) ;
+                if( price < series.getPrice( minIdx ) ) {
+                    minIdx = i ;
+                }
+                if( price > series.getPrice( maxIdx ) ) {
+                    maxIdx = i ;
+                }
+                lastIdx = i ;
+            }
+
+            // -------------------------------------------------------- Volume
+            // The volume is drawn as the difference from the last volume. If
+            // the volume continuity is lost for a while, the difference since
+            // the last volume would be huge, overshadowing the graph. Hence
+            // after a run of interpolated ticks, which carry no volume, the
+            // next volume is treated as a fresh start. The first volume after
+            // a fresh start is skipped as well, since the data might be being
+            // collected late.
+            if( interpolationCount > MAX_INTERPOLATION_COUNT ) {
+                lastVol = 0 ;
+                skipFirstVol = true ;
+            }
+
+            if( series.isInterpolated( i ) ) {
+                interpolationCount++ ;
+                continue ;
+            }
+
+            interpolationCount = 0 ;
+            if( skipFirstVol ) {
+                skipFirstVol = false ;
+                continue ;
+            }
+
+            final long volume = series.getVolume( i ) ;
+            if( lastVol != 0 ) {
+                // Stray negative differences are the result of erroneous data
+                // and are ignored.
+                final long vol = volume - lastVol ;
+                if( vol >= 0 ) {
+                    if( x != barColumn ) {
+                        if( maxVolume != -1 ) {
+                            ensureBarCapacity( decimated ) ;
+                            decimated.addBar( barColumn, maxVolume ) ;
+                        }
+                        barColumn = x ;
+                        maxVolume = vol ;
+                    }
+                    else if( vol > maxVolume ) {
+                        maxVolume = vol ;
+                    }
+                }
+            }
+            lastVol = volume ;
+        }
+
+        if( firstIdx != -1 ) {
+            addColumnPoints( series, decimated, column,
+                             firstIdx, minIdx, maxIdx, lastIdx ) ;
+        }
+        if( maxVolume != -1 ) {
+            ensureBarCapacity( decimated ) ;
+            decimated.addBar( barColumn, maxVolume ) ;
+        }
+        return decimated ;
+    }
+
+    /**
+     * Adds the first, minimum, maximum and last ticks of a column as points,
+     * in the order of their time and skipping the ticks which repeat.
+     */
+    private static void addColumnPoints( final ITDTickSeries series,
+                                         final DecimatedSeries decimated,
+                                         final int column,
+                                         final int firstIdx, final int minIdx,
+                                         final int maxIdx, final int lastIdx ) {
+
+        final int lowIdx  = Math.min( minIdx, maxIdx ) ;
+        final int highIdx = Math.max( minIdx, maxIdx ) ;
+
+        ensurePointCapacity( decimated ) ;
+        decimated.addPoint( column, series.getPrice( firstIdx ) ) ;
+        if( lowIdx != firstIdx ) {
+            decimated.addPoint( column, series.getPrice( lowIdx ) ) ;
+        }
+        if( highIdx != lowIdx ) {
+            decimated.addPoint( column, series.getPrice( highIdx ) ) ;
+        }
+        if( lastIdx != highIdx ) {
+            decimated.addPoint( column, series.getPrice( lastIdx ) ) ;
+        }
+    }
+
+    /** Makes room for the four points of a column. */
+    private static void ensurePointCapacity( final DecimatedSeries decimated ) {
+        if( decimated.numPoints + 4 > decimated.pointX.length ) {
+            final int newCapacity = decimated.pointX.length*2 + 4 ;
+            final int[]   newX     = new int[newCapacity] ;
+            final float[] newPrice = new float[newCapacity] ;
+            System.arraycopy( decimated.pointX,     0, newX,     0, decimated.numPoints ) ;
+            System.arraycopy( decimated.pointPrice, 0, newPrice, 0, decimated.numPoints ) ;
+            decimated.pointX     = newX ;
+            decimated.pointPrice = newPrice ;
+        }
+    }
+
+    /** Makes room for one more volume bar. */
+    private static void ensureBarCapacity( final DecimatedSeries decimated ) {
+        if( decimated.numBars + 1 > decimated.barX.length ) {
+            final int newCapacity = decimated.barX.length*2 + 4 ;
+            final int[]  newX      = new int[newCapacity] ;
+            final long[] newVolume = new long[newCapacity] ;
+            System.arraycopy( decimated.barX,      0, newX,      0, decimated.numBars ) ;
+            System.arraycopy( decimated.barVolume, 0, newVolume, 0, decimated.numBars ) ;
+            decimated.barX      = newX ;
+            decimated.barVolume = newVolume ;
+        }
+    }
+}
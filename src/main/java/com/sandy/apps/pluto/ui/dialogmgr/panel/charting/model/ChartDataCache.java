@@ -0,0 +1,112 @@
+/**
+ * Creation Date: Oct 18, 2026
+ */
+
+package com.sandy.apps.pluto.ui.dialogmgr.panel.charting.model;
+import java.util.Date ;
+import java.util.Iterator ;
+import java.util.LinkedHashMap ;
+import java.util.Map ;
+
+import org.apache.log4j.Logger ;
+
+import com.sandy.apps.pluto.shared.ConfigKey ;
+import com.sandy.apps.pluto.shared.util.util.ConfigManager ;
+import com.sandy.apps.pluto.ui.dialogmgr.panel.charting.model.ChartEntity.EntityType ;
+
+/**
+ * A process wide cache of the data loaded for the chart entities, keyed by
+ * the type and the name of the entity. A chart entity takes its data from
+ * this cache, such that the data loaded once is reused when the entity is
+ * charted again, in the same or in another chart.
+ * <p>
+ * The cache is bounded by the configured heap size. When the cache grows
+ * beyond the size, the data of the least recently loaded entities is evicted.
+ * An evicted data continues to be used by the entities referring to it, and
+ * is put back in the cache on its next load.
+ *
+ * @author Sandeep Deb [deb.sandeep@gmail.com]
+ */
+public class ChartDataCache {
+
+    /** Log4J logger for this class. */
+    public static final Logger logger = Logger.getLogger( ChartDataCache.class ) ;
+
+    /** The singleton instance. */
+    private static ChartDataCache instance = null ;
+
+    /** The cached data, in the order of their last access. */
+    private final Map<String, ChartEntityData> cache =
+                        new LinkedHashMap<String, ChartEntityData>( 16, 0.75F, true ) ;
+
+    /** The heap size in bytes up to which the data is cached. */
+    private final long maxHeapSize ;
+
+    /** Private constructor to enforce the singleton pattern. */
+    private ChartDataCache( final long maxHeapSize ) {
+        super() ;
+        this.maxHeapSize = maxHeapSize ;
+    }
+
+    /** Singleton accessor method. */
+    public static synchronized ChartDataCache instance() {
+        if( instance == null ) {
+            final int maxSize = ConfigManager.getInstance().getInt(
+                                    ConfigKey.CHART_DATA_CACHE_MAX_SIZE,
+                                    ConfigKey.DEF_CHART_DATA_CACHE_MAX_SIZE ) ;
+            instance = new ChartDataCache( maxSize * 1024L ) ;
+        }
+        return instance ;
+    }
+
+    /**
+     * Returns the cached data of the entity, or a new empty data if the
+     * entity's data is not cached. Today's ITD values of a cached data are
+     * marked as not loaded, since they are not kept up to date while the
+     * entity is not being charted.
+     *
+     * @param type The type of the chart entity.
+     * @param name The name of the chart entity.
+     */
+    public synchronized ChartEntityData getData( final EntityType type,
+                                                 final String name ) {
+
+        final String key = type + ":" + name ;
+        ChartEntityData data = this.cache.get( key ) ;
+        if( data == null ) {
+            data = new ChartEntityData( key ) ;
+            this.cache.put( key, data ) ;
+        }
+        else {
+            data.invalidateDay( new Date() ) ;
+        }
+        return data ;
+    }
+
+    /**
+     * Marks the data as the most recently used, putting it back in the cache
+     * if it has been evicted, and evicts the least recently used data till
+     * the cache fits in its size. The data being marked is never evicted.
+     * This method should be called after the data has been loaded, without
+     * holding the lock of the data.
+     */
+    public synchronized void touch( final ChartEntityData data ) {
+
+        this.cache.put( data.getKey(), data ) ;
+
+        long heapSize = 0 ;
+        for( final ChartEntityData cachedData : this.cache.values() ) {
+            heapSize += cachedData.getHeapSize() ;
+        }
+
+        final Iterator<ChartEntityData> iter = this.cache.values().iterator() ;
+        while( heapSize > this.maxHeapSize && iter.hasNext() ) {
+            final ChartEntityData eldest = iter.next() ;
+            if( eldest != data ) {
+                heapSize -= eldest.getHeapSize() ;
+                iter.remove() ;
+                logger.debug( "Evicted chart data of " + eldest.getKey() ) ;
+            }
+        }
+    }
+}
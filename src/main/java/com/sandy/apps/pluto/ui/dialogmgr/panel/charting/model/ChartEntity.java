@@ -7,24 +7,28 @@ import java.awt.BasicStroke ;
 import java.awt.Color ;
 import java.awt.Stroke ;
 import java.util.ArrayList ;
+import java.util.Calendar ;
 import java.util.Date ;
 import java.util.HashMap ;
 import java.util.List ;
 import java.util.Map ;
-import java.util.TreeMap ;
 
 import org.apache.log4j.Logger ;
 
-import com.sandy.apps.pluto.biz.svc.IExIndexSvc ;
-import com.sandy.apps.pluto.biz.svc.IScripSvc ;
+import com.sandy.apps.pluto.shared.ITDBarInterval ;
+import com.sandy.apps.pluto.shared.ITDTickSeries ;
+import com.sandy.apps.pluto.shared.ITDTickStore ;
 import com.sandy.apps.pluto.shared.STException ;
 import com.sandy.apps.pluto.shared.STUtils ;
 import com.sandy.apps.pluto.shared.ServiceMgr ;
+import com.sandy.apps.pluto.shared.TimeRangeSet ;
 import com.sandy.apps.pluto.shared.dto.AbstractITDValue ;
 import com.sandy.apps.pluto.shared.dto.ExIndexEOD ;
 import com.sandy.apps.pluto.shared.dto.ExIndexITD ;
+import com.sandy.apps.pluto.shared.dto.ITDBar ;
 import com.sandy.apps.pluto.shared.dto.ScripEOD ;
 import com.sandy.apps.pluto.shared.dto.ScripITD ;
+import com.sandy.apps.pluto.ui.dialogmgr.panel.charting.model.EODRangeIndex.ValueRange ;
 
 /**
  * This class represents an entity that needs to be plotted on the chart.
@@ -62,11 +66,12 @@ public class ChartEntity {
     private final EntityType entityType ;
 
     /**
-     * A mapping of date versus the EOD value instance. A ChartEntity contains
-     * multiple EODValue instances in an ordered fashion. Where each EODValue
-     * value can contain an aggregation of ITDValue instances.
+     * The data of this entity. The data holds a mapping of date versus the
+     * EOD value instance, where each EODValue value refers to the ITD tick
+     * series of its day. The data is taken from the {@link ChartDataCache}
+     * and is shared by all the chart entities of the same name and type.
      */
-    private final Map<Date, EODValue> eodValueMap = new TreeMap<Date, EODValue>() ;
+    private final ChartEntityData data ;
 
     /** The configuration with which this chart entity was constructued. */
     private final ChartEntityConfig config ;
@@ -78,6 +83,7 @@ public class ChartEntity {
         this.config     = config ;
         this.name       = config.getName() ;
         this.entityType = config.getType() ;
+        this.data       = ChartDataCache.instance().getData( this.entityType, this.name ) ;
     }
 
     // ========== Bean property getters and setters. ===========================
@@ -98,123 +104,273 @@ public class ChartEntity {
      * This method is called upon this entity by the chart model whenever the
      * render time interval of the chart changes. In this method, the
      * chart entity ensures that it has loaded the the data from the database
-     * for the specified time interval.
+     * for the specified time interval. Only the parts of the interval which
+     * have not been loaded already are read from the database, hence
+     * switching back to a time range already seen needs no database access.
      *
      * @param startTime The start time for the time range.
      * @param endTime The end time for the time range.
      * @param itdRange A boolean flag indicating if we have to load ITD data
+     * @param numPoints The number of points in which the range is to be
+     *        rendered. If the days before today have more ITD values than
+     *        points, their ITD bars are loaded instead of the ITD values.
      *
      * @throws STException In case an unanticipated exception scenario was
      *         encountered during the process of loading data for the
      *         specified interval.
      */
     public void loadDataForInterval( final Date startTime, final Date endTime,
-                                     final boolean itdRange )
+                                     final boolean itdRange, final int numPoints )
         throws STException {
 
-        // First - clear off the existing data and load the data afresh. This
-        // might be optimized later to load only the missing part.
-        this.eodValueMap.clear() ;
-
-        // Determine whether we are dealing with a scrip or index. This would
-        // decide on which methods we want to invoke on the service tier.
-        if( this.entityType == EntityType.SCRIP ) {
-            loadScripDataForInterval( startTime, endTime, itdRange ) ;
-        }
-        else {
-            loadIndexDataForInterval( startTime, endTime, itdRange ) ;
+        synchronized( this.data ) {
+            loadEODData( startTime, endTime ) ;
+            if( itdRange ) {
+                loadITDData( startTime, endTime, numPoints ) ;
+            }
         }
+
+        // Let the cache know that the data has been used and might have grown.
+        // This is done outside the lock of the data, since the cache locks
+        // the data of all the entities to compute its size.
+        ChartDataCache.instance().touch( this.data ) ;
     }
 
     /**
-     * Loads the data for this chart entity, assuming that the entity represents
-     * a Scrip. A chart entity can represent either a scrip or an index entity,
-     * however the logic to populate the data for either scrip or index are
-     * different.
+     * Marks the ITD values of the day in which the date falls as not loaded,
+     * such that they are read afresh on the next load. This is called when
+     * the ITD values of the day are changed by a high resolution import.
+     */
+    public void invalidateDay( final Date date ) {
+        this.data.invalidateDay( date ) ;
+    }
+
+    /**
+     * Loads the EOD values for the parts of the time range which have not
+     * been loaded yet. The EOD of today is imported at the end of the day,
+     * hence today is marked as loaded only if its EOD value has been found.
      *
      * @param startTime The start of the time range.
      * @param endTime The end of the time range.
-     * @param itdRange A boolean flag indicating if we have to load ITD data
      *
      * @throws STException If an unanticipated exception is encountered.
      */
-    private void loadScripDataForInterval( final Date startTime, final Date endTime,
-                                           final boolean itdRange )
+    private void loadEODData( final Date startTime, final Date endTime )
         throws STException {
 
-        Date eodDate = null ;
-        EODValue eodValue = null ;
+        final long rangeStart = STUtils.getStartOfDay( startTime ).getTime() ;
+        final long rangeEnd   = STUtils.getEndOfDay( endTime ).getTime() + 1 ;
+        final Date todayStart = STUtils.getStartOfDay( new Date() ) ;
+
+        final TimeRangeSet eodRanges = this.data.getEODRanges() ;
+        for( final long[] gap : eodRanges.getGaps( rangeStart, rangeEnd ) ) {
+
+            final Date gapStart = new Date( gap[0] ) ;
+            final Date gapEnd   = new Date( gap[1] - 1 ) ;
+
+            // Note - we might not always get the EOD data for the specified range
+            // For example, if we are dealing with intra day intervals, the
+            // EOD is yet to be loaded and out database does not have a record.
+            if( this.entityType == EntityType.SCRIP ) {
+                final List<ScripEOD> eodData = ServiceMgr.getScripSvc().getEODData(
+                                                       getName(), gapStart, gapEnd ) ;
+                if( eodData != null ) {
+                    for( final ScripEOD scripEOD : eodData ) {
+                        final EODValue eodValue = new EODValue( scripEOD.getDate() ) ;
+                        populateEODValue( eodValue, scripEOD ) ;
+                        addEODValue( eodValue ) ;
+                    }
+                }
+            }
+            else {
+                final List<ExIndexEOD> eodData = ServiceMgr.getExIndexSvc().getExIndexEODList(
+                                                       this.name, gapStart, gapEnd ) ;
+                if( eodData != null ) {
+                    for( final ExIndexEOD indexEOD : eodData ) {
+                        final EODValue eodValue = new EODValue( indexEOD.getDate() ) ;
+                        populateEODValue( eodValue, indexEOD ) ;
+                        addEODValue( eodValue ) ;
+                    }
+                }
+            }
 
-        // Try getting the EOD data for the specified range.
-        final IScripSvc scripSvc = ServiceMgr.getScripSvc() ;
-
-        // Note - we might not always get the EOD data for the specified range
-        // For example, if we are dealing with intra day intervals, the
-        // EOD is yet to be loaded and out database does not have a record.
-        final List<ScripEOD> eodData = scripSvc.getEODData( getName(), startTime, endTime ) ;
-        if( eodData != null ) {
-            for( final ScripEOD scripEOD : eodData ) {
-                eodDate  = scripEOD.getDate() ;
-                eodValue = new EODValue( eodDate ) ;
-                populateEODValue( eodValue, scripEOD ) ;
-                this.eodValueMap.put( eodDate, eodValue ) ;
+            long loadedEnd = gap[1] ;
+            if( loadedEnd > todayStart.getTime() ) {
+                final EODValue today = this.data.getEODValueMap().get( todayStart ) ;
+                if( today == null || today.isITD() ) {
+                    loadedEnd = Math.max( gap[0], todayStart.getTime() ) ;
+                }
             }
+            eodRanges.add( gap[0], loadedEnd ) ;
         }
+    }
 
-        // Now we load the intra day values for the range and try associating
-        // them with the EOD values that we have loaded. In case we do not
-        // find an EOD value to associate with, we create a new one.
-        if( itdRange ) {
-            filterAndAddITDValues( scripSvc.getITDData( getName(), startTime, endTime ) ) ;
+    /**
+     * Adds the EOD value to the data of this entity. If the day already has
+     * an EOD value, typically an ITD day marker, the ITD series of the day
+     * is carried over to the new value.
+     */
+    private void addEODValue( final EODValue eodValue ) {
+
+        final EODValue oldValue = this.data.putEODValue( eodValue ) ;
+        if( oldValue != null && !oldValue.getITDSeries().isEmpty() ) {
+            eodValue.setITDSeries( oldValue.getITDSeries() ) ;
         }
     }
 
     /**
-     * Loads the data for this chart entity, assuming that the entity represents
-     * an Index. A chart entity can represent either a scrip or an index entity,
-     * however the logic to populate the data for either scrip or index are
-     * different.
+     * Loads the ITD data for the days of the time range which have not been
+     * loaded yet, or which have been loaded at a coarser resolution than
+     * required. The days before today are loaded as ITD bars if the range
+     * has more ITD values than points, today is always loaded as ITD values.
+     * Today's ITD values are shared with the ITD tick store and continue to
+     * be updated by the ITD import events. The consecutive days to be loaded
+     * at the same resolution are loaded together.
      *
      * @param startTime The start of the time range.
      * @param endTime The end of the time range.
-     * @param itdRange A boolean flag indicating if we have to load ITD data
+     * @param numPoints The number of points in which the range is rendered.
      *
      * @throws STException If an unanticipated exception is encountered.
      */
-    private void loadIndexDataForInterval( final Date startTime, final Date endTime,
-                                           final boolean itdRange )
+    private void loadITDData( final Date startTime, final Date endTime,
+                              final int numPoints )
         throws STException {
 
-        Date eodDate = null ;
-        EODValue eodValue = null ;
+        final ITDBarInterval interval = ITDBarInterval.forRange( startTime, endTime, numPoints ) ;
+        final Date todayStart = STUtils.getStartOfDay( new Date() ) ;
+
+        final List<Date> runDays = new ArrayList<Date>() ;
+        long runResolution = ChartEntityData.ITD_VALUES ;
+
+        final Calendar cal = Calendar.getInstance() ;
+        cal.setTime( STUtils.getStartOfDay( startTime ) ) ;
+        while( !cal.getTime().after( endTime ) ) {
+
+            final Date day = cal.getTime() ;
+            cal.add( Calendar.DATE, 1 ) ;
 
-        // Try getting the EOD data for the specified range.
-        final IExIndexSvc indexSvc = ServiceMgr.getExIndexSvc() ;
-
-        // Note - we might not always get the EOD data for the specified range
-        // For example, if we are dealing with intra day intervals, the
-        // EOD is yet to be loaded and out database does not have a record.
-        final List<ExIndexEOD> eodData = indexSvc.getExIndexEODList( this.name, startTime, endTime ) ;
-        if( eodData != null ) {
-            for( final ExIndexEOD scripEOD : eodData ) {
-                eodDate  = scripEOD.getDate() ;
-                eodValue = new EODValue( eodDate ) ;
-                populateEODValue( eodValue, scripEOD ) ;
-                this.eodValueMap.put( eodDate, eodValue ) ;
+            long resolution = ChartEntityData.ITD_VALUES ;
+            if( interval != null && day.before( todayStart ) ) {
+                resolution = interval.getMillis() ;
+            }
+
+            final Long loaded = this.data.getITDResolution( day ) ;
+            final boolean missing = ( loaded == null || loaded > resolution ) ;
+
+            if( !runDays.isEmpty() && ( !missing || resolution != runResolution ) ) {
+                loadITDRun( runDays, runResolution, interval ) ;
+                runDays.clear() ;
+            }
+            if( missing ) {
+                runResolution = resolution ;
+                runDays.add( day ) ;
             }
         }
 
-        // Now we load the intra day values for the range and try associating
-        // them with the EOD values that we have loaded. In case we do not
-        // find an EOD value to associate with, we create a new one.
-        if( itdRange ) {
-            filterAndAddITDValues( indexSvc.getExIndexITDList( this.name, startTime, endTime ) ) ;
+        if( !runDays.isEmpty() ) {
+            loadITDRun( runDays, runResolution, interval ) ;
+        }
+    }
+
+    /**
+     * Loads the ITD data of the consecutive days at the resolution specified
+     * and records the days as loaded.
+     *
+     * @param days The consecutive days to load, in the ascending order.
+     * @param resolution The resolution, ITD_VALUES or the bar length.
+     * @param interval The interval of the bars, if bars are to be loaded.
+     *
+     * @throws STException If an unanticipated exception is encountered.
+     */
+    private void loadITDRun( final List<Date> days, final long resolution,
+                             final ITDBarInterval interval )
+        throws STException {
+
+        final Date start = days.get( 0 ) ;
+        final Date end   = STUtils.getEndOfDay( days.get( days.size()-1 ) ) ;
+
+        if( resolution == ChartEntityData.ITD_VALUES ) {
+            if( this.entityType == EntityType.SCRIP ) {
+                filterAndAddITDValues( ServiceMgr.getScripSvc().getITDData( getName(), start, end ) ) ;
+            }
+            else {
+                filterAndAddITDValues( ServiceMgr.getExIndexSvc().getExIndexITDList( this.name, start, end ) ) ;
+            }
+        }
+        else {
+            // Discard the bars of a coarser interval loaded earlier, the bars
+            // of different intervals can't be mixed in a series.
+            for( final Date day : days ) {
+                final EODValue eodValue = this.data.getEODValueMap().get( day ) ;
+                if( eodValue != null && this.data.getITDResolution( day ) != null ) {
+                    eodValue.clearITDSeries() ;
+                    this.data.dayChanged( day ) ;
+                }
+            }
+
+            if( this.entityType == EntityType.SCRIP ) {
+                addITDBars( ServiceMgr.getScripSvc().getITDBars( getName(), start, end, interval ) ) ;
+            }
+            else {
+                addITDBars( ServiceMgr.getExIndexSvc().getExIndexITDBars( this.name, start, end, interval ) ) ;
+            }
+        }
+
+        for( final Date day : days ) {
+            this.data.setITDResolution( day, resolution ) ;
+        }
+    }
+
+    /**
+     * Adds the ITD bars, sorted in the ascending order of time, to the EOD
+     * values of their days. Each bar is added as a tick at the start time of
+     * the bar, with the closing price of the bar. The ticks are added to the
+     * EOD value's own series and not to the shared {@link ITDTickStore},
+     * since the store holds the ITD values themselves.
+     */
+    private void addITDBars( final List<ITDBar> bars ) {
+
+        Date   lastDate  = null ;
+        long   dayVolume = 0 ;
+
+        for( final ITDBar bar : bars ) {
+
+            final Date eodDate = STUtils.getStartOfDay( bar.getTime() ) ;
+            if( !eodDate.equals( lastDate ) ) {
+                lastDate  = eodDate ;
+                dayVolume = 0 ;
+            }
+
+            EODValue eodValue = this.data.getEODValueMap().get( eodDate ) ;
+            if( eodValue == null ) {
+                eodValue = new EODValue( eodDate, true ) ;
+                this.data.putEODValue( eodValue ) ;
+            }
+
+            // The series holds the cumulative volume of the day, as with the
+            // traded quantity of the scrip ITD values.
+            long volume = ITDTickSeries.NO_VOLUME ;
+            if( this.entityType == EntityType.SCRIP ) {
+                dayVolume += bar.getVolume() ;
+                volume = dayVolume ;
+            }
+
+            final ITDTickSeries series = eodValue.getITDSeries() ;
+            synchronized( series ) {
+                series.add( bar.getTime().getTime(), (float)bar.getClose(), volume ) ;
+                eodValue.itdBarAdded( (float)bar.getHigh(), (float)bar.getLow(), volume ) ;
+            }
+            this.data.dayChanged( eodDate ) ;
         }
     }
 
     /** Filters the itd values and adds them to the model. */
     private void filterAndAddITDValues( List<? extends AbstractITDValue> itdData ) {
 
+        if( itdData == null ) {
+            return ;
+        }
         itdData = filterITDValuesForResolution( itdData ) ;
         if( itdData != null ) {
             for( final AbstractITDValue scripITD : itdData ) {
@@ -284,7 +440,9 @@ public class ChartEntity {
     /**
      * Adds the specified ITD value to the list of ITD values of this entity.
      * This method will ensure that the date of the ITD value is respected and
-     * it is assigned to the appropriate EOD value.
+     * it is assigned to the appropriate EOD value. The value is added to the
+     * shared {@link ITDTickStore}, adding a value which is already present in
+     * the store only replaces it.
      *
      * @param itd The ITD value to add.
      */
@@ -292,13 +450,14 @@ public class ChartEntity {
 
         Date eodDate = null ;
         EODValue eodValue = null ;
-        ITDValue itdValue = null ;
 
         Date    time         = null ;
         boolean interpolated = false ;
         float   high         = 0.0F ;
         float   low          = 0.0F ;
         float   prevClose    = 0.0F ;
+        float   value        = 0.0F ;
+        long    volume       = 0 ;
 
         if( itd instanceof ScripITD ) {
             final ScripITD sItd = ( ScripITD )itd ;
@@ -307,6 +466,8 @@ public class ChartEntity {
             high         = (float)sItd.getHigh() ;
             low          = (float)sItd.getLow() ;
             prevClose    = (float)sItd.getPrevClose() ;
+            value        = (float)sItd.getPrice() ;
+            volume       = interpolated ? ITDTickSeries.NO_VOLUME : sItd.getTotalTradeQty() ;
         }
         else {
             final ExIndexITD iItd = ( ExIndexITD )itd ;
@@ -315,6 +476,7 @@ public class ChartEntity {
             prevClose    = (float)iItd.getPrevClose() ;
             high         = Float.MIN_VALUE ;
             low          = Float.MAX_VALUE ;
+            value        = (float)iItd.getCurrentVal() ;
         }
 
         // Ignore interpolated data - this makes the graph too complicated.
@@ -330,20 +492,30 @@ public class ChartEntity {
         }
 
         eodDate  = STUtils.getStartOfDay( time ) ;
-        eodValue = this.eodValueMap.get( eodDate ) ;
-        if( eodValue == null ) {
-            eodValue = new EODValue( eodDate, true ) ;
-            if( !interpolated ) {
-                eodValue.setHigh( high ) ;
-                eodValue.setLow( low ) ;
+        synchronized( this.data ) {
+            eodValue = this.data.getEODValueMap().get( eodDate ) ;
+            if( eodValue == null ) {
+                eodValue = new EODValue( eodDate, true ) ;
+                if( !interpolated ) {
+                    eodValue.setHigh( high ) ;
+                    eodValue.setLow( low ) ;
+                }
+                eodValue.setPrevClose( prevClose ) ;
+                this.data.putEODValue( eodValue ) ;
             }
-            eodValue.setPrevClose( prevClose ) ;
-            this.eodValueMap.put( eodDate, eodValue ) ;
-        }
 
-        itdValue = new ITDValue() ;
-        populateITDValue( itdValue, itd ) ;
-        eodValue.addITDValue( itdValue ) ;
+            final ITDTickSeries series = ITDTickStore.instance().getOrCreateSeries( this.name, eodDate ) ;
+            synchronized( series ) {
+                series.add( time.getTime(), value, volume ) ;
+                if( eodValue.getITDSeries() != series ) {
+                    eodValue.setITDSeries( series ) ;
+                }
+                else {
+                    eodValue.itdValueAdded( value, volume ) ;
+                }
+            }
+            this.data.dayChanged( eodDate ) ;
+        }
     }
 
     /** Populates the given EODValue instance with values from the ScripEOD */
@@ -365,24 +537,6 @@ public class ChartEntity {
         eodValue.setPrevClose( (float)indexEOD.getPrevClose() ) ;
     }
 
-    /** Populates the given ITDValue instance with values from the ScripITD */
-    private void populateITDValue( final ITDValue itdValue, final AbstractITDValue itd ) {
-
-        if( itd instanceof ScripITD ) {
-            final ScripITD sItd = ( ScripITD )itd ;
-            itdValue.setTime( sItd.getTime().getTime() ) ;
-            itdValue.setValue( (float)sItd.getPrice() ) ;
-            itdValue.setInterpolated( sItd.isInterpolated() ) ;
-            itdValue.setVolume( sItd.getTotalTradeQty() ) ;
-        }
-        else if( itd instanceof ExIndexITD ) {
-            final ExIndexITD iItd = ( ExIndexITD )itd ;
-            itdValue.setTime( iItd.getDate().getTime() ) ;
-            itdValue.setValue( (float)iItd.getCurrentVal() ) ;
-            itdValue.setInterpolated( false ) ;
-        }
-    }
-
     /** Chart entities are equal if they have the same name. */
     @Override
     public boolean equals( final Object obj ) {
@@ -397,43 +551,24 @@ public class ChartEntity {
 
     /**
      * Returns the values of this chart entity and all the derived entities
-     * for the time range specified.
-     *
-     * @param absolute If true, the values would be returned as absolute values,
-     *        else a percentage value as compared to the previous closing value
-     *        will be returned. Typically when we are comparing multiple entities,
-     *        we normalize them on a comparative percentage change scale.
+     * for the time range specified. The values are returned as they are, the
+     * values of the comparison charts are rendered through the transform
+     * returned by {@link #getValueTransform(Date, Date, boolean)}.
      */
     public Map<ChartEntity, List<EODValue>> getValues( final Date renderStartTime,
-                                                       final Date renderEndTime,
-                                                       final boolean absolute ) {
+                                                       final Date renderEndTime ) {
 
         final Map<ChartEntity, List<EODValue>> retVal =
                                     new HashMap<ChartEntity, List<EODValue>>() ;
 
         final Date eodDate = STUtils.getStartOfDay( renderStartTime ) ;
-        final List<EODValue> eodList = new ArrayList<EODValue>() ;
-
-        float baseValue = 0.0F ;
-        boolean firstMatch = true ;
+        final List<EODValue> eodList ;
 
-        for( final EODValue eodVal : this.eodValueMap.values() ) {
-            final Date date = eodVal.getDate() ;
-            if( date.equals( eodDate ) ||
-                ( date.after( eodDate ) && date.before( renderEndTime ) ||
-                date.equals( renderEndTime ) ) ) {
-
-                if( absolute ) {
-                    eodList.add( eodVal ) ;
-                }
-                else {
-                    if( firstMatch ) {
-                        firstMatch = false ;
-                        baseValue = eodVal.getPrevClose() ;
-                    }
-                    eodList.add( eodVal.getPctChangeValue( baseValue ) ) ;
-                }
-            }
+        // The data might hold values outside the time range, loaded for the
+        // other time ranges charted earlier.
+        synchronized( this.data ) {
+            eodList = new ArrayList<EODValue>( this.data.getEODValueMap().subMap(
+                                 eodDate, true, renderEndTime, true ).values() ) ;
         }
 
         retVal.put( this, eodList ) ;
@@ -443,6 +578,58 @@ public class ChartEntity {
         return retVal ;
     }
 
+    /**
+     * Returns the transform through which the values of this chart entity are
+     * to be rendered for the time range specified.
+     *
+     * @param absolute If true, the identity transform is returned, else the
+     *        transform to the percentage change relative to the previous close
+     *        of the first day in the time range. Typically when we are comparing
+     *        multiple entities, we normalize them on a comparative percentage
+     *        change scale.
+     */
+    public ValueTransform getValueTransform( final Date renderStartTime,
+                                             final Date renderEndTime,
+                                             final boolean absolute ) {
+        if( absolute ) {
+            return ValueTransform.IDENTITY ;
+        }
+
+        final Date eodDate = STUtils.getStartOfDay( renderStartTime ) ;
+        synchronized( this.data ) {
+            final ValueRange range = this.data.getRangeIndex().query( eodDate, renderEndTime ) ;
+            if( range == null ) {
+                return ValueTransform.IDENTITY ;
+            }
+            return ValueTransform.pctChange( range.getBasePrevClose() ) ;
+        }
+    }
+
+    /**
+     * Returns the range of the values of this chart entity for the time range
+     * specified, as rendered through the transform returned by
+     * {@link #getValueTransform(Date, Date, boolean)}, or null if there are
+     * no values in the time range. The range is answered by the range index
+     * of the data without scanning the values.
+     *
+     * @param absolute If true, the range of the absolute values is returned,
+     *        else the range of the percentage changes relative to the previous
+     *        close of the first day in the time range.
+     */
+    public ValueRange getValueRange( final Date renderStartTime,
+                                     final Date renderEndTime,
+                                     final boolean absolute ) {
+
+        final Date eodDate = STUtils.getStartOfDay( renderStartTime ) ;
+        synchronized( this.data ) {
+            final ValueRange range = this.data.getRangeIndex().query( eodDate, renderEndTime ) ;
+            if( range == null || absolute ) {
+                return range ;
+            }
+            return range.transform( ValueTransform.pctChange( range.getBasePrevClose() ) ) ;
+        }
+    }
+
     /**
      * Removes the specified derived entity from this chart entity.
      *
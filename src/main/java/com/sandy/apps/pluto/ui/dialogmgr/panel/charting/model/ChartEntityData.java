@@ -0,0 +1,168 @@
+/**
+ * Creation Date: Oct 18, 2026
+ */
+
+package com.sandy.apps.pluto.ui.dialogmgr.panel.charting.model;
+import java.util.Date ;
+import java.util.HashMap ;
+import java.util.HashSet ;
+import java.util.IdentityHashMap ;
+import java.util.Map ;
+import java.util.NavigableMap ;
+import java.util.Set ;
+import java.util.TreeMap ;
+
+import com.sandy.apps.pluto.shared.ITDTickSeries ;
+import com.sandy.apps.pluto.shared.STUtils ;
+import com.sandy.apps.pluto.shared.TimeRangeSet ;
+
+/**
+ * Holds the data loaded for a scrip or an index, along with the book keeping
+ * of what has been loaded. The EOD values are loaded for time ranges, the
+ * loaded ranges are held as a {@link TimeRangeSet}. The ITD values are
+ * loaded for whole days, either as the ITD values themselves or as ITD bars
+ * of an interval, and the resolution at which each day has been loaded is
+ * held against the day. The EOD values are indexed by an {@link EODRangeIndex}
+ * for the computation of the axis ranges.
+ * <p>
+ * The data is shared by the chart entities of the same name and type, and
+ * is cached by the {@link ChartDataCache} across the charts. The users are
+ * expected to synchronize on this instance while accessing the data.
+ *
+ * @author Sandeep Deb [deb.sandeep@gmail.com]
+ */
+public class ChartEntityData {
+
+    /** The resolution of a day for which the ITD values have been loaded. */
+    public static final long ITD_VALUES = 0 ;
+
+    /** The approximate heap size of an EOD value, excluding its ITD series. */
+    private static final long EOD_VALUE_HEAP_SIZE = 96 ;
+
+    /** The key of this data in the chart data cache. */
+    private final String key ;
+
+    /** A mapping of date versus the EOD value instance, ordered by date. */
+    private final NavigableMap<Date, EODValue> eodValueMap = new TreeMap<Date, EODValue>() ;
+
+    /** The time ranges for which the EOD values have been loaded. */
+    private final TimeRangeSet eodRanges = new TimeRangeSet() ;
+
+    /**
+     * The resolution in milliseconds at which the ITD values of each day have
+     * been loaded, keyed by the start of the day. The resolution is the
+     * length of the ITD bars, or ITD_VALUES for the ITD values themselves.
+     */
+    private final Map<Date, Long> itdResolutions = new HashMap<Date, Long>() ;
+
+    /** The range query index over the EOD values. */
+    private final EODRangeIndex rangeIndex = new EODRangeIndex() ;
+
+    /** True if EOD values have been added since the index was last built. */
+    private boolean rangeIndexStale = true ;
+
+    /** The days whose EOD values have changed since the index was updated. */
+    private final Set<Date> changedDays = new HashSet<Date>() ;
+
+    /** Constructor. */
+    public ChartEntityData( final String key ) {
+        super() ;
+        this.key = key ;
+    }
+
+    public String getKey() { return this.key ; }
+
+    /**
+     * Returns the EOD values keyed by their dates. The EOD values should be
+     * added through {@link #putEODValue(EODValue)} and not directly to the
+     * map, such that the range index is kept up to date.
+     */
+    public NavigableMap<Date, EODValue> getEODValueMap() { return this.eodValueMap ; }
+
+    /**
+     * Adds the EOD value, replacing the EOD value of its date if any.
+     *
+     * @return The EOD value replaced, or null.
+     */
+    public EODValue putEODValue( final EODValue eodValue ) {
+        this.rangeIndexStale = true ;
+        return this.eodValueMap.put( eodValue.getDate(), eodValue ) ;
+    }
+
+    /**
+     * Records that the values or the ITD ticks of the EOD value of the day
+     * have changed. The range index is updated for the day when it is next
+     * queried, such that a burst of ITD values is accounted for once.
+     *
+     * @param day The start of the day.
+     */
+    public void dayChanged( final Date day ) {
+        if( !this.rangeIndexStale ) {
+            this.changedDays.add( day ) ;
+        }
+    }
+
+    /**
+     * Returns the range query index over the EOD values, brought up to date
+     * with the changes since it was last returned.
+     */
+    public EODRangeIndex getRangeIndex() {
+
+        if( !this.rangeIndexStale ) {
+            for( final Date day : this.changedDays ) {
+                final EODValue eodValue = this.eodValueMap.get( day ) ;
+                if( eodValue == null || !this.rangeIndex.update( day, eodValue ) ) {
+                    this.rangeIndexStale = true ;
+                    break ;
+                }
+            }
+        }
+        if( this.rangeIndexStale ) {
+            this.rangeIndex.rebuild( this.eodValueMap.values() ) ;
+            this.rangeIndexStale = false ;
+        }
+        this.changedDays.clear() ;
+        return this.rangeIndex ;
+    }
+
+    public TimeRangeSet getEODRanges() { return this.eodRanges ; }
+
+    /**
+     * Returns the resolution at which the ITD values of the day have been
+     * loaded, or null if they have not been loaded.
+     */
+    public Long getITDResolution( final Date day ) {
+        return this.itdResolutions.get( day ) ;
+    }
+
+    /** Records the resolution at which the ITD values of the day are loaded. */
+    public void setITDResolution( final Date day, final long resolution ) {
+        this.itdResolutions.put( day, resolution ) ;
+    }
+
+    /**
+     * Marks the ITD values of the day in which the date falls as not loaded,
+     * such that they are read again on the next load.
+     */
+    public synchronized void invalidateDay( final Date date ) {
+        this.itdResolutions.remove( STUtils.getStartOfDay( date ) ) ;
+    }
+
+    /**
+     * Returns the approximate number of heap bytes held by this data. The ITD
+     * series shared with the ITD tick store are accounted for as well, since
+     * they can't be reclaimed while this data refers to them.
+     */
+    public synchronized long getHeapSize() {
+
+        long heapSize = this.eodValueMap.size() * EOD_VALUE_HEAP_SIZE ;
+        final Map<ITDTickSeries, Boolean> counted = new IdentityHashMap<ITDTickSeries, Boolean>() ;
+        for( final EODValue eodValue : this.eodValueMap.values() ) {
+            final ITDTickSeries series = eodValue.getITDSeries() ;
+            if( counted.put( series, Boolean.TRUE ) == null ) {
+                heapSize += series.getHeapSize() ;
+            }
+        }
+        return heapSize ;
+    }
+}
@@ -15,6 +15,7 @@ import org.apache.commons.lang.math.FloatRange ;
 import org.apache.commons.lang.math.LongRange ;
 import org.apache.log4j.Logger ;
 
+import com.sandy.apps.pluto.shared.ConfigKey ;
 import com.sandy.apps.pluto.shared.EventType ;
 import com.sandy.apps.pluto.shared.STException ;
 import com.sandy.apps.pluto.shared.STUtils ;
@@ -25,8 +26,11 @@ import com.sandy.apps.pluto.shared.dto.ScripITD ;
 import com.sandy.apps.pluto.shared.event.Event ;
 import com.sandy.apps.pluto.shared.event.EventBus ;
 import com.sandy.apps.pluto.shared.event.IEventSubscriber ;
+import com.sandy.apps.pluto.shared.event.ScripITDConflatingChannel ;
+import com.sandy.apps.pluto.shared.util.util.ConfigManager ;
 import com.sandy.apps.pluto.ui.UIConstant ;
 import com.sandy.apps.pluto.ui.dialogmgr.panel.charting.model.ChartEntity.EntityType ;
+import com.sandy.apps.pluto.ui.dialogmgr.panel.charting.model.EODRangeIndex.ValueRange ;
 
 /**
  * The charting model contains the data organized in the format suitable for
@@ -130,6 +134,15 @@ public class ChartModel implements IEventSubscriber, UIConstant {
     private final Map<ChartEntity, List<EODValue>> renderDataCache =
                                     new Hashtable<ChartEntity, List<EODValue>>() ;
 
+    /**
+     * The transforms of the values of the chart entities in the render cache.
+     * The render cache holds the EOD values of the entities as they are, the
+     * comparison charts render the values through a percentage change
+     * transform instead of a transformed copy of the values.
+     */
+    private final Map<ChartEntity, ValueTransform> renderTransforms =
+                                    new Hashtable<ChartEntity, ValueTransform>() ;
+
     /**
      * A part of render cache, where we cache the Y axis range based on the
      * high low values of the chart entity data present in the render cache.
@@ -140,13 +153,26 @@ public class ChartModel implements IEventSubscriber, UIConstant {
     /** The range for the volume chart. */
     private LongRange volAxisRange = null ;
 
+    /**
+     * The width of the graph in pixels, as last painted. The entities load
+     * bars instead of the ITD values for ranges which have more ITD values
+     * than pixels.
+     */
+    private int renderWidth = 1000 ;
+
     /** Constructor taking in the chart UI which needs notification of data change. */
     public ChartModel() {
         super() ;
         // Add the Chart model as a subscriber for Scrip ITD and Index ITD events.
-        // NOTE: Remember to unsubscribe during destruction
+        // NOTE: Remember to unsubscribe during destruction. The scrip ITD
+        // inserts are received through the conflating channel, such that
+        // the chart is refreshed at most at the configured UI rate.
+        final int rate = ConfigManager.getInstance().getInt(
+                                    ConfigKey.SCRIP_ITD_UI_MAX_DELIVERY_RATE,
+                                    ConfigKey.DEF_SCRIP_ITD_UI_MAX_DELIVERY_RATE ) ;
+        ScripITDConflatingChannel.instance().addSubscriber( this, rate ) ;
+
         final EventBus bus = EventBus.instance() ;
-        bus.addSubscriberForEventTypes( this, EventType.EVT_SCRIP_ITD_INSERT ) ;
         bus.addSubscriberForEventTypes( this, EventType.EVT_NSE_INDEX_ITD_INSERT ) ;
         bus.addSubscriberForEventTypes( this, EventType.EVT_HI_RES_SCRIP_ITD_INSERT ) ;
         bus.addSubscriberForEventTypes( this, EventType.EVT_HI_RES_NSE_INDEX_ITD_INSERT ) ;
@@ -158,7 +184,7 @@ public class ChartModel implements IEventSubscriber, UIConstant {
     public void destroy() {
         // Unsubscribe the model from the event bus. The model would be listening
         // to ITD and EOD updates to keep the chart updated.
-        EventBus.instance().removeSubscriber( this, EventType.EVT_SCRIP_ITD_INSERT ) ;
+        ScripITDConflatingChannel.instance().removeSubscriber( this ) ;
         EventBus.instance().removeSubscriber( this, EventType.EVT_NSE_INDEX_ITD_INSERT ) ;
         EventBus.instance().removeSubscriber( this, EventType.EVT_HI_RES_SCRIP_ITD_INSERT ) ;
         EventBus.instance().removeSubscriber( this, EventType.EVT_HI_RES_NSE_INDEX_ITD_INSERT ) ;
@@ -245,7 +271,8 @@ public class ChartModel implements IEventSubscriber, UIConstant {
             // not be able to request the entity to load the data.
             try {
                 entity.loadDataForInterval( this.renderStartTime,
-                                       this.renderEndTime, isIntradayRange() ) ;
+                                       this.renderEndTime, isIntradayRange(),
+                                       this.renderWidth ) ;
             }
             catch ( final STException e ) {
                 LogMsg.error( "Could not load data for entity " + entity.getName() ) ;
@@ -391,12 +418,15 @@ public class ChartModel implements IEventSubscriber, UIConstant {
         }
 
         this.renderDataCache.clear() ;
+        this.renderTransforms.clear() ;
         Map<ChartEntity, List<EODValue>> cache = null ;
         final boolean absolute = this.entityMap.size() == 1 ;
 
         for( final ChartEntity entity : this.entityMap.values() ) {
-            cache = entity.getValues( this.renderStartTime, this.renderEndTime, absolute ) ;
+            cache = entity.getValues( this.renderStartTime, this.renderEndTime ) ;
             this.renderDataCache.putAll( cache ) ;
+            this.renderTransforms.put( entity, entity.getValueTransform(
+                           this.renderStartTime, this.renderEndTime, absolute ) ) ;
         }
 
         // Now we calculate the Y axis range.
@@ -422,7 +452,10 @@ public class ChartModel implements IEventSubscriber, UIConstant {
         return itdRange ;
     }
 
-    /** Calculates the Y axis range based on the values in the render cache. */
+    /**
+     * Calculates the Y axis range and the volume axis range for the values in
+     * the render cache, from the range indexes of the chart entities.
+     */
     private synchronized void calculateYAxisRange() {
 
         float lower = Float.MAX_VALUE ;
@@ -444,74 +477,37 @@ public class ChartModel implements IEventSubscriber, UIConstant {
                 calcVolRange = true ;
             }
 
-            for( final List<EODValue> eodList : this.renderDataCache.values() ) {
-                for( final EODValue eod : eodList ) {
+            // The ranges are answered by the range index of each entity, the
+            // values of the render data are not scanned.
+            for( final ChartEntity entity : this.entityMap.values() ) {
 
-                    if( eod.getLow() < lower ) {
-                        lower = eod.getLow() ;
-                    }
-                    if( eod.getHigh() > upper ) {
-                        upper = eod.getHigh() ;
-                    }
+                final ValueRange range = entity.getValueRange( this.renderStartTime,
+                                                               this.renderEndTime,
+                                                               absolute ) ;
+                if( range == null ) {
+                    continue ;
+                }
 
-                    if( absolute ) {
-                        if( eod.getPrevClose() < lower ) {
-                            lower = eod.getPrevClose() ;
-                        }
-                        else if( eod.getPrevClose() > upper ) {
-                            upper = eod.getPrevClose() ;
-                        }
+                if( range.getLow() < lower ) {
+                    lower = range.getLow() ;
+                }
+                if( range.getHigh() > upper ) {
+                    upper = range.getHigh() ;
+                }
+
+                if( absolute ) {
+                    if( range.getMinPrevClose() < lower ) {
+                        lower = range.getMinPrevClose() ;
                     }
+                    if( range.getMaxPrevClose() > upper ) {
+                        upper = range.getMaxPrevClose() ;
+                    }
+                }
 
-                    if( calcVolRange ) {
-                        if( itdRange ) {
-                            long vol, lastVol = 0 ;
-                            long interpolationCount = 0 ;
-                            boolean skipFirstVol = true ;
-
-                            for( final ITDValue itdVal : eod.getITDValues() ) {
-                                // Logic behind the interpolation count - Take for example a
-                                // case where we have received ITD data for a period of
-                                // 11:00 - 11:30. Now say, we loose volume continuity for
-                                // 30 minutes. When we receive the volume data at 12:00 PM,
-                                // the difference since the last volume data will be huge,
-                                // overshadowing the graph. Hence we have this logic where
-                                // if we have received more than 15 interpolated data points
-                                // we treat it as a fresh start. Hence we zero out the last
-                                // volume.
-                                if( interpolationCount > 15 ) {
-                                    lastVol = 0 ;
-                                    skipFirstVol = true ;
-                                }
-
-                                if( itdVal.isInterpolated() ) {
-                                    interpolationCount ++ ;
-                                    continue ;
-                                }
-                                else {
-                                    interpolationCount = 0 ;
-                                    // Skip the first value - this is because we are ignoring
-                                    // interpolated values and hence if data is being collected
-                                    // late, we might end up having a huge spike since ITD
-                                    // data is shown as differential
-                                    if( skipFirstVol ) {
-                                        skipFirstVol = false ;
-                                    }
-                                    else {
-                                        if( lastVol != 0 ) {
-                                            vol = (int)(itdVal.getVolume() - lastVol) ;
-                                            maxVol = ( vol > maxVol ) ? vol : maxVol ;
-                                        }
-                                        lastVol = itdVal.getVolume() ;
-                                    }
-                                }
-                            }
-                        }
-                        else {
-                            if( eod.getVolume() > maxVol ) {
-                                maxVol = eod.getVolume() ;
-                            }
-                        }
+                if( calcVolRange ) {
+                    final long vol = itdRange ? range.getMaxITDVolume() : range.getMaxVolume() ;
+                    if( vol > maxVol ) {
+                        maxVol = vol ;
                     }
                 }
             }
@@ -546,6 +542,16 @@ public class ChartModel implements IEventSubscriber, UIConstant {
         }
     }
 
+    /**
+     * Returns the transform to be applied to the values of the chart entity
+     * in the render data while rendering them, the identity transform if the
+     * values are to be rendered as they are.
+     */
+    public ValueTransform getValueTransform( final ChartEntity entity ) {
+        final ValueTransform transform = this.renderTransforms.get( entity ) ;
+        return ( transform == null ) ? ValueTransform.IDENTITY : transform ;
+    }
+
     public Map<ChartEntity, List<EODValue>> getRenderData() {
         // If the time range has changed since the last call to this method
         // recompute the entire render cache.
@@ -574,12 +580,15 @@ public class ChartModel implements IEventSubscriber, UIConstant {
         if( eventType == EventType.EVT_HI_RES_SCRIP_ITD_INSERT ||
             eventType == EventType.EVT_HI_RES_NSE_INDEX_ITD_INSERT ) {
 
+            // The high resolution import changes today's ITD values of the
+            // symbol. Only today is read again, the rest is still loaded.
             final String symbol = ( String )event.getValue() ;
             final ChartEntity entity = this.entityMap.get( symbol ) ;
             if( entity != null ) {
                 try {
+                    entity.invalidateDay( new Date() ) ;
                     entity.loadDataForInterval( this.renderStartTime, this.renderEndTime,
-                                                isIntradayRange() ) ;
+                                                isIntradayRange(), this.renderWidth ) ;
                     this.cacheRefreshRequired = true ;
                     notifyListeners( ModelEventType.MODEL_DATA_CHANGED, null ) ;
                 }
@@ -731,14 +740,15 @@ public class ChartModel implements IEventSubscriber, UIConstant {
         // If we have changed the time range - it implies that the model needs
         // to be refreshed with the data for all the entities for the new
         // time range - Request each entity to load their data for the new
-        // time interval.
+        // time interval. The entities read only the parts of the interval
+        // which they have not loaded for the earlier time ranges.
         for( final ChartEntity entity : this.entityMap.values() ) {
 
             // Ask the entity to load the data for the display time range if it
             // does not already contain the data.
             try {
                 entity.loadDataForInterval( this.renderStartTime, this.renderEndTime,
-                                            isIntradayRange() ) ;
+                                            isIntradayRange(), this.renderWidth ) ;
             }
             catch ( final STException e ) {
                 LogMsg.error( "Could not load data for entity " + entity.getName() ) ;
@@ -749,6 +759,16 @@ public class ChartModel implements IEventSubscriber, UIConstant {
         notifyListeners( ModelEventType.MODEL_DATA_CHANGED, null ) ;
     }
 
+    /**
+     * Sets the width of the graph in pixels. The canvas sets the width on
+     * every paint, the new width is used from the next data load onwards.
+     */
+    public void setRenderWidth( final int width ) {
+        if( width > 0 ) {
+            this.renderWidth = width ;
+        }
+    }
+
     /** Returns the fixed time range we are operating against. */
     public String getFixedTimeRange() {
         return this.fixedRangeId ;
@@ -0,0 +1,309 @@
+/**
+ * Creation Date: Oct 18, 2026
+ */
+
+package com.sandy.apps.pluto.ui.dialogmgr.panel.charting.model;
+import java.util.Arrays ;
+import java.util.Collection ;
+import java.util.Date ;
+
+import com.sandy.apps.pluto.shared.ITDTickSeries ;
+
+/**
+ * A range query index over the EOD values of a chart entity, in the order of
+ * their dates. The index answers the minimum low, the maximum high, the range
+ * of the previous closes and the maximum volume of the EOD values falling in
+ * any date window in O(log n), such that the axis ranges of the chart can be
+ * computed without scanning the values of the window.
+ * <p>
+ * The index is a segment tree held in arrays, the leaves being the EOD values
+ * in the order of their dates. The maximum volume is held both as the EOD
+ * volume of the days and as the largest ITD volume difference of the days,
+ * which is what the volume graph shows for the ITD ranges.
+ * <p>
+ * The index is rebuilt when EOD values are added, while the changes to the
+ * values of an indexed day only update the path from the day's leaf to the
+ * root. This class is not thread safe, the index is maintained and queried
+ * under the lock of the {@link ChartEntityData} owning it.
+ *
+ * @author Sandeep Deb [deb.sandeep@gmail.com]
+ */
+public class EODRangeIndex {
+
+    /** The range of the values of the EOD values in a date window. */
+    public static class ValueRange {
+
+        private final float low ;
+        private final float high ;
+        private final float minPrevClose ;
+        private final float maxPrevClose ;
+        private final long  maxVolume ;
+        private final long  maxITDVolume ;
+        private final float basePrevClose ;
+
+        ValueRange( final float low, final float high,
+                    final float minPrevClose, final float maxPrevClose,
+                    final long maxVolume, final long maxITDVolume,
+                    final float basePrevClose ) {
+            this.low           = low ;
+            this.high          = high ;
+            this.minPrevClose  = minPrevClose ;
+            this.maxPrevClose  = maxPrevClose ;
+            this.maxVolume     = maxVolume ;
+            this.maxITDVolume  = maxITDVolume ;
+            this.basePrevClose = basePrevClose ;
+        }
+
+        /** Returns the minimum low of the window. */
+        public float getLow() { return this.low ; }
+
+        /** Returns the maximum high of the window. */
+        public float getHigh() { return this.high ; }
+
+        /** Returns the minimum previous close of the window. */
+        public float getMinPrevClose() { return this.minPrevClose ; }
+
+        /** Returns the maximum previous close of the window. */
+        public float getMaxPrevClose() { return this.maxPrevClose ; }
+
+        /** Returns the maximum EOD volume of the window. */
+        public long getMaxVolume() { return this.maxVolume ; }
+
+        /** Returns the largest ITD volume difference of the window. */
+        public long getMaxITDVolume() { return this.maxITDVolume ; }
+
+        /**
+         * Returns the previous close of the first day of the window, which
+         * is the base of the percentage changes in the comparison charts.
+         */
+        public float getBasePrevClose() { return this.basePrevClose ; }
+
+        /**
+         * Returns the range of the values transformed by the transform. The
+         * volumes are retained.
+         */
+        public ValueRange transform( final ValueTransform t ) {
+            if( t.isReversing() ) {
+                return new ValueRange( t.apply( this.high ), t.apply( this.low ),
+                                       t.apply( this.maxPrevClose ),
+                                       t.apply( this.minPrevClose ),
+                                       this.maxVolume, this.maxITDVolume,
+                                       t.apply( this.basePrevClose ) ) ;
+            }
+            return new ValueRange( t.apply( this.low ), t.apply( this.high ),
+                                   t.apply( this.minPrevClose ),
+                                   t.apply( this.maxPrevClose ),
+                                   this.maxVolume, this.maxITDVolume,
+                                   t.apply( this.basePrevClose ) ) ;
+        }
+    }
+
+    /**
+     * If more than these many interpolated ticks are seen in succession, the
+     * volume continuity is treated as lost. Refer to the volume graph of the
+     * chart canvas.
+     */
+    private static final int MAX_INTERPOLATION_COUNT = 15 ;
+
+    /** The number of indexed EOD values. */
+    private int size = 0 ;
+
+    /** The time of the dates of the indexed EOD values, in ascending order. */
+    private long[] dates = new long[0] ;
+
+    /** The indexed EOD values, in the order of their dates. */
+    private EODValue[] values = new EODValue[0] ;
+
+    // The segment tree, the node i having the children 2i and 2i+1 and the
+    // leaf of the EOD value at index j being the node size+j.
+    private float[] low     = new float[0] ;
+    private float[] high    = new float[0] ;
+    private float[] minPrev = new float[0] ;
+    private float[] maxPrev = new float[0] ;
+    private long[]  volume  = new long[0] ;
+    private long[]  itdVol  = new long[0] ;
+
+    /** Public constructor. */
+    public EODRangeIndex() {
+        super() ;
+    }
+
+    /**
+     * Rebuilds the index for the EOD values.
+     *
+     * @param eodValues The EOD values, in the ascending order of their dates.
+     */
+    public void rebuild( final Collection<EODValue> eodValues ) {
+
+        this.size   = eodValues.size() ;
+        this.dates  = new long[this.size] ;
+        this.values = eodValues.toArray( new EODValue[this.size] ) ;
+
+        this.low     = new float[2*this.size] ;
+        this.high    = new float[2*this.size] ;
+        this.minPrev = new float[2*this.size] ;
+        this.maxPrev = new float[2*this.size] ;
+        this.volume  = new long[2*this.size] ;
+        this.itdVol  = new long[2*this.size] ;
+
+        for( int i=0; i<this.size; i++ ) {
+            this.dates[i] = this.values[i].getDate().getTime() ;
+            setLeaf( i ) ;
+        }
+        for( int node=this.size-1; node>0; node-- ) {
+            combine( node ) ;
+        }
+    }
+
+    /**
+     * Updates the index for a change in the values of the EOD value of the
+     * day, including the ticks of its ITD series.
+     *
+     * @param day The start of the day whose EOD value has changed.
+     *
+     * @return false if the day is not indexed or has a different EOD value
+     *         now, in which case the index needs to be rebuilt.
+     */
+    public boolean update( final Date day, final EODValue eodValue ) {
+
+        final int index = Arrays.binarySearch( this.dates, 0, this.size, day.getTime() ) ;
+        if( index < 0 || this.values[index] != eodValue ) {
+            return false ;
+        }
+
+        setLeaf( index ) ;
+        for( int node=( this.size + index ) >> 1; node>0; node >>= 1 ) {
+            combine( node ) ;
+        }
+        return true ;
+    }
+
+    /**
+     * Returns the range of the values of the EOD values whose dates fall in
+     * the window, or null if the window holds no EOD values.
+     *
+     * @param start The inclusive start of the window.
+     * @param end The inclusive end of the window.
+     */
+    public ValueRange query( final Date start, final Date end ) {
+
+        final int from = ceilingIndex( start.getTime() ) ;
+        final int to   = ceilingIndex( end.getTime() + 1 ) ;
+        if( from >= to ) {
+            return null ;
+        }
+
+        float rLow     = Float.MAX_VALUE ;
+        float rHigh    = -Float.MAX_VALUE ;
+        float rMinPrev = Float.MAX_VALUE ;
+        float rMaxPrev = -Float.MAX_VALUE ;
+        long  rVolume  = Long.MIN_VALUE ;
+        long  rITDVol  = Long.MIN_VALUE ;
+
+        // Walk up from the leaves of the window, taking in the nodes which
+        // lie entirely within the window.
+        for( int l=this.size+from, r=this.size+to; l<r; l>>=1, r>>=1 ) {
+            if( ( l & 1 ) == 1 ) {
+                rLow     = Math.min( rLow,     this.low[l] ) ;
+                rHigh    = Math.max( rHigh,    this.high[l] ) ;
+                rMinPrev = Math.min( rMinPrev, this.minPrev[l] ) ;
+                rMaxPrev = Math.max( rMaxPrev, this.maxPrev[l] ) ;
+                rVolume  = Math.max( rVolume,  this.volume[l] ) ;
+                rITDVol  = Math.max( rITDVol,  this.itdVol[l] ) ;
+                l++ ;
+            }
+            if( ( r & 1 ) == 1 ) {
+                r-- ;
+                rLow     = Math.min( rLow,     this.low[r] ) ;
+                rHigh    = Math.max( rHigh,    this.high[r] ) ;
+                rMinPrev = Math.min( rMinPrev, this.minPrev[r] ) ;
+                rMaxPrev = Math.max( rMaxPrev, this.maxPrev[r] ) ;
+                rVolume  = Math.max( rVolume,  this.volume[r] ) ;
+                rITDVol  = Math.max( rITDVol,  this.itdVol[r] ) ;
+            }
+        }
+
+        return new ValueRange( rLow, rHigh, rMinPrev, rMaxPrev, rVolume, rITDVol,
+                               this.values[from].getPrevClose() ) ;
+    }
+
+    /** Returns the index of the first date at or after the time. */
+    private int ceilingIndex( final long time ) {
+        final int index = Arrays.binarySearch( this.dates, 0, this.size, time ) ;
+        return ( index >= 0 ) ? index : -( index + 1 ) ;
+    }
+
+    /** Sets the leaf of the EOD value at the index from its values. */
+    private void setLeaf( final int index ) {
+
+        final EODValue eodValue = this.values[index] ;
+        final int node = this.size + index ;
+
+        this.low[node]     = eodValue.getLow() ;
+        this.high[node]    = eodValue.getHigh() ;
+        this.minPrev[node] = eodValue.getPrevClose() ;
+        this.maxPrev[node] = eodValue.getPrevClose() ;
+        this.volume[node]  = eodValue.getVolume() ;
+        this.itdVol[node]  = getMaxITDVolume( eodValue.getITDSeries() ) ;
+    }
+
+    /** Sets the node from its children. */
+    private void combine( final int node ) {
+
+        final int left  = 2*node ;
+        final int right = left + 1 ;
+
+        this.low[node]     = Math.min( this.low[left],     this.low[right] ) ;
+        this.high[node]    = Math.max( this.high[left],    this.high[right] ) ;
+        this.minPrev[node] = Math.min( this.minPrev[left], this.minPrev[right] ) ;
+        this.maxPrev[node] = Math.max( this.maxPrev[left], this.maxPrev[right] ) ;
+        this.volume[node]  = Math.max( this.volume[left],  this.volume[right] ) ;
+        this.itdVol[node]  = Math.max( this.itdVol[left],  this.itdVol[right] ) ;
+    }
+
+    /**
+     * Returns the largest difference between the successive volumes of the
+     * ITD series, as drawn by the volume graph, or 0 if there are none.
+     * <p>
+     * Logic behind the interpolation count - Take for example a case where
+     * we have received ITD data for a period of 11:00 - 11:30. Now say, we
+     * loose volume continuity for 30 minutes. When we receive the volume data
+     * at 12:00 PM, the difference since the last volume data will be huge,
+     * overshadowing the graph. Hence if we have received more than 15
+     * interpolated data points we treat it as a fresh start, skipping the
+     * first volume after it.
+     */
+    static long getMaxITDVolume( final ITDTickSeries series ) {
+
+        long    maxVol             = 0 ;
+        long    lastVol            = 0 ;
+        int     interpolationCount = 0 ;
+        boolean skipFirstVol       = true ;
+
+        synchronized( series ) {
+            for( int i=0; i<series.size(); i++ ) {
+                if( interpolationCount > MAX_INTERPOLATION_COUNT ) {
+                    lastVol = 0 ;
+                    skipFirstVol = true ;
+                }
+
+                if( series.isInterpolated( i ) ) {
+                    interpolationCount++ ;
+                    continue ;
+                }
+
+                interpolationCount = 0 ;
+                if( skipFirstVol ) {
+                    skipFirstVol = false ;
+                }
+                else {
+                    if( lastVol != 0 ) {
+                        maxVol = Math.max( maxVol, series.getVolume( i ) - lastVol ) ;
+                    }
+                    lastVol = series.getVolume( i ) ;
+                }
+            }
+        }
+        return maxVol ;
+    }
+}
@@ -4,11 +4,11 @@
 
 package com.sandy.apps.pluto.ui.dialogmgr.panel.charting.model;
 import java.util.Date ;
-import java.util.SortedSet ;
-import java.util.TreeSet ;
 
 import org.apache.log4j.Logger ;
 
+import com.sandy.apps.pluto.shared.ITDTickSeries ;
+
 /**
  * This class is a simple data holder for end of day values. Each end of
  * day value will have an opening, high, low and closing value. Please note that
@@ -17,8 +17,9 @@ import org.apache.log4j.Logger ;
  * today will not have a closing value, although it will have a opening,
  * high and low value reflecting the state of the day data till the point of time.
  *
- * This class also contains an aggregation of ITD value instances, each of
- * which represents ITD values and points of time in the day.
+ * This class also refers to the {@link ITDTickSeries} of the day, which holds
+ * the ITD values at points of time in the day. The series is usually shared
+ * with the {@link com.sandy.apps.pluto.shared.ITDTickStore}.
  *
  * @author Sandeep Deb [deb.sandeep@gmail.com]
  */
@@ -36,7 +37,7 @@ public class EODValue implements Comparable<EODValue>{
 
     private boolean isITD = false ;
 
-    private final SortedSet<ITDValue> itdValues = new TreeSet<ITDValue>() ;
+    private ITDTickSeries itdSeries ;
 
     /** The date for which this instance represents the EOD value. */
     private final Date date ;
@@ -47,6 +48,7 @@ public class EODValue implements Comparable<EODValue>{
      */
     public EODValue( final Date date ) {
         this.date = date ;
+        this.itdSeries = new ITDTickSeries( date.getTime() ) ;
     }
 
     /**
@@ -55,35 +57,10 @@ public class EODValue implements Comparable<EODValue>{
      * not complete yet.
      */
     public EODValue( final Date date, final boolean isITD ) {
-        this.date = date ;
+        this( date ) ;
         this.isITD = isITD ;
     }
 
-    /**
-     * Returns a new EODValue instance containing a percentage relative value
-     * of this instance. The base against which the percentage relative values
-     * are calculated is taken as the base value parameter passed.
-     *
-     * @param base The base for computing relative percentage values.
-     *
-     * @return A new instance of {@link ITDValue}
-     */
-    public EODValue getPctChangeValue( final float baseValue ) {
-
-        final EODValue newVal = new EODValue( this.date, this.isITD ) ;
-
-        newVal.open = (( getOpen() - baseValue )/baseValue)*100 ;
-        newVal.high = (( getHigh() - baseValue )/baseValue)*100 ;
-        newVal.low  = (( getLow()  - baseValue )/baseValue)*100 ;
-        newVal.close= (( getClose()- baseValue )/baseValue)*100 ;
-
-        for( final ITDValue itdVal : this.itdValues ) {
-            newVal.itdValues.add( itdVal.getPctChangeValue( baseValue ) ) ;
-        }
-
-        return newVal ;
-    }
-
     public float getOpen() { return this.open ; }
     public void setOpen( final float open ) { this.open = open ; }
 
@@ -101,7 +78,7 @@ public class EODValue implements Comparable<EODValue>{
     public float getClose() {
         float closeVal = -1 ;
         if( this.isITD ) {
-            closeVal = this.itdValues.last().getValue() ;
+            closeVal = this.itdSeries.getLastPrice() ;
         }
         else {
             closeVal = this.close ;
@@ -116,6 +93,9 @@ public class EODValue implements Comparable<EODValue>{
 
     public Date getDate() { return this.date ; }
 
+    /** Returns true if this value is an ITD day marker, not a complete EOD. */
+    public boolean isITD() { return this.isITD ; }
+
     public long getVolume() { return this.volume ; }
     public void setVolume( final long vol ) { this.volume = vol ; }
 
@@ -131,43 +111,87 @@ public class EODValue implements Comparable<EODValue>{
         return this.date.equals( ((EODValue)obj).date ) ;
     }
 
-    /** Associates the given ITD value with this EOD value. */
-    public void addITDValue( final ITDValue itdValue ) {
+    /**
+     * Sets the ITD series of this day, typically the series from the ITD tick
+     * store. The statistics of this value are recomputed from the ticks
+     * already present in the series.
+     */
+    public void setITDSeries( final ITDTickSeries series ) {
+        synchronized( series ) {
+            this.itdSeries = series ;
+            for( int i=0; i<series.size(); i++ ) {
+                updateStats( series.getPrice( i ), series.getVolume( i ) ) ;
+            }
+        }
+    }
 
-        // Synchronize on the collection of ITD values before adding, since the
-        // itd values can be added to during the time the volue is being painted.
-        synchronized ( this.itdValues ) {
-            // Add the itd value to the list of values. Adding will automatically
-            // place this itd value in a sorted order within the collection.
-            this.itdValues.add( itdValue ) ;
+    /**
+     * Replaces the ITD series of this day with an empty series of its own,
+     * typically to discard the ITD bars before the bars of a finer interval
+     * are added. The statistics of this value are retained.
+     */
+    public void clearITDSeries() {
+        this.itdSeries = new ITDTickSeries( this.date.getTime() ) ;
+    }
+
+    /**
+     * Updates the statistics of this day for an ITD value, which has been
+     * added to the ITD series. Adding the value to the series and updating
+     * the statistics are done under the lock of the series, since the itd
+     * values can be added to during the time the value is being painted.
+     */
+    public void itdValueAdded( final float value, final long volume ) {
+        synchronized ( this.itdSeries ) {
+            updateStats( value, volume ) ;
+        }
+    }
+
+    /**
+     * Updates the statistics of this day for an ITD bar, the closing price of
+     * which has been added to the ITD series. The high and low of the bar are
+     * accounted for, although only the closing price is held by the series.
+     */
+    public void itdBarAdded( final float barHigh, final float barLow,
+                             final long volume ) {
+        synchronized ( this.itdSeries ) {
+            updateStats( barLow, volume ) ;
+            updateStats( barHigh, volume ) ;
         }
+    }
+
+    private void updateStats( final float value, final long volume ) {
 
         // If we are dealing with an ITD value, compute the high and low values.
         // Also compute the volume of the day.
         if( this.isITD ) {
-            if( itdValue.getValue() > this.high ) {
-                this.high = itdValue.getValue() ;
+            if( value > this.high ) {
+                this.high = value ;
             }
 
-            if( itdValue.getValue() < this.low ) {
-                this.low = itdValue.getValue() ;
+            if( value < this.low ) {
+                this.low = value ;
             }
 
-            if( itdValue.getVolume() > getVolume() ) {
-                setVolume( itdValue.getVolume() ) ;
+            if( volume > getVolume() ) {
+                setVolume( volume ) ;
             }
         }
 
         // Check for the opening and closing price - Note that the values in
-        // the itdValues list is sorted in order of time. So the first entry
-        // in the list should be the opening price and the last entity in the
-        // list should decide the closing price.
-        this.open  = this.itdValues.first().getValue() ;
-        this.close = this.itdValues.last().getValue() ;
+        // the itd series are sorted in order of time. So the first entry
+        // in the series should be the opening price and the last entity in the
+        // series should decide the closing price.
+        if( !this.itdSeries.isEmpty() ) {
+            this.open  = this.itdSeries.getPrice( 0 ) ;
+            this.close = this.itdSeries.getLastPrice() ;
+        }
     }
 
-    /** Returns a sorted collection of ITD values for this day. */
-    public SortedSet<ITDValue> getITDValues() {
-        return this.itdValues ;
+    /**
+     * Returns the ITD series of this day. The series should be locked while
+     * iterating over the ticks, since ticks can be added concurrently.
+     */
+    public ITDTickSeries getITDSeries() {
+        return this.itdSeries ;
     }
 }
@@ -0,0 +1,62 @@
+/**
+ * Creation Date: Oct 18, 2026
+ */
+
+package com.sandy.apps.pluto.ui.dialogmgr.panel.charting.model;
+
+/**
+ * A linear transform of the prices of a chart entity, applied while the
+ * values are being rendered. The comparison charts show the values of each
+ * entity as the percentage change relative to a base value, the transform
+ * lets the chart render the same EOD values and ITD series as the absolute
+ * charts, without a transformed copy of the values.
+ * <p>
+ * A transformed value is (value - base) * scale. Instances are immutable.
+ *
+ * @author Sandeep Deb [deb.sandeep@gmail.com]
+ */
+public class ValueTransform {
+
+    /** The transform which leaves the values unchanged. */
+    public static final ValueTransform IDENTITY = new ValueTransform( 0, 1 ) ;
+
+    private final float base ;
+    private final float scale ;
+
+    private ValueTransform( final float base, final float scale ) {
+        this.base  = base ;
+        this.scale = scale ;
+    }
+
+    /**
+     * Returns the transform of values to their percentage change relative to
+     * the base value.
+     */
+    public static ValueTransform pctChange( final float base ) {
+        return new ValueTransform( base, 100/base ) ;
+    }
+
+    /** Returns the transformed value. */
+    public float apply( final float value ) {
+        return ( value - this.base ) * this.scale ;
+    }
+
+    /** Returns true if this transform leaves the values unchanged. */
+    public boolean isIdentity() {
+        return this.base == 0 && this.scale == 1 ;
+    }
+
+    /**
+     * Returns true if this transform reverses the order of the values, in
+     * which case the minimum of the values becomes the maximum of the
+     * transformed values.
+     */
+    public boolean isReversing() {
+        return this.scale < 0 ;
+    }
+
+    @Override
+    public String toString() {
+        return "(value - " + this.base + ") * " + this.scale ;
+    }
+}
@@ -8,10 +8,6 @@
 
 package com.sandy.apps.pluto.ui.dialogmgr.panel.indexitdsummary;
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileOutputStream;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -24,12 +20,18 @@ import java.util.TreeMap;
 import org.apache.log4j.Logger;
 
 import com.sandy.apps.pluto.shared.CacheListener ;
+import com.sandy.apps.pluto.shared.ConfigKey ;
+import com.sandy.apps.pluto.shared.DebouncedTask ;
 import com.sandy.apps.pluto.shared.EventType ;
+import com.sandy.apps.pluto.shared.ITDSnapshotFile ;
 import com.sandy.apps.pluto.shared.STUtils ;
 import com.sandy.apps.pluto.shared.dto.ExIndexITD ;
+import com.sandy.apps.pluto.shared.event.DispatchPolicy ;
 import com.sandy.apps.pluto.shared.event.Event ;
 import com.sandy.apps.pluto.shared.event.EventBus ;
 import com.sandy.apps.pluto.shared.event.IEventSubscriber ;
+import com.sandy.apps.pluto.shared.event.OverflowPolicy ;
+import com.sandy.apps.pluto.shared.util.util.ConfigManager ;
 
 /**
  * This is a singleton class (private constructor), which helps cache and
@@ -95,6 +97,9 @@ public class IndexITDValueCache implements IEventSubscriber {
     /** The location of the cache file. */
     private File cacheFile = null ;
 
+    /** The task which writes the cache file in the background. */
+    private DebouncedTask snapshotTask = null ;
+
     /** Private constructor to enforce singleton pattern. */
     private IndexITDValueCache() {
         super() ;
@@ -136,25 +141,38 @@ public class IndexITDValueCache implements IEventSubscriber {
      */
     @SuppressWarnings("unchecked")
     private void initialize() {
-        // Add the table model as a subscriber interested in listening to JOB_*
-        // events.
-        EventBus.instance().addSubscriberForEventTypes(
-                                        this, EventType.EVT_NSE_INDEX_ITD_INSERT ) ;
+        // Add the table model as a subscriber interested in listening to index
+        // ITD inserts. Each insert carries the latest values of all the
+        // indexes, hence the oldest inserts are dropped if the cache falls
+        // behind, rather than blocking the importers.
+        final DispatchPolicy policy = DispatchPolicy.getDefault() ;
+        EventBus.instance().addSubscriberForEventTypes( this,
+                new DispatchPolicy( policy.getCapacity(), policy.getBatchSize(), OverflowPolicy.DROP_OLDEST ),
+                EventType.EVT_NSE_INDEX_ITD_INSERT ) ;
+
+        // The cache file is written in the background, at most once per
+        // snapshot interval and on exit.
+        final int interval = ConfigManager.getInstance().getInt(
+                                    ConfigKey.ITD_CACHE_SNAPSHOT_INTERVAL,
+                                    ConfigKey.DEF_ITD_CACHE_SNAPSHOT_INTERVAL ) ;
+        this.snapshotTask = new DebouncedTask( "IndexITDCacheSnapshot", new Runnable() {
+            public void run() {
+                writeITDCache() ;
+            }
+        }, interval * 1000L ) ;
 
         // We take this opportunity to load the latest ITD values from a secret
         // file in the user's home directory. We will write this file
-        // every time this cache is updated with fresh data points.
-        final File secretFile = getITDCacheFile() ;
-        ObjectInputStream in = null ;
+        // in the background as this cache is updated with fresh data points.
+        final ITDSnapshotFile secretFile = new ITDSnapshotFile( getITDCacheFile() ) ;
 
         try {
-            if( secretFile.exists() ) {
-                in = new ObjectInputStream( new FileInputStream( secretFile ) ) ;
-                this.lastRefreshTime = ( Date )in.readObject() ;
+            if( secretFile.load() ) {
+                this.lastRefreshTime = secretFile.getLastRefreshTime() ;
 
-                final List<ExIndexITD> cachedITDList = ( List<ExIndexITD> )in.readObject() ;
+                final List<ExIndexITD> cachedITDList = ( List<ExIndexITD> )secretFile.getValues() ;
                 addExIndexITDValues( cachedITDList ) ;
-                logger.info( "Reading Index ITD cache from " + secretFile.getAbsolutePath() ) ;
+                logger.info( "Reading Index ITD cache from " + secretFile.getFile().getAbsolutePath() ) ;
             }
         }
         catch ( final Exception e ) {
@@ -163,17 +181,6 @@ public class IndexITDValueCache implements IEventSubscriber {
             // Maintenance work.
             logger.error( "Could not load Index ITD cache data", e ) ;
         }
-        finally {
-            if( in != null ) {
-                try {
-                    in.close() ;
-                }
-                catch ( final Exception e2 ) {
-                    // Ignore the exception. Nothing we can do
-                    logger.error( "Could not close the Index ITD cache file", e2 ) ;
-                }
-            }
-        }
     }
 
     /** Notifies all the listeners that the ITD data in the cache has changed. */
@@ -192,32 +199,27 @@ public class IndexITDValueCache implements IEventSubscriber {
             }
         }
 
-        // Dump the current cache values in a serialized file.
-        writeITDCache() ;
+        // Dump the current cache values in the cache file, in the background.
+        this.snapshotTask.request() ;
     }
 
     /**
-     * Write the ITD list and the last refresh time into a serialized file. This
+     * Write the ITD list and the last refresh time into the cache file. This
      * will be read back on system startup such that the ITD summary is filled
-     * with the last cached entries at startup.
+     * with the last cached entries at startup. This method is called on the
+     * snapshot task's thread.
      */
     private void writeITDCache() {
 
-        // After all the models have been notified, we have enough time till
-        // the next batch of updates comes our way. We take this opportunity
-        // to persist the latest ITD values into a secret file in the user's
-        // home directory. We will read this file back during initialization
-        // to have the initial data set to display.
-        final File secretFile = getITDCacheFile() ;
-        ObjectOutputStream out = null ;
+        List<ExIndexITD> itdValues = null ;
+        Date refreshTime = null ;
+        synchronized( this.itdList ) {
+            itdValues = new ArrayList<ExIndexITD>( this.itdList ) ;
+            refreshTime = this.lastRefreshTime ;
+        }
 
         try {
-            if( !secretFile.exists() ) {
-                secretFile.createNewFile() ;
-            }
-            out = new ObjectOutputStream( new FileOutputStream( secretFile ) ) ;
-            out.writeObject( this.lastRefreshTime ) ;
-            out.writeObject( this.itdList ) ;
+            new ITDSnapshotFile( getITDCacheFile() ).writeIndexITD( refreshTime, itdValues ) ;
         }
         catch ( final Throwable e ) {
             // This is a non critical process. Just dump the exception in the
@@ -225,18 +227,6 @@ public class IndexITDValueCache implements IEventSubscriber {
             // Maintenance work.
             logger.error( "Could not save Index ITD cache data", e ) ;
         }
-        finally {
-            if( out != null ) {
-                try {
-                    out.flush() ;
-                    out.close() ;
-                }
-                catch ( final Throwable e2 ) {
-                    // Ignore the exception. Nothing we can do
-                    logger.error( "Could not close the Index ITD cache file", e2 ) ;
-                }
-            }
-        }
     }
 
     /** Registers a cache listener. */
@@ -299,19 +289,22 @@ public class IndexITDValueCache implements IEventSubscriber {
         String     indexName   = null ;
         ExIndexITD existingITD = null ;
 
-        for( final ExIndexITD itd : itdValues ) {
-            indexName = itd.getIndex() ;
-            existingITD = this.itdMap.get( indexName ) ;
-            if( existingITD != null ) {
-                this.itdMap.remove( indexName ) ;
-                this.itdList.remove( existingITD ) ;
+        // The list is locked against the background snapshot writes
+        synchronized( this.itdList ) {
+            for( final ExIndexITD itd : itdValues ) {
+                indexName = itd.getIndex() ;
+                existingITD = this.itdMap.get( indexName ) ;
+                if( existingITD != null ) {
+                    this.itdMap.remove( indexName ) ;
+                    this.itdList.remove( existingITD ) ;
+                }
+
+                this.itdMap.put( indexName, itd ) ;
+                this.itdList.add( itd ) ;
             }
 
-            this.itdMap.put( indexName, itd ) ;
-            this.itdList.add( itd ) ;
+            Collections.sort( this.itdList ) ;
         }
-
-        Collections.sort( this.itdList ) ;
     }
 
     /** Returns the number of columns supported by the ITD summary panel. */
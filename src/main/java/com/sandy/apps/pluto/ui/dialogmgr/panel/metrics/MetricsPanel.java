@@ -0,0 +1,108 @@
+/**
+ * Creation Date: Oct 18, 2026
+ */
+
+package com.sandy.apps.pluto.ui.dialogmgr.panel.metrics;
+import java.awt.BorderLayout ;
+import java.awt.Color ;
+import java.awt.event.ActionEvent ;
+import java.awt.event.ActionListener ;
+
+import javax.swing.JScrollPane ;
+import javax.swing.JTable ;
+import javax.swing.Timer ;
+import javax.swing.table.TableColumnModel ;
+
+import org.apache.log4j.Logger ;
+
+import com.sandy.apps.pluto.shared.STException ;
+import com.sandy.apps.pluto.ui.I18N ;
+import com.sandy.apps.pluto.ui.UIConstant ;
+import com.sandy.apps.pluto.ui.dialogmgr.AbstractPlutoFramePanel ;
+
+/**
+ * This panel shows the metrics of the application - the fetch, parse, DAO,
+ * event dispatch and job latencies and the counters recorded in the
+ * {@link com.sandy.apps.pluto.shared.metrics.MetricsRegistry}. The metrics
+ * are refreshed periodically while the panel is open, and on demand through
+ * the refresh button.
+ *
+ * @author Sandeep Deb [deb.sandeep@gmail.com]
+ */
+public class MetricsPanel extends AbstractPlutoFramePanel
+    implements UIConstant, ActionListener {
+
+    /** Default serial version UID. */
+    private static final long serialVersionUID = 1L ;
+
+    /** Log4J logger for this class. */
+    public static final Logger logger = Logger.getLogger( MetricsPanel.class ) ;
+
+    /** The interval in milliseconds at which the metrics are refreshed. */
+    private static final int REFRESH_INTERVAL = 5000 ;
+
+    /** The table which will display the metrics. */
+    private final JTable table = new JTable() ;
+
+    /** The model used for the metrics table. */
+    private final MetricsTableModel tableModel = new MetricsTableModel() ;
+
+    /** The timer which refreshes the metrics periodically. */
+    private final Timer refreshTimer = new Timer( REFRESH_INTERVAL, this ) ;
+
+    /** Public constructor. */
+    public MetricsPanel() {
+        super( I18N.LBL_METRICS_PANEL_NAME ) ;
+    }
+
+    /** Sets up the metrics table and starts the periodic refresh. */
+    @Override
+    public void initializeData() throws STException {
+        setLayout( new BorderLayout() ) ;
+
+        final JScrollPane tableSP = new JScrollPane( this.table ) ;
+        add( tableSP, BorderLayout.CENTER ) ;
+
+        this.table.setModel( this.tableModel ) ;
+        this.table.setAutoCreateRowSorter( true ) ;
+        this.table.setGridColor( new Color( 243, 243, 243 ) ) ;
+        this.table.setFont( LOG_FONT ) ;
+        this.table.getTableHeader().setFont( LOG_FONT_BOLD ) ;
+        this.table.setRowHeight( 18 ) ;
+
+        final TableColumnModel colModel = this.table.getColumnModel() ;
+        colModel.getColumn( 0 ).setPreferredWidth( 150 ) ;
+
+        this.tableModel.refresh() ;
+        this.refreshTimer.start() ;
+    }
+
+    /** Stops the periodic refresh as the panel is disposed. */
+    @Override
+    public void destroy() {
+        this.refreshTimer.stop() ;
+    }
+
+    /**
+     * Returns the icons that need to be displayed in the wizard toolbar when
+     * this panel is selected.
+     *
+     * @return A two dimensional array of Objects, with each row having two
+     *         elements.
+     */
+    @Override
+    public Object[][] getPanelIcons() {
+        return new Object[][] {
+            { AC_REFRESH, IMG_REFRESH, IMG_REFRESH_PRESSED, "Refresh metrics" },
+        } ;
+    }
+
+    /**
+     * This method is invoked when the user clicks the refresh button, and by
+     * the refresh timer. In either case the metrics are refreshed.
+     */
+    @Override
+    public void actionPerformed( final ActionEvent e ) {
+        this.tableModel.refresh() ;
+    }
+}
@@ -0,0 +1,129 @@
+/**
+ * Creation Date: Oct 18, 2026
+ */
+
+package com.sandy.apps.pluto.ui.dialogmgr.panel.metrics;
+import java.util.ArrayList ;
+import java.util.List ;
+
+import javax.swing.table.AbstractTableModel ;
+
+import org.apache.log4j.Logger ;
+
+import com.sandy.apps.pluto.shared.dto.MetricStats ;
+import com.sandy.apps.pluto.shared.metrics.MetricsRegistry ;
+
+/**
+ * This class provides the table model required for displaying the metrics of
+ * the application. The model holds a snapshot of the metrics registry, which
+ * is taken afresh on every {@link #refresh()}. The latencies are shown in
+ * milliseconds.
+ *
+ * @author Sandeep Deb [deb.sandeep@gmail.com]
+ */
+public class MetricsTableModel extends AbstractTableModel {
+
+    /** Default serial version UID. */
+    private static final long serialVersionUID = 1L ;
+
+    /** Log4J logger for this class. */
+    public static final Logger logger = Logger.getLogger( MetricsTableModel.class ) ;
+
+    /** A string array containing the columns in the metrics table. */
+    public static final String[] COL_NAMES = {
+        "Metric", "Count", "Mean", "P50", "P90", "P99", "Max"
+    } ;
+
+    // The column indices as constants
+    private static final int COL_NAME  = 0 ;
+    private static final int COL_COUNT = 1 ;
+    private static final int COL_MEAN  = 2 ;
+    private static final int COL_P50   = 3 ;
+    private static final int COL_P90   = 4 ;
+    private static final int COL_P99   = 5 ;
+    private static final int COL_MAX   = 6 ;
+
+    /** The snapshot of the metrics currently displayed. */
+    private List<MetricStats> stats = new ArrayList<MetricStats>() ;
+
+    /** Public no argument constructor. */
+    public MetricsTableModel() {
+        super() ;
+    }
+
+    /** Takes a fresh snapshot of the metrics and notifies the table. */
+    public void refresh() {
+        this.stats = MetricsRegistry.instance().getStats() ;
+        fireTableDataChanged() ;
+    }
+
+    /** Returns the number of columns of the metrics table. */
+    @Override
+    public int getColumnCount() {
+        return COL_NAMES.length ;
+    }
+
+    /** Returns the number of metrics in the current snapshot. */
+    @Override
+    public int getRowCount() {
+        return this.stats.size() ;
+    }
+
+    /** Returns the name of the column at the specified column index. */
+    @Override
+    public String getColumnName( final int column ) {
+        return COL_NAMES[column] ;
+    }
+
+    /**
+     * Returns String for the name column, Long for the count column and
+     * Double for the latency columns, such that the rows sort by value.
+     */
+    @Override
+    public Class<?> getColumnClass( final int columnIndex ) {
+        switch( columnIndex ) {
+            case COL_NAME:  return String.class ;
+            case COL_COUNT: return Long.class ;
+            default:        return Double.class ;
+        }
+    }
+
+    /** None of this table cells are editable. */
+    @Override
+    public boolean isCellEditable( final int rowIndex, final int columnIndex ) {
+        return false ;
+    }
+
+    /**
+     * Returns the value of the column at the specified row index. The latency
+     * columns of a counter are empty.
+     */
+    @Override
+    public Object getValueAt( final int rowIndex, final int columnIndex ) {
+
+        final MetricStats metric = this.stats.get( rowIndex ) ;
+        if( columnIndex == COL_NAME ) {
+            return metric.getName() ;
+        }
+        else if( columnIndex == COL_COUNT ) {
+            return metric.getCount() ;
+        }
+        else if( !metric.isLatency() ) {
+            return null ;
+        }
+
+        switch( columnIndex ) {
+            case COL_MEAN: return toMillis( metric.getMeanNanos() ) ;
+            case COL_P50:  return toMillis( metric.getP50Nanos() ) ;
+            case COL_P90:  return toMillis( metric.getP90Nanos() ) ;
+            case COL_P99:  return toMillis( metric.getP99Nanos() ) ;
+            case COL_MAX:  return toMillis( metric.getMaxNanos() ) ;
+        }
+        return null ;
+    }
+
+    /** Converts nanoseconds to milliseconds, rounded to a microsecond. */
+    private static Double toMillis( final long nanos ) {
+        return Math.round( nanos/1000.0 )/1000.0 ;
+    }
+}
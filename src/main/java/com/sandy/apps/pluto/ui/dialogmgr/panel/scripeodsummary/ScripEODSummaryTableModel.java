@@ -20,6 +20,7 @@ import com.sandy.apps.pluto.shared.CacheListener ;
 import com.sandy.apps.pluto.shared.dto.ScripEOD ;
 import com.sandy.apps.pluto.shared.dto.ScripITD ;
 import com.sandy.apps.pluto.shared.dto.SymbolPctChange ;
+import com.sandy.apps.pluto.shared.filter.FilterValueSource ;
 import com.sandy.apps.pluto.ui.dialogmgr.panel.scripitdsummary.ScripITDValueCache ;
 
 /**
@@ -29,7 +30,7 @@ import com.sandy.apps.pluto.ui.dialogmgr.panel.scripitdsummary.ScripITDValueCach
  * @author Sandeep Deb [deb.sandeep@gmail.com]
  */
 public class ScripEODSummaryTableModel extends AbstractTableModel
-    implements CacheListener {
+    implements CacheListener, FilterValueSource {
 
     /** Generated serial version UID. */
     private static final long serialVersionUID = 9850964192L ;
@@ -169,6 +170,54 @@ public class ScripEODSummaryTableModel extends AbstractTableModel
         return value ;
     }
 
+    /**
+     * Returns the value of a numeric column at the specified row index
+     * without boxing it, for the filters evaluated over this model. NaN is
+     * returned for the rows and columns which have no numeric value.
+     */
+    public double getNumber( final int rowIndex, final int columnIndex ) {
+        final ScripEOD eod = getScripEODForRow( rowIndex ) ;
+        if( eod == null ) {
+            return Double.NaN ;
+        }
+
+        final double close = eod.getClosingPrice() ;
+        switch( columnIndex ) {
+            case COL_PRICE :
+                return close ;
+            case COL_PCT_E :
+                return (( close - eod.getPrevClosePrice() )/eod.getPrevClosePrice())*100 ;
+            case COL_PCT_O :
+                return (( close - eod.getOpeningPrice() )/eod.getOpeningPrice())*100 ;
+            case COL_QTY :
+                return eod.getTotalTradeQty() ;
+            default :
+                return Double.NaN ;
+        }
+    }
+
+    /**
+     * Returns the value of a text column at the specified row index, for the
+     * filters evaluated over this model.
+     */
+    public String getString( final int rowIndex, final int columnIndex ) {
+        final ScripEOD eod = getScripEODForRow( rowIndex ) ;
+        if( eod == null ) {
+            return null ;
+        }
+
+        switch( columnIndex ) {
+            case COL_SYMBOL :
+                return eod.getSymbolId() ;
+            case COL_ICICI :
+                return ( eod.getSymbol() == null ) ? null : eod.getSymbol().getIciciCode() ;
+            case COL_NAME :
+                return ( eod.getSymbol() == null ) ? null : eod.getSymbol().getDescription() ;
+            default :
+                return null ;
+        }
+    }
+
     /** Returns the class of the column at the specified column index. */
     @Override
     public Class<?> getColumnClass( final int columnIndex ) {
@@ -269,6 +269,9 @@ public class ScripITDSummaryPanel extends AbstractPlutoFramePanel
         this.table.setRowHeight( 15 ) ;
         this.table.setDoubleBuffered( true ) ;
         this.table.setRowSorter( this.sorter ) ;
+        // The cache notifies in place row updates, which should re-sort the
+        // rows if the table is sorted on a value column.
+        this.sorter.setSortsOnUpdates( true ) ;
         this.table.setRowSelectionAllowed( true ) ;
         this.table.setColumnSelectionAllowed( false ) ;
         this.table.setSelectionMode( ListSelectionModel.MULTIPLE_INTERVAL_SELECTION ) ;
@@ -13,8 +13,9 @@ import javax.swing.table.AbstractTableModel;
 
 import org.apache.log4j.Logger;
 
-import com.sandy.apps.pluto.shared.CacheListener ;
+import com.sandy.apps.pluto.shared.RowCacheListener ;
 import com.sandy.apps.pluto.shared.dto.ScripITD ;
+import com.sandy.apps.pluto.shared.filter.FilterValueSource ;
 
 /**
  * This class provides the table model required for displaying the job
@@ -23,7 +24,7 @@ import com.sandy.apps.pluto.shared.dto.ScripITD ;
  * @author Sandeep Deb [deb.sandeep@gmail.com]
  */
 public class ScripITDSummaryTableModel extends AbstractTableModel
-    implements CacheListener {
+    implements RowCacheListener, FilterValueSource {
 
     /** Generated serial version UID. */
     private static final long serialVersionUID = 9850964192L ;
@@ -71,6 +72,16 @@ public class ScripITDSummaryTableModel extends AbstractTableModel
         return this.valueCache.getValueAt( rowIndex, columnIndex ) ;
     }
 
+    /** Returns the unboxed value of a numeric column, for the filters. */
+    public double getNumber( final int rowIndex, final int columnIndex ) {
+        return this.valueCache.getNumber( rowIndex, columnIndex ) ;
+    }
+
+    /** Returns the value of a text column, for the filters. */
+    public String getString( final int rowIndex, final int columnIndex ) {
+        return this.valueCache.getString( rowIndex, columnIndex ) ;
+    }
+
     /** Returns the class of the column at the specified column index. */
     @Override
     public Class<?> getColumnClass( final int columnIndex ) {
@@ -97,4 +108,12 @@ public class ScripITDSummaryTableModel extends AbstractTableModel
     public void cacheDataChanged() {
         fireTableDataChanged() ;
     }
+
+    /**
+     * This method is invoked when only the values of some rows in the ITD
+     * cache have changed, in which case only the changed rows are refreshed.
+     */
+    public void cacheRowsUpdated( final int firstRow, final int lastRow ) {
+        fireTableRowsUpdated( firstRow, lastRow ) ;
+    }
 }
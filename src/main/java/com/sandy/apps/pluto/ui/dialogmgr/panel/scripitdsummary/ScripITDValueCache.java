@@ -8,30 +8,33 @@
 
 package com.sandy.apps.pluto.ui.dialogmgr.panel.scripitdsummary;
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileOutputStream;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
-import java.util.TreeMap;
 
 import org.apache.log4j.Logger;
 
 import com.sandy.apps.pluto.shared.CacheListener ;
-import com.sandy.apps.pluto.shared.EventType ;
+import com.sandy.apps.pluto.shared.ConfigKey ;
+import com.sandy.apps.pluto.shared.DebouncedTask ;
+import com.sandy.apps.pluto.shared.ITDSnapshotFile ;
+import com.sandy.apps.pluto.shared.RowCacheListener ;
 import com.sandy.apps.pluto.shared.STUtils ;
 import com.sandy.apps.pluto.shared.ServiceMgr ;
 import com.sandy.apps.pluto.shared.dto.ScripITD ;
 import com.sandy.apps.pluto.shared.dto.SymbolPctChange ;
 import com.sandy.apps.pluto.shared.event.Event ;
-import com.sandy.apps.pluto.shared.event.EventBus ;
 import com.sandy.apps.pluto.shared.event.IEventSubscriber ;
+import com.sandy.apps.pluto.shared.event.ScripITDConflatingChannel ;
+import com.sandy.apps.pluto.shared.util.util.ConfigManager ;
 import com.sandy.apps.pluto.ui.dialogmgr.panel.scripeodsummary.ScripEODSummaryPanel ;
 import com.sandy.apps.pluto.ui.dialogmgr.panel.scripeodsummary.ScripEODValueCache ;
 
@@ -53,6 +56,12 @@ import com.sandy.apps.pluto.ui.dialogmgr.panel.scripeodsummary.ScripEODValueCach
  * refreshed data, such that when the user open the ITD summary panel, he
  * does not have to wait till the next refresh cycle for his view to be populated.
  * This is especially useful in cases when we are doing offline analysis.
+ * <p>
+ * The rows are kept sorted by symbol. An ITD value for a symbol already in
+ * the cache replaces the symbol's row in place, located by a binary search,
+ * and listeners implementing {@link RowCacheListener} are notified of only
+ * the updated rows. Adding a new symbol or evicting the previous day's rows
+ * changes the structure, which is notified as a full cache data change.
  *
  * @author Sandeep Deb [deb.sandeep@gmail.com]
  */
@@ -64,12 +73,6 @@ public class ScripITDValueCache implements IEventSubscriber {
     /** The singleton instance of this class. */
     private static ScripITDValueCache instance = null ;
 
-    /**
-     * A reference to the {@link ScripEODValueCache} from which this model
-     * derives the last N percentage change data.
-     */
-    private final ScripEODValueCache eodCache = ScripEODValueCache.getInstance() ;
-
     /** A string array containing the columns in the log table. */
     public static final String[] COL_NAMES = {
         "Last 10 %E",
@@ -104,17 +107,47 @@ public class ScripITDValueCache implements IEventSubscriber {
     /** The last time the table model had changed. */
     private Date lastRefreshTime = null ;
 
-    /** The sorted map which holds on to the latest {@link ScripITD} instances. */
-    private final TreeMap<String, ScripITD> itdMap = new TreeMap<String, ScripITD>() ;
+    /**
+     * The maximum number of row update notifications per change. If the
+     * updated rows are more fragmented, a single notification spanning all of
+     * them is sent instead.
+     */
+    private static final int MAX_ROW_UPDATE_NOTIFICATIONS = 16 ;
+
+    /** Orders the ITD values by symbol, the order of the rows. */
+    private static final Comparator<ScripITD> SYMBOL_ORDER = new Comparator<ScripITD>() {
+        public int compare( final ScripITD itd1, final ScripITD itd2 ) {
+            return itd1.getSymbolId().compareTo( itd2.getSymbolId() ) ;
+        }
+    } ;
 
-    /** The linear collection of ITD values for model operations. */
+    /** The map which holds on to the latest {@link ScripITD} instances by symbol. */
+    private final Map<String, ScripITD> itdMap = new HashMap<String, ScripITD>() ;
+
+    /** The linear collection of ITD values for model operations, sorted by symbol. */
     private final List<ScripITD> itdList = new ArrayList<ScripITD>() ;
 
+    /** The rows updated in place since the last change notification. */
+    private final BitSet updatedRows = new BitSet() ;
+
+    /** True if rows have been added or removed since the last notification. */
+    private boolean structureChanged = false ;
+
+    /** The start of the day for which the stale rows were last evicted. */
+    private long evictionDay = 0 ;
+
     /** The location of the cache file. */
     private File cacheFile = null ;
 
-    /** Private constructor to enforce singleton pattern. */
-    private ScripITDValueCache() {
+    /** The task which writes the cache file in the background. */
+    private DebouncedTask snapshotTask = null ;
+
+    /**
+     * Constructor, package private to enforce the singleton pattern. The
+     * instance created is not initialized, which lets the benchmarks exercise
+     * the cache without the event bus, the database or the cache file.
+     */
+    ScripITDValueCache() {
         super() ;
     }
 
@@ -154,32 +187,45 @@ public class ScripITDValueCache implements IEventSubscriber {
      */
     @SuppressWarnings("unchecked")
     private void initialize() {
-        // Add the table model as a subscriber interested in listening to JOB_*
-        // events.
-        EventBus.instance().addSubscriberForEventTypes(
-                                        this, EventType.EVT_SCRIP_ITD_INSERT ) ;
+        // Add the table model as a subscriber interested in listening to scrip
+        // ITD inserts. The inserts are conflated to the latest value per
+        // symbol and delivered at most at the configured UI rate, since
+        // each delivery re-sorts and persists the cache.
+        final int rate = ConfigManager.getInstance().getInt(
+                                    ConfigKey.SCRIP_ITD_UI_MAX_DELIVERY_RATE,
+                                    ConfigKey.DEF_SCRIP_ITD_UI_MAX_DELIVERY_RATE ) ;
+        ScripITDConflatingChannel.instance().addSubscriber( this, rate ) ;
+
+        // The cache file is written in the background, at most once per
+        // snapshot interval and on exit.
+        final int interval = ConfigManager.getInstance().getInt(
+                                    ConfigKey.ITD_CACHE_SNAPSHOT_INTERVAL,
+                                    ConfigKey.DEF_ITD_CACHE_SNAPSHOT_INTERVAL ) ;
+        this.snapshotTask = new DebouncedTask( "ITDCacheSnapshot", new Runnable() {
+            public void run() {
+                writeITDCache() ;
+            }
+        }, interval * 1000L ) ;
 
         // We take this opportunity to load the latest ITD values from a secret
         // file in the user's home directory. We will write this file
-        // every time this cache is updated with fresh data points.
-        final File secretFile = getITDCacheFile() ;
-        ObjectInputStream in = null ;
+        // in the background as this cache is updated with fresh data points.
+        final ITDSnapshotFile secretFile = new ITDSnapshotFile( getITDCacheFile() ) ;
 
         // A flag to indicate if cached ITD data is found.
         boolean cachedDataFound = false ;
 
         try {
-            if( secretFile.exists() ) {
-                in = new ObjectInputStream( new FileInputStream( secretFile ) ) ;
-                this.lastRefreshTime = ( Date )in.readObject() ;
+            if( secretFile.load() ) {
+                this.lastRefreshTime = secretFile.getLastRefreshTime() ;
 
-                final List<ScripITD> cachedITDList = ( List<ScripITD> )in.readObject() ;
+                final List<ScripITD> cachedITDList = ( List<ScripITD> )secretFile.getValues() ;
                 if( cachedITDList != null && !cachedITDList.isEmpty() ) {
                     addScripITDValues( cachedITDList ) ;
                     cachedDataFound = true ;
                 }
 
-                logger.info( "Reading ITD cache from " + secretFile.getAbsolutePath() ) ;
+                logger.info( "Reading ITD cache from " + secretFile.getFile().getAbsolutePath() ) ;
             }
         }
         catch ( final Exception e ) {
@@ -189,21 +235,11 @@ public class ScripITDValueCache implements IEventSubscriber {
             logger.error( "Could not load ITD cache data", e ) ;
         }
         finally {
-            if( in != null ) {
-                try {
-                    in.close() ;
-                }
-                catch ( final Exception e2 ) {
-                    // Ignore the exception. Nothing we can do
-                    logger.error( "Could not close the ITD cache file", e2 ) ;
-                }
-            }
-
             if( !cachedDataFound ) {
                 logger.debug( "Cached ITD data not found.. loading from DB" ) ;
                 final List<ScripITD> cachedITDList = ServiceMgr.getITDIndexDAO().getLatestScripITD() ;
                 addScripITDValues( cachedITDList ) ;
-                writeITDCache() ;
+                this.snapshotTask.request() ;
             }
         }
     }
@@ -217,10 +253,20 @@ public class ScripITDValueCache implements IEventSubscriber {
         // non indexed scrip 'NOIDATOLL' and today we have removed it from the
         // Scrip ITD job - it would still lie in the cache and show up on ITD
         // summary the whole day as it would not get removed otherwise.
-        final Date today = STUtils.getStartOfDay( new Date() ) ;
-        for( final Iterator<ScripITD> iter = this.itdList.iterator(); iter.hasNext(); ) {
-            if( iter.next().getTime().before( today ) ) {
-                iter.remove() ;
+        evictStaleRows() ;
+
+        // Collect the runs of contiguous updated rows. If there are too many
+        // runs, collapse them into one run spanning all the updated rows.
+        final List<int[]> runs = new ArrayList<int[]>() ;
+        if( !this.structureChanged ) {
+            for( int i=this.updatedRows.nextSetBit( 0 ); i>=0;
+                 i=this.updatedRows.nextSetBit( runs.get( runs.size()-1 )[1] + 1 ) ) {
+                runs.add( new int[]{ i, this.updatedRows.nextClearBit( i ) - 1 } ) ;
+            }
+            if( runs.size() > MAX_ROW_UPDATE_NOTIFICATIONS ) {
+                final int[] span = { runs.get( 0 )[0], runs.get( runs.size()-1 )[1] } ;
+                runs.clear() ;
+                runs.add( span ) ;
             }
         }
 
@@ -228,7 +274,14 @@ public class ScripITDValueCache implements IEventSubscriber {
         // and they should advice their UI's accordingly.
         for( final CacheListener model : this.listeners ) {
             try {
-                model.cacheDataChanged() ;
+                if( !this.structureChanged && model instanceof RowCacheListener ) {
+                    for( final int[] run : runs ) {
+                        ( ( RowCacheListener )model ).cacheRowsUpdated( run[0], run[1] ) ;
+                    }
+                }
+                else {
+                    model.cacheDataChanged() ;
+                }
             }
             catch ( final Throwable e ) {
                 // Harden the dispatch loop such that problems with one model
@@ -237,32 +290,55 @@ public class ScripITDValueCache implements IEventSubscriber {
             }
         }
 
-        // Dump the current cache values in a serialized file.
-        writeITDCache() ;
+        this.updatedRows.clear() ;
+        this.structureChanged = false ;
+
+        // Dump the current cache values in the cache file, in the background.
+        this.snapshotTask.request() ;
     }
 
     /**
-     * Write the ITD list and the last refresh time into a serialized file. This
+     * Removes the ITD values of the previous days from the cache. The values
+     * are checked once per day, since the values added during the day are
+     * of the day.
+     */
+    private void evictStaleRows() {
+
+        final Date today = STUtils.getStartOfDay( new Date() ) ;
+        if( today.getTime() == this.evictionDay ) {
+            return ;
+        }
+
+        synchronized( this.itdList ) {
+            for( final Iterator<ScripITD> iter = this.itdList.iterator(); iter.hasNext(); ) {
+                final ScripITD itd = iter.next() ;
+                if( itd.getTime().before( today ) ) {
+                    iter.remove() ;
+                    this.itdMap.remove( itd.getSymbolId() ) ;
+                    this.structureChanged = true ;
+                }
+            }
+        }
+        this.evictionDay = today.getTime() ;
+    }
+
+    /**
+     * Write the ITD list and the last refresh time into the cache file. This
      * will be read back on system startup such that the ITD summary is filled
-     * with the last cached entries at startup.
+     * with the last cached entries at startup. This method is called on the
+     * snapshot task's thread.
      */
     private void writeITDCache() {
 
-        // After all the models have been notified, we have enough time till
-        // the next batch of updates comes our way. We take this opportunity
-        // to persist the latest ITD values into a secret file in the user's
-        // home directory. We will read this file back during initialization
-        // to have the initial data set to display.
-        final File secretFile = getITDCacheFile() ;
-        ObjectOutputStream out = null ;
+        List<ScripITD> itdValues = null ;
+        Date refreshTime = null ;
+        synchronized( this.itdList ) {
+            itdValues = new ArrayList<ScripITD>( this.itdList ) ;
+            refreshTime = this.lastRefreshTime ;
+        }
 
         try {
-            if( !secretFile.exists() ) {
-                secretFile.createNewFile() ;
-            }
-            out = new ObjectOutputStream( new FileOutputStream( secretFile ) ) ;
-            out.writeObject( this.lastRefreshTime ) ;
-            out.writeObject( this.itdList ) ;
+            new ITDSnapshotFile( getITDCacheFile() ).writeScripITD( refreshTime, itdValues ) ;
         }
         catch ( final Throwable e ) {
             // This is a non critical process. Just dump the exception in the
@@ -270,18 +346,6 @@ public class ScripITDValueCache implements IEventSubscriber {
             // Maintenance work.
             logger.error( "Could not save ITD cache data", e ) ;
         }
-        finally {
-            if( out != null ) {
-                try {
-                    out.flush() ;
-                    out.close() ;
-                }
-                catch ( final Throwable e2 ) {
-                    // Ignore the exception. Nothing we can do
-                    logger.error( "Could not close the ITD cache file", e2 ) ;
-                }
-            }
-        }
     }
 
     /** Registers a cache listener. */
@@ -337,26 +401,27 @@ public class ScripITDValueCache implements IEventSubscriber {
 
     /**
      * Adds the list of {@link ScripITD} instances to this cache, refreshing
-     * the old values if they exist for the same scrip.
+     * the old values if they exist for the same scrip. An existing scrip's
+     * row is replaced in place, a new scrip is inserted at its sorted
+     * position. The listeners are not notified.
      */
-    private void addScripITDValues( final List<ScripITD> itdValues ) {
-
-        String   symbol      = null ;
-        ScripITD existingITD = null ;
-
-        for( final ScripITD itd : itdValues ) {
-            symbol = itd.getSymbolId() ;
-            existingITD = this.itdMap.get( symbol ) ;
-            if( existingITD != null ) {
-                this.itdMap.remove( symbol ) ;
-                this.itdList.remove( existingITD ) ;
+    void addScripITDValues( final List<ScripITD> itdValues ) {
+
+        // The list is locked against the background snapshot writes
+        synchronized( this.itdList ) {
+            for( final ScripITD itd : itdValues ) {
+                final int index = Collections.binarySearch( this.itdList, itd, SYMBOL_ORDER ) ;
+                if( index >= 0 ) {
+                    this.itdList.set( index, itd ) ;
+                    this.updatedRows.set( index ) ;
+                }
+                else {
+                    this.itdList.add( -index - 1, itd ) ;
+                    this.structureChanged = true ;
+                }
+                this.itdMap.put( itd.getSymbolId(), itd ) ;
             }
-
-            this.itdMap.put( symbol, itd ) ;
-            this.itdList.add( itd ) ;
         }
-
-        Collections.sort( this.itdList ) ;
     }
 
     /** Returns the number of columns supported by the ITD summary panel. */
@@ -386,7 +451,9 @@ public class ScripITDValueCache implements IEventSubscriber {
 
             case COL_PCT_CHG_HIST:
                 List<SymbolPctChange> list = null ;
-                list = this.eodCache.getSymbolPctChangeList( itd.getSymbolId() ) ;
+                // The EOD cache from which the last N percentage change data
+                // is derived is looked up lazily, since it loads from the database
+                list = ScripEODValueCache.getInstance().getSymbolPctChangeList( itd.getSymbolId() ) ;
                 if( list != null && !list.isEmpty() ) {
                     // Interesting - the cache holds the EOD pct changes
                     // starting yesterday till n days in the past - essentially
@@ -442,6 +509,38 @@ public class ScripITDValueCache implements IEventSubscriber {
         return retVal ;
     }
 
+    /**
+     * Returns the value of a numeric column at the specified row index
+     * without boxing it, for the filters evaluated over the ITD values. NaN
+     * is returned for the columns which have no numeric value.
+     */
+    public double getNumber( final int rowIndex, final int columnIndex ) {
+
+        final ScripITD itd = this.itdList.get( rowIndex ) ;
+        switch( columnIndex ) {
+            case COL_PRICE :  return itd.getPrice() ;
+            case COL_CHANGE : return itd.getChange() ;
+            case COL_PCT_E :  return itd.getPctChange() ;
+            case COL_PCT_O :  return itd.getPctChangeO() ;
+            case COL_HIGH :   return itd.getHigh() ;
+            case COL_LOW :    return itd.getLow() ;
+            case COL_QTY :    return itd.getTotalTradeQty() ;
+            default :         return Double.NaN ;
+        }
+    }
+
+    /**
+     * Returns the value of a text column at the specified row index, for the
+     * filters evaluated over the ITD values. Unlike the displayed value, the
+     * scrip is not padded.
+     */
+    public String getString( final int rowIndex, final int columnIndex ) {
+        if( columnIndex == COL_SCRIP ) {
+            return this.itdList.get( rowIndex ).getSymbolId() ;
+        }
+        return null ;
+    }
+
     /** Returns the class of the column at the specified column index. */
     public Class<?> getColumnClass( final int columnIndex ) {
         Class<?> cls = null ;
@@ -26,6 +26,7 @@ import org.apache.log4j.Logger;
 
 import com.sandy.apps.pluto.shared.STException ;
 import com.sandy.apps.pluto.shared.ServiceMgr ;
+import com.sandy.apps.pluto.shared.dto.NetworkCacheStats ;
 import com.sandy.apps.pluto.shared.event.Event ;
 import com.sandy.apps.pluto.shared.event.EventBus ;
 import com.sandy.apps.pluto.shared.event.IEventSubscriber ;
@@ -280,6 +281,11 @@ public class NetworkSBComponent extends AbstractSBComponent
                 this.downloadSizeLabel.setText( text ) ;
                 updateHeuristics( numBytes ) ;
                 break ;
+
+            case NETWORK_CACHE_STATS:
+                final NetworkCacheStats cacheStats = ( NetworkCacheStats )event.getValue() ;
+                this.downloadSizeLabel.setToolTipText( "KB downloaded. Cache " + cacheStats ) ;
+                break ;
         }
 
     }
@@ -24,6 +24,7 @@ import com.sandy.apps.pluto.ui.dialogmgr.panel.charting.ChartingPanel ;
 import com.sandy.apps.pluto.ui.dialogmgr.panel.indexitdsummary.IndexITDSummaryPanel ;
 import com.sandy.apps.pluto.ui.dialogmgr.panel.jobsummary.JobSummaryPanel ;
 import com.sandy.apps.pluto.ui.dialogmgr.panel.log.LogDisplayPanel ;
+import com.sandy.apps.pluto.ui.dialogmgr.panel.metrics.MetricsPanel ;
 import com.sandy.apps.pluto.ui.dialogmgr.panel.news.NewsPanel ;
 import com.sandy.apps.pluto.ui.dialogmgr.panel.portfolio.EquityBuySellDialog ;
 import com.sandy.apps.pluto.ui.dialogmgr.panel.portfolio.PortfolioSummaryPanel ;
@@ -65,10 +66,12 @@ public class STViewService {
 
         final ProxyCfgPanel proxyCfg  = new ProxyCfgPanel( "Proxy" ) ;
         final JobSummaryPanel taskCfg = new JobSummaryPanel() ;
+        final MetricsPanel metrics    = new MetricsPanel() ;
 
         final PlutoInternalFrame wizard = new PlutoInternalFrame( "System preferences",
                                   JFrame.DISPOSE_ON_CLOSE,
-                                  PlutoFrameType.CONFIG_FRAME, proxyCfg, taskCfg ) ;
+                                  PlutoFrameType.CONFIG_FRAME, proxyCfg, taskCfg,
+                                  metrics ) ;
 
         wizard.setSize( 330, 300 ) ;
 
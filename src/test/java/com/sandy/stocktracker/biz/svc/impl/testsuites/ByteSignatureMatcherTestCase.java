@@ -0,0 +1,74 @@
+/**
+ *
+ *
+ *
+ *
+ * Creation Date: Oct 18, 2026
+ */
+
+package com.sandy.stocktracker.biz.svc.impl.testsuites;
+
+import junit.framework.TestCase;
+
+import com.sandy.apps.pluto.biz.svc.impl.ByteSignatureMatcher ;
+
+/**
+ * This test case contains tests for the {@link ByteSignatureMatcher}.
+ *
+ * @author Sandeep Deb [deb.sandeep@gmail.com]
+ */
+public class ByteSignatureMatcherTestCase extends TestCase {
+
+    private final ByteSignatureMatcher matcher = new ByteSignatureMatcher(
+            "he".getBytes(), "she".getBytes(), "hers".getBytes(), "refused".getBytes() ) ;
+
+    public void testNoMatch() throws Exception {
+        assertEquals( -1, this.matcher.find( "a clean response".getBytes() ) ) ;
+        assertEquals( -1, this.matcher.find( new byte[0] ) ) ;
+    }
+
+    public void testFirstMatchFound() throws Exception {
+        assertEquals( 3, this.matcher.find( "connection refused".getBytes() ) ) ;
+
+        // The signature found first in the bytes is reported
+        assertEquals( 3, this.matcher.find( "refused to hear".getBytes() ) ) ;
+
+        // "ushers" completes "she" and "he" at the same byte, the signature
+        // specified first is reported
+        assertEquals( 0, this.matcher.find( "ushers".getBytes() ) ) ;
+    }
+
+    public void testOverlappingSignatures() throws Exception {
+        final ByteSignatureMatcher m = new ByteSignatureMatcher(
+                             "abcd".getBytes(), "bc".getBytes() ) ;
+        assertEquals( 1, m.find( "xabcx".getBytes() ) ) ;
+        assertEquals( 1, m.find( "abcd".getBytes() ) ) ;
+    }
+
+    public void testMatchAcrossChunks() throws Exception {
+        final byte[] bytes = "the gateway refused the request".getBytes() ;
+        for( int split=0; split<=bytes.length; split++ ) {
+            final ByteSignatureMatcher.Scanner scanner = new ByteSignatureMatcher(
+                                            "refused".getBytes() ).newScanner() ;
+            scanner.scan( bytes, 0, split ) ;
+            assertEquals( 0, scanner.scan( bytes, split, bytes.length - split ) ) ;
+        }
+    }
+
+    public void testBinaryBytes() throws Exception {
+        final ByteSignatureMatcher m = new ByteSignatureMatcher(
+                                    new byte[]{ ( byte )0xFF, 0, ( byte )0x80 } ) ;
+        assertEquals( 0, m.find( new byte[]{ 1, ( byte )0xFF, ( byte )0xFF, 0, ( byte )0x80, 2 } ) ) ;
+        assertEquals( -1, m.find( new byte[]{ ( byte )0xFF, 0, 0x7F } ) ) ;
+    }
+
+    public void testEmptySignatureRejected() throws Exception {
+        try {
+            new ByteSignatureMatcher( "a".getBytes(), new byte[0] ) ;
+            fail( "Empty signature accepted" ) ;
+        }
+        catch( final IllegalArgumentException e ) {
+            // Expected
+        }
+    }
+}
@@ -0,0 +1,160 @@
+/**
+ *
+ *
+ *
+ *
+ * Creation Date: Oct 18, 2026
+ */
+
+package com.sandy.stocktracker.biz.svc.impl.testsuites;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import junit.framework.TestCase;
+
+import com.sandy.apps.pluto.biz.svc.impl.HttpResponseCache ;
+import com.sandy.apps.pluto.shared.dto.NetworkCacheStats ;
+
+/**
+ * This test case contains tests for the {@link HttpResponseCache}.
+ *
+ * @author Sandeep Deb [deb.sandeep@gmail.com]
+ */
+public class HttpResponseCacheTestCase extends TestCase {
+
+    private static final String HIST_URL  = "http://host/content/historical/a.zip" ;
+    private static final String HIST_URL2 = "http://host/content/historical/b.zip" ;
+    private static final String HIST_URL3 = "http://host/content/historical/c.zip" ;
+    private static final String REVAL_URL = "http://host/content/indices/x.csv" ;
+
+    private File dir = null ;
+    private final List<HttpResponseCache.Rule> rules = new ArrayList<HttpResponseCache.Rule>() ;
+
+    @Override
+    protected void setUp() throws Exception {
+        this.dir = new File( System.getProperty( "java.io.tmpdir" ),
+                             "netcache-" + System.nanoTime() ) ;
+        this.rules.clear() ;
+        this.rules.add( new HttpResponseCache.Rule( ".*/content/historical/.*", -1 ) ) ;
+        this.rules.add( new HttpResponseCache.Rule( ".*/content/indices/.*", 0 ) ) ;
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        final File[] files = this.dir.listFiles() ;
+        if( files != null ) {
+            for( final File file : files ) {
+                file.delete() ;
+            }
+        }
+        this.dir.delete() ;
+    }
+
+    private HttpResponseCache open( final long maxSize ) throws Exception {
+        return new HttpResponseCache( this.dir, maxSize, this.rules ) ;
+    }
+
+    private static byte[] bytes( final int size, final int seed ) {
+        final byte[] contents = new byte[size] ;
+        for( int i=0; i<size; i++ ) {
+            contents[i] = ( byte )( i * 31 + seed ) ;
+        }
+        return contents ;
+    }
+
+    public void testKeys() throws Exception {
+        final HttpResponseCache cache = open( 1000 ) ;
+        assertNull( cache.getKey( "http://host/other", "GET", null ) ) ;
+
+        final Map<String, String> params = new HashMap<String, String>() ;
+        params.put( "toDate", "2" ) ;
+        params.put( "fromDate", "1" ) ;
+        assertEquals( "POST " + REVAL_URL + "?fromDate=1&toDate=2",
+                      cache.getKey( REVAL_URL, "POST", params ) ) ;
+        assertEquals( "GET " + HIST_URL, cache.getKey( HIST_URL, "GET", null ) ) ;
+    }
+
+    public void testFreshAndRevalidated() throws Exception {
+        final HttpResponseCache cache = open( 1000 ) ;
+        final String histKey  = cache.getKey( HIST_URL, "GET", null ) ;
+        final String revalKey = cache.getKey( REVAL_URL, "GET", null ) ;
+
+        assertNull( cache.getFresh( histKey ) ) ;
+        cache.store( histKey, HIST_URL, bytes( 100, 1 ), null, null ) ;
+        cache.store( revalKey, REVAL_URL, bytes( 50, 2 ), "\"v1\"", "Mon, 01 Sep 2008 00:00:00 GMT" ) ;
+
+        // The historic response never expires, the other is always revalidated
+        assertEquals( 100, cache.getFresh( histKey ).length ) ;
+        assertNull( cache.getFresh( revalKey ) ) ;
+
+        final String[] validators = cache.getValidators( revalKey ) ;
+        assertEquals( "\"v1\"", validators[0] ) ;
+        assertEquals( "Mon, 01 Sep 2008 00:00:00 GMT", validators[1] ) ;
+        assertEquals( 50, cache.getRevalidated( revalKey, REVAL_URL ).length ) ;
+
+        final NetworkCacheStats stats = cache.getStats() ;
+        assertEquals( 1, stats.getNumHits() ) ;
+        assertEquals( 1, stats.getNumRevalidations() ) ;
+        assertEquals( 2, stats.getNumMisses() ) ;
+        assertEquals( 150, stats.getNumBytesSaved() ) ;
+        assertEquals( 150, stats.getCacheSize() ) ;
+    }
+
+    public void testIdenticalResponsesShareStorage() throws Exception {
+        final HttpResponseCache cache = open( 1000 ) ;
+        cache.store( cache.getKey( HIST_URL,  "GET", null ), HIST_URL,  bytes( 100, 1 ), null, null ) ;
+        cache.store( cache.getKey( HIST_URL2, "GET", null ), HIST_URL2, bytes( 100, 1 ), null, null ) ;
+        assertEquals( 100, cache.getStats().getCacheSize() ) ;
+        assertEquals( 2, this.dir.listFiles().length ) ;
+    }
+
+    public void testSameResponseStoredAgain() throws Exception {
+        final HttpResponseCache cache = open( 1000 ) ;
+        final String histKey  = cache.getKey( HIST_URL, "GET", null ) ;
+        final String revalKey = cache.getKey( REVAL_URL, "GET", null ) ;
+
+        cache.store( histKey, HIST_URL, bytes( 100, 1 ), null, null ) ;
+        cache.store( histKey, HIST_URL, bytes( 100, 1 ), null, null ) ;
+        cache.store( revalKey, REVAL_URL, bytes( 50, 2 ), "\"v1\"", null ) ;
+        cache.store( revalKey, REVAL_URL, bytes( 50, 2 ), "\"v1\"", null ) ;
+
+        assertEquals( 100, cache.getFresh( histKey ).length ) ;
+        assertEquals( 50, cache.getRevalidated( revalKey, REVAL_URL ).length ) ;
+        assertEquals( 150, cache.getStats().getCacheSize() ) ;
+        assertEquals( 3, this.dir.listFiles().length ) ;
+    }
+
+    public void testLeastRecentlyUsedEviction() throws Exception {
+        final HttpResponseCache cache = open( 250 ) ;
+        final String key1 = cache.getKey( HIST_URL,  "GET", null ) ;
+        final String key2 = cache.getKey( HIST_URL2, "GET", null ) ;
+        final String key3 = cache.getKey( HIST_URL3, "GET", null ) ;
+
+        cache.store( key1, HIST_URL,  bytes( 100, 1 ), null, null ) ;
+        cache.store( key2, HIST_URL2, bytes( 100, 2 ), null, null ) ;
+        assertNotNull( cache.getFresh( key1 ) ) ;
+        cache.store( key3, HIST_URL3, bytes( 100, 3 ), null, null ) ;
+
+        assertNotNull( cache.getFresh( key1 ) ) ;
+        assertNull( cache.getFresh( key2 ) ) ;
+        assertNotNull( cache.getFresh( key3 ) ) ;
+        assertEquals( 200, cache.getStats().getCacheSize() ) ;
+    }
+
+    public void testSurvivesReopening() throws Exception {
+        HttpResponseCache cache = open( 1000 ) ;
+        final String key = cache.getKey( HIST_URL, "GET", null ) ;
+        cache.store( key, HIST_URL, bytes( 100, 1 ), "\"v1|x\"", null ) ;
+
+        cache = open( 1000 ) ;
+        final byte[] response = cache.getFresh( key ) ;
+        assertNotNull( response ) ;
+        assertEquals( bytes( 100, 1 )[99], response[99] ) ;
+        assertEquals( "\"v1|x\"", cache.getValidators( key )[0] ) ;
+        assertNull( cache.getValidators( key )[1] ) ;
+    }
+}
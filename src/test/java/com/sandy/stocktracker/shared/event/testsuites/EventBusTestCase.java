@@ -9,6 +9,12 @@
 package com.sandy.stocktracker.shared.event.testsuites;
 
 import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import javax.swing.SwingUtilities;
 
 import junit.framework.TestCase;
 
@@ -16,7 +22,12 @@ import org.apache.log4j.Logger;
 
 import com.sandy.apps.pluto.shared.ConfigKey ;
 import com.sandy.apps.pluto.shared.EventType ;
+import com.sandy.apps.pluto.shared.event.DispatchPolicy ;
+import com.sandy.apps.pluto.shared.event.Event ;
 import com.sandy.apps.pluto.shared.event.EventBus ;
+import com.sandy.apps.pluto.shared.event.IBatchEventSubscriber ;
+import com.sandy.apps.pluto.shared.event.IEventSubscriber ;
+import com.sandy.apps.pluto.shared.event.OverflowPolicy ;
 import com.sandy.apps.pluto.shared.util.util.ConfigManager ;
 import com.sandy.stocktracker.shared.event.testhelpers.MockEventSubscriber;
 
@@ -92,4 +103,287 @@ public class EventBusTestCase extends TestCase {
         Thread.sleep( 100 ) ;
         assertEquals( 1, subs.getEvents( EventType.EVT_BHAVCOPY_IMPORT_SUCCESS ).size() ) ;
     }
+
+    /**
+     * FEATURE: A subscriber which de-registers itself while handling an event
+     *          should not disturb the dispatch of the event to the other
+     *          subscribers.
+     */
+    public void testDeRegisterDuringDispatch() {
+
+        cfgManager.setProperty( ConfigKey.ASYNC_EVENT_DISPATCH, Boolean.FALSE ) ;
+        BUS.initialize() ;
+
+        final MockEventSubscriber subs = new MockEventSubscriber() ;
+        final IEventSubscriber selfRemover = new IEventSubscriber() {
+            public void handleEvent( final Event event ) {
+                BUS.removeSubscriber( this, event.getEventType() ) ;
+            }
+        } ;
+
+        BUS.addSubscriberForEventTypes( selfRemover, EventType.EVT_BHAVCOPY_IMPORT_SUCCESS ) ;
+        BUS.addSubscriberForEventTypes( subs, EventType.EVT_BHAVCOPY_IMPORT_SUCCESS ) ;
+
+        EventBus.publish( EventType.EVT_BHAVCOPY_IMPORT_SUCCESS, "Test" ) ;
+        EventBus.publish( EventType.EVT_BHAVCOPY_IMPORT_SUCCESS, "Test" ) ;
+        assertEquals( 2, subs.getEvents( EventType.EVT_BHAVCOPY_IMPORT_SUCCESS ).size() ) ;
+    }
+
+    /**
+     * FEATURE: A slow subscriber of one event type should not block the
+     *          publishers of other event types.
+     */
+    public void testSlowSubscriberDoesNotBlockOtherPublishers()
+        throws Exception {
+
+        cfgManager.setProperty( ConfigKey.ASYNC_EVENT_DISPATCH, Boolean.FALSE ) ;
+        BUS.initialize() ;
+
+        final CountDownLatch slowEntered = new CountDownLatch( 1 ) ;
+        final CountDownLatch release     = new CountDownLatch( 1 ) ;
+        final IEventSubscriber slowSubs = new IEventSubscriber() {
+            public void handleEvent( final Event event ) {
+                slowEntered.countDown() ;
+                try {
+                    release.await( 30, TimeUnit.SECONDS ) ;
+                }
+                catch( final InterruptedException e ) {
+                    Thread.currentThread().interrupt() ;
+                }
+            }
+        } ;
+
+        final MockEventSubscriber subs = new MockEventSubscriber() ;
+        BUS.addSubscriberForEventTypes( slowSubs, EventType.NETWORK_DATA_DOWNLOADED ) ;
+        BUS.addSubscriberForEventTypes( subs, EventType.EVT_BHAVCOPY_IMPORT_SUCCESS ) ;
+
+        final Thread slowPublisher = new Thread() {
+            public void run() {
+                EventBus.publish( EventType.NETWORK_DATA_DOWNLOADED, "Test" ) ;
+            }
+        } ;
+        slowPublisher.start() ;
+        assertTrue( slowEntered.await( 5, TimeUnit.SECONDS ) ) ;
+
+        final Thread fastPublisher = new Thread() {
+            public void run() {
+                EventBus.publish( EventType.EVT_BHAVCOPY_IMPORT_SUCCESS, "Test" ) ;
+            }
+        } ;
+
+        try {
+            fastPublisher.start() ;
+            fastPublisher.join( 2000 ) ;
+            assertFalse( fastPublisher.isAlive() ) ;
+            assertEquals( 1, subs.getEvents( EventType.EVT_BHAVCOPY_IMPORT_SUCCESS ).size() ) ;
+        }
+        finally {
+            release.countDown() ;
+            fastPublisher.join() ;
+            slowPublisher.join() ;
+        }
+    }
+
+    /**
+     * A batch subscriber which blocks on the first batch till released and
+     * records the values of the events received, batch by batch.
+     */
+    private static class BlockingBatchSubscriber implements IBatchEventSubscriber {
+
+        final CountDownLatch firstReceived = new CountDownLatch( 1 ) ;
+        final CountDownLatch release       = new CountDownLatch( 1 ) ;
+        final List<List<Object>> batches   = new ArrayList<List<Object>>() ;
+
+        public void handleEvent( final Event event ) {
+            final List<Event> events = new ArrayList<Event>() ;
+            events.add( event ) ;
+            handleEvents( events ) ;
+        }
+
+        public void handleEvents( final List<Event> events ) {
+            final List<Object> values = new ArrayList<Object>() ;
+            for( final Event event : events ) {
+                values.add( event.getValue() ) ;
+            }
+            synchronized( this.batches ) {
+                this.batches.add( values ) ;
+                this.batches.notifyAll() ;
+            }
+            this.firstReceived.countDown() ;
+            try {
+                this.release.await( 5, TimeUnit.SECONDS ) ;
+            }
+            catch( final InterruptedException e ) {
+                Thread.currentThread().interrupt() ;
+            }
+        }
+
+        List<List<Object>> awaitBatches( final int numBatches ) throws InterruptedException {
+            final long endTime = System.currentTimeMillis() + 5000 ;
+            synchronized( this.batches ) {
+                while( this.batches.size() < numBatches && System.currentTimeMillis() < endTime ) {
+                    this.batches.wait( 100 ) ;
+                }
+                return new ArrayList<List<Object>>( this.batches ) ;
+            }
+        }
+    }
+
+    /**
+     * Registers the subscriber asynchronously with the specified policy and
+     * publishes the value, returning once the subscriber is blocked on it.
+     */
+    private void publishFirst( final BlockingBatchSubscriber subs,
+                               final DispatchPolicy policy, final Object value )
+        throws Exception {
+
+        cfgManager.setProperty( ConfigKey.ASYNC_EVENT_DISPATCH, Boolean.TRUE ) ;
+        BUS.initialize() ;
+        BUS.addSubscriberForEventTypes( subs, policy, EventType.EVT_BHAVCOPY_IMPORT_SUCCESS,
+                                        EventType.EVT_SCRIP_ITD_INSERT ) ;
+
+        EventBus.publish( EventType.EVT_BHAVCOPY_IMPORT_SUCCESS, value ) ;
+        assertTrue( subs.firstReceived.await( 5, TimeUnit.SECONDS ) ) ;
+    }
+
+    /**
+     * Registers the subscriber asynchronously with the specified policy,
+     * publishes the values and releases the subscriber once the first value
+     * has been received, such that the rest of the values are queued.
+     */
+    private void publishWhileBlocked( final BlockingBatchSubscriber subs,
+                                      final DispatchPolicy policy,
+                                      final Object... values )
+        throws Exception {
+
+        publishFirst( subs, policy, values[0] ) ;
+        for( int i=1; i<values.length; i++ ) {
+            final EventType type = ( values[i] instanceof Integer ) ?
+                                   EventType.EVT_SCRIP_ITD_INSERT :
+                                   EventType.EVT_BHAVCOPY_IMPORT_SUCCESS ;
+            EventBus.publish( type, values[i] ) ;
+        }
+        subs.release.countDown() ;
+    }
+
+    /**
+     * FEATURE: Events queued while an async batch subscriber is busy are
+     *          delivered to it in one batch, in the order of publishing.
+     */
+    public void testAsyncBatchDelivery() throws Exception {
+
+        final BlockingBatchSubscriber subs = new BlockingBatchSubscriber() ;
+        publishWhileBlocked( subs, new DispatchPolicy( 10, 10, OverflowPolicy.BLOCK ),
+                             "A", "B", "C", "D" ) ;
+
+        final List<List<Object>> batches = subs.awaitBatches( 2 ) ;
+        assertEquals( 2, batches.size() ) ;
+        assertEquals( "[A]", batches.get( 0 ).toString() ) ;
+        assertEquals( "[B, C, D]", batches.get( 1 ).toString() ) ;
+    }
+
+    /**
+     * FEATURE: With the drop oldest policy, the oldest queued events are
+     *          dropped when the subscriber's queue is full.
+     */
+    public void testAsyncDropOldest() throws Exception {
+
+        final BlockingBatchSubscriber subs = new BlockingBatchSubscriber() ;
+        publishWhileBlocked( subs, new DispatchPolicy( 2, 10, OverflowPolicy.DROP_OLDEST ),
+                             "A", "B", "C", "D", "E" ) ;
+
+        final List<List<Object>> batches = subs.awaitBatches( 2 ) ;
+        assertEquals( 2, batches.size() ) ;
+        assertEquals( "[D, E]", batches.get( 1 ).toString() ) ;
+    }
+
+    /**
+     * FEATURE: With the coalesce policy, only the latest queued event of an
+     *          event type is delivered.
+     */
+    public void testAsyncCoalesce() throws Exception {
+
+        final BlockingBatchSubscriber subs = new BlockingBatchSubscriber() ;
+        publishWhileBlocked( subs, new DispatchPolicy( 10, 10, OverflowPolicy.COALESCE ),
+                             "A", "B", Integer.valueOf( 1 ), "C", Integer.valueOf( 2 ) ) ;
+
+        final List<List<Object>> batches = subs.awaitBatches( 2 ) ;
+        assertEquals( 2, batches.size() ) ;
+        assertEquals( "[C, 2]", batches.get( 1 ).toString() ) ;
+    }
+
+    /**
+     * FEATURE: With the blocking policy, a publisher interrupted while blocked
+     *          on a full queue returns without queueing its event.
+     */
+    public void testAsyncBlockedPublisherInterrupted() throws Exception {
+
+        final BlockingBatchSubscriber subs = new BlockingBatchSubscriber() ;
+        publishFirst( subs, new DispatchPolicy( 1, 10, OverflowPolicy.BLOCK ), "A" ) ;
+        EventBus.publish( EventType.EVT_BHAVCOPY_IMPORT_SUCCESS, "B" ) ;
+
+        final boolean[] interrupted = { false } ;
+        final Thread publisher = new Thread() {
+            public void run() {
+                EventBus.publish( EventType.EVT_BHAVCOPY_IMPORT_SUCCESS, "C" ) ;
+                interrupted[0] = Thread.currentThread().isInterrupted() ;
+            }
+        } ;
+        publisher.start() ;
+        awaitWaiting( publisher ) ;
+        publisher.interrupt() ;
+        publisher.join( 5000 ) ;
+        assertFalse( publisher.isAlive() ) ;
+        assertTrue( interrupted[0] ) ;
+
+        subs.release.countDown() ;
+        final List<List<Object>> batches = subs.awaitBatches( 3 ) ;
+        assertEquals( 2, batches.size() ) ;
+        assertEquals( "[B]", batches.get( 1 ).toString() ) ;
+    }
+
+    /**
+     * FEATURE: With the blocking policy, publishers on the Swing event
+     *          dispatch thread are not blocked, their events are queued
+     *          beyond the capacity.
+     */
+    public void testAsyncBlockDoesNotBlockEDT() throws Exception {
+
+        final BlockingBatchSubscriber subs = new BlockingBatchSubscriber() ;
+        publishFirst( subs, new DispatchPolicy( 1, 10, OverflowPolicy.BLOCK ), "A" ) ;
+        EventBus.publish( EventType.EVT_BHAVCOPY_IMPORT_SUCCESS, "B" ) ;
+
+        final Thread publisher = new Thread() {
+            public void run() {
+                try {
+                    SwingUtilities.invokeAndWait( new Runnable() {
+                        public void run() {
+                            EventBus.publish( EventType.EVT_BHAVCOPY_IMPORT_SUCCESS, "C" ) ;
+                        }
+                    } ) ;
+                }
+                catch( final Exception e ) {
+                    logger.error( "Publish on the EDT failed", e ) ;
+                }
+            }
+        } ;
+        publisher.start() ;
+        publisher.join( 5000 ) ;
+        final boolean blocked = publisher.isAlive() ;
+
+        subs.release.countDown() ;
+        assertFalse( blocked ) ;
+        final List<List<Object>> batches = subs.awaitBatches( 2 ) ;
+        assertEquals( 2, batches.size() ) ;
+        assertEquals( "[B, C]", batches.get( 1 ).toString() ) ;
+    }
+
+    /** Waits till the thread is waiting, for at most 5 seconds. */
+    private static void awaitWaiting( final Thread thread ) throws InterruptedException {
+        final long endTime = System.currentTimeMillis() + 5000 ;
+        while( thread.getState() != Thread.State.WAITING &&
+               System.currentTimeMillis() < endTime ) {
+            Thread.sleep( 10 ) ;
+        }
+    }
 }
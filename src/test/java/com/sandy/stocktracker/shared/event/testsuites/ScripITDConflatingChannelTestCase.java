@@ -0,0 +1,136 @@
+/**
+ *
+ *
+ *
+ *
+ * Creation Date: Oct 18, 2026
+ */
+
+package com.sandy.stocktracker.shared.event.testsuites;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import com.sandy.apps.pluto.shared.ConfigKey ;
+import com.sandy.apps.pluto.shared.EventType ;
+import com.sandy.apps.pluto.shared.dto.ScripITD ;
+import com.sandy.apps.pluto.shared.event.Event ;
+import com.sandy.apps.pluto.shared.event.EventBus ;
+import com.sandy.apps.pluto.shared.event.IEventSubscriber ;
+import com.sandy.apps.pluto.shared.event.ScripITDConflatingChannel ;
+import com.sandy.apps.pluto.shared.event.ScripITDConflatingChannel.ConflationStats ;
+import com.sandy.apps.pluto.shared.util.util.ConfigManager ;
+
+/**
+ * This test case contains tests for the {@link ScripITDConflatingChannel}.
+ *
+ * @author Sandeep Deb [deb.sandeep@gmail.com]
+ */
+public class ScripITDConflatingChannelTestCase extends TestCase {
+
+    private static final EventBus BUS = EventBus.instance() ;
+
+    private static final ScripITDConflatingChannel CHANNEL = ScripITDConflatingChannel.instance() ;
+
+    /** A subscriber which records the deliveries received. */
+    private static class RecordingSubscriber implements IEventSubscriber {
+
+        final List<List<ScripITD>> deliveries = new ArrayList<List<ScripITD>>() ;
+
+        @SuppressWarnings("unchecked")
+        public void handleEvent( final Event event ) {
+            synchronized( this.deliveries ) {
+                this.deliveries.add( ( List<ScripITD> )event.getValue() ) ;
+                this.deliveries.notifyAll() ;
+            }
+        }
+
+        List<List<ScripITD>> awaitDeliveries( final int num ) throws InterruptedException {
+            final long endTime = System.currentTimeMillis() + 5000 ;
+            synchronized( this.deliveries ) {
+                while( this.deliveries.size() < num && System.currentTimeMillis() < endTime ) {
+                    this.deliveries.wait( 50 ) ;
+                }
+                return new ArrayList<List<ScripITD>>( this.deliveries ) ;
+            }
+        }
+    }
+
+    public void setUp() throws Exception {
+        ConfigManager.getInstance().setProperty( ConfigKey.ASYNC_EVENT_DISPATCH, Boolean.FALSE ) ;
+        BUS.initialize() ;
+        BUS.removeAllSubscribers() ;
+    }
+
+    private ScripITD itd( final String symbol, final long time, final double price ) {
+        final ScripITD itd = new ScripITD() ;
+        itd.setSymbolId( symbol ) ;
+        itd.setTime( new Date( time ) ) ;
+        itd.setPrice( price ) ;
+        return itd ;
+    }
+
+    /**
+     * FEATURE: The ITD values published between two deliveries are conflated
+     *          to the latest value per symbol and the conflation is counted.
+     */
+    public void testConflation() throws Exception {
+
+        final RecordingSubscriber subs = new RecordingSubscriber() ;
+        CHANNEL.addSubscriber( subs, 5 ) ;
+        try {
+            EventBus.publish( EventType.EVT_SCRIP_ITD_INSERT,
+                              Arrays.asList( itd( "A", 1000, 1 ), itd( "B", 1000, 1 ) ) ) ;
+            assertEquals( 1, subs.awaitDeliveries( 1 ).size() ) ;
+
+            // Published within the delivery interval of 200 ms
+            EventBus.publish( EventType.EVT_SCRIP_ITD_INSERT, Arrays.asList( itd( "A", 2000, 2 ) ) ) ;
+            EventBus.publish( EventType.EVT_SCRIP_ITD_INSERT,
+                              Arrays.asList( itd( "A", 3000, 3 ), itd( "B", 3000, 3 ) ) ) ;
+            EventBus.publish( EventType.EVT_SCRIP_ITD_INSERT, Arrays.asList( itd( "A", 4000, 4 ) ) ) ;
+
+            final List<List<ScripITD>> deliveries = subs.awaitDeliveries( 2 ) ;
+            assertEquals( 2, deliveries.size() ) ;
+
+            final List<ScripITD> second = deliveries.get( 1 ) ;
+            assertEquals( 2, second.size() ) ;
+            assertEquals( 4.0, second.get( 0 ).getPrice(), 0 ) ;
+            assertEquals( 3.0, second.get( 1 ).getPrice(), 0 ) ;
+
+            final ConflationStats stats = CHANNEL.getStats( subs ) ;
+            assertEquals( 6, stats.getNumTicksReceived() ) ;
+            assertEquals( 2, stats.getNumTicksConflated() ) ;
+            assertEquals( 2, stats.getNumDeliveries() ) ;
+        }
+        finally {
+            CHANNEL.removeSubscriber( subs ) ;
+        }
+    }
+
+    /**
+     * FEATURE: An older ITD value published after a newer one does not
+     *          replace the newer value.
+     */
+    public void testOutOfOrderValueIgnored() throws Exception {
+
+        final RecordingSubscriber subs = new RecordingSubscriber() ;
+        CHANNEL.addSubscriber( subs, 5 ) ;
+        try {
+            EventBus.publish( EventType.EVT_SCRIP_ITD_INSERT, Arrays.asList( itd( "A", 1000, 1 ) ) ) ;
+            assertEquals( 1, subs.awaitDeliveries( 1 ).size() ) ;
+
+            EventBus.publish( EventType.EVT_SCRIP_ITD_INSERT, Arrays.asList( itd( "A", 3000, 3 ) ) ) ;
+            EventBus.publish( EventType.EVT_SCRIP_ITD_INSERT, Arrays.asList( itd( "A", 2000, 2 ) ) ) ;
+
+            final List<List<ScripITD>> deliveries = subs.awaitDeliveries( 2 ) ;
+            assertEquals( 3.0, deliveries.get( 1 ).get( 0 ).getPrice(), 0 ) ;
+        }
+        finally {
+            CHANNEL.removeSubscriber( subs ) ;
+        }
+    }
+}
@@ -0,0 +1,173 @@
+/**
+ *
+ *
+ *
+ *
+ * Creation Date: Oct 18, 2026
+ */
+
+package com.sandy.stocktracker.shared.filter.testsuites;
+
+import java.text.ParseException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+import com.sandy.apps.pluto.shared.filter.FilterColumn ;
+import com.sandy.apps.pluto.shared.filter.FilterPredicate ;
+import com.sandy.apps.pluto.shared.filter.FilterQueryParser ;
+import com.sandy.apps.pluto.shared.filter.FilterValueSource ;
+
+/**
+ * This test case contains tests for the {@link FilterQueryParser} and the
+ * {@link FilterPredicate} it compiles the queries into.
+ *
+ * @author Sandeep Deb [deb.sandeep@gmail.com]
+ */
+public class FilterQueryParserTestCase extends TestCase {
+
+    private static final FilterColumn SYMBOL = new FilterColumn( "SYMBOL", 0, false, "\"SYMBOL\"" ) ;
+    private static final FilterColumn NAME   = new FilterColumn( "NAME",   1, false, null ) ;
+    private static final FilterColumn PRICE  = new FilterColumn( "PRICE",  2, true,  "\"CLOSING_PRICE\"" ) ;
+    private static final FilterColumn PCT    = new FilterColumn( "PCT",    3, true,  "\"PCT\"" ) ;
+    private static final FilterColumn QTY    = new FilterColumn( "QTY",    4, true,  "\"QTY\"" ) ;
+
+    private final FilterQueryParser parser ;
+
+    /** A table of rows, the values of each row held in the column order. */
+    private static class Rows implements FilterValueSource {
+
+        private final Object[][] rows ;
+
+        Rows( final Object[][] rows ) {
+            this.rows = rows ;
+        }
+
+        public double getNumber( final int row, final int column ) {
+            final Object value = this.rows[row][column] ;
+            return ( value == null ) ? Double.NaN : ( ( Number )value ).doubleValue() ;
+        }
+
+        public String getString( final int row, final int column ) {
+            return ( String )this.rows[row][column] ;
+        }
+    }
+
+    private final Rows rows = new Rows( new Object[][] {
+        { "IFCI",      "IFCI LTD",       40.0,   3.5, 20000000L },
+        { "NOIDATOLL", "NOIDA TOLL",     25.0,  -1.0,   500000L },
+        { "INFY",      "INFOSYS",      1500.0,   4.2,   150000L },
+        { "TCS",       "TATA CONSULT", 2100.0,   0.0,    90000L },
+        { "RELIANCE",  null,           2500.0,   3.0,  1000000L },
+        { null,        null,             null,  null,       null },
+    } ) ;
+
+    public FilterQueryParserTestCase() {
+        final Map<String, FilterColumn> columns = new HashMap<String, FilterColumn>() ;
+        columns.put( "SYMBOL", SYMBOL ) ;
+        columns.put( "NAME",   NAME ) ;
+        columns.put( "PRICE",  PRICE ) ;
+        columns.put( "PCT",    PCT ) ;
+        columns.put( "VOL",    QTY ) ;
+        this.parser = new FilterQueryParser( columns, SYMBOL, NAME ) ;
+    }
+
+    private String getMatches( final String query ) throws ParseException {
+        final FilterPredicate predicate = this.parser.parse( query ) ;
+        final StringBuilder buffer = new StringBuilder() ;
+        for( int row=0; row<this.rows.rows.length; row++ ) {
+            if( predicate.matches( this.rows, row ) ) {
+                buffer.append( row ) ;
+            }
+        }
+        return buffer.toString() ;
+    }
+
+    private void assertInvalid( final String query ) {
+        try {
+            this.parser.parse( query ) ;
+            fail( "Query " + query + " should be invalid" ) ;
+        }
+        catch( final ParseException e ) {
+            // Expected
+        }
+    }
+
+    public void testComparisons() throws Exception {
+        assertEquals( "02",  getMatches( "pct > 3" ) ) ;
+        assertEquals( "13",  getMatches( "PCT < 1" ) ) ;
+        assertEquals( "3",   getMatches( "PCT = 0" ) ) ;
+        assertEquals( "0124", getMatches( "PCT <> 0" ) ) ;
+        assertEquals( "04",  getMatches( "PCT > 2.5 AND VOL > 200000" ) ) ;
+        assertEquals( "0234", getMatches( "PRICE > 1000 OR VOL > 10000000" ) ) ;
+    }
+
+    public void testSymbolMatches() throws Exception {
+        assertEquals( "01",  getMatches( "IFCI, NOIDA" ) ) ;
+        assertEquals( "02",  getMatches( "^I" ) ) ;
+        assertEquals( "3",   getMatches( "consult" ) ) ;
+        assertEquals( "01",  getMatches( "symbol = IFCI, NOIDATOLL" ) ) ;
+        assertEquals( "234", getMatches( "symbol <> IFCI, NOIDATOLL" ) ) ;
+        assertEquals( "0",   getMatches( "symbol = IFCI, NOIDATOLL and price > 30" ) ) ;
+    }
+
+    public void testOrBindsTighterThanAnd() throws Exception {
+        // PCT > 3 AND ( PRICE < 30 OR VOL > 100000 )
+        assertEquals( "02",  getMatches( "PCT > 3 AND PRICE < 30 OR VOL > 100000" ) ) ;
+        assertEquals( "",    getMatches( "PCT > 5 AND PRICE < 30 OR VOL > 100000" ) ) ;
+    }
+
+    public void testInvalidQueries() {
+        assertInvalid( "PRICE > " ) ;
+        assertInvalid( "COST > 10" ) ;
+        assertInvalid( "PRICE > abc" ) ;
+        assertInvalid( "PRICE > NaN" ) ;
+        assertInvalid( "PRICE > 10 AND IFCI" ) ;
+        assertInvalid( "SYMBOL = [A" ) ;
+    }
+
+    public void testSQL() throws Exception {
+        final FilterPredicate predicate = this.parser.parse(
+                        "PCT > 3 AND VOL > 100000 AND SYMBOL = IN.*, O'X\\d" ) ;
+        assertTrue( predicate.isPushable() ) ;
+
+        final String sql = predicate.toSQL() ;
+        assertTrue( sql, sql.startsWith( "( " ) && sql.endsWith( " )" ) ) ;
+        assertTrue( sql, sql.indexOf( "\"PCT\" > 3" ) != -1 ) ;
+        assertTrue( sql, sql.indexOf( "\"QTY\" > 100000" ) != -1 ) ;
+        assertTrue( sql, sql.indexOf( "\"SYMBOL\" ~ E'IN.*' OR \"SYMBOL\" ~ E'O''X\\\\D'" ) != -1 ) ;
+
+        assertFalse( this.parser.parse( "IFCI" ).isPushable() ) ;
+        assertFalse( this.parser.parse( "PCT > 3 OR NAME = INFO" ).isPushable() ) ;
+    }
+
+    public void testReorderingKeepsOutcome() throws Exception {
+        final Random random = new Random( 0 ) ;
+        final Object[][] data = new Object[5000][] ;
+        for( int i=0; i<data.length; i++ ) {
+            data[i] = new Object[] { "S" + random.nextInt( 100 ), null,
+                                     random.nextDouble()*1000,
+                                     random.nextGaussian()*3,
+                                     ( long )random.nextInt( 1000000 ) } ;
+        }
+        final Rows bigRows = new Rows( data ) ;
+
+        final FilterPredicate predicate = this.parser.parse(
+                "PRICE > 100 AND PCT > 2 OR VOL < 1000 AND SYMBOL = S1, S2" ) ;
+        for( int pass=0; pass<3; pass++ ) {
+            for( int i=0; i<data.length; i++ ) {
+                final double price = ( Double )data[i][2] ;
+                final double pct   = ( Double )data[i][3] ;
+                final long   vol   = ( Long )data[i][4] ;
+                final String sym   = ( String )data[i][0] ;
+                final boolean expected = price > 100 &&
+                                         ( pct > 2 || vol < 1000 ) &&
+                                         ( sym.indexOf( "S1" ) != -1 || sym.indexOf( "S2" ) != -1 ) ;
+                assertEquals( "Row " + i, Boolean.valueOf( expected ),
+                              Boolean.valueOf( predicate.matches( bigRows, i ) ) ) ;
+            }
+        }
+    }
+}
@@ -0,0 +1,99 @@
+/**
+ *
+ *
+ *
+ *
+ * Creation Date: Oct 18, 2026
+ */
+
+package com.sandy.stocktracker.shared.metrics.testsuites;
+
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import com.sandy.apps.pluto.shared.dto.MetricStats ;
+import com.sandy.apps.pluto.shared.metrics.Counter ;
+import com.sandy.apps.pluto.shared.metrics.LatencyHistogram ;
+import com.sandy.apps.pluto.shared.metrics.MetricsRegistry ;
+
+/**
+ * This test case contains tests for the {@link MetricsRegistry} and its
+ * {@link Counter}s and {@link LatencyHistogram}s.
+ *
+ * @author Sandeep Deb [deb.sandeep@gmail.com]
+ */
+public class MetricsRegistryTestCase extends TestCase {
+
+    private final MetricsRegistry registry = new MetricsRegistry() ;
+
+    public void testMetricsAreCreatedOnce() throws Exception {
+        assertSame( this.registry.getCounter( "a" ), this.registry.getCounter( "a" ) ) ;
+        assertSame( this.registry.getHistogram( "b" ), this.registry.getHistogram( "b" ) ) ;
+    }
+
+    public void testCounter() throws Exception {
+        final Counter counter = this.registry.getCounter( "network.bytes" ) ;
+        counter.increment() ;
+        counter.add( 41 ) ;
+        assertEquals( 42, counter.getCount() ) ;
+    }
+
+    public void testSmallLatenciesAreExact() throws Exception {
+        final LatencyHistogram histogram = this.registry.getHistogram( "small" ) ;
+        for( int i=1; i<=10; i++ ) {
+            histogram.record( i ) ;
+        }
+        final MetricStats stats = histogram.getStats() ;
+        assertEquals( 10, stats.getCount() ) ;
+        assertEquals( 5,  stats.getMeanNanos() ) ;
+        assertEquals( 5,  stats.getP50Nanos() ) ;
+        assertEquals( 9,  stats.getP90Nanos() ) ;
+        assertEquals( 10, stats.getP99Nanos() ) ;
+        assertEquals( 10, stats.getMaxNanos() ) ;
+    }
+
+    public void testLargeLatenciesWithinRelativeError() throws Exception {
+        final LatencyHistogram histogram = this.registry.getHistogram( "large" ) ;
+        final long[] latencies = { 1000, 123456, 98765432, 3600000000000L } ;
+        for( final long latency : latencies ) {
+            histogram.record( 100 ) ;
+            histogram.record( latency ) ;
+
+            final long p99 = histogram.getStats().getP99Nanos() ;
+            assertTrue( p99 <= latency ) ;
+            assertTrue( latency - p99 <= latency/32 ) ;
+            assertEquals( latency, histogram.getStats().getMaxNanos() ) ;
+        }
+    }
+
+    public void testNegativeLatencyRecordedAsZero() throws Exception {
+        final LatencyHistogram histogram = this.registry.getHistogram( "negative" ) ;
+        histogram.record( -5 ) ;
+        assertEquals( 1, histogram.getCount() ) ;
+        assertEquals( 0, histogram.getStats().getMaxNanos() ) ;
+    }
+
+    public void testStatsSortedByName() throws Exception {
+        this.registry.getHistogram( "job.x" ).record( 10 ) ;
+        this.registry.getCounter( "dao.y" ).increment() ;
+
+        final List<MetricStats> stats = this.registry.getStats() ;
+        assertEquals( 2, stats.size() ) ;
+        assertEquals( "dao.y", stats.get( 0 ).getName() ) ;
+        assertFalse( stats.get( 0 ).isLatency() ) ;
+        assertEquals( "job.x", stats.get( 1 ).getName() ) ;
+        assertTrue( stats.get( 1 ).isLatency() ) ;
+    }
+
+    public void testReset() throws Exception {
+        final LatencyHistogram histogram = this.registry.getHistogram( "reset" ) ;
+        histogram.record( 1000 ) ;
+        this.registry.getCounter( "reset.count" ).increment() ;
+        this.registry.reset() ;
+
+        assertEquals( 0, histogram.getStats().getCount() ) ;
+        assertEquals( 0, this.registry.getCounter( "reset.count" ).getCount() ) ;
+        assertSame( histogram, this.registry.getHistogram( "reset" ) ) ;
+    }
+}
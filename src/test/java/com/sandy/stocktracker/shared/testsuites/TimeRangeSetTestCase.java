@@ -0,0 +1,86 @@
+/**
+ *
+ *
+ *
+ *
+ * Creation Date: Oct 18, 2026
+ */
+
+package com.sandy.stocktracker.shared.testsuites;
+
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import com.sandy.apps.pluto.shared.TimeRangeSet ;
+
+/**
+ * This test case contains tests for the {@link TimeRangeSet}.
+ *
+ * @author Sandeep Deb [deb.sandeep@gmail.com]
+ */
+public class TimeRangeSetTestCase extends TestCase {
+
+    private void assertGaps( final List<long[]> gaps, final long... bounds ) {
+        assertEquals( bounds.length/2, gaps.size() ) ;
+        for( int i=0; i<gaps.size(); i++ ) {
+            assertEquals( bounds[2*i],   gaps.get( i )[0] ) ;
+            assertEquals( bounds[2*i+1], gaps.get( i )[1] ) ;
+        }
+    }
+
+    public void testEmptySetHasOneGap() {
+        final TimeRangeSet set = new TimeRangeSet() ;
+        assertTrue( set.isEmpty() ) ;
+        assertGaps( set.getGaps( 10, 20 ), 10, 20 ) ;
+    }
+
+    public void testCoveredSpanHasNoGaps() {
+        final TimeRangeSet set = new TimeRangeSet() ;
+        set.add( 10, 50 ) ;
+        assertTrue( set.covers( 10, 50 ) ) ;
+        assertTrue( set.covers( 20, 30 ) ) ;
+        assertFalse( set.covers( 5, 30 ) ) ;
+        assertFalse( set.covers( 40, 51 ) ) ;
+    }
+
+    public void testGapsAroundAndBetweenSpans() {
+        final TimeRangeSet set = new TimeRangeSet() ;
+        set.add( 10, 20 ) ;
+        set.add( 30, 40 ) ;
+        assertGaps( set.getGaps( 0, 50 ), 0, 10, 20, 30, 40, 50 ) ;
+        assertGaps( set.getGaps( 15, 35 ), 20, 30 ) ;
+        assertGaps( set.getGaps( 20, 30 ), 20, 30 ) ;
+    }
+
+    public void testOverlappingAndAdjacentSpansAreMerged() {
+        final TimeRangeSet set = new TimeRangeSet() ;
+        set.add( 10, 20 ) ;
+        set.add( 30, 40 ) ;
+        set.add( 50, 60 ) ;
+
+        // Bridges the first two spans and touches the third.
+        set.add( 15, 50 ) ;
+        assertTrue( set.covers( 10, 60 ) ) ;
+        assertEquals( "{10=60}", set.toString() ) ;
+
+        // Entirely within an existing span.
+        set.add( 20, 30 ) ;
+        assertEquals( "{10=60}", set.toString() ) ;
+
+        // Extends the span on the left.
+        set.add( 5, 10 ) ;
+        assertEquals( "{5=60}", set.toString() ) ;
+    }
+
+    public void testEmptySpanIsIgnored() {
+        final TimeRangeSet set = new TimeRangeSet() ;
+        set.add( 10, 10 ) ;
+        set.add( 20, 15 ) ;
+        assertTrue( set.isEmpty() ) ;
+
+        set.add( 10, 20 ) ;
+        set.clear() ;
+        assertTrue( set.isEmpty() ) ;
+    }
+}
@@ -0,0 +1,131 @@
+/**
+ *
+ *
+ *
+ *
+ * Creation Date: Oct 18, 2026
+ */
+
+package com.sandy.stocktracker.test.poc;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FilenameFilter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.StringTokenizer;
+
+import org.apache.log4j.Logger;
+
+import com.sandy.apps.pluto.biz.dao.IEODIndexDAO ;
+import com.sandy.apps.pluto.biz.svc.IEODImportSvc ;
+import com.sandy.apps.pluto.biz.svc.IJobSvc ;
+import com.sandy.apps.pluto.shared.ServiceMgr ;
+import com.sandy.apps.pluto.shared.dto.ScripEOD ;
+import com.sandy.apps.pluto.shared.util.bootstrap.Bootstrap ;
+import com.sandy.apps.pluto.shared.util.util.BizObjectFactory ;
+
+/**
+ * A POC benchmark which compares the per file bhavcopy import path against
+ * the bulk import path, over the bhavcopy files in the HISTORIC_EOD directory.
+ * The EOD records of the files are deleted before each run, hence this should
+ * only be run against a development database.
+ *
+ * @author Sandeep Deb [deb.sandeep@gmail.com]
+ */
+public class BhavcopyBulkImportTest {
+
+    /** Log4J logger for this class. */
+    public static final Logger logger = Logger.getLogger( BhavcopyBulkImportTest.class ) ;
+
+    static BizObjectFactory OF = null ;
+
+    private final List<File> files = new ArrayList<File>() ;
+
+    public BhavcopyBulkImportTest( final File dir ) {
+        final File[] csvFiles = dir.listFiles( new FilenameFilter() {
+            public boolean accept( final File dir, final String name ) {
+                return name.startsWith( "BHAVCOPY_" ) && name.endsWith( ".csv" ) ;
+            }
+        } ) ;
+        this.files.addAll( Arrays.asList( csvFiles ) ) ;
+    }
+
+    public void test() throws Exception {
+
+        final IEODIndexDAO  dao    = ( IEODIndexDAO )OF.getBean( "EODIndexDAO" ) ;
+        final IEODImportSvc eodSvc = ServiceMgr.getEODImportSvc() ;
+
+        // Per file path - parse and insert one bhavcopy at a time
+        deleteRecords( dao ) ;
+        long time = System.currentTimeMillis() ;
+        int numInserted = 0 ;
+        for( final File file : this.files ) {
+            numInserted += dao.insert( parse( file ) ) ;
+        }
+        final long perFileTime = System.currentTimeMillis() - time ;
+        logger.debug( "Per file import : " + numInserted + " records in " + perFileTime + " ms" ) ;
+
+        // Bulk path - stage all the bhavcopies and merge once
+        deleteRecords( dao ) ;
+        time = System.currentTimeMillis() ;
+        numInserted = eodSvc.importBhavcopyFiles( this.files ) ;
+        final long bulkTime = System.currentTimeMillis() - time ;
+        logger.debug( "Bulk import     : " + numInserted + " records in " + bulkTime + " ms" ) ;
+
+        logger.debug( "Speedup = " + ( ( double )perFileTime / Math.max( 1, bulkTime ) ) ) ;
+    }
+
+    private void deleteRecords( final IEODIndexDAO dao ) throws Exception {
+        for( final File file : this.files ) {
+            dao.delete( parse( file ) ) ;
+        }
+    }
+
+    private List<ScripEOD> parse( final File file ) throws Exception {
+
+        final List<ScripEOD> eodList = new ArrayList<ScripEOD>() ;
+        final BufferedReader reader = new BufferedReader( new FileReader( file ) ) ;
+        try {
+            String line = reader.readLine() ;
+            while( ( line = reader.readLine() ) != null ) {
+                final StringTokenizer tokenizer = new StringTokenizer( line, "," ) ;
+                final ScripEOD eod = new ScripEOD() ;
+                eod.setSymbolId( tokenizer.nextToken() ) ;
+                tokenizer.nextToken() ;
+                eod.setOpeningPrice( Double.parseDouble( tokenizer.nextToken() ) ) ;
+                eod.setHighestPrice( Double.parseDouble( tokenizer.nextToken() ) ) ;
+                eod.setLowestPrice( Double.parseDouble( tokenizer.nextToken() ) ) ;
+                eod.setClosingPrice( Double.parseDouble( tokenizer.nextToken() ) ) ;
+                tokenizer.nextToken() ;
+                eod.setPrevClosePrice( Double.parseDouble( tokenizer.nextToken() ) ) ;
+                eod.setTotalTradeQty( Long.parseLong( tokenizer.nextToken() ) ) ;
+                tokenizer.nextToken() ;
+                eod.setDate( IEODImportSvc.NSE_CSV_DF.parse( tokenizer.nextToken() ) ) ;
+                eodList.add( eod ) ;
+            }
+        }
+        finally {
+            reader.close() ;
+        }
+        return eodList ;
+    }
+
+    public static void main( final String[] args )
+        throws Exception {
+
+        final String cfgPath = "/com/sandy/stocktracker/bootstrap-config.xml" ;
+        new Bootstrap().initialize( BhavcopyBulkImportTest.class.getResource( cfgPath ) ) ;
+        OF = ( BizObjectFactory )BizObjectFactory.getInstance() ;
+
+        final String dir = ( args.length > 0 ) ? args[0] : "HISTORIC_EOD" ;
+        try {
+            new BhavcopyBulkImportTest( new File( dir ) ).test() ;
+        }
+        finally {
+            final IJobSvc svc = ServiceMgr.getJobSvc() ;
+            svc.shutdownScheduler() ;
+        }
+    }
+}
@@ -0,0 +1,214 @@
+/**
+ *
+ *
+ *
+ *
+ * Creation Date: Oct 18, 2026
+ */
+
+package com.sandy.stocktracker.test.poc;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.log4j.Logger;
+
+import com.sandy.apps.pluto.biz.svc.IAsyncNetworkSvc ;
+import com.sandy.apps.pluto.biz.svc.IUserPreferenceSvc ;
+import com.sandy.apps.pluto.biz.svc.impl.AsyncNetworkSvc ;
+import com.sandy.apps.pluto.biz.svc.impl.NetworkSvc ;
+import com.sun.net.httpserver.HttpExchange ;
+import com.sun.net.httpserver.HttpHandler ;
+import com.sun.net.httpserver.HttpServer ;
+
+/**
+ * A POC load test which compares the blocking {@link NetworkSvc} against the
+ * {@link AsyncNetworkSvc}. A local HTTP server replays the recorded scrapper
+ * page with an artificial latency, and drops every tenth request without a
+ * response.
+ *
+ * @author Sandeep Deb [deb.sandeep@gmail.com]
+ */
+public class NetworkSvcLoadTest {
+
+    /** Log4J logger for this class. */
+    public static final Logger logger = Logger.getLogger( NetworkSvcLoadTest.class ) ;
+
+    private static final String PAGE = "/com/sandy/stocktracker/test/poc/scrapper/sample.html" ;
+
+    private static final int NUM_REQUESTS = 1000 ;
+    private static final int CONCURRENCY  = 20 ;
+    private static final int LATENCY_MS   = 50 ;
+
+    private final AtomicInteger numServed = new AtomicInteger() ;
+    private HttpServer server = null ;
+    private String url = null ;
+
+    public void startServer() throws Exception {
+
+        final byte[] page = readPage() ;
+        this.server = HttpServer.create( new InetSocketAddress( "localhost", 0 ), 100 ) ;
+        this.server.createContext( "/", new HttpHandler() {
+            public void handle( final HttpExchange exchange ) throws IOException {
+                try {
+                    Thread.sleep( LATENCY_MS ) ;
+                }
+                catch ( final InterruptedException e ) { /* Ignore */ }
+
+                if( NetworkSvcLoadTest.this.numServed.incrementAndGet() % 10 == 0 ) {
+                    exchange.close() ;
+                    return ;
+                }
+                exchange.sendResponseHeaders( 200, page.length ) ;
+                final OutputStream os = exchange.getResponseBody() ;
+                os.write( page ) ;
+                os.close() ;
+            }
+        } ) ;
+        // Start the server threads upfront, such that they are not counted
+        // against the network services
+        final ThreadPoolExecutor executor = ( ThreadPoolExecutor )Executors.newFixedThreadPool( 2*CONCURRENCY ) ;
+        executor.prestartAllCoreThreads() ;
+        this.server.setExecutor( executor ) ;
+        this.server.start() ;
+        this.url = "http://localhost:" + this.server.getAddress().getPort() + "/quote" ;
+    }
+
+    /** Each request is made by a caller thread, which waits out the retrials. */
+    public void testBlocking( final NetworkSvc svc ) throws Exception {
+
+        final ThreadMXBean threads = ManagementFactory.getThreadMXBean() ;
+        final int baseThreads = threads.getThreadCount() ;
+        threads.resetPeakThreadCount() ;
+
+        final AtomicInteger numFailed = new AtomicInteger() ;
+        final AtomicInteger nextRequest = new AtomicInteger() ;
+        final CountDownLatch latch = new CountDownLatch( CONCURRENCY ) ;
+        final long time = System.currentTimeMillis() ;
+        for( int i=0; i<CONCURRENCY; i++ ) {
+            new Thread() {
+                public void run() {
+                    while( nextRequest.incrementAndGet() <= NUM_REQUESTS ) {
+                        try {
+                            svc.getRawGETResult( NetworkSvcLoadTest.this.url ) ;
+                        }
+                        catch ( final Exception e ) {
+                            numFailed.incrementAndGet() ;
+                        }
+                    }
+                    latch.countDown() ;
+                }
+            }.start() ;
+        }
+        latch.await() ;
+        report( "Blocking", System.currentTimeMillis() - time, numFailed.get(),
+                threads.getPeakThreadCount() - baseThreads ) ;
+    }
+
+    /** All the requests are submitted by one thread. */
+    public void testAsync( final IAsyncNetworkSvc svc ) throws Exception {
+
+        final ThreadMXBean threads = ManagementFactory.getThreadMXBean() ;
+        final int baseThreads = threads.getThreadCount() ;
+        threads.resetPeakThreadCount() ;
+
+        int numFailed = 0 ;
+        final long time = System.currentTimeMillis() ;
+        final List<Future<byte[]>> futures = new ArrayList<Future<byte[]>>() ;
+        for( int i=0; i<NUM_REQUESTS; i++ ) {
+            futures.add( svc.getRawGETResultAsync( this.url, null, null ) ) ;
+        }
+        for( final Future<byte[]> future : futures ) {
+            try {
+                future.get() ;
+            }
+            catch ( final Exception e ) {
+                numFailed++ ;
+            }
+        }
+        report( "Async", System.currentTimeMillis() - time, numFailed,
+                threads.getPeakThreadCount() - baseThreads ) ;
+    }
+
+    private void report( final String name, final long millis, final int numFailed,
+                         final int numThreads ) {
+        logger.debug( name + " : " + NUM_REQUESTS + " requests in " + millis + " ms, " +
+                      ( NUM_REQUESTS*1000L/Math.max( 1, millis ) ) + " req/s, " +
+                      numFailed + " failed, " + numThreads + " additional threads" ) ;
+    }
+
+    private byte[] readPage() throws IOException {
+        final InputStream is = NetworkSvcLoadTest.class.getResourceAsStream( PAGE ) ;
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream() ;
+        try {
+            final byte[] buffer = new byte[4096] ;
+            int numRead = 0 ;
+            while( ( numRead = is.read( buffer ) ) != -1 ) {
+                bos.write( buffer, 0, numRead ) ;
+            }
+        }
+        finally {
+            is.close() ;
+        }
+        return bos.toByteArray() ;
+    }
+
+    /** A user preference service which returns the default values. */
+    private static IUserPreferenceSvc getDefaultPrefSvc() {
+        return new IUserPreferenceSvc() {
+            public String getUserPref( final String key, final String defaultValue ) {
+                return defaultValue ;
+            }
+            public int getInt( final String key, final int defaultValue ) {
+                return defaultValue ;
+            }
+            public boolean getBoolean( final String key, final boolean defaultValue ) {
+                return defaultValue ;
+            }
+            public Date getDate( final String key, final Date defaultValue ) {
+                return defaultValue ;
+            }
+            public void saveUserPreferences( final Map<String, String> preferences ) {
+            }
+            public Map<String, String> loadUserPreferences() {
+                return null ;
+            }
+        } ;
+    }
+
+    public static void main( final String[] args )
+        throws Exception {
+
+        final NetworkSvcLoadTest test = new NetworkSvcLoadTest() ;
+        test.startServer() ;
+        try {
+            final NetworkSvc blockingSvc = new NetworkSvc() ;
+            blockingSvc.setUserPrefSvc( getDefaultPrefSvc() ) ;
+            blockingSvc.initialize() ;
+            test.testBlocking( blockingSvc ) ;
+
+            final AsyncNetworkSvc asyncSvc = new AsyncNetworkSvc() ;
+            asyncSvc.setUserPrefSvc( getDefaultPrefSvc() ) ;
+            asyncSvc.setMaxConcurrentRequests( CONCURRENCY ) ;
+            asyncSvc.initialize() ;
+            test.testAsync( asyncSvc ) ;
+        }
+        finally {
+            test.server.stop( 0 ) ;
+            System.exit( 0 ) ;
+        }
+    }
+}
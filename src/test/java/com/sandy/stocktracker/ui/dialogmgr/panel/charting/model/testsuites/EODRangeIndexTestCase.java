@@ -0,0 +1,144 @@
+/**
+ *
+ *
+ *
+ *
+ * Creation Date: Oct 18, 2026
+ */
+
+package com.sandy.stocktracker.ui.dialogmgr.panel.charting.model.testsuites;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+import com.sandy.apps.pluto.shared.ITDTickSeries ;
+import com.sandy.apps.pluto.ui.dialogmgr.panel.charting.model.EODRangeIndex ;
+import com.sandy.apps.pluto.ui.dialogmgr.panel.charting.model.EODValue ;
+import com.sandy.apps.pluto.ui.dialogmgr.panel.charting.model.EODRangeIndex.ValueRange ;
+
+/**
+ * This test case contains tests for the {@link EODRangeIndex}, comparing the
+ * answers of the index with a scan of the EOD values.
+ *
+ * @author Sandeep Deb [deb.sandeep@gmail.com]
+ */
+public class EODRangeIndexTestCase extends TestCase {
+
+    private static final long DAY_MILLIS = 24*60*60*1000L ;
+
+    private final Random random = new Random( 0 ) ;
+
+    private List<EODValue> createValues( final int numDays ) {
+        final List<EODValue> values = new ArrayList<EODValue>() ;
+        for( int i=0; i<numDays; i++ ) {
+            final EODValue value = new EODValue( new Date( i*DAY_MILLIS ) ) ;
+            setRandomValues( value ) ;
+            values.add( value ) ;
+        }
+        return values ;
+    }
+
+    private void setRandomValues( final EODValue value ) {
+        final float low = 50 + this.random.nextFloat()*100 ;
+        value.setLow( low ) ;
+        value.setHigh( low + this.random.nextFloat()*10 ) ;
+        value.setPrevClose( low + this.random.nextFloat()*10 ) ;
+        value.setVolume( this.random.nextInt( 100000 ) ) ;
+    }
+
+    private void assertRange( final EODRangeIndex index, final List<EODValue> values,
+                              final int from, final int to ) {
+
+        float low = Float.MAX_VALUE, high = -Float.MAX_VALUE ;
+        float minPrev = Float.MAX_VALUE, maxPrev = -Float.MAX_VALUE ;
+        long  volume = Long.MIN_VALUE ;
+        for( int i=from; i<=to; i++ ) {
+            final EODValue value = values.get( i ) ;
+            low     = Math.min( low,     value.getLow() ) ;
+            high    = Math.max( high,    value.getHigh() ) ;
+            minPrev = Math.min( minPrev, value.getPrevClose() ) ;
+            maxPrev = Math.max( maxPrev, value.getPrevClose() ) ;
+            volume  = Math.max( volume,  value.getVolume() ) ;
+        }
+
+        final ValueRange range = index.query( new Date( from*DAY_MILLIS ),
+                                              new Date( to*DAY_MILLIS + 1000 ) ) ;
+        assertEquals( low,     range.getLow(),  0 ) ;
+        assertEquals( high,    range.getHigh(), 0 ) ;
+        assertEquals( minPrev, range.getMinPrevClose(), 0 ) ;
+        assertEquals( maxPrev, range.getMaxPrevClose(), 0 ) ;
+        assertEquals( volume,  range.getMaxVolume() ) ;
+        assertEquals( values.get( from ).getPrevClose(), range.getBasePrevClose(), 0 ) ;
+    }
+
+    public void testQueriesMatchScan() {
+        for( final int numDays : new int[] { 1, 2, 7, 64, 250 } ) {
+            final List<EODValue> values = createValues( numDays ) ;
+            final EODRangeIndex index = new EODRangeIndex() ;
+            index.rebuild( values ) ;
+            for( int from=0; from<numDays; from++ ) {
+                for( int to=from; to<numDays; to++ ) {
+                    assertRange( index, values, from, to ) ;
+                }
+            }
+        }
+    }
+
+    public void testWindowOutsideValuesIsEmpty() {
+        final List<EODValue> values = createValues( 10 ) ;
+        final EODRangeIndex index = new EODRangeIndex() ;
+        index.rebuild( values ) ;
+        assertNull( index.query( new Date( 20*DAY_MILLIS ), new Date( 30*DAY_MILLIS ) ) ) ;
+        assertNull( index.query( new Date( -5*DAY_MILLIS ), new Date( -DAY_MILLIS ) ) ) ;
+
+        index.rebuild( new ArrayList<EODValue>() ) ;
+        assertNull( index.query( new Date( 0 ), new Date( 30*DAY_MILLIS ) ) ) ;
+    }
+
+    public void testUpdateOfADay() {
+        final List<EODValue> values = createValues( 100 ) ;
+        final EODRangeIndex index = new EODRangeIndex() ;
+        index.rebuild( values ) ;
+
+        for( int i=0; i<50; i++ ) {
+            final int day = this.random.nextInt( values.size() ) ;
+            setRandomValues( values.get( day ) ) ;
+            assertTrue( index.update( values.get( day ).getDate(), values.get( day ) ) ) ;
+            assertRange( index, values, 0, values.size()-1 ) ;
+            assertRange( index, values, day/2, day ) ;
+        }
+
+        // A day which is not indexed, or is indexed with another EOD value.
+        assertFalse( index.update( new Date( 500*DAY_MILLIS ), values.get( 0 ) ) ) ;
+        assertFalse( index.update( values.get( 1 ).getDate(),
+                                   new EODValue( values.get( 1 ).getDate() ) ) ) ;
+    }
+
+    public void testITDVolumeDifferences() {
+        final EODValue value = new EODValue( new Date( 0 ), true ) ;
+        final ITDTickSeries series = value.getITDSeries() ;
+
+        // The first volume is skipped, the largest difference is 300.
+        series.add( 1000, 10, 100 ) ;
+        series.add( 2000, 10, 200 ) ;
+        series.add( 3000, 10, 500 ) ;
+        series.add( 4000, 10, 600 ) ;
+
+        // A long run of interpolated ticks followed by a huge volume, which
+        // is not drawn as a difference.
+        for( int i=0; i<20; i++ ) {
+            series.add( 5000 + i*1000, 10, ITDTickSeries.NO_VOLUME ) ;
+        }
+        series.add( 30000, 10, 100000 ) ;
+
+        final List<EODValue> values = new ArrayList<EODValue>() ;
+        values.add( value ) ;
+        final EODRangeIndex index = new EODRangeIndex() ;
+        index.rebuild( values ) ;
+        assertEquals( 300, index.query( new Date( 0 ), new Date( 1000 ) ).getMaxITDVolume() ) ;
+    }
+}